@@ -0,0 +1,56 @@
+package com.aireview.engine.bench;
+
+import com.aireview.engine.agent.AgentConfigCache;
+import com.aireview.engine.checklist.Checklist;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The security agent's checklist: parsing and validating it, which happens once per file
+ * version, against the per-call lookup of its compiled prompt fragment.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ChecklistBenchmark {
+
+    private Path file;
+    private AgentConfigCache configCache;
+    private Set<String> handled;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = SyntheticDiff.repoRoot().resolve(".ai/agents/security/checklist.yaml");
+        configCache = new AgentConfigCache();
+        configCache.checklist(file);
+        handled = Set.of("hardcoded-secret");
+    }
+
+    @Benchmark
+    public Checklist load() throws IOException {
+        return Checklist.load(file);
+    }
+
+    /** What each agent call does: a revalidated cache lookup and the rules left for the model. */
+    @Benchmark
+    public String lookup() throws IOException {
+        return configCache.checklist(file).prompt(handled);
+    }
+}
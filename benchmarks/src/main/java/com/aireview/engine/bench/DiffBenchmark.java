@@ -0,0 +1,54 @@
+package com.aireview.engine.bench;
+
+import com.aireview.engine.EngineConfig;
+import com.aireview.engine.diff.DiffChunk;
+import com.aireview.engine.diff.DiffChunker;
+import com.aireview.engine.diff.DiffHunk;
+import com.aireview.engine.diff.DiffParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Diff parsing and hunk-aligned chunking, the stages after {@code git diff --cached}. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class DiffBenchmark {
+
+    @Param({"1KB", "64KB", "1MB", "10MB", "50MB"})
+    public String size;
+
+    private String diff;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        diff = SyntheticDiff.ofSize(size).text();
+    }
+
+    @Benchmark
+    public List<DiffHunk> parse() {
+        return DiffParser.parse(diff);
+    }
+
+    @Benchmark
+    public List<DiffChunk> chunk() throws IOException {
+        return DiffChunker.chunk(new StringReader(diff), EngineConfig.DEFAULT_MAX_DIFF_SIZE);
+    }
+}
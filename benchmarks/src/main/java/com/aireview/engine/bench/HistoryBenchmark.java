@@ -0,0 +1,109 @@
+package com.aireview.engine.bench;
+
+import com.aireview.engine.history.HistoryEntry;
+import com.aireview.engine.history.HistoryQuery;
+import com.aireview.engine.history.ReviewHistory;
+import com.aireview.engine.report.Issue;
+import com.aireview.engine.report.Severity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Queries of the review history over 10 thousand to 1 million stored issues, 50 per review,
+ * spread over 8 rules, 3 severities and 40 packages.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class HistoryBenchmark {
+
+    private static final int ISSUES_PER_REVIEW = 50;
+    private static final List<String> RULES = List.of("sql-injection", "hardcoded-secret", "npe-risk",
+            "class-naming", "thread-safety", "path-traversal", "xxe", "empty-catch");
+
+    @Param({"10000", "100000", "1000000"})
+    public int issues;
+
+    private Path dir;
+    private ReviewHistory history;
+    private HistoryQuery selective;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("ai-review-history-bench");
+        history = ReviewHistory.shared(dir);
+        Random random = new Random(42);
+        for (int review = 0; review < issues / ISSUES_PER_REVIEW; review++) {
+            List<Issue> found = new ArrayList<>(ISSUES_PER_REVIEW);
+            for (int i = 0; i < ISSUES_PER_REVIEW; i++) {
+                String file = "src/" + (random.nextBoolean() ? "main" : "test") + "/java/com/acme/pkg"
+                        + random.nextInt(40) + "/Type" + random.nextInt(500) + ".java";
+                found.add(new Issue(RULES.get(random.nextInt(RULES.size())),
+                        Severity.values()[random.nextInt(Severity.values().length)], "security", file,
+                        Integer.toString(1 + random.nextInt(900)), "Finding " + i + " of review " + review, "HIGH"));
+            }
+            history.append(String.format("%040x", review / 3), 5, found);
+        }
+        // "all sql-injection BLOCKs of the last 30 days under a path prefix"
+        selective = new HistoryQuery(Instant.now().minus(Duration.ofDays(30)), null, null,
+                "src/main/java/com/acme/pkg7/", "sql-injection", Severity.BLOCK);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /** The newest 50 matches, with their messages read from the segments. */
+    @Benchmark
+    public List<HistoryEntry> findSelective() throws IOException {
+        return history.find(selective, 50);
+    }
+
+    @Benchmark
+    public long countSelective() throws IOException {
+        return history.count(selective);
+    }
+
+    /** A dashboard series: issues per day over the whole history. */
+    @Benchmark
+    public Map<String, Long> countPerDay() throws IOException {
+        return history.countBy(HistoryQuery.ALL, ReviewHistory.Group.DAY);
+    }
+
+    @Benchmark
+    public Map<String, Long> countPerRule() throws IOException {
+        return history.countBy(HistoryQuery.ALL, ReviewHistory.Group.RULE);
+    }
+}
@@ -0,0 +1,98 @@
+package com.aireview.engine.bench;
+
+import com.aireview.engine.check.CommandInjectionChecker;
+import com.aireview.engine.check.DeserializationChecker;
+import com.aireview.engine.check.InsecureRandomChecker;
+import com.aireview.engine.check.JavaFiles;
+import com.aireview.engine.check.NamingChecker;
+import com.aireview.engine.check.PathTraversalChecker;
+import com.aireview.engine.check.SecretScanner;
+import com.aireview.engine.check.SqlInjectionChecker;
+import com.aireview.engine.check.StagedSources;
+import com.aireview.engine.check.XxeChecker;
+import com.aireview.engine.diff.DiffHunk;
+import com.aireview.engine.diff.DiffParser;
+import com.aireview.engine.report.Issue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** The checks that run before any model call: secret scanning, the naming checker and the security detectors. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class LocalCheckBenchmark {
+
+    @Param({"1KB", "64KB", "1MB", "10MB", "50MB"})
+    public String size;
+
+    private final SecretScanner secrets = new SecretScanner();
+    private List<DiffHunk> hunks;
+    private StagedSources sources;
+    /** Already parsed, so the security check benchmarks measure the analysis alone. */
+    private final JavaFiles parsed = new JavaFiles();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticDiff diff = SyntheticDiff.ofSize(size);
+        hunks = DiffParser.parse(diff.text());
+        sources = diff.files()::get;
+        parsed.parse(hunks.stream().map(DiffHunk::path).distinct().toList(), sources);
+    }
+
+    @Benchmark
+    public List<Issue> secretScan() {
+        return secrets.check(hunks, sources);
+    }
+
+    /** A fresh checker each time: a checker keeps the files it has parsed for the rest of a review. */
+    @Benchmark
+    public List<Issue> namingCheck() {
+        return new NamingChecker().check(hunks, sources);
+    }
+
+    @Benchmark
+    public List<Issue> sqlInjectionCheck() {
+        return new SqlInjectionChecker(parsed).check(hunks, sources);
+    }
+
+    @Benchmark
+    public List<Issue> commandInjectionCheck() {
+        return new CommandInjectionChecker(parsed).check(hunks, sources);
+    }
+
+    @Benchmark
+    public List<Issue> pathTraversalCheck() {
+        return new PathTraversalChecker(parsed).check(hunks, sources);
+    }
+
+    @Benchmark
+    public List<Issue> xxeCheck() {
+        return new XxeChecker(parsed).check(hunks, sources);
+    }
+
+    @Benchmark
+    public List<Issue> deserializationCheck() {
+        return new DeserializationChecker(parsed).check(hunks, sources);
+    }
+
+    @Benchmark
+    public List<Issue> insecureRandomCheck() {
+        return new InsecureRandomChecker(parsed).check(hunks, sources);
+    }
+}
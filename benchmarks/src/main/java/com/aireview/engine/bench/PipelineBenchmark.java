@@ -0,0 +1,104 @@
+package com.aireview.engine.bench;
+
+import com.aireview.engine.Console;
+import com.aireview.engine.EngineConfig;
+import com.aireview.engine.ReviewEngine;
+import com.aireview.engine.StagedReview;
+import com.aireview.engine.agent.AgentConfigCache;
+import com.aireview.engine.model.ModelClients;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * A whole review (chunking, local checks, three agents, summarizer, decision) against the
+ * in-process fake model, in reviews per minute. Run it with {@code -t} threads to see how
+ * the orchestrator holds up under concurrent hooks; {@code latency} takes any
+ * {@code AI_REVIEW_FAKE_LATENCY} value and {@code errors} any {@code AI_REVIEW_FAKE_ERRORS}.
+ * The synthetic diffs hold hardcoded secrets, so cancellation on BLOCK is off: otherwise
+ * the local checks would decide every review before a model call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MINUTES)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class PipelineBenchmark {
+
+    @Param({"64KB", "1MB"})
+    public String size;
+
+    @Param({"0", "lognormal:200,1500"})
+    public String latency;
+
+    @Param({""})
+    public String errors;
+
+    private Path repo;
+    private ReviewEngine engine;
+    private StagedReview staged;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        SyntheticDiff diff = SyntheticDiff.ofSize(size);
+        repo = Files.createTempDirectory("ai-review-bench");
+        Path agents = SyntheticDiff.repoRoot().resolve(".ai/agents");
+        try (Stream<Path> paths = Files.walk(agents)) {
+            for (Path path : paths.toList()) {
+                Path target = repo.resolve(".ai/agents").resolve(agents.relativize(path).toString());
+                if (Files.isDirectory(path)) {
+                    Files.createDirectories(target);
+                } else {
+                    Files.copy(path, target);
+                }
+            }
+        }
+        EngineConfig config = EngineConfig.fromEnvironment(repo, Map.of(
+                "AI_REVIEW_MODEL_CLIENT", "fake",
+                "AI_REVIEW_FAKE_LATENCY", latency,
+                "AI_REVIEW_FAKE_ERRORS", errors,
+                "AI_REVIEW_CACHE", "false",
+                "AI_REVIEW_CANCEL_ON_BLOCK", "false",
+                "SKIP_SENSITIVE_CHECK", "true"), false);
+        Console console = new Console(new PrintStream(OutputStream.nullOutputStream(), false, StandardCharsets.UTF_8), false);
+        engine = new ReviewEngine(config, ModelClients.create(config), new AgentConfigCache(), console, null);
+        staged = new StagedReview(List.copyOf(diff.files().keySet()), diff.text(), ReviewEngine.ALLOW);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(repo)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public int review() throws IOException, InterruptedException {
+        return engine.review(staged);
+    }
+}
@@ -0,0 +1,71 @@
+package com.aireview.engine.bench;
+
+import com.aireview.engine.EngineConfig;
+import com.aireview.engine.checklist.Checklist;
+import com.aireview.engine.diff.DiffChunk;
+import com.aireview.engine.diff.DiffChunker;
+import com.aireview.engine.prompt.PromptTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prompt rendering, which replaced the {@code awk} substitution of {@code {checklist}} and
+ * {@code {diff}}, with the security agent's prompt and checklist.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class PromptBenchmark {
+
+    @Param({"1KB", "64KB", "1MB", "10MB", "50MB"})
+    public String size;
+
+    private String checklist;
+    private PromptTemplate template;
+    private String diff;
+    private List<DiffChunk> chunks;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path agent = SyntheticDiff.repoRoot().resolve(".ai/agents/security");
+        checklist = Checklist.load(agent.resolve("checklist.yaml")).prompt();
+        template = PromptTemplate.load(agent.resolve("prompt.txt"));
+        diff = SyntheticDiff.ofSize(size).text();
+        chunks = DiffChunker.chunk(new StringReader(diff), EngineConfig.DEFAULT_MAX_DIFF_SIZE);
+    }
+
+    /** What the engine sends: one prompt per chunk. */
+    @Benchmark
+    public void renderChunks(Blackhole blackhole) {
+        for (DiffChunk chunk : chunks) {
+            blackhole.consume(template.render(Map.of("checklist", checklist, "diff", chunk.text())));
+        }
+    }
+
+    /** One prompt over the whole diff, as the hooks rendered it before chunking. */
+    @Benchmark
+    public String renderWhole() {
+        return template.render(Map.of("checklist", checklist, "diff", diff));
+    }
+}
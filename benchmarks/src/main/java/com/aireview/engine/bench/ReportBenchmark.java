@@ -0,0 +1,101 @@
+package com.aireview.engine.bench;
+
+import com.aireview.engine.EngineConfig;
+import com.aireview.engine.agent.AgentReport;
+import com.aireview.engine.agent.LocalSummarizer;
+import com.aireview.engine.diff.DiffHunk;
+import com.aireview.engine.diff.DiffParser;
+import com.aireview.engine.json.Json;
+import com.aireview.engine.report.ReportParser;
+import com.aireview.engine.report.ReportParser.ParsedReport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Agent output parsing, summarizer deduplication and rendering of {@code last_review.json}.
+ * Agent answers carry one issue per 25 added lines of the diff, so their size grows with it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ReportBenchmark {
+
+    private static final List<String> AGENTS = EngineConfig.DEFAULT_AGENTS;
+
+    @Param({"1KB", "64KB", "1MB", "10MB", "50MB"})
+    public String size;
+
+    private Path repo;
+    private LocalSummarizer summarizer;
+    private String securityOutput;
+    private List<AgentReport> reports;
+    private List<String> files;
+    private Map<String, Object> finalReport;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        SyntheticDiff diff = SyntheticDiff.ofSize(size);
+        List<DiffHunk> hunks = DiffParser.parse(diff.text());
+        reports = new ArrayList<>();
+        for (String agent : AGENTS) {
+            String output = SyntheticDiff.agentOutput(agent, hunks);
+            if (agent.equals("security")) {
+                securityOutput = output;
+            }
+            reports.add(new AgentReport(agent, output, true, ReportParser.parse(output, agent)));
+        }
+        files = List.copyOf(diff.files().keySet());
+        repo = Files.createTempDirectory("ai-review-bench");
+        summarizer = new LocalSummarizer(EngineConfig.fromEnvironment(repo, Map.of(), false));
+        finalReport = ReportParser.parse(summarizer.summarize(reports, files), "summarizer").json();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(repo)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public ParsedReport parseAgentOutput() {
+        return ReportParser.parse(securityOutput, "security");
+    }
+
+    /** Deduplication across the three agents, rendering and writing {@code last_review.json}. */
+    @Benchmark
+    public String summarize() throws IOException {
+        return summarizer.summarize(reports, files);
+    }
+
+    @Benchmark
+    public String renderReport() {
+        return Json.write(finalReport);
+    }
+}
@@ -0,0 +1,180 @@
+package com.aireview.engine.bench;
+
+import com.aireview.engine.diff.AddedLine;
+import com.aireview.engine.diff.DiffHunk;
+import com.aireview.engine.json.Json;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * A {@code git diff --cached} of a given size, built from copies of {@code examples/*.java}.
+ * Even copies are added files; odd copies are modified files with one changed line in ten,
+ * so the diff has context and removed lines as well as added ones. Each copy gets its own
+ * path and class name, as in a commit touching many files.
+ *
+ * @param text  the unified diff, at least the requested size
+ * @param files staged content of every file in the diff, by path
+ */
+record SyntheticDiff(String text, Map<String, String> files) {
+
+    /** One in this many added lines carries an issue in {@link #agentOutput}. */
+    private static final int ISSUE_EVERY = 25;
+
+    /** Builds a diff of at least {@code bytes} bytes; sizes read like {@code 64KB} or {@code 50MB}. */
+    static SyntheticDiff ofSize(String size) {
+        return ofSize(bytes(size));
+    }
+
+    static SyntheticDiff ofSize(int bytes) {
+        List<Example> examples = examples();
+        StringBuilder diff = new StringBuilder(bytes + 4096);
+        Map<String, String> files = new HashMap<>();
+        for (int copy = 0; diff.length() < bytes; copy++) {
+            Example example = examples.get(copy % examples.size());
+            String name = example.className() + copy;
+            String path = "src/main/java/gen" + copy / examples.size() + "/" + name + ".java";
+            String source = example.source().replace(example.className(), name);
+            files.put(path, source);
+            appendFile(diff, path, source.split("\n", -1), copy % 2 == 1);
+        }
+        return new SyntheticDiff(diff.toString(), files);
+    }
+
+    /** Parses sizes such as {@code 1KB}, {@code 64KB}, {@code 1MB} or {@code 50MB}. */
+    static int bytes(String size) {
+        String value = size.trim().toUpperCase(Locale.ROOT);
+        if (value.endsWith("MB")) {
+            return Integer.parseInt(value.substring(0, value.length() - 2)) * 1024 * 1024;
+        }
+        if (value.endsWith("KB")) {
+            return Integer.parseInt(value.substring(0, value.length() - 2)) * 1024;
+        }
+        return Integer.parseInt(value);
+    }
+
+    /**
+     * A model answer for {@code agent} on these hunks, shaped like real output: a sentence of
+     * prose, then the report in a {@code ```json} fence. It has one issue per
+     * {@value #ISSUE_EVERY} added lines. The three agents report on the same lines, so the
+     * summarizer has duplicates to merge.
+     */
+    static String agentOutput(String agent, List<DiffHunk> hunks) {
+        List<Object> issues = new ArrayList<>();
+        int added = 0;
+        for (DiffHunk hunk : hunks) {
+            for (AddedLine line : hunk.addedLines()) {
+                if (added++ % ISSUE_EVERY == 0) {
+                    issues.add(issue(agent, line));
+                }
+            }
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("agent", agent);
+        report.put("review_version", "1.0");
+        report.put("summary", "Found " + issues.size() + " issues {synthetic}.");
+        report.put("issues", issues);
+        report.put("metadata", Map.of("agent", agent, "files_reviewed", 1));
+        return "Here is the review of the staged changes:\n```json\n" + Json.write(report) + "\n```\n";
+    }
+
+    private static Map<String, Object> issue(String agent, AddedLine line) {
+        Map<String, Object> issue = new LinkedHashMap<>();
+        switch (agent) {
+            case "security" -> {
+                issue.put("rule_id", "hardcoded-secret");
+                issue.put("severity", "BLOCK");
+                issue.put("message", "Hardcoded credential in a string literal. Load it from the environment.");
+            }
+            case "quality" -> {
+                issue.put("rule_id", "hardcoded-config");
+                issue.put("severity", "WARN");
+                issue.put("message", "Hardcoded credential literal; load it from the environment instead.");
+            }
+            default -> {
+                issue.put("rule_id", "naming-conventions");
+                issue.put("severity", "INFO");
+                issue.put("message", "Variable name 'DB_user' should be camelCase: 'dbUser'.");
+            }
+        }
+        issue.put("file", line.path());
+        issue.put("line", Integer.toString(line.line()));
+        issue.put("confidence", "HIGH");
+        return issue;
+    }
+
+    private static void appendFile(StringBuilder diff, String path, String[] lines, boolean modified) {
+        int count = lines.length;
+        diff.append("diff --git a/").append(path).append(" b/").append(path).append('\n');
+        if (modified) {
+            diff.append("index 1234567..89abcde 100644\n");
+            diff.append("--- a/").append(path).append('\n');
+        } else {
+            diff.append("new file mode 100644\n");
+            diff.append("index 0000000..89abcde\n");
+            diff.append("--- /dev/null\n");
+        }
+        diff.append("+++ b/").append(path).append('\n');
+        if (!modified) {
+            diff.append("@@ -0,0 +1,").append(count).append(" @@\n");
+            for (String line : lines) {
+                diff.append('+').append(line).append('\n');
+            }
+            return;
+        }
+        diff.append("@@ -1,").append(count).append(" +1,").append(count).append(" @@\n");
+        for (int i = 0; i < count; i++) {
+            if (i % 10 == 3) {
+                diff.append('-').append(lines[i]).append('\n');
+                diff.append('+').append(lines[i].replace("String ", "final String ")).append('\n');
+            } else {
+                diff.append(' ').append(lines[i]).append('\n');
+            }
+        }
+    }
+
+    private record Example(String className, String source) {
+    }
+
+    private static List<Example> examples() {
+        Path dir = repoRoot().resolve("examples");
+        try (Stream<Path> files = Files.list(dir)) {
+            List<Example> examples = new ArrayList<>();
+            for (Path file : files.filter(path -> path.toString().endsWith(".java")).sorted().toList()) {
+                String name = file.getFileName().toString();
+                examples.add(new Example(name.substring(0, name.length() - ".java".length()),
+                        Files.readString(file, StandardCharsets.UTF_8)));
+            }
+            return examples;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + dir, e);
+        }
+    }
+
+    /**
+     * The repository checkout: {@code -Daireview.root}, or the first directory upwards from
+     * the working directory that has {@code examples/} and {@code .ai/agents/}.
+     */
+    static Path repoRoot() {
+        String configured = System.getProperty("aireview.root");
+        if (configured != null) {
+            return Path.of(configured);
+        }
+        for (Path dir = Path.of("").toAbsolutePath(); dir != null; dir = dir.getParent()) {
+            if (Files.isDirectory(dir.resolve("examples")) && Files.isDirectory(dir.resolve(".ai/agents"))) {
+                return dir;
+            }
+        }
+        throw new IllegalStateException("Run from the repository checkout or set -Daireview.root");
+    }
+}
@@ -0,0 +1,71 @@
+package com.aireview.engine;
+
+import java.io.PrintStream;
+
+/**
+ * Hook output with the same prefixes and colors as the shell scripts.
+ */
+public final class Console {
+
+    static final String RED = "\033[0;31m";
+    static final String YELLOW = "\033[1;33m";
+    static final String GREEN = "\033[0;32m";
+    static final String BLUE = "\033[0;34m";
+    static final String CYAN = "\033[0;36m";
+    private static final String RESET = "\033[0m";
+
+    private final PrintStream out;
+    private final boolean color;
+
+    public Console(PrintStream out, boolean color) {
+        this.out = out;
+        this.color = color;
+    }
+
+    /** {@code [AI Review] message} with a blue prefix. */
+    public void info(String message) {
+        out.println(paint(BLUE, "[AI Review]") + " " + message);
+    }
+
+    /** {@code [AI Review] ⏳ message} */
+    public void progress(String message) {
+        out.println(paint(BLUE, "[AI Review] ⏳") + " " + message);
+    }
+
+    /** {@code [AI Review] ✓ message} */
+    public void success(String message) {
+        out.println(paint(GREEN, "[AI Review] ✓") + " " + message);
+    }
+
+    /** Whole line in yellow with the {@code [AI Review]} prefix. */
+    public void warn(String message) {
+        out.println(paint(YELLOW, "[AI Review] " + message));
+    }
+
+    /** Whole line in red with the {@code [AI Review]} prefix. */
+    public void error(String message) {
+        out.println(paint(RED, "[AI Review] " + message));
+    }
+
+    /** Prints {@code text} in the given ANSI color. */
+    public void line(String ansiColor, String text) {
+        out.println(paint(ansiColor, text));
+    }
+
+    public void line(String text) {
+        out.println(text);
+    }
+
+    public void blank() {
+        out.println();
+    }
+
+    public void prompt(String text) {
+        out.print(text);
+        out.flush();
+    }
+
+    String paint(String ansiColor, String text) {
+        return color ? ansiColor + text + RESET : text;
+    }
+}
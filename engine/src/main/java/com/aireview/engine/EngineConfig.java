@@ -0,0 +1,191 @@
+package com.aireview.engine;
+
+import com.aireview.engine.model.FakeModel;
+import com.aireview.engine.model.Hedging;
+import com.aireview.engine.model.RateLimits;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Engine settings, read from the same environment variables the hook scripts used.
+ *
+ * @param repoRoot             working tree root; the hook runs from here
+ * @param aiDir                the {@code .ai} directory holding agent configuration and outputs
+ * @param model                model passed to the Copilot CLI ({@code AI_REVIEW_MODEL})
+ * @param copilotExecutable    Copilot CLI command ({@code AI_REVIEW_COPILOT})
+ * @param modelClient          model client provider: {@code copilot}, {@code http} or {@code fake}
+ *                             ({@code AI_REVIEW_MODEL_CLIENT})
+ * @param modelUrl             chat completions endpoint of the {@code http} client ({@code AI_REVIEW_MODEL_URL})
+ * @param modelToken           bearer token for {@code modelUrl} ({@code AI_REVIEW_MODEL_TOKEN}), may be {@code null}
+ * @param fakeModel            latency, faults and seed of the offline stand-in ({@code AI_REVIEW_FAKE_*})
+ * @param maxDiffSize          byte budget of one diff chunk sent to an agent ({@code AI_REVIEW_MAX_DIFF_SIZE})
+ * @param maxChunks            most diff chunks reviewed per commit ({@code AI_REVIEW_MAX_CHUNKS})
+ * @param agentTimeout         deadline of one agent review ({@code AI_REVIEW_AGENT_TIMEOUT}, in seconds)
+ * @param cancelOnBlock        stop pending agent reviews once a BLOCK issue decides the commit
+ *                             ({@code AI_REVIEW_CANCEL_ON_BLOCK}, default on)
+ * @param failFast             reject the commit as soon as a streamed answer holds a HIGH-confidence
+ *                             BLOCK issue, cutting off every agent still running, and skip the model
+ *                             reviews when a local check already found a BLOCK issue
+ *                             ({@code AI_REVIEW_FAIL_FAST})
+ * @param rateLimits           per-model request budget, concurrency and retries ({@code AI_REVIEW_RPM},
+ *                             {@code AI_REVIEW_TPM}, {@code AI_REVIEW_MAX_PARALLEL}, {@code AI_REVIEW_RETRIES});
+ *                             its concurrency is the only bound on agent reviews running at once
+ * @param hedging              duplicate slow model calls ({@code AI_REVIEW_HEDGE}, {@code AI_REVIEW_HEDGE_BUDGET})
+ * @param skipSensitiveCheck   skip the interactive sensitive-data prompt ({@code SKIP_SENSITIVE_CHECK})
+ * @param color                emit ANSI colors ({@code FORCE_COLOR}, or an attached terminal)
+ * @param daemonSocket         review daemon socket ({@code AI_REVIEW_SOCKET})
+ * @param useDaemon            hand reviews to a running daemon ({@code AI_REVIEW_DAEMON}, default on)
+ * @param useCache             reuse stored reviews of unchanged chunks ({@code AI_REVIEW_CACHE}, default on)
+ * @param cacheSize            byte budget of {@code .ai/cache} ({@code AI_REVIEW_CACHE_SIZE})
+ * @param incremental          skip hunks reviewed before, keeping their findings
+ *                             ({@code AI_REVIEW_INCREMENTAL}, default on; needs {@code useCache})
+ * @param history              store every review in {@code .ai/history} ({@code AI_REVIEW_HISTORY}, default on)
+ * @param llmSummarizer        aggregate through the summarizer agent instead of locally
+ *                             ({@code AI_REVIEW_SUMMARIZER=llm})
+ * @param agents               specialised agents to run, in report order
+ */
+public record EngineConfig(
+        Path repoRoot,
+        Path aiDir,
+        String model,
+        String copilotExecutable,
+        String modelClient,
+        String modelUrl,
+        String modelToken,
+        FakeModel.Settings fakeModel,
+        int maxDiffSize,
+        int maxChunks,
+        Duration agentTimeout,
+        boolean cancelOnBlock,
+        boolean failFast,
+        RateLimits rateLimits,
+        Hedging hedging,
+        boolean skipSensitiveCheck,
+        boolean color,
+        Path daemonSocket,
+        boolean useDaemon,
+        boolean useCache,
+        int cacheSize,
+        boolean incremental,
+        boolean history,
+        boolean llmSummarizer,
+        List<String> agents) {
+
+    public static final String DEFAULT_MODEL = "gpt-4.1";
+    /** GitHub Models, an OpenAI-compatible endpoint reachable with a GitHub token. */
+    public static final String DEFAULT_MODEL_URL = "https://models.github.ai/inference/chat/completions";
+    public static final int DEFAULT_MAX_DIFF_SIZE = 20000;
+    public static final int DEFAULT_MAX_CHUNKS = 10;
+    public static final int DEFAULT_MAX_PARALLEL = 8;
+    /** The {@code Wait-Job -Timeout} of {@code pre-commit.ps1}. */
+    public static final int DEFAULT_AGENT_TIMEOUT_SECONDS = 120;
+    public static final int DEFAULT_CACHE_SIZE = 16 * 1024 * 1024;
+    public static final List<String> DEFAULT_AGENTS = List.of("security", "naming", "quality");
+
+    public static EngineConfig fromEnvironment(Path repoRoot, Map<String, String> env, boolean terminal) {
+        Path aiDir = repoRoot.resolve(".ai");
+        String socket = env.get("AI_REVIEW_SOCKET");
+        return new EngineConfig(
+                repoRoot,
+                aiDir,
+                env.getOrDefault("AI_REVIEW_MODEL", DEFAULT_MODEL),
+                env.getOrDefault("AI_REVIEW_COPILOT", "copilot"),
+                env.getOrDefault("AI_REVIEW_MODEL_CLIENT", "copilot"),
+                env.getOrDefault("AI_REVIEW_MODEL_URL", DEFAULT_MODEL_URL),
+                env.get("AI_REVIEW_MODEL_TOKEN"),
+                FakeModel.Settings.fromEnvironment(env),
+                intValue(env.get("AI_REVIEW_MAX_DIFF_SIZE"), DEFAULT_MAX_DIFF_SIZE),
+                Math.max(1, intValue(env.get("AI_REVIEW_MAX_CHUNKS"), DEFAULT_MAX_CHUNKS)),
+                Duration.ofSeconds(Math.max(1, intValue(env.get("AI_REVIEW_AGENT_TIMEOUT"), DEFAULT_AGENT_TIMEOUT_SECONDS))),
+                !"false".equals(env.get("AI_REVIEW_CANCEL_ON_BLOCK")),
+                "true".equals(env.get("AI_REVIEW_FAIL_FAST")),
+                new RateLimits(
+                        Math.max(0, intValue(env.get("AI_REVIEW_RPM"), 0)),
+                        Math.max(0, intValue(env.get("AI_REVIEW_TPM"), 0)),
+                        Math.max(1, intValue(env.get("AI_REVIEW_MAX_PARALLEL"), DEFAULT_MAX_PARALLEL)),
+                        Math.max(0, intValue(env.get("AI_REVIEW_RETRIES"), RateLimits.DEFAULT_RETRIES))),
+                new Hedging(
+                        "true".equals(env.get("AI_REVIEW_HEDGE")),
+                        Math.max(0, doubleValue(env.get("AI_REVIEW_HEDGE_BUDGET"), Hedging.DEFAULT_BUDGET))),
+                "true".equals(env.get("SKIP_SENSITIVE_CHECK")),
+                terminal || "true".equals(env.get("FORCE_COLOR")),
+                socket != null && !socket.isBlank() ? Path.of(socket) : aiDir.resolve("engine").resolve("daemon.sock"),
+                !"false".equals(env.get("AI_REVIEW_DAEMON")),
+                !"false".equals(env.get("AI_REVIEW_CACHE")),
+                intValue(env.get("AI_REVIEW_CACHE_SIZE"), DEFAULT_CACHE_SIZE),
+                !"false".equals(env.get("AI_REVIEW_INCREMENTAL")),
+                !"false".equals(env.get("AI_REVIEW_HISTORY")),
+                "llm".equals(env.get("AI_REVIEW_SUMMARIZER")),
+                DEFAULT_AGENTS);
+    }
+
+    /**
+     * The subset of {@code env} that affects a review; the daemon client forwards these
+     * so the daemon builds the same configuration as an in-process run.
+     */
+    public static Map<String, String> reviewEnvironment(Map<String, String> env) {
+        Map<String, String> forwarded = new TreeMap<>();
+        env.forEach((key, value) -> {
+            if (key.startsWith("AI_REVIEW_") || key.equals("SKIP_SENSITIVE_CHECK") || key.equals("FORCE_COLOR")) {
+                forwarded.put(key, value);
+            }
+        });
+        return forwarded;
+    }
+
+    /** {@code .ai/agents/<agent>} */
+    public Path agentDir(String agent) {
+        return aiDir.resolve("agents").resolve(agent);
+    }
+
+    /** {@code .ai/last_review.json} */
+    public Path lastReviewFile() {
+        return aiDir.resolve("last_review.json");
+    }
+
+    /** {@code .ai/reviewed_hunks.json}, the hunks reviewed so far and their findings */
+    public Path reviewedHunksFile() {
+        return aiDir.resolve("reviewed_hunks.json");
+    }
+
+    /** {@code .ai/history}, every review and its issues */
+    public Path historyDir() {
+        return aiDir.resolve("history");
+    }
+
+    /** {@code .ai/cache}, the review result cache */
+    public Path cacheDir() {
+        return aiDir.resolve("cache");
+    }
+
+    /** {@code .ai/engine/latency.json}, model call latencies for hedging */
+    public Path latencyFile() {
+        return aiDir.resolve("engine").resolve("latency.json");
+    }
+
+    static int intValue(String value, int fallback) {
+        if (value == null || value.isBlank()) {
+            return fallback;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    static double doubleValue(String value, double fallback) {
+        if (value == null || value.isBlank()) {
+            return fallback;
+        }
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+}
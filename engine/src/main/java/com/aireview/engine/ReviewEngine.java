@@ -0,0 +1,591 @@
+package com.aireview.engine;
+
+import com.aireview.engine.agent.AgentConfigCache;
+import com.aireview.engine.agent.AgentExecutor;
+import com.aireview.engine.agent.AgentExecutor.Task;
+import com.aireview.engine.agent.AgentReport;
+import com.aireview.engine.agent.AgentRunner;
+import com.aireview.engine.agent.LlmSummarizer;
+import com.aireview.engine.agent.LocalSummarizer;
+import com.aireview.engine.agent.Summarizer;
+import com.aireview.engine.cache.HunkIndex;
+import com.aireview.engine.cache.ReviewCache;
+import com.aireview.engine.check.LocalChecks;
+import com.aireview.engine.check.LocalFindings;
+import com.aireview.engine.check.StagedSources;
+import com.aireview.engine.diff.DiffChunk;
+import com.aireview.engine.diff.DiffChunker;
+import com.aireview.engine.diff.DiffHunk;
+import com.aireview.engine.git.StagedChanges;
+import com.aireview.engine.history.ReviewHistory;
+import com.aireview.engine.model.ModelClient;
+import com.aireview.engine.model.ModelException;
+import com.aireview.engine.model.ModelScheduler;
+import com.aireview.engine.report.Issue;
+import com.aireview.engine.report.ReportParser;
+import com.aireview.engine.report.ReportParser.ParsedReport;
+import com.aireview.engine.report.Severity;
+import com.aireview.engine.report.Verdict;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * The pre-commit review pipeline: staged diff, parallel agents, summarizer and the
+ * BLOCK/WARN/INFO commit decision. Produces the same {@code .ai/agents/*}{@code /review.md}
+ * and {@code .ai/last_review.json} files as the former shell implementation.
+ */
+public final class ReviewEngine {
+
+    /** Exit status that lets the commit proceed. */
+    public static final int ALLOW = 0;
+    /** Exit status that aborts the commit. */
+    public static final int REJECT = 1;
+
+    private static final Pattern SENSITIVE = Pattern.compile(
+            "(password\\s*=|secret\\s*=|api[_-]?key\\s*=|token\\s*=|credential|private[_-]?key)",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern QUOTA_ERROR = Pattern.compile(
+            "quota exceeded|402|no quota|rate limit|CAPIError", Pattern.CASE_INSENSITIVE);
+
+    private final EngineConfig config;
+    private final ModelClient model;
+    private final AgentConfigCache configCache;
+    private final Console console;
+    private final BufferedReader input;
+    private final LocalChecks localChecks = LocalChecks.defaults();
+
+    /**
+     * @param configCache agent configuration cache; shared across requests by the daemon
+     * @param input       answers to interactive prompts; only read by {@link #collect()}
+     */
+    public ReviewEngine(EngineConfig config, ModelClient model, AgentConfigCache configCache,
+                        Console console, BufferedReader input) {
+        this.config = config;
+        this.model = model;
+        this.configCache = configCache;
+        this.console = console;
+        this.input = input;
+    }
+
+    /** Runs the review and returns {@link #ALLOW} or {@link #REJECT}. */
+    public int run() throws IOException, InterruptedException {
+        StagedReview staged = collect();
+        return staged.reviewable() ? review(staged) : staged.status();
+    }
+
+    /**
+     * Client-side half of a review: lists the staged Java files, extracts the diff and
+     * runs the interactive sensitive-data check.
+     */
+    public StagedReview collect() throws IOException {
+        StagedChanges staged = new StagedChanges(config.repoRoot());
+        List<String> files = staged.javaFiles();
+        if (files.isEmpty()) {
+            console.info("No Java files staged, skipping review.");
+            return StagedReview.done(ALLOW);
+        }
+        console.info("ℹ Found Java files to review:");
+        files.forEach(file -> console.line("  - " + file));
+
+        String diff = staged.diff(files);
+        if (diff.isEmpty()) {
+            console.info("No changes to review.");
+            return StagedReview.done(ALLOW);
+        }
+
+        if (!config.skipSensitiveCheck() && SENSITIVE.matcher(diff).find() && !confirmSensitive()) {
+            console.info("Commit aborted by user. Review your code for sensitive data.");
+            return StagedReview.done(REJECT);
+        }
+        return new StagedReview(files, diff, ALLOW);
+    }
+
+    /**
+     * Server-side half of a review: agents, summarizer and the commit decision. Runs
+     * in-process or inside the review daemon.
+     */
+    public int review(StagedReview staged) throws IOException, InterruptedException {
+        String diff = staged.diff();
+        // the local checks' parse runs while the diff is split, the model checked and the chunks cut
+        localChecks.prepare(staged.files(), stagedSources());
+        ReviewCache reviewCache = config.useCache()
+                ? new ReviewCache(config.cacheDir(), config.cacheSize()) : ReviewCache.disabled();
+        AgentRunner runner = new AgentRunner(config, model, configCache, reviewCache);
+        HunkIndex hunkIndex = config.useCache() && config.incremental()
+                ? HunkIndex.load(config.reviewedHunksFile()) : HunkIndex.disabled();
+        Map<String, String> versions = new LinkedHashMap<>();
+        if (hunkIndex.enabled()) {
+            for (String agent : config.agents()) {
+                if (runner.configured(agent)) {
+                    versions.put(agent, runner.version(agent));
+                }
+            }
+        }
+        HunkIndex.Split split = hunkIndex.split(diff, versions);
+        // a commit whose every hunk was reviewed before needs no model
+        if (!split.diff().isEmpty() && !modelAvailable()) {
+            return REJECT;
+        }
+        List<DiffChunk> all = split.diff().isEmpty() ? List.of() : chunk(split.diff());
+        List<DiffChunk> chunks = all.subList(0, Math.min(all.size(), config.maxChunks()));
+        // past the cap: reported as not reviewed, so a large commit is not taken as fully reviewed
+        List<String> unreviewed = all.subList(chunks.size(), all.size()).stream()
+                .flatMap(chunk -> chunk.files().stream()).distinct().toList();
+        if (!split.reused().isEmpty()) {
+            console.success("Reusing the review of " + split.reused().size() + " of "
+                    + (split.reused().size() + split.pending().size())
+                    + " hunk(s) reviewed before (AI_REVIEW_INCREMENTAL=false reviews them again)");
+        }
+
+        AtomicBoolean rejectedEarly = new AtomicBoolean();
+        List<AgentReport> reports = runAgents(chunks, split, runner, reviewCache, hunkIndex, versions, rejectedEarly);
+        hunkIndex.save();
+        if (reports.stream().noneMatch(AgentReport::completed)) {
+            printUnavailable("AI REVIEW: SERVICE UNAVAILABLE",
+                    "All AI agents failed to complete. The review could not be performed.");
+            return REJECT;
+        }
+        AgentReport security = reports.stream().filter(r -> r.agent().equals("security")).findFirst().orElse(null);
+        if (security != null && QUOTA_ERROR.matcher(security.output()).find()) {
+            printUnavailable("AI REVIEW: COPILOT QUOTA EXCEEDED",
+                    "Your GitHub Copilot usage quota has been exceeded.\n"
+                            + "Check your plan: https://github.com/features/copilot/plans");
+            return REJECT;
+        }
+
+        for (AgentReport report : reports) {
+            List<String> violations = report.parsed().violations();
+            if (!violations.isEmpty()) {
+                console.warn("Warning: " + displayName(report.agent()) + " agent output does not match its prompt's "
+                        + "issue format: " + violations.get(0)
+                        + (violations.size() > 1 ? " (and " + (violations.size() - 1) + " more)" : ""));
+            }
+        }
+        StringBuilder counts = new StringBuilder();
+        for (AgentReport report : reports) {
+            if (counts.length() > 0) {
+                counts.append(" | ");
+            }
+            counts.append(displayName(report.agent())).append(": ").append(report.issues().size()).append(" issues");
+        }
+        console.success(counts.toString());
+
+        console.progress("Aggregating results from all agents (deduplicating and prioritizing)...");
+        // a commit rejected early does not wait for the summarizer agent
+        Summarizer summarizer = config.llmSummarizer() && !rejectedEarly.get()
+                ? new LlmSummarizer(config, model, configCache) : new LocalSummarizer(config);
+        String finalReport = summarizer.summarize(reports, staged.files(), unreviewed);
+
+        printAgentResults(reports);
+
+        console.blank();
+        console.line(Console.BLUE, "============================================");
+        console.line(Console.BLUE, "Final Summary");
+        console.line(Console.BLUE, "============================================");
+        console.blank();
+        ParsedReport aggregated = ReportParser.parse(finalReport, "summarizer");
+        console.info(aggregated.summary() != null ? aggregated.summary() : "Review complete");
+
+        List<Issue> issues = new ArrayList<>();
+        if (!config.llmSummarizer()) {
+            // the local aggregation is deterministic and never lowers a severity, so it decides
+            issues.addAll(aggregated.issues());
+        } else {
+            reports.forEach(report -> issues.addAll(report.issues()));
+        }
+        record(staged, issues);
+        return decide(Verdict.of(issues));
+    }
+
+    /** Adds the review to {@code .ai/history}; a failure only costs the history entry. */
+    private void record(StagedReview staged, List<Issue> issues) {
+        if (!config.history()) {
+            return;
+        }
+        try {
+            String head = new StagedChanges(config.repoRoot()).head();
+            ReviewHistory.shared(config.historyDir()).append(head, staged.files().size(), issues);
+        } catch (IOException e) {
+            console.warn("Warning: Review not added to the history: " + e.getMessage());
+        }
+    }
+
+    /** Checks that the model can be called, and prints how to set it up when it cannot. */
+    private boolean modelAvailable() {
+        console.progress("Checking dependencies (" + model.displayName() + " required for AI analysis)...");
+        try {
+            model.checkAvailable();
+        } catch (ModelException e) {
+            console.error("✗ Error: " + e.getMessage());
+            console.blank();
+            for (String hint : model.setupHints()) {
+                if (hint.isEmpty()) {
+                    console.blank();
+                } else {
+                    console.line(hint);
+                }
+            }
+            if (!model.setupHints().isEmpty()) {
+                console.blank();
+            }
+            console.line("To bypass this check temporarily, use: git commit --no-verify");
+            return false;
+        }
+        console.success(model.displayName() + " detected and ready");
+        return true;
+    }
+
+    /**
+     * One review unit per file, or per group of hunks of a file over the size budget. Chunks
+     * past {@code AI_REVIEW_MAX_CHUNKS} are returned as well; the caller leaves them out.
+     */
+    private List<DiffChunk> chunk(String diff) throws IOException {
+        List<DiffChunk> chunks = DiffChunker.perFile(new StringReader(diff), config.maxDiffSize(), config.maxChunks());
+        if (chunks.size() > config.maxChunks()) {
+            console.warn("Warning: Diff split into " + chunks.size() + " chunks; reviewing the first "
+                    + config.maxChunks() + " (AI_REVIEW_MAX_CHUNKS). The rest is listed as not reviewed.");
+        }
+        if (chunks.size() > 1) {
+            console.info("Diff split into " + chunks.size() + " chunks of at most "
+                    + config.maxDiffSize() + " bytes, one per file where they fit, reviewed in parallel.");
+        }
+        return chunks;
+    }
+
+    private boolean confirmSensitive() throws IOException {
+        console.blank();
+        console.line(Console.YELLOW, "========================================================");
+        console.line(Console.YELLOW, "  SECURITY WARNING: Potential sensitive data detected   ");
+        console.line(Console.YELLOW, "========================================================");
+        console.blank();
+        console.line("Your staged code may contain sensitive keywords (password, secret, api_key, etc.).");
+        console.line("This code will be sent to an external AI service for review.");
+        console.blank();
+        console.line("Options:");
+        console.line("  1. Review your staged changes: git diff --cached");
+        console.line("  2. Use environment variables instead of hardcoded values");
+        console.line("  3. Skip this check: SKIP_SENSITIVE_CHECK=true git commit ...");
+        console.line("  4. Skip AI review entirely: git commit --no-verify");
+        console.blank();
+        console.prompt("Continue with AI review? (y/n): ");
+        String response = input.readLine();
+        return response != null && (response.trim().equals("y") || response.trim().equals("Y"));
+    }
+
+    /**
+     * Runs every agent on every chunk. The (agent, chunk) reviews share one queue, largest
+     * chunk first, drained by as many slots as the model's concurrency window allows, so the
+     * review takes about as long as its largest chunk. Issues are read from the answers as they stream in;
+     * a HIGH-confidence BLOCK issue is printed at once and, with {@code AI_REVIEW_FAIL_FAST},
+     * cancels every review still running and sets {@code rejectedEarly}. A BLOCK issue already
+     * known from the local checks or a reused review skips the model reviews only with
+     * {@code AI_REVIEW_FAIL_FAST}; otherwise the agents still run, so their feedback is not lost.
+     *
+     * <p>The hunks of {@code split} that were reviewed before are not in the chunks; their
+     * stored findings and those of the local checks are added to each agent's report, and the
+     * answers on whole new hunks are recorded in {@code hunkIndex}.
+     */
+    private List<AgentReport> runAgents(List<DiffChunk> chunks, HunkIndex.Split split, AgentRunner runner,
+                                        ReviewCache reviewCache, HunkIndex hunkIndex, Map<String, String> versions,
+                                        AtomicBoolean rejectedEarly) throws IOException, InterruptedException {
+        if (!chunks.isEmpty()) {
+            console.blank();
+            console.progress("Running analysis with " + config.agents().size()
+                    + " specialized agents in parallel (model: " + config.model() + ")...");
+            console.line(Console.BLUE, "  ⏳ Security Agent - Checking OWASP vulnerabilities, secrets, injection attacks");
+            console.line(Console.BLUE, "  ⏳ Naming Agent - Validating Java naming conventions");
+            console.line(Console.BLUE, "  ⏳ Quality Agent - Analyzing code correctness, performance, best practices");
+        }
+
+        List<String> agents = config.agents().stream().filter(runner::configured).toList();
+        Map<String, List<LocalFindings>> local = runLocalChecks(chunks, split.reused());
+        int tasks = agents.size() * chunks.size();
+        Predicate<String> decided = config.cancelOnBlock() ? ReviewEngine::blocks : output -> false;
+        ModelScheduler scheduler = ModelScheduler.shared(config.model(), config.rateLimits());
+        try (AgentExecutor executor = new AgentExecutor(scheduler::window, config.agentTimeout());
+             AgentExecutor.Scope<String> scope = executor.open(decided)) {
+            // a BLOCK known before any model call decides the commit, but the other agents'
+            // feedback is still wanted: only fail-fast gives it up
+            boolean blockedUpFront = config.failFast() && (local.values().stream().flatMap(List::stream)
+                    .anyMatch(findings -> findings.issues().stream().anyMatch(ReviewEngine::isBlock))
+                    || split.reusedIssues().values().stream().flatMap(List::stream).anyMatch(ReviewEngine::isBlock));
+            if (blockedUpFront) {
+                scope.cancel();
+            }
+            // issues read from each (agent, chunk) answer, kept in case the answer is cut off
+            Map<String, List<Set<Issue>>> streamed = new HashMap<>();
+            Map<String, Consumer<Issue>> listeners = new HashMap<>();
+            Map<String, List<Task<String>>> forks = new HashMap<>();
+            for (String agent : agents) {
+                Set<Issue> read = ConcurrentHashMap.newKeySet();
+                listeners.put(agent, issue -> {
+                    if (read.add(issue) && isBlock(issue) && "HIGH".equalsIgnoreCase(issue.confidence())) {
+                        printEarlyBlock(agent, issue);
+                        if (config.failFast() && rejectedEarly.compareAndSet(false, true)) {
+                            scope.cancel();
+                        }
+                    }
+                });
+                List<Set<Issue>> perChunk = new ArrayList<>(chunks.size());
+                for (int i = 0; i < chunks.size(); i++) {
+                    perChunk.add(ConcurrentHashMap.newKeySet());
+                }
+                streamed.put(agent, perChunk);
+                forks.put(agent, new ArrayList<>(Collections.nCopies(chunks.size(), null)));
+            }
+            // largest first: the long reviews start at once and the short ones fill in around them
+            List<DiffChunk> largestFirst = new ArrayList<>(chunks);
+            largestFirst.sort(Comparator.comparingInt((DiffChunk chunk) -> chunk.text().length()).reversed());
+            for (DiffChunk chunk : largestFirst) {
+                for (String agent : agents) {
+                    LocalFindings findings = local.get(agent).get(chunk.index());
+                    Set<Issue> read = streamed.get(agent).get(chunk.index());
+                    Consumer<Issue> agentListener = listeners.get(agent);
+                    Consumer<Issue> listener = issue -> {
+                        read.add(issue);
+                        agentListener.accept(issue);
+                    };
+                    Task<String> task = scope.fork(() -> runner.review(agent, chunk, findings, listener));
+                    forks.get(agent).set(chunk.index(), task);
+                }
+            }
+            scope.join();
+
+            List<AgentReport> reports = new ArrayList<>();
+            int timedOut = 0;
+            int cancelled = 0;
+            for (String agent : config.agents()) {
+                List<Issue> localIssues = new ArrayList<>();
+                local.get(agent).forEach(findings -> localIssues.addAll(findings.issues()));
+                List<Issue> reusedIssues = split.reusedIssues().getOrDefault(agent, List.of());
+                List<Task<String>> perAgent = forks.get(agent);
+                if (perAgent == null) {
+                    String problem = runner.configurationError(agent);
+                    console.error("Error: Agent '" + agent + "' " + (problem == null ? "configuration not found" : problem));
+                    reports.add(runner.misconfigured(agent, localIssues));
+                    continue;
+                }
+                List<String> outputs = new ArrayList<>(perAgent.size());
+                // the issues of an answer cut off mid-stream were read all the same
+                Set<Issue> partial = new LinkedHashSet<>();
+                int skipped = 0;
+                for (int i = 0; i < perAgent.size(); i++) {
+                    Task<String> task = perAgent.get(i);
+                    switch (task.state()) {
+                        case SUCCEEDED -> {
+                            outputs.add(task.result());
+                            if (hunkIndex.enabled()) {
+                                ParsedReport parsed = runner.parse(agent, task.result());
+                                if (parsed.parsed()) {
+                                    hunkIndex.record(versions.get(agent), chunks.get(i).hunks(), parsed.issues(), split);
+                                }
+                            }
+                        }
+                        case TIMED_OUT -> {
+                            outputs.add(AgentRunner.timedOut(config.agentTimeout()));
+                            partial.addAll(streamed.get(agent).get(i));
+                            timedOut++;
+                        }
+                        case CANCELLED -> {
+                            partial.addAll(streamed.get(agent).get(i));
+                            skipped++;
+                        }
+                        default -> {
+                            if (task.failure() instanceof IOException io) {
+                                throw io;
+                            }
+                            throw new IllegalStateException(task.failure());
+                        }
+                    }
+                }
+                cancelled += skipped;
+                reports.add(runner.merge(agent, outputs, skipped, localIssues, List.copyOf(partial),
+                        split.reused().size(), reusedIssues));
+            }
+            if (timedOut > 0) {
+                console.warn("Warning: " + timedOut + " agent review(s) timed out after "
+                        + config.agentTimeout().toSeconds() + "s (AI_REVIEW_AGENT_TIMEOUT).");
+            }
+            if (blockedUpFront) {
+                console.warn("A local check or an earlier review found a BLOCK issue; skipped " + cancelled + " of "
+                        + tasks + " agent reviews (AI_REVIEW_FAIL_FAST=false runs them all).");
+            } else if (rejectedEarly.get()) {
+                console.warn("A HIGH-confidence BLOCK issue rejected the commit; cut off " + cancelled + " of " + tasks
+                        + " agent reviews (AI_REVIEW_FAIL_FAST=false runs them all).");
+            } else if (cancelled > 0) {
+                console.warn("A BLOCK issue decided the commit; skipped " + cancelled + " of " + tasks
+                        + " agent reviews (AI_REVIEW_CANCEL_ON_BLOCK=false runs them all).");
+            }
+            if (reviewCache.hits() > 0) {
+                console.success("Reused " + reviewCache.hits() + " of " + tasks
+                        + " cached agent reviews (unchanged code, same checklist and model)");
+            }
+            reviewCache.evict();
+            return reports;
+        }
+    }
+
+    /** Prints a BLOCK issue the moment it is read, while the agents are still running. */
+    private void printEarlyBlock(String agent, Issue issue) {
+        synchronized (console) {
+            console.error("✗ BLOCK from " + displayName(agent) + " agent: " + issue.location()
+                    + " [" + issue.ruleId() + "]");
+            console.line("    " + issue.message());
+        }
+    }
+
+    private static boolean blocks(String output) {
+        return ReportParser.parse(output, "").issues().stream().anyMatch(ReviewEngine::isBlock);
+    }
+
+    private static boolean isBlock(Issue issue) {
+        return issue.severity() == Severity.BLOCK;
+    }
+
+    /**
+     * Runs the local checks of every agent on every chunk; lists are indexed by chunk, and
+     * the findings on the {@code reused} hunks, which no chunk holds, come last.
+     */
+    private Map<String, List<LocalFindings>> runLocalChecks(List<DiffChunk> chunks, List<DiffHunk> reused) {
+        StagedSources sources = stagedSources();
+        Map<String, List<LocalFindings>> local = new HashMap<>();
+        config.agents().forEach(agent -> local.put(agent, new ArrayList<>(chunks.size())));
+        int found = 0;
+        for (DiffChunk chunk : chunks) {
+            List<DiffHunk> hunks = chunk.hunks();
+            for (String agent : config.agents()) {
+                LocalFindings findings = localChecks.run(agent, hunks, sources);
+                local.get(agent).add(findings);
+                found += findings.issues().size();
+            }
+        }
+        if (!reused.isEmpty()) {
+            for (String agent : config.agents()) {
+                LocalFindings findings = localChecks.run(agent, reused, sources);
+                local.get(agent).add(findings);
+                found += findings.issues().size();
+            }
+        }
+        if (found > 0) {
+            console.warn("Local checks found " + found + " issue(s) before calling the agents.");
+        }
+        return local;
+    }
+
+    /** Staged content for the local checks; a file that cannot be read is skipped by them. */
+    private StagedSources stagedSources() {
+        StagedChanges staged = new StagedChanges(config.repoRoot());
+        return path -> {
+            try {
+                return staged.content(path);
+            } catch (IOException e) {
+                return null;
+            }
+        };
+    }
+
+    private void printAgentResults(List<AgentReport> reports) {
+        console.blank();
+        console.line(Console.BLUE, "============================================");
+        console.line(Console.BLUE, "Review Results by Agent");
+        console.line(Console.BLUE, "============================================");
+        for (AgentReport report : reports) {
+            console.blank();
+            console.line(Console.BLUE, "============================================");
+            console.line(Console.BLUE, displayName(report.agent()) + " Agent Results");
+            console.line(Console.BLUE, "============================================");
+            String summary = report.parsed().summary();
+            console.line("  Summary: " + (summary != null ? summary : "No summary available"));
+            console.line("  Issues found: " + report.issues().size());
+            if (!report.issues().isEmpty()) {
+                console.blank();
+                for (Issue issue : report.issues()) {
+                    console.line("  [" + issue.severity() + "] " + issue.location());
+                    console.line("    " + issue.message());
+                }
+            }
+        }
+    }
+
+    private int decide(Verdict verdict) {
+        console.blank();
+        if (verdict.blocked()) {
+            console.blank();
+            console.line(Console.RED, "========================================================");
+            console.line(Console.RED, "  COMMIT BLOCKED - " + verdict.block().size() + " Critical Issue(s) Found");
+            console.line(Console.RED, "========================================================");
+            console.blank();
+            printIssues(Console.RED, "❌ BLOCKING ISSUES", verdict.block());
+            printIssues(Console.YELLOW, "⚠ WARNINGS", verdict.warn());
+            printIssues(Console.CYAN, "ℹ INFO SUGGESTIONS", verdict.info());
+            console.line(Console.YELLOW, "Fix these issues or use 'git commit --no-verify' to bypass.");
+            console.line("Review details saved to: " + config.repoRoot().relativize(config.lastReviewFile()));
+            console.blank();
+            return REJECT;
+        }
+
+        console.blank();
+        if (verdict.total() == 0) {
+            console.line(Console.GREEN, "[AI Review] ✓ No issues found. Commit allowed.");
+        } else {
+            console.line(Console.GREEN, "[AI Review] ✓ Analysis complete. Commit allowed with "
+                    + verdict.warn().size() + " warning(s) and " + verdict.info().size() + " suggestion(s).");
+            console.blank();
+            printIssues(Console.YELLOW, "⚠ WARNINGS", verdict.warn());
+            printIssues(Console.CYAN, "ℹ INFO SUGGESTIONS", verdict.info());
+        }
+        console.blank();
+        console.line("Review details saved to: " + config.repoRoot().relativize(config.lastReviewFile()));
+        console.blank();
+        return ALLOW;
+    }
+
+    private void printIssues(String color, String title, List<Issue> issues) {
+        if (issues.isEmpty()) {
+            return;
+        }
+        console.line(color, title + " (" + issues.size() + "):");
+        for (Issue issue : issues) {
+            console.line(color, "  [" + issue.severity() + "] " + issue.location());
+            console.line("    " + issue.message());
+        }
+        console.blank();
+    }
+
+    private void printUnavailable(String title, String message) {
+        console.blank();
+        console.line(Console.RED, "========================================================");
+        console.line(Console.RED, "  " + title);
+        console.line(Console.YELLOW, "========================================================");
+        console.blank();
+        message.lines().forEach(console::line);
+        console.blank();
+        console.line(Console.YELLOW, "To commit without AI review, run:");
+        console.blank();
+        console.line(Console.CYAN, "  git commit --no-verify -m \"your message\"");
+        console.blank();
+    }
+
+    static String displayName(String agent) {
+        return switch (agent) {
+            case "quality" -> "Code Quality";
+            default -> Character.toUpperCase(agent.charAt(0)) + agent.substring(1);
+        };
+    }
+}
@@ -0,0 +1,143 @@
+package com.aireview.engine;
+
+import com.aireview.engine.agent.AgentConfigCache;
+import com.aireview.engine.daemon.DaemonClient;
+import com.aireview.engine.daemon.ReviewDaemon;
+import com.aireview.engine.history.HistoryCommand;
+import com.aireview.engine.model.FakeModel;
+import com.aireview.engine.model.FakeModelServer;
+import com.aireview.engine.model.ModelClients;
+
+import java.io.BufferedReader;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+
+/**
+ * Command-line entry point started by {@code pre-commit.sh} / {@code pre-commit.ps1}.
+ * The process exit status is the commit decision: 0 allows the commit, 1 rejects it.
+ *
+ * <pre>
+ * java -jar ai-review-engine.jar                    review the staged changes
+ * java -jar ai-review-engine.jar daemon [start]     run the review daemon in the foreground
+ * java -jar ai-review-engine.jar daemon stop        stop a running daemon
+ * java -jar ai-review-engine.jar daemon status      exit 0 if a daemon is running
+ * java -jar ai-review-engine.jar fake-model [port]  serve the offline model stand-in
+ * java -jar ai-review-engine.jar history [options]  query the review history (see {@link HistoryCommand})
+ * </pre>
+ */
+public final class ReviewMain {
+
+    private ReviewMain() {
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> env = System.getenv();
+        boolean terminal = System.console() != null;
+        EngineConfig config = EngineConfig.fromEnvironment(Path.of("").toAbsolutePath(), env, terminal);
+        // Always UTF-8, like the scripts' echo output, regardless of the platform locale
+        PrintStream out = new PrintStream(new FileOutputStream(FileDescriptor.out), true, StandardCharsets.UTF_8);
+        Console console = new Console(out, config.color());
+
+        if (args.length > 0 && args[0].equals("daemon")) {
+            System.exit(daemon(config, args.length > 1 ? args[1] : "start", console, out));
+        }
+        if (args.length > 0 && args[0].equals("history")) {
+            System.exit(HistoryCommand.run(config.historyDir(), List.of(args).subList(1, args.length), out, System.err));
+        }
+        if (args.length > 0 && args[0].equals("fake-model")) {
+            System.exit(fakeModel(config, args.length > 1 ? args[1] : null, console));
+        }
+        if ("false".equals(env.get("AI_REVIEW_ENABLED"))) {
+            console.info("Skipped (AI_REVIEW_ENABLED=false)");
+            System.exit(ReviewEngine.ALLOW);
+        }
+
+        // an interrupted hook (Ctrl-C, a killed git) must not leave copilot processes behind
+        Runtime.getRuntime().addShutdownHook(new Thread(
+                () -> ProcessHandle.current().descendants().forEach(ProcessHandle::destroyForcibly),
+                "ai-review-cleanup"));
+
+        BufferedReader input = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        ReviewEngine engine = new ReviewEngine(
+                config, ModelClients.create(config), new AgentConfigCache(), console, input);
+        int status;
+        try {
+            StagedReview staged = engine.collect();
+            if (!staged.reviewable()) {
+                status = staged.status();
+            } else {
+                OptionalInt remote = config.useDaemon()
+                        ? DaemonClient.review(config.daemonSocket(), config.repoRoot(), terminal,
+                                EngineConfig.reviewEnvironment(env), staged, out)
+                        : OptionalInt.empty();
+                status = remote.isPresent() ? remote.getAsInt() : engine.review(staged);
+            }
+        } catch (IOException e) {
+            console.error("Failed to run review: " + e.getMessage() + ". Aborting commit.");
+            status = ReviewEngine.REJECT;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            console.error("Review interrupted. Aborting commit.");
+            status = ReviewEngine.REJECT;
+        }
+        System.exit(status);
+    }
+
+    private static int daemon(EngineConfig config, String command, Console console, PrintStream out) {
+        Path socket = config.daemonSocket();
+        switch (command) {
+            case "start" -> {
+                try {
+                    new ReviewDaemon(socket).serve(out);
+                    return 0;
+                } catch (IOException e) {
+                    console.error("Failed to start review daemon: " + e.getMessage());
+                    return 1;
+                }
+            }
+            case "stop" -> {
+                if (DaemonClient.stop(socket)) {
+                    console.info("Review daemon stopped.");
+                    return 0;
+                }
+                console.info("No review daemon running on " + socket);
+                return 1;
+            }
+            case "status" -> {
+                boolean running = DaemonClient.ping(socket);
+                console.info(running ? "Review daemon running on " + socket : "No review daemon running on " + socket);
+                return running ? 0 : 1;
+            }
+            default -> {
+                console.error("Unknown daemon command '" + command + "' (expected start, stop or status)");
+                return 2;
+            }
+        }
+    }
+
+    private static int fakeModel(EngineConfig config, String port, Console console) {
+        FakeModel.Settings settings = config.fakeModel();
+        try (FakeModelServer server = new FakeModelServer(new FakeModel(settings),
+                EngineConfig.intValue(port, FakeModelServer.DEFAULT_PORT))) {
+            server.start();
+            console.info("Fake model listening on http://127.0.0.1:" + server.port()
+                    + "/v1/chat/completions (latency " + settings.latency() + ", faults " + settings.faults() + ")");
+            Thread.currentThread().join();
+            return 0;
+        } catch (IOException e) {
+            console.error("Failed to start fake model: " + e.getMessage());
+            return 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+    }
+}
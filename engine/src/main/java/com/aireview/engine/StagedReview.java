@@ -0,0 +1,19 @@
+package com.aireview.engine;
+
+import java.util.List;
+
+/**
+ * Input collected on the client side of a review: the staged Java files and their diff.
+ * When there is nothing to review, {@code diff} is {@code null} and {@code status} is the
+ * hook's exit status.
+ */
+public record StagedReview(List<String> files, String diff, int status) {
+
+    static StagedReview done(int status) {
+        return new StagedReview(List.of(), null, status);
+    }
+
+    public boolean reviewable() {
+        return diff != null;
+    }
+}
@@ -0,0 +1,93 @@
+package com.aireview.engine.agent;
+
+import com.aireview.engine.cache.ReviewCache;
+import com.aireview.engine.checklist.Checklist;
+import com.aireview.engine.checklist.ChecklistException;
+import com.aireview.engine.prompt.PromptTemplate;
+import com.aireview.engine.report.IssueSchema;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps compiled prompt templates and checklists in memory, keyed by file and
+ * validated against the file's modification time and size on every lookup.
+ *
+ * <p>A one-shot hook run uses a fresh cache; the review daemon shares one instance
+ * across requests so repeated commits skip reading and compiling agent configuration.
+ */
+public final class AgentConfigCache {
+
+    private record Entry<T>(long modified, long size, T value) {
+    }
+
+    private record ChecklistEntry(long modified, long size, String hash, Checklist checklist) {
+    }
+
+    @FunctionalInterface
+    private interface Loader<T> {
+        T load(Path file) throws IOException;
+    }
+
+    private final ConcurrentMap<Path, Entry<PromptTemplate>> templates = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Path, Entry<String>> texts = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Path, Entry<String>> digests = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Path, ChecklistEntry> checklists = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Path, Entry<IssueSchema>> schemas = new ConcurrentHashMap<>();
+
+    public PromptTemplate template(Path file) throws IOException {
+        return cached(templates, file, PromptTemplate::load);
+    }
+
+    public String text(Path file) throws IOException {
+        return cached(texts, file, path -> Files.readString(path, StandardCharsets.UTF_8));
+    }
+
+    /** SHA-256 of the file's text, for review cache keys. */
+    public String digest(Path file) throws IOException {
+        return cached(digests, file, path -> ReviewCache.hash(text(path)));
+    }
+
+    /**
+     * Compiled {@code checklist.yaml}. A file whose modification time or size changed is read
+     * again, but only parsed again when its content hash changed too. An invalid file is not
+     * cached, so fixing it takes effect on the next lookup.
+     *
+     * @throws ChecklistException when the file is not a valid checklist
+     */
+    public Checklist checklist(Path file) throws IOException {
+        BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+        long modified = attrs.lastModifiedTime().toMillis();
+        ChecklistEntry entry = checklists.get(file);
+        if (entry == null || entry.modified() != modified || entry.size() != attrs.size()) {
+            String text = Files.readString(file, StandardCharsets.UTF_8);
+            String hash = ReviewCache.hash(text);
+            Checklist checklist = entry != null && entry.hash().equals(hash)
+                    ? entry.checklist() : Checklist.parse(file, text);
+            entry = new ChecklistEntry(modified, attrs.size(), hash, checklist);
+            checklists.put(file, entry);
+        }
+        return entry.checklist();
+    }
+
+    /** Issue schema of the {@code OUTPUT FORMAT} example in a {@code prompt.txt}. */
+    public IssueSchema schema(Path file) throws IOException {
+        return cached(schemas, file, path -> IssueSchema.fromPrompt(text(path)));
+    }
+
+    private static <T> T cached(ConcurrentMap<Path, Entry<T>> cache, Path file, Loader<T> loader) throws IOException {
+        BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+        long modified = attrs.lastModifiedTime().toMillis();
+        Entry<T> entry = cache.get(file);
+        if (entry == null || entry.modified() != modified || entry.size() != attrs.size()) {
+            entry = new Entry<>(modified, attrs.size(), loader.load(file));
+            cache.put(file, entry);
+        }
+        return entry.value();
+    }
+}
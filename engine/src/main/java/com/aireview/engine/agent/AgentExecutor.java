@@ -0,0 +1,308 @@
+package com.aireview.engine.agent;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Runs agent reviews with a global concurrency cap and a per-task deadline, replacing the
+ * {@code &}/{@code wait} pairs of {@code pre-commit.sh} and the {@code Start-Job} /
+ * {@code Wait-Job -Timeout 120} of {@code pre-commit.ps1}.
+ *
+ * <p>Forked tasks wait in one queue shared by every scope, in fork order. Whenever a slot
+ * is free, the next task starts on its own thread: a virtual thread when the runtime
+ * provides them (Java 21 and later), otherwise a daemon platform thread. There is no
+ * agent or file affinity: the slot that frees up first takes the next unit of work,
+ * whoever forked it, so small units fill the gaps around large ones. The number of slots
+ * is read from a supplier whenever a slot frees up, and every {@value #REFRESH_MILLIS} ms,
+ * so it can follow the model's measured concurrency window. A task's deadline starts when
+ * it leaves the queue, and a task that passes it is interrupted, which makes the model
+ * client kill its {@code copilot} process.
+ *
+ * <p>Tasks are forked into a {@link Scope}. A scope cancels all of its unfinished tasks when
+ * one result satisfies its cancellation predicate (a BLOCK issue, which decides the commit
+ * whatever the other agents say), when the joining thread is interrupted, and when it is
+ * closed.
+ */
+public final class AgentExecutor implements AutoCloseable {
+
+    /** How a task ended; {@link #RUNNING} until then. */
+    public enum State { RUNNING, SUCCEEDED, FAILED, TIMED_OUT, CANCELLED }
+
+    /** How often the slot count is read again while tasks are queued. */
+    static final long REFRESH_MILLIS = 250;
+
+    private final boolean virtualThreads;
+    private final ExecutorService threads;
+    private final ScheduledExecutorService watchdog;
+    private final IntSupplier slots;
+    private final Duration timeout;
+    private final Deque<Queued> queue = new ArrayDeque<>();
+    private int running;
+
+    /** A task waiting for a slot, and the work that runs it. */
+    private record Queued(Task<?> task, Runnable body) {
+    }
+
+    /** An executor running at most {@code maxParallel} tasks at once. */
+    public AgentExecutor(int maxParallel, Duration timeout) {
+        this(() -> maxParallel, timeout);
+    }
+
+    /**
+     * @param slots   most tasks running at once; read again as tasks end, at least 1
+     * @param timeout deadline of one task, counted from the moment it leaves the queue
+     */
+    public AgentExecutor(IntSupplier slots, Duration timeout) {
+        ExecutorService virtual = virtualThreadPerTaskExecutor();
+        this.virtualThreads = virtual != null;
+        this.threads = virtual != null ? virtual : Executors.newCachedThreadPool(daemonThreads("ai-review-agent"));
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(daemonThreads("ai-review-watchdog"));
+        this.slots = slots;
+        this.timeout = timeout;
+        watchdog.scheduleWithFixedDelay(this::dispatch, REFRESH_MILLIS, REFRESH_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /** {@code true} when tasks run on virtual threads. */
+    public boolean virtualThreads() {
+        return virtualThreads;
+    }
+
+    public Duration timeout() {
+        return timeout;
+    }
+
+    /**
+     * Opens a scope whose tasks are all cancelled as soon as one of them returns a result
+     * matching {@code cancelWhen}.
+     */
+    public <T> Scope<T> open(Predicate<? super T> cancelWhen) {
+        return new Scope<>(cancelWhen);
+    }
+
+    /** Interrupts whatever is still running; tasks of open scopes end up cancelled. */
+    @Override
+    public void close() {
+        synchronized (queue) {
+            queue.clear();
+        }
+        watchdog.shutdownNow();
+        threads.shutdownNow();
+    }
+
+    /** Starts queued tasks while slots are free; tasks cancelled in the queue are dropped. */
+    private void dispatch() {
+        synchronized (queue) {
+            int limit = Math.max(1, slots.getAsInt());
+            while (running < limit && !queue.isEmpty()) {
+                Queued next = queue.poll();
+                if (next.task().state() != State.RUNNING) {
+                    continue;
+                }
+                running++;
+                try {
+                    threads.execute(next.body());
+                } catch (RejectedExecutionException e) {
+                    running--;
+                    next.task().stop(State.CANCELLED);
+                }
+            }
+        }
+    }
+
+    private void slotFreed() {
+        synchronized (queue) {
+            running--;
+        }
+        dispatch();
+    }
+
+    /** A group of tasks joined together and cancelled together. */
+    public final class Scope<T> implements AutoCloseable {
+
+        private final Predicate<? super T> cancelWhen;
+        private final List<Task<T>> tasks = new ArrayList<>();
+        private volatile boolean cancelled;
+
+        private Scope(Predicate<? super T> cancelWhen) {
+            this.cancelWhen = cancelWhen;
+        }
+
+        /** Starts {@code work}, or returns an already cancelled task if the scope was cancelled. */
+        public Task<T> fork(Callable<T> work) {
+            Task<T> task = new Task<>();
+            synchronized (this) {
+                tasks.add(task);
+            }
+            if (cancelled) {
+                task.stop(State.CANCELLED);
+                return task;
+            }
+            synchronized (queue) {
+                queue.add(new Queued(task, () -> run(task, work)));
+            }
+            dispatch();
+            return task;
+        }
+
+        /**
+         * Waits until every task has ended. An interrupt cancels the remaining tasks before
+         * it is rethrown.
+         */
+        public void join() throws InterruptedException {
+            try {
+                for (Task<T> task : snapshot()) {
+                    task.done.await();
+                }
+            } catch (InterruptedException e) {
+                cancel();
+                throw e;
+            }
+        }
+
+        /** Cancels every task that has not ended yet, interrupting those that are running. */
+        public void cancel() {
+            cancelled = true;
+            for (Task<T> task : snapshot()) {
+                task.stop(State.CANCELLED);
+            }
+        }
+
+        /** {@code true} once the scope cancelled its remaining tasks. */
+        public boolean cancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void close() {
+            for (Task<T> task : snapshot()) {
+                task.stop(State.CANCELLED);
+            }
+        }
+
+        private synchronized List<Task<T>> snapshot() {
+            return List.copyOf(tasks);
+        }
+
+        private void run(Task<T> task, Callable<T> work) {
+            if (!task.start()) {
+                slotFreed();
+                return;
+            }
+            ScheduledFuture<?> deadline = null;
+            try {
+                deadline = watchdog.schedule(() -> task.stop(State.TIMED_OUT), timeout.toMillis(), TimeUnit.MILLISECONDS);
+                T value = work.call();
+                if (task.finish(State.SUCCEEDED, value, null) && cancelWhen.test(value)) {
+                    cancel();
+                }
+            } catch (Exception | Error e) {
+                task.finish(State.FAILED, null, e);
+            } finally {
+                if (deadline != null) {
+                    deadline.cancel(false);
+                }
+                // platform threads are reused; an interrupt meant for this task must not leak
+                task.detach();
+                Thread.interrupted();
+                slotFreed();
+            }
+        }
+    }
+
+    /** One forked task: its end state and its result or failure. */
+    public static final class Task<T> {
+
+        private final CountDownLatch done = new CountDownLatch(1);
+        private State state = State.RUNNING;
+        private Thread thread;
+        private T result;
+        private Throwable failure;
+
+        public synchronized State state() {
+            return state;
+        }
+
+        /** The task's result; only set when it {@link State#SUCCEEDED}. */
+        public synchronized T result() {
+            return result;
+        }
+
+        /** What the task threw; only set when it {@link State#FAILED}. */
+        public synchronized Throwable failure() {
+            return failure;
+        }
+
+        private synchronized boolean start() {
+            if (state != State.RUNNING) {
+                return false;
+            }
+            thread = Thread.currentThread();
+            return true;
+        }
+
+        /**
+         * Records how the task ended, unless it was stopped first. Returns {@code true} if
+         * this call decided the task's state.
+         */
+        private synchronized boolean finish(State end, T value, Throwable error) {
+            if (state != State.RUNNING) {
+                return false;
+            }
+            state = end;
+            result = value;
+            failure = error;
+            done.countDown();
+            return true;
+        }
+
+        /** Once detached, stopping the task can no longer interrupt the thread that ran it. */
+        private synchronized void detach() {
+            thread = null;
+        }
+
+        /** Ends a task from outside, interrupting its thread if it is running. */
+        private synchronized void stop(State end) {
+            if (state != State.RUNNING) {
+                return;
+            }
+            state = end;
+            done.countDown();
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+    }
+
+    /** {@code Executors.newVirtualThreadPerTaskExecutor()}, or {@code null} before Java 21. */
+    private static ExecutorService virtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        ThreadFactory defaults = Executors.defaultThreadFactory();
+        return runnable -> {
+            Thread thread = defaults.newThread(runnable);
+            thread.setName(name + "-" + thread.getId());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
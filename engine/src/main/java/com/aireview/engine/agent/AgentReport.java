@@ -0,0 +1,29 @@
+package com.aireview.engine.agent;
+
+import com.aireview.engine.report.Issue;
+import com.aireview.engine.report.ReportParser.ParsedReport;
+
+import java.util.List;
+
+/**
+ * Output of one specialised agent.
+ *
+ * @param agent     agent name
+ * @param output    raw model output, as written to {@code review.md}
+ * @param completed {@code false} when the agent could not run at all (missing configuration)
+ * @param parsed    structured view of {@code output}
+ * @param skipped   chunk reviews not run because a BLOCK issue had already decided the commit
+ * @param local     the issues of {@code parsed} found by local checks rather than the model
+ */
+public record AgentReport(String agent, String output, boolean completed, ParsedReport parsed, int skipped,
+                          List<Issue> local) {
+
+    /** A report of an agent that reviewed every chunk it was given, with no local findings. */
+    public AgentReport(String agent, String output, boolean completed, ParsedReport parsed) {
+        this(agent, output, completed, parsed, 0, List.of());
+    }
+
+    public List<Issue> issues() {
+        return parsed.issues();
+    }
+}
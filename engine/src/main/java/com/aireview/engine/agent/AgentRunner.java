@@ -0,0 +1,289 @@
+package com.aireview.engine.agent;
+
+import com.aireview.engine.EngineConfig;
+import com.aireview.engine.cache.HunkIndex;
+import com.aireview.engine.cache.ReviewCache;
+import com.aireview.engine.check.LocalFindings;
+import com.aireview.engine.checklist.Checklist;
+import com.aireview.engine.checklist.ChecklistException;
+import com.aireview.engine.diff.DiffChunk;
+import com.aireview.engine.json.Json;
+import com.aireview.engine.model.ModelClient;
+import com.aireview.engine.model.ModelException;
+import com.aireview.engine.prompt.PromptTemplate;
+import com.aireview.engine.report.Issue;
+import com.aireview.engine.report.IssueSchema;
+import com.aireview.engine.report.ReportParser;
+import com.aireview.engine.report.ReportParser.ParsedReport;
+import com.aireview.engine.report.ReportReader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/**
+ * Runs one specialised agent: renders {@code prompt.txt} with the checklist and each diff
+ * chunk, calls the model and stores the merged answer in {@code .ai/agents/<agent>/review.md}.
+ * This is the in-process equivalent of {@code run_agent} in {@code pre-commit.sh}.
+ *
+ * <p>Answers are looked up in the {@link ReviewCache} first, keyed by the chunk's content,
+ * the agent, the checklist's {@code metadata.version}, the prompt template and the model;
+ * a hit skips the model call entirely.
+ *
+ * <p>Answers are streamed through a {@link ReportReader}, so each issue reaches the caller
+ * as soon as the model has written it, long before the answer is complete.
+ */
+public final class AgentRunner {
+
+    static final String FAILURE_OUTPUT = "# Error\n\nAgent failed to execute";
+
+    private static final String TIMEOUT_OUTPUT = "# Error\n\nAgent timed out";
+
+    /** Output recorded for a chunk whose review passed its deadline. */
+    public static String timedOut(Duration timeout) {
+        return TIMEOUT_OUTPUT + " after " + timeout.toSeconds() + "s";
+    }
+
+    private final EngineConfig config;
+    private final ModelClient model;
+    private final AgentConfigCache configCache;
+    private final ReviewCache reviewCache;
+
+    public AgentRunner(EngineConfig config, ModelClient model, AgentConfigCache configCache, ReviewCache reviewCache) {
+        this.config = config;
+        this.model = model;
+        this.configCache = configCache;
+        this.reviewCache = reviewCache;
+    }
+
+    /** {@code true} when the agent has both {@code prompt.txt} and a valid {@code checklist.yaml}. */
+    public boolean configured(String agent) {
+        return configurationError(agent) == null;
+    }
+
+    /**
+     * Why the agent cannot run, or {@code null} when it can: a missing {@code checklist.yaml}
+     * or {@code prompt.txt}, or a checklist that does not validate.
+     */
+    public String configurationError(String agent) {
+        Path agentDir = config.agentDir(agent);
+        Path checklistFile = agentDir.resolve("checklist.yaml");
+        if (!Files.isRegularFile(checklistFile) || !Files.isRegularFile(agentDir.resolve("prompt.txt"))) {
+            return "configuration not found";
+        }
+        try {
+            configCache.checklist(checklistFile);
+            return null;
+        } catch (ChecklistException e) {
+            return "checklist is invalid: " + e.getMessage();
+        } catch (IOException e) {
+            return "checklist cannot be read: " + e.getMessage();
+        }
+    }
+
+    /**
+     * Records a configuration error for an agent that cannot run. Findings of its local
+     * checks are still reported, since they need no configuration.
+     */
+    public AgentReport misconfigured(String agent, List<Issue> localIssues) throws IOException {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("agent", agent);
+        json.put("issues", localIssues.stream().map(Issue::toJson).toList());
+        json.put("summary", "Configuration error");
+        String output = Json.writeCompact(json);
+        write(config.agentDir(agent).resolve("review.md"), output);
+        return new AgentReport(agent, output, false, new ParsedReport(json, "Configuration error", localIssues),
+                0, List.copyOf(localIssues));
+    }
+
+    /**
+     * What the agent's answers depend on besides the diff: the agent, its checklist's
+     * {@code metadata.version}, its prompt template and the model. Reviews recorded in the
+     * {@link HunkIndex} under another version are not reused.
+     */
+    public String version(String agent) throws IOException {
+        Path agentDir = config.agentDir(agent);
+        return ReviewCache.key(agent, configCache.checklist(agentDir.resolve("checklist.yaml")).version(),
+                configCache.digest(agentDir.resolve("prompt.txt")), config.model());
+    }
+
+    /**
+     * Reviews one diff chunk and returns the model output, or the stored report of an
+     * earlier review of the same chunk. Only answers that parse as a report are stored.
+     *
+     * @param local    the agent's local check results for this chunk; rules that came back
+     *                 clean are left out of the checklist sent to the model
+     * @param streamed receives each issue of the answer as soon as it has been read, possibly
+     *                 from another thread
+     */
+    public String review(String agent, DiffChunk chunk, LocalFindings local, Consumer<Issue> streamed)
+            throws IOException {
+        Path agentDir = config.agentDir(agent);
+        Path promptFile = agentDir.resolve("prompt.txt");
+        Checklist checklist = configCache.checklist(agentDir.resolve("checklist.yaml"));
+        if (!local.handledRules().isEmpty() && local.handledRules().containsAll(checklist.ruleIds())) {
+            // every rule was decided locally; the findings are added by merge()
+            return localOnly(agent);
+        }
+        String key = null;
+        if (reviewCache.enabled()) {
+            key = ReviewCache.key(ReviewCache.hash(chunk.text()), agent,
+                    checklist.version(), configCache.digest(promptFile), config.model(),
+                    String.join(",", new TreeSet<>(local.handledRules())));
+            Optional<String> cached = reviewCache.get(key);
+            if (cached.isPresent()) {
+                new ReportReader(agent, configCache.schema(promptFile), streamed).feed(cached.get());
+                return cached.get();
+            }
+        }
+
+        PromptTemplate template = configCache.template(promptFile);
+        String prompt = template.render(Map.of(
+                "checklist", checklist.prompt(local.handledRules()),
+                "diff", chunk.text()));
+        ReportReader reader = new ReportReader(agent, configCache.schema(promptFile), streamed);
+        String output;
+        try {
+            output = model.complete(agent, prompt, reader::feed);
+        } catch (ModelException e) {
+            return e.output().isEmpty() ? FAILURE_OUTPUT : e.output() + "\n" + FAILURE_OUTPUT;
+        }
+        if (key != null) {
+            ParsedReport parsed = ReportParser.parse(output, agent, configCache.schema(promptFile));
+            if (parsed.parsed()) {
+                reviewCache.put(key, Json.write(parsed.json()));
+            }
+        }
+        return output;
+    }
+
+    /** Parses one of the agent's answers against the issue format of its prompt. */
+    public ParsedReport parse(String agent, String output) throws IOException {
+        return ReportParser.parse(output, agent, configCache.schema(config.agentDir(agent).resolve("prompt.txt")));
+    }
+
+    /**
+     * Combines the outputs of all chunks reviewed by {@code agent}, and the findings of its
+     * local checks, into one report and writes it to {@code review.md}. A single output with
+     * no local findings is stored verbatim; otherwise everything is merged into one JSON
+     * report, followed by the raw text of any output that could not be parsed.
+     *
+     * @param cancelled chunks whose review was cancelled because the commit was already
+     *                  blocked; they have no output
+     * @param partial   issues streamed from the answers of cancelled or timed-out chunks
+     *                  before they were cut off; nothing from chunks that finished
+     * @param reused       hunks left out of the chunks because an earlier review of them was reused
+     * @param reusedIssues the findings of those earlier reviews, at the hunks' current lines
+     */
+    public AgentReport merge(String agent, List<String> outputs, int cancelled, List<Issue> localIssues,
+                             List<Issue> partial, int reused, List<Issue> reusedIssues) throws IOException {
+        Path reviewFile = config.agentDir(agent).resolve("review.md");
+        IssueSchema schema = configCache.schema(config.agentDir(agent).resolve("prompt.txt"));
+        // like a job still running after Wait-Job in pre-commit.ps1, an agent whose every chunk
+        // timed out did not complete; a model error is reported as the agent's output instead
+        boolean completed = outputs.isEmpty() || outputs.stream().anyMatch(output -> !output.startsWith(TIMEOUT_OUTPUT));
+        if (outputs.size() == 1 && cancelled == 0 && localIssues.isEmpty() && partial.isEmpty() && reused == 0) {
+            String output = outputs.get(0);
+            write(reviewFile, output);
+            return new AgentReport(agent, output, completed, ReportParser.parse(output, agent, schema));
+        }
+
+        // chunks of one file share context lines, so the same finding can come back twice
+        Set<Issue> issues = new LinkedHashSet<>(localIssues);
+        issues.addAll(partial);
+        issues.addAll(reusedIssues);
+        Set<String> summaries = new LinkedHashSet<>();
+        List<String> violations = new ArrayList<>();
+        StringBuilder unparsed = new StringBuilder();
+        for (String output : outputs) {
+            ParsedReport parsed = ReportParser.parse(output, agent, schema);
+            // a report cut off mid-way still contributes the issues read before the cut
+            issues.addAll(parsed.issues());
+            violations.addAll(parsed.violations());
+            if (parsed.parsed()) {
+                if (parsed.summary() != null && !parsed.summary().isBlank()) {
+                    summaries.add(parsed.summary());
+                }
+            } else {
+                unparsed.append("\n\n").append(output);
+            }
+        }
+        StringBuilder summary = new StringBuilder();
+        if (outputs.size() > 1) {
+            summary.append("Reviewed ").append(outputs.size()).append(" diff chunks.");
+        }
+        for (String part : summaries) {
+            summary.append(summary.length() > 0 ? " " : "").append(part);
+        }
+        if (!localIssues.isEmpty()) {
+            summary.append(summary.length() > 0 ? " " : "")
+                    .append(localIssues.size()).append(" issue(s) found by local checks.");
+        }
+        if (cancelled > 0) {
+            summary.append(summary.length() > 0 ? " " : "")
+                    .append(cancelled).append(" chunk review(s) skipped: the commit is already blocked.");
+        }
+        if (!partial.isEmpty()) {
+            summary.append(summary.length() > 0 ? " " : "")
+                    .append(partial.size()).append(" issue(s) read before a review was cut off.");
+        }
+        if (reused > 0) {
+            summary.append(summary.length() > 0 ? " " : "")
+                    .append("Reused the review of ").append(reused).append(" unchanged hunk(s).");
+        }
+        if (summary.length() == 0) {
+            summary.append("No summary available");
+        }
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("agent", agent);
+        json.put("review_version", "1.0");
+        json.put("summary", summary.toString());
+        json.put("issues", issues.stream().map(Issue::toJson).toList());
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("agent", agent);
+        metadata.put("chunks", outputs.size());
+        metadata.put("local_issues", localIssues.size());
+        if (cancelled > 0) {
+            metadata.put("cancelled_chunks", cancelled);
+        }
+        if (!partial.isEmpty()) {
+            metadata.put("partial_issues", partial.size());
+        }
+        if (reused > 0) {
+            metadata.put("reused_hunks", reused);
+            metadata.put("reused_issues", reusedIssues.size());
+        }
+        json.put("metadata", metadata);
+
+        String output = Json.write(json) + unparsed;
+        write(reviewFile, output);
+        return new AgentReport(agent, output, completed,
+                new ParsedReport(json, summary.toString(), List.copyOf(issues), violations), cancelled,
+                List.copyOf(localIssues));
+    }
+
+    private static String localOnly(String agent) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("agent", agent);
+        json.put("summary", "Checked locally without a model call.");
+        json.put("issues", List.of());
+        return Json.writeCompact(json);
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content + "\n", StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,98 @@
+package com.aireview.engine.agent;
+
+import com.aireview.engine.EngineConfig;
+import com.aireview.engine.json.Json;
+import com.aireview.engine.json.JsonException;
+import com.aireview.engine.model.ModelClient;
+import com.aireview.engine.model.ModelException;
+import com.aireview.engine.report.ReportParser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregates the agent reports through the summarizer prompt and writes
+ * {@code .ai/last_review.json}; the in-process equivalent of {@code run_summarizer_agent}.
+ * Opt-in ({@code AI_REVIEW_SUMMARIZER=llm}); {@link LocalSummarizer} is the default.
+ */
+public final class LlmSummarizer implements Summarizer {
+
+    static final String API_ERROR =
+            "{\"agent\":\"summarizer\",\"issues\":[],\"summary\":\"API error\",\"recommendation\":\"ALLOW_COMMIT\"}";
+    static final String PARSE_ERROR =
+            "{\"agent\":\"summarizer\",\"issues\":[],\"summary\":\"Parse error\",\"recommendation\":\"ALLOW_COMMIT\"}";
+    static final String CONFIG_ERROR =
+            "{\"agent\":\"summarizer\",\"issues\":[],\"summary\":\"Configuration error\",\"recommendation\":\"ALLOW_COMMIT\"}";
+
+    private final EngineConfig config;
+    private final ModelClient model;
+    private final AgentConfigCache configCache;
+
+    public LlmSummarizer(EngineConfig config, ModelClient model, AgentConfigCache configCache) {
+        this.config = config;
+        this.model = model;
+        this.configCache = configCache;
+    }
+
+    @Override
+    public String summarize(List<AgentReport> reports, List<String> files, List<String> unreviewed)
+            throws IOException {
+        Path promptFile = config.agentDir("summarizer").resolve("prompt.txt");
+        String json;
+        if (!Files.isRegularFile(promptFile)) {
+            json = CONFIG_ERROR;
+        } else {
+            Map<String, String> values = new HashMap<>();
+            for (AgentReport report : reports) {
+                values.put(report.agent() + "_report", report.output());
+            }
+            String prompt = configCache.template(promptFile).render(values)
+                    + "\n\nCRITICAL: Output ONLY valid JSON.";
+            String output;
+            try {
+                output = model.complete("summarizer", prompt);
+            } catch (ModelException e) {
+                output = API_ERROR;
+            }
+            String extracted = ReportParser.extractJson(output);
+            json = extracted != null ? extracted : PARSE_ERROR;
+        }
+        if (!unreviewed.isEmpty()) {
+            json = notReviewed(json, unreviewed);
+        }
+        Path target = config.lastReviewFile();
+        Files.createDirectories(target.getParent());
+        Files.writeString(target, json + "\n", StandardCharsets.UTF_8);
+        return json;
+    }
+
+    /** Adds the files left out past {@code AI_REVIEW_MAX_CHUNKS} to the summarizer's report. */
+    private static String notReviewed(String json, List<String> unreviewed) {
+        Object value;
+        try {
+            value = Json.parse(json);
+        } catch (JsonException e) {
+            return json;
+        }
+        if (!(value instanceof Map<?, ?> map)) {
+            return json;
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, Object> report = (Map<String, Object>) map;
+        Object summary = report.get("summary");
+        report.put("summary", (summary == null ? "" : summary.toString()) + LocalSummarizer.notReviewed(unreviewed));
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        if (report.get("metadata") instanceof Map<?, ?> existing) {
+            existing.forEach((key, entry) -> metadata.put(key.toString(), entry));
+        }
+        metadata.put("unreviewed_files", unreviewed);
+        report.put("metadata", metadata);
+        return Json.write(report);
+    }
+}
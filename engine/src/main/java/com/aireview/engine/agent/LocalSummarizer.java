@@ -0,0 +1,251 @@
+package com.aireview.engine.agent;
+
+import com.aireview.engine.EngineConfig;
+import com.aireview.engine.json.Json;
+import com.aireview.engine.report.Issue;
+import com.aireview.engine.report.Severity;
+import com.aireview.engine.report.Verdict;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Deterministic replacement for the summarizer agent. Applies the deduplication rules of
+ * {@code .ai/agents/summarizer/prompt.txt} without a model call:
+ *
+ * <ul>
+ *   <li>issues from different agents at the same {@code file:line} with a similar message
+ *       are one issue;</li>
+ *   <li>of such duplicates the security agent's message is kept, then quality's, then
+ *       naming's, at the highest severity any of them reported;</li>
+ *   <li>an agent's local check and its model reporting one rule at one {@code file:line}
+ *       are one issue, worded as the local check words it;</li>
+ *   <li>different aspects of one line (dissimilar messages, or another declaration such as a
+ *       method and its parameter) are all kept.</li>
+ * </ul>
+ *
+ * Issues are ordered BLOCK, WARN, INFO, keeping agent order within a severity.
+ */
+public final class LocalSummarizer implements Summarizer {
+
+    /** Word-set overlap above which two messages on one line describe the same problem. */
+    static final double SIMILARITY_THRESHOLD = 0.5;
+
+    /** Agents whose message wins a duplicate, most specific first. */
+    private static final List<String> AGENT_PREFERENCE = List.of("security", "quality", "naming");
+
+    /** A declaration kind followed by its quoted identifier, as the naming checks word it. */
+    private static final Pattern DECLARATION = Pattern.compile(
+            "(?i)\\b(class|interface|enum|record|type|method|constructor|parameter|field|constant|variable)"
+                    + "(?:\\s+name)?\\s+'([^']+)'");
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "the", "and", "for", "use", "should", "this", "that", "with", "from", "are", "not",
+            "instead", "detected", "found", "consider", "variable", "method", "field", "class");
+
+    private final EngineConfig config;
+
+    public LocalSummarizer(EngineConfig config) {
+        this.config = config;
+    }
+
+    @Override
+    public String summarize(List<AgentReport> reports, List<String> files, List<String> unreviewed)
+            throws IOException {
+        List<Issue> issues = aggregate(reports);
+        Verdict verdict = Verdict.of(issues);
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("agent", "summarizer");
+        json.put("review_version", "1.0");
+        json.put("summary", summary(reports, verdict, files.size()) + notReviewed(unreviewed));
+        json.put("recommendation", verdict.recommendation());
+        json.put("issues", issues.stream().map(Issue::toJson).toList());
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("agent", "summarizer");
+        metadata.put("total_issues", verdict.total());
+        metadata.put("block_issues", verdict.block().size());
+        metadata.put("warn_issues", verdict.warn().size());
+        metadata.put("info_issues", verdict.info().size());
+        metadata.put("files_reviewed", files.size());
+        metadata.put("agents_consulted", reports.stream().map(AgentReport::agent).toList());
+        int skipped = reports.stream().mapToInt(AgentReport::skipped).sum();
+        if (skipped > 0) {
+            metadata.put("skipped_reviews", skipped);
+        }
+        if (!unreviewed.isEmpty()) {
+            metadata.put("unreviewed_files", unreviewed);
+        }
+        json.put("metadata", metadata);
+
+        String text = Json.write(json);
+        Path target = config.lastReviewFile();
+        Files.createDirectories(target.getParent());
+        Files.writeString(target, text + "\n", StandardCharsets.UTF_8);
+        return text;
+    }
+
+    /** Merges and deduplicates the agents' issues, most severe first. */
+    static List<Issue> aggregate(List<AgentReport> reports) {
+        List<Issue> candidates = new ArrayList<>();
+        Set<Issue> local = new HashSet<>();
+        reports.stream()
+                .sorted(Comparator.comparingInt(report -> preference(report.agent())))
+                .forEach(report -> {
+                    candidates.addAll(report.issues());
+                    local.addAll(report.local());
+                });
+
+        Map<String, List<Issue>> byLocation = new LinkedHashMap<>();
+        for (Issue candidate : candidates) {
+            List<Issue> kept = byLocation.computeIfAbsent(locationKey(candidate), key -> new ArrayList<>());
+            int duplicate = -1;
+            for (int i = 0; i < kept.size() && duplicate < 0; i++) {
+                if (sameProblem(kept.get(i), candidate, local)) {
+                    duplicate = i;
+                }
+            }
+            if (duplicate < 0) {
+                kept.add(candidate);
+                continue;
+            }
+            // keep the local check's or the preferred agent's wording, never the lower severity
+            Issue preferred = local.contains(candidate) ? candidate : kept.get(duplicate);
+            Severity severity = candidate.severity().compareTo(kept.get(duplicate).severity()) < 0
+                    ? candidate.severity() : kept.get(duplicate).severity();
+            Issue merged = new Issue(preferred.ruleId(), severity, preferred.agent(),
+                    preferred.file(), preferred.line(), preferred.message(), preferred.confidence());
+            if (local.contains(preferred)) {
+                local.add(merged);
+            }
+            kept.set(duplicate, merged);
+        }
+
+        List<Issue> issues = new ArrayList<>();
+        byLocation.values().forEach(issues::addAll);
+        issues.sort(Comparator.comparing(Issue::severity));
+        return issues;
+    }
+
+    /**
+     * Whether two issues at one location describe one problem: two agents with similar
+     * messages, or one agent's local check and model on the same rule and declaration.
+     * Distinct findings of one source are kept apart.
+     *
+     * @param local the issues found by local checks
+     */
+    static boolean sameProblem(Issue a, Issue b, Set<Issue> local) {
+        if (a.agent() == null || !a.agent().equals(b.agent())) {
+            return similarity(a.message(), b.message()) >= SIMILARITY_THRESHOLD;
+        }
+        return local.contains(a) != local.contains(b)
+                && normalizedRule(a).equals(normalizedRule(b))
+                && sameDeclaration(a.message(), b.message());
+    }
+
+    /** {@code SQL_Injection} and {@code sql injection} as {@code sql-injection}. */
+    static String normalizedRule(Issue issue) {
+        String rule = issue.ruleId() == null ? "" : issue.ruleId().toLowerCase(Locale.ROOT);
+        return rule.replaceAll("[^a-z0-9]+", "-").replaceAll("^-|-$", "");
+    }
+
+    /**
+     * {@code false} when both messages name a declaration ({@code Method name 'run'},
+     * {@code parameter 'id'}) and the kinds or identifiers differ.
+     */
+    static boolean sameDeclaration(String a, String b) {
+        Matcher left = DECLARATION.matcher(a == null ? "" : a);
+        Matcher right = DECLARATION.matcher(b == null ? "" : b);
+        if (!left.find() || !right.find()) {
+            return true;
+        }
+        return declarationKind(left.group(1)).equals(declarationKind(right.group(1)))
+                && left.group(2).equals(right.group(2));
+    }
+
+    private static String declarationKind(String word) {
+        String kind = word.toLowerCase(Locale.ROOT);
+        return switch (kind) {
+            case "class", "interface", "enum", "record", "type" -> "type";
+            case "constant" -> "field";
+            default -> kind;
+        };
+    }
+
+    /** Jaccard index of the significant words of two messages. */
+    static double similarity(String a, String b) {
+        Set<String> left = words(a);
+        Set<String> right = words(b);
+        if (left.isEmpty() || right.isEmpty()) {
+            return left.equals(right) ? 1.0 : 0.0;
+        }
+        Set<String> union = new HashSet<>(left);
+        union.addAll(right);
+        left.retainAll(right);
+        return (double) left.size() / union.size();
+    }
+
+    private static Set<String> words(String message) {
+        Set<String> words = new HashSet<>();
+        if (message == null) {
+            return words;
+        }
+        for (String word : message.toLowerCase(Locale.ROOT).split("[^a-z0-9]+")) {
+            if (word.length() >= 3 && !STOP_WORDS.contains(word)) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static String locationKey(Issue issue) {
+        String file = issue.file() == null ? "" : issue.file().trim();
+        if (file.startsWith("./")) {
+            file = file.substring(2);
+        } else if (file.startsWith("b/")) {
+            file = file.substring(2);
+        }
+        String line = issue.line() == null ? "" : issue.line().trim();
+        return file + ":" + line;
+    }
+
+    /** The note on files left out past {@code AI_REVIEW_MAX_CHUNKS}, or nothing. */
+    static String notReviewed(List<String> unreviewed) {
+        return unreviewed.isEmpty() ? "" : " Not reviewed: " + unreviewed.size()
+                + " file(s) past AI_REVIEW_MAX_CHUNKS (" + String.join(", ", unreviewed) + ").";
+    }
+
+    private static int preference(String agent) {
+        int index = AGENT_PREFERENCE.indexOf(agent);
+        return index >= 0 ? index : AGENT_PREFERENCE.size();
+    }
+
+    private static String summary(List<AgentReport> reports, Verdict verdict, int files) {
+        long failed = reports.stream().filter(report -> !report.completed() || !report.parsed().parsed()).count();
+        int skipped = reports.stream().mapToInt(AgentReport::skipped).sum();
+        String agents = failed > 0 ? (reports.size() - failed) + " of " + reports.size() + " agents returned a report."
+                : skipped == 0 ? "All agents completed successfully." : "";
+        if (skipped > 0) {
+            agents += (agents.isEmpty() ? "" : " ") + "Model reviews skipped: commit already blocked ("
+                    + skipped + " chunk review(s)).";
+        }
+        if (verdict.total() == 0) {
+            return agents + " No issues found.";
+        }
+        return "Overall summary: " + verdict.block().size() + " BLOCK, " + verdict.warn().size() + " WARN, "
+                + verdict.info().size() + " INFO issues found across " + files
+                + (files == 1 ? " file. " : " files. ") + agents;
+    }
+}
@@ -0,0 +1,24 @@
+package com.aireview.engine.agent;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Final aggregation stage: merges the specialised agents' reports into the
+ * {@code last_review.json} schema and writes that file.
+ */
+public interface Summarizer {
+
+    /**
+     * @param reports    agent reports in report order
+     * @param files      staged files that were reviewed
+     * @param unreviewed files of the chunks left out past {@code AI_REVIEW_MAX_CHUNKS}
+     * @return the final report JSON text, as written to {@code last_review.json}
+     */
+    String summarize(List<AgentReport> reports, List<String> files, List<String> unreviewed) throws IOException;
+
+    /** Summarizes a review that covered the whole diff. */
+    default String summarize(List<AgentReport> reports, List<String> files) throws IOException {
+        return summarize(reports, files, List.of());
+    }
+}
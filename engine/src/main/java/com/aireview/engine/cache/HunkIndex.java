@@ -0,0 +1,393 @@
+package com.aireview.engine.cache;
+
+import com.aireview.engine.diff.DiffHunk;
+import com.aireview.engine.diff.DiffParser;
+import com.aireview.engine.json.Json;
+import com.aireview.engine.json.JsonException;
+import com.aireview.engine.report.Issue;
+import com.aireview.engine.report.IssueSchema;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The hunks reviewed so far, in {@code .ai/reviewed_hunks.json}, so that a commit retried
+ * after a fix, an amend or a rebase only sends the hunks that changed to the agents.
+ *
+ * <p>A hunk is known by its fingerprint: the SHA-256 of its path and of its changed lines
+ * with {@value #CONTEXT} lines of context on either side, each trimmed and with runs of
+ * whitespace collapsed, so re-indenting or moving the hunk within its file keeps it. An
+ * entry is the fingerprint reviewed by one agent version (see {@link #key}) and holds the
+ * findings of that review, with line numbers as they were; they are moved by the distance
+ * the hunk has moved when reused.
+ *
+ * <p>The file keeps the {@value #MAX_ENTRIES} most recently used entries. It is read once
+ * per review and merged into the current file when saved, so concurrent reviews in the
+ * daemon keep each other's entries; of two hooks saving at once, the last one wins.
+ */
+public final class HunkIndex {
+
+    static final int CONTEXT = 2;
+    static final int MAX_ENTRIES = 4096;
+
+    private static final Pattern NUMBER = Pattern.compile("\\d+");
+    private static final Pattern LEADING_NUMBER = Pattern.compile("\\s*(\\d+)");
+
+    /** One reviewed hunk: when it was last used, where it started and what was found in it. */
+    private record Entry(long used, int anchor, List<Map<String, Object>> issues) {
+
+        Map<String, Object> toJson() {
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("used", used);
+            json.put("anchor", anchor);
+            json.put("issues", issues);
+            return json;
+        }
+    }
+
+    /**
+     * A staged diff divided by the index.
+     *
+     * @param diff         the hunks still to be reviewed, as a diff; the staged diff itself
+     *                     when nothing was reused
+     * @param pending      those hunks
+     * @param reused       hunks every agent has reviewed before, left out of {@code diff}
+     * @param reusedIssues per agent, the stored findings of the reused hunks at their current lines
+     */
+    public record Split(String diff, Set<DiffHunk> pending, List<DiffHunk> reused,
+                        Map<String, List<Issue>> reusedIssues) {
+    }
+
+    private final Path file;
+    private final Map<String, Entry> entries;
+    private final Map<String, Entry> updated = new HashMap<>();
+
+    private HunkIndex(Path file, Map<String, Entry> entries) {
+        this.file = file;
+        this.entries = entries;
+    }
+
+    /** Reads {@code file}; a missing or unreadable index is an empty one. */
+    public static HunkIndex load(Path file) {
+        return new HunkIndex(file, read(file));
+    }
+
+    /** An index that knows no hunk and records nothing. */
+    public static HunkIndex disabled() {
+        return new HunkIndex(null, new HashMap<>());
+    }
+
+    public boolean enabled() {
+        return file != null;
+    }
+
+    /**
+     * Leaves out of {@code diff} the hunks that every agent has reviewed under its current
+     * version. A hunk one agent has not seen is reviewed again by all of them, so each agent
+     * still gets every hunk once.
+     *
+     * @param versions the version of each agent that runs, as given by {@code AgentRunner.version}
+     */
+    public Split split(String diff, Map<String, String> versions) {
+        List<DiffHunk> hunks = enabled() && !versions.isEmpty() ? DiffParser.parse(diff) : List.of();
+        Set<DiffHunk> pending = new LinkedHashSet<>();
+        List<DiffHunk> reused = new ArrayList<>();
+        Map<String, List<Issue>> reusedIssues = new HashMap<>();
+        versions.keySet().forEach(agent -> reusedIssues.put(agent, new ArrayList<>()));
+        for (DiffHunk hunk : hunks) {
+            Map<String, List<Issue>> found = new HashMap<>();
+            versions.forEach((agent, version) -> {
+                List<Issue> issues = reviewed(hunk, key(hunk, version), agent);
+                if (issues != null) {
+                    found.put(agent, issues);
+                }
+            });
+            if (found.size() == versions.size()) {
+                reused.add(hunk);
+                found.forEach((agent, issues) -> reusedIssues.get(agent).addAll(issues));
+            } else {
+                pending.add(hunk);
+            }
+        }
+        if (reused.isEmpty()) {
+            return new Split(diff, pending, List.of(), reusedIssues);
+        }
+        StringBuilder rest = new StringBuilder();
+        String header = null;
+        for (DiffHunk hunk : pending) {
+            if (!hunk.fileHeader().equals(header)) {
+                header = hunk.fileHeader();
+                rest.append(header);
+            }
+            hunk.appendTo(rest);
+        }
+        return new Split(rest.toString(), pending, List.copyOf(reused), reusedIssues);
+    }
+
+    /**
+     * Records the answer of one agent on one chunk: each whole pending hunk of the chunk with
+     * the issues found in it. Hunks cut into pieces to fit the chunk budget are not recorded.
+     */
+    public void record(String version, List<DiffHunk> chunkHunks, List<Issue> issues, Split split) {
+        if (!enabled()) {
+            return;
+        }
+        Map<DiffHunk, List<Issue>> byHunk = attribute(chunkHunks, issues);
+        if (byHunk != null) {
+            byHunk.forEach((hunk, found) -> {
+                if (split.pending().contains(hunk)) {
+                    record(hunk, key(hunk, version), found);
+                }
+            });
+        }
+    }
+
+    /** The entry key of {@code hunk} reviewed by {@code version}. */
+    static String key(DiffHunk hunk, String version) {
+        return ReviewCache.key(fingerprint(hunk), version);
+    }
+
+    /** SHA-256 of the path and the normalised window around the hunk's changes. */
+    static String fingerprint(DiffHunk hunk) {
+        int[] window = window(hunk);
+        StringBuilder text = new StringBuilder(hunk.path()).append('\n');
+        for (int i = window[0]; i < window[1]; i++) {
+            String line = hunk.lines().get(i);
+            if (line.startsWith("\\")) {
+                continue;
+            }
+            text.append(line.charAt(0)).append(line.substring(1).trim().replaceAll("\\s+", " ")).append('\n');
+        }
+        return ReviewCache.hash(text.toString());
+    }
+
+    /** New-file line number of the first line of the window; findings are stored relative to it. */
+    static int anchor(DiffHunk hunk) {
+        int start = window(hunk)[0];
+        int line = hunk.newStart();
+        for (int i = 0; i < start; i++) {
+            char kind = hunk.lines().get(i).charAt(0);
+            if (kind == ' ' || kind == '+') {
+                line++;
+            }
+        }
+        return line;
+    }
+
+    /** Line indexes {@code [from, to)} of the changed lines with {@value #CONTEXT} lines around them. */
+    private static int[] window(DiffHunk hunk) {
+        List<String> lines = hunk.lines();
+        int first = -1;
+        int last = -1;
+        for (int i = 0; i < lines.size(); i++) {
+            char kind = lines.get(i).charAt(0);
+            if (kind == '+' || kind == '-') {
+                if (first < 0) {
+                    first = i;
+                }
+                last = i;
+            }
+        }
+        if (first < 0) {
+            return new int[] {0, lines.size()};
+        }
+        int from = first;
+        for (int context = 0; from > 0 && context < CONTEXT; from--) {
+            if (lines.get(from - 1).charAt(0) == ' ') {
+                context++;
+            }
+        }
+        int to = last + 1;
+        for (int context = 0; to < lines.size() && context < CONTEXT; to++) {
+            if (lines.get(to).charAt(0) == ' ') {
+                context++;
+            }
+        }
+        return new int[] {from, to};
+    }
+
+    /**
+     * The findings of an earlier review of {@code hunk} under {@code key}, moved to where the
+     * hunk is now, or {@code null} when it was not reviewed.
+     */
+    private synchronized List<Issue> reviewed(DiffHunk hunk, String key, String agent) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        int shift = anchor(hunk) - entry.anchor();
+        List<Issue> issues = new ArrayList<>(entry.issues().size());
+        for (Map<String, Object> json : entry.issues()) {
+            Issue issue = IssueSchema.DEFAULT.read(json, agent, new ArrayList<>());
+            if (issue != null) {
+                issues.add(new Issue(issue.ruleId(), issue.severity(), issue.agent(), issue.file(),
+                        shift(issue.line(), shift), issue.message(), issue.confidence()));
+            }
+        }
+        touch(key, new Entry(System.currentTimeMillis(), entry.anchor(), entry.issues()));
+        return issues;
+    }
+
+    /** Records that {@code hunk} was reviewed under {@code key} and {@code issues} were found in it. */
+    private synchronized void record(DiffHunk hunk, String key, List<Issue> issues) {
+        touch(key, new Entry(System.currentTimeMillis(), anchor(hunk), issues.stream().map(Issue::toJson).toList()));
+    }
+
+    private void touch(String key, Entry entry) {
+        entries.put(key, entry);
+        updated.put(key, entry);
+    }
+
+    /**
+     * Assigns each issue of one reviewed chunk to the hunk its file and line fall in.
+     * Returns {@code null} when an issue falls in none of them, such as an answer naming a
+     * file it was not shown or giving no line number; such an answer cannot be reused.
+     */
+    static Map<DiffHunk, List<Issue>> attribute(List<DiffHunk> hunks, List<Issue> issues) {
+        Map<DiffHunk, List<Issue>> byHunk = new LinkedHashMap<>();
+        hunks.forEach(hunk -> byHunk.put(hunk, new ArrayList<>()));
+        for (Issue issue : issues) {
+            Matcher number = LEADING_NUMBER.matcher(issue.line() == null ? "" : issue.line());
+            if (issue.file() == null || !number.lookingAt()) {
+                return null;
+            }
+            int line = Integer.parseInt(number.group(1));
+            DiffHunk owner = null;
+            for (DiffHunk hunk : hunks) {
+                int end = hunk.newStart() + Math.max(1, hunk.newCount());
+                if (samePath(hunk.path(), issue.file()) && line >= hunk.newStart() && line < end) {
+                    owner = hunk;
+                    break;
+                }
+            }
+            if (owner == null) {
+                return null;
+            }
+            byHunk.get(owner).add(issue);
+        }
+        return byHunk;
+    }
+
+    /** Models name files as in the diff, relative, or by their last segments. */
+    private static boolean samePath(String path, String reported) {
+        String name = reported.trim();
+        if (name.startsWith("a/") || name.startsWith("b/")) {
+            name = name.substring(2);
+        }
+        if (name.startsWith("./")) {
+            name = name.substring(2);
+        }
+        return path.equals(name) || path.endsWith("/" + name) || name.endsWith("/" + path);
+    }
+
+    /** Adds {@code shift} to every number of a line as reported, so that ranges move too. */
+    static String shift(String line, int shift) {
+        if (line == null || shift == 0) {
+            return line;
+        }
+        Matcher matcher = NUMBER.matcher(line);
+        StringBuilder shifted = new StringBuilder();
+        while (matcher.find()) {
+            matcher.appendReplacement(shifted, Integer.toString(Math.max(1, Integer.parseInt(matcher.group()) + shift)));
+        }
+        return matcher.appendTail(shifted).toString();
+    }
+
+    /**
+     * Writes the entries used or recorded by this review over the current file, keeping the
+     * most recently used ones. Failures are ignored: the index is an optimisation.
+     */
+    public void save() {
+        if (!enabled()) {
+            return;
+        }
+        synchronized (HunkIndex.class) {
+            Map<String, Entry> merged;
+            synchronized (this) {
+                if (updated.isEmpty()) {
+                    return;
+                }
+                merged = read(file);
+                merged.putAll(updated);
+            }
+            List<Map.Entry<String, Entry>> kept = new ArrayList<>(merged.entrySet());
+            kept.sort(Comparator.comparingLong((Map.Entry<String, Entry> e) -> e.getValue().used()).reversed());
+            Map<String, Object> json = new LinkedHashMap<>();
+            for (Map.Entry<String, Entry> e : kept.subList(0, Math.min(kept.size(), MAX_ENTRIES))) {
+                json.put(e.getKey(), e.getValue().toJson());
+            }
+            Map<String, Object> index = new LinkedHashMap<>();
+            index.put("version", 1);
+            index.put("hunks", json);
+            write(Json.writeCompact(index));
+        }
+    }
+
+    private static Map<String, Entry> read(Path file) {
+        Map<String, Entry> entries = new HashMap<>();
+        if (file == null || !Files.isRegularFile(file)) {
+            return entries;
+        }
+        try {
+            if (Json.parse(Files.readString(file, StandardCharsets.UTF_8)) instanceof Map<?, ?> json
+                    && json.get("hunks") instanceof Map<?, ?> hunks) {
+                hunks.forEach((key, value) -> {
+                    if (value instanceof Map<?, ?> entry && entry.get("used") instanceof Number used
+                            && entry.get("anchor") instanceof Number anchor && entry.get("issues") instanceof List<?> list) {
+                        List<Map<String, Object>> issues = new ArrayList<>();
+                        for (Object issue : list) {
+                            if (issue instanceof Map<?, ?> map) {
+                                Map<String, Object> copy = new LinkedHashMap<>();
+                                map.forEach((field, text) -> copy.put(field.toString(), text));
+                                issues.add(copy);
+                            }
+                        }
+                        entries.put(key.toString(), new Entry(used.longValue(), anchor.intValue(), issues));
+                    }
+                });
+            }
+        } catch (IOException | JsonException e) {
+            // an unreadable index is rebuilt by the next reviews
+        }
+        return entries;
+    }
+
+    private void write(String text) {
+        Path temp = null;
+        try {
+            Files.createDirectories(file.getParent());
+            temp = Files.createTempFile(file.getParent(), "reviewed_hunks", ".tmp");
+            Files.writeString(temp, text + "\n", StandardCharsets.UTF_8);
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            temp = null;
+        } catch (IOException e) {
+            // read-only checkout or full disk: the next commit reviews every hunk again
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // best effort
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.aireview.engine.cache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed store of agent reviews under {@code .ai/cache/}. One file per entry,
+ * named by the SHA-256 of everything that determines the model's answer (see
+ * {@link #key(String...)}), so an unchanged chunk re-reviewed by the same agent, checklist
+ * version, prompt and model is answered from disk.
+ *
+ * <p>Eviction is least-recently-used by file modification time: a hit touches the entry,
+ * and {@link #evict()} deletes the oldest entries until the store fits in its byte budget.
+ * Writes go through a temporary file and an atomic rename, so concurrent agents and
+ * concurrent commits never observe a partial entry.
+ */
+public final class ReviewCache {
+
+    private static final String SUFFIX = ".json";
+
+    private final Path dir;
+    private final long maxBytes;
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger writes = new AtomicInteger();
+
+    /**
+     * @param dir      cache directory; {@code null} disables the cache
+     * @param maxBytes total size the store is trimmed to by {@link #evict()}
+     */
+    public ReviewCache(Path dir, long maxBytes) {
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+    }
+
+    /** A cache that never hits and never writes. */
+    public static ReviewCache disabled() {
+        return new ReviewCache(null, 0);
+    }
+
+    public boolean enabled() {
+        return dir != null;
+    }
+
+    /** SHA-256 over the key parts, each terminated by a NUL so parts cannot run together. */
+    public static String key(String... parts) {
+        MessageDigest digest = sha256();
+        for (String part : parts) {
+            digest.update((part == null ? "" : part).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /** SHA-256 of {@code text}, hex encoded. */
+    public static String hash(String text) {
+        return HexFormat.of().formatHex(sha256().digest(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /** Returns the stored review for {@code key} and marks it recently used. */
+    public Optional<String> get(String key) {
+        if (dir == null) {
+            return Optional.empty();
+        }
+        Path entry = entry(key);
+        try {
+            String value = Files.readString(entry, StandardCharsets.UTF_8);
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+            hits.incrementAndGet();
+            return Optional.of(value);
+        } catch (IOException e) {
+            // absent or unreadable entry: a miss, the review simply runs again
+            return Optional.empty();
+        }
+    }
+
+    /** Stores {@code value} under {@code key}. Failures are ignored: the cache is an optimisation. */
+    public void put(String key, String value) {
+        if (dir == null) {
+            return;
+        }
+        Path entry = entry(key);
+        try {
+            Files.createDirectories(entry.getParent());
+            Path temp = Files.createTempFile(entry.getParent(), key.substring(0, 8), ".tmp");
+            Files.writeString(temp, value, StandardCharsets.UTF_8);
+            try {
+                Files.move(temp, entry, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING);
+            }
+            writes.incrementAndGet();
+        } catch (IOException e) {
+            // read-only checkout or full disk: review without caching
+        }
+    }
+
+    /** Deletes least-recently-used entries until the store is within its byte budget. */
+    public void evict() {
+        if (dir == null || writes.get() == 0 || !Files.isDirectory(dir)) {
+            return;
+        }
+        record Stored(Path path, long size, long used) {
+        }
+        List<Stored> entries = new ArrayList<>();
+        long total = 0;
+        try (Stream<Path> files = Files.walk(dir, 2)) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                if (!path.getFileName().toString().endsWith(SUFFIX)) {
+                    continue;
+                }
+                BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+                entries.add(new Stored(path, attrs.size(), attrs.lastModifiedTime().toMillis()));
+                total += attrs.size();
+            }
+        } catch (IOException | UncheckedIOException e) {
+            return;
+        }
+        if (total <= maxBytes) {
+            return;
+        }
+        entries.sort(Comparator.comparingLong(Stored::used));
+        for (Stored stored : entries) {
+            if (total <= maxBytes) {
+                break;
+            }
+            try {
+                Files.deleteIfExists(stored.path());
+                total -= stored.size();
+            } catch (IOException e) {
+                // in use on Windows; try the next one
+            }
+        }
+    }
+
+    /** Number of lookups answered from the cache so far. */
+    public int hits() {
+        return hits.get();
+    }
+
+    private Path entry(String key) {
+        // two-level fan-out keeps directories small, as in .git/objects
+        return dir.resolve(key.substring(0, 2)).resolve(key.substring(2) + SUFFIX);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.aireview.engine.check;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Aho-Corasick automaton over ASCII patterns: finds every occurrence of every pattern in
+ * one left-to-right pass, independent of the number of patterns. Transitions are a dense
+ * {@code state x 128} table; non-ASCII input characters reset to the root state.
+ */
+final class AhoCorasick {
+
+    /** Receives a match of pattern {@code pattern} starting at {@code start}. */
+    @FunctionalInterface
+    interface MatchConsumer {
+        void accept(int pattern, int start);
+    }
+
+    private static final int ALPHABET = 128;
+    private static final int[] NONE = new int[0];
+
+    private final boolean ignoreCase;
+    private final int[] lengths;
+    private final int[][] next;
+    private final int[][] outputs;
+
+    /**
+     * @param patterns   ASCII patterns; the index in this list identifies a match
+     * @param ignoreCase match ASCII letters case-insensitively
+     */
+    AhoCorasick(List<String> patterns, boolean ignoreCase) {
+        this.ignoreCase = ignoreCase;
+        this.lengths = new int[patterns.size()];
+
+        List<int[]> gotoTable = new ArrayList<>();
+        List<int[]> found = new ArrayList<>();
+        gotoTable.add(newRow());
+        found.add(NONE);
+        for (int p = 0; p < patterns.size(); p++) {
+            String pattern = patterns.get(p);
+            lengths[p] = pattern.length();
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                int c = fold(pattern.charAt(i));
+                if (c >= ALPHABET) {
+                    throw new IllegalArgumentException("Non-ASCII pattern: " + pattern);
+                }
+                if (gotoTable.get(state)[c] < 0) {
+                    gotoTable.get(state)[c] = gotoTable.size();
+                    gotoTable.add(newRow());
+                    found.add(NONE);
+                }
+                state = gotoTable.get(state)[c];
+            }
+            found.set(state, append(found.get(state), p));
+        }
+
+        int states = gotoTable.size();
+        next = gotoTable.toArray(new int[0][]);
+        outputs = found.toArray(new int[0][]);
+        int[] fail = new int[states];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int c = 0; c < ALPHABET; c++) {
+            if (next[0][c] < 0) {
+                next[0][c] = 0;
+            } else {
+                fail[next[0][c]] = 0;
+                queue.add(next[0][c]);
+            }
+        }
+        // breadth-first: a state's failure link is complete before its children are visited
+        while (!queue.isEmpty()) {
+            int state = queue.remove();
+            outputs[state] = merge(outputs[state], outputs[fail[state]]);
+            for (int c = 0; c < ALPHABET; c++) {
+                int child = next[state][c];
+                if (child < 0) {
+                    next[state][c] = next[fail[state]][c];
+                } else {
+                    fail[child] = next[fail[state]][c];
+                    queue.add(child);
+                }
+            }
+        }
+    }
+
+    /** Reports every pattern occurrence in {@code text}, in order of match end. */
+    void search(CharSequence text, MatchConsumer consumer) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            int c = fold(text.charAt(i));
+            state = c < ALPHABET ? next[state][c] : 0;
+            for (int pattern : outputs[state]) {
+                consumer.accept(pattern, i - lengths[pattern] + 1);
+            }
+        }
+    }
+
+    private int fold(char c) {
+        return ignoreCase && c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+    }
+
+    private static int[] newRow() {
+        int[] row = new int[ALPHABET];
+        Arrays.fill(row, -1);
+        return row;
+    }
+
+    private static int[] append(int[] values, int value) {
+        int[] copy = Arrays.copyOf(values, values.length + 1);
+        copy[values.length] = value;
+        return copy;
+    }
+
+    private static int[] merge(int[] own, int[] inherited) {
+        if (inherited.length == 0) {
+            return own;
+        }
+        int[] merged = Arrays.copyOf(own, own.length + inherited.length);
+        System.arraycopy(inherited, 0, merged, own.length, inherited.length);
+        return merged;
+    }
+}
@@ -0,0 +1,228 @@
+package com.aireview.engine.check;
+
+import com.aireview.engine.report.Severity;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.NewArrayTree;
+import com.sun.source.tree.NewClassTree;
+import com.sun.source.util.TreeScanner;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Local implementation of the security checklist's {@code command-injection} rule.
+ *
+ * <p>The sinks are {@code Runtime.exec}, the {@code ProcessBuilder} constructors and
+ * {@code command(...)}, and {@code ProcessBuilder.start}. Each argument of the command is read
+ * through a {@link StringFlow}, including the elements of arrays and lists built in the
+ * method:
+ *
+ * <ul>
+ *   <li>A method parameter or request input is a BLOCK issue with HIGH confidence.</li>
+ *   <li>A field, a call result or a name the method does not declare is a WARN issue with
+ *       MEDIUM confidence. The model is still asked about it.</li>
+ *   <li>A command whose arguments are all constants is clean.</li>
+ * </ul>
+ *
+ * A chunk whose commands are all constant needs no model review of the rule. A chunk that
+ * starts a builder configured elsewhere, or passes a command the analysis cannot read, keeps
+ * the rule in the checklist.
+ */
+public final class CommandInjectionChecker extends FlowChecker {
+
+    static final String RULE_ID = "command-injection";
+
+    private static final Pattern RUNTIME_NAME = Pattern.compile("(?i)runtime|rt");
+    private static final Pattern BUILDER_NAME = Pattern.compile("(?i)pb|processBuilder");
+    /** {@code ProcessBuilder} methods returning the builder, followed to find the one started. */
+    private static final Set<String> BUILDER_CHAIN = Set.of(
+            "command", "directory", "inheritIO", "redirectErrorStream", "redirectInput", "redirectOutput",
+            "redirectError");
+    /** Calls whose arguments are the elements of the list or array they return. */
+    private static final Set<String> LIST_FACTORIES = Set.of("of", "asList", "singletonList", "ofEntries");
+
+    public CommandInjectionChecker() {
+        this(new JavaFiles());
+    }
+
+    /** A checker reading the syntax trees of {@code javaFiles}, shared with the other checks. */
+    public CommandInjectionChecker(JavaFiles javaFiles) {
+        super(javaFiles);
+    }
+
+    @Override
+    public String ruleId() {
+        return RULE_ID;
+    }
+
+    @Override
+    void analyse(JavaFiles.Parsed file, StringFlow flow, MethodTree method, Analysis analysis) {
+        new Method(file, flow, analysis).scan(method.getBody(), null);
+    }
+
+    /** Finds the commands of one method body. */
+    private static final class Method extends TreeScanner<Void, Void> {
+
+        private final JavaFiles.Parsed file;
+        private final StringFlow flow;
+        private final Analysis analysis;
+        /** Positions of the values reported, so a value reaching two sinks is reported once. */
+        private final Set<Long> reported = new HashSet<>();
+
+        Method(JavaFiles.Parsed file, StringFlow flow, Analysis analysis) {
+            this.file = file;
+            this.flow = flow;
+            this.analysis = analysis;
+        }
+
+        @Override
+        public Void visitClass(ClassTree tree, Void unused) {
+            return null;
+        }
+
+        @Override
+        public Void visitNewClass(NewClassTree tree, Void unused) {
+            if (StringFlow.simpleName(tree.getIdentifier()).equals("ProcessBuilder") && tree.getClassBody() == null) {
+                command(tree.getArguments(), "ProcessBuilder", file.line(tree));
+            }
+            return super.visitNewClass(tree, unused);
+        }
+
+        @Override
+        public Void visitMethodInvocation(MethodInvocationTree tree, Void unused) {
+            String name = name(tree);
+            ExpressionTree receiver = receiver(tree);
+            if (name.equals("exec") && !tree.getArguments().isEmpty() && runtime(receiver)) {
+                // the other arguments are the environment and the working directory
+                command(tree.getArguments().subList(0, 1), "Runtime.exec()", file.line(tree));
+            } else if (name.equals("command") && !tree.getArguments().isEmpty() && builder(receiver) != null) {
+                command(tree.getArguments(), "ProcessBuilder.command()", file.line(tree));
+            } else if (name.equals("start") && tree.getArguments().isEmpty()) {
+                ExpressionTree started = builder(receiver);
+                if (started instanceof IdentifierTree identifier && flow.assigned(identifier.getName().toString()).isEmpty()) {
+                    // a builder passed in or kept in a field: its command was set elsewhere
+                    analysis.undecided.add(file.line(tree));
+                }
+            }
+            return super.visitMethodInvocation(tree, unused);
+        }
+
+        /** Reports the non-constant arguments of a command run at {@code sinkLine}. */
+        private void command(List<? extends ExpressionTree> args, String sink, int sinkLine) {
+            for (ExpressionTree arg : args) {
+                element(arg, sink, sinkLine, new HashSet<>());
+            }
+        }
+
+        private void element(ExpressionTree arg, String sink, int sinkLine, Set<String> seen) {
+            if (arg instanceof NewArrayTree array) {
+                if (array.getInitializers() == null) {
+                    // new String[n], filled in later
+                    analysis.undecided.add(sinkLine);
+                    return;
+                }
+                array.getInitializers().forEach(element -> element(element, sink, sinkLine, seen));
+                return;
+            }
+            if (arg instanceof MethodInvocationTree call && LIST_FACTORIES.contains(name(call))) {
+                call.getArguments().forEach(element -> element(element, sink, sinkLine, seen));
+                return;
+            }
+            if (arg instanceof NewClassTree created && !StringFlow.simpleName(created.getIdentifier()).equals("String")) {
+                // new ArrayList<>(elements)
+                created.getArguments().forEach(element -> element(element, sink, sinkLine, seen));
+                return;
+            }
+            if (arg instanceof IdentifierTree identifier && flow.value(arg).kind() == StringFlow.Kind.OTHER) {
+                String name = identifier.getName().toString();
+                List<ExpressionTree> assigned = flow.assigned(name);
+                if (!assigned.isEmpty()) {
+                    // a local array or list: its elements
+                    if (seen.add(name)) {
+                        assigned.forEach(element -> element(element, sink, sinkLine, seen));
+                    }
+                    return;
+                }
+            }
+            StringFlow.Value value = flow.value(arg);
+            if (value.kind() == StringFlow.Kind.NUMBER) {
+                return;
+            }
+            if (value.constant()) {
+                if (!value.literal() && value.kind() == StringFlow.Kind.OTHER) {
+                    // an expression the analysis cannot read
+                    analysis.undecided.add(sinkLine);
+                }
+                return;
+            }
+            for (StringFlow.Part part : value.parts()) {
+                if (part.kind() == StringFlow.Kind.NUMBER || !reported.add(part.position())) {
+                    continue;
+                }
+                int line = file.line(part.position());
+                boolean untrusted = part.origin() == StringFlow.Origin.PARAMETER
+                        || part.origin() == StringFlow.Origin.INPUT;
+                analysis.findings.add(new Finding(line, sinkLine,
+                        untrusted ? Severity.BLOCK : Severity.WARN, untrusted ? "HIGH" : "MEDIUM",
+                        message(part, value.literal(), sink, untrusted)));
+                if (!untrusted) {
+                    analysis.undecided.add(line);
+                }
+            }
+        }
+
+        /** {@code Runtime.getRuntime()}, or a variable of type {@code Runtime}. */
+        private boolean runtime(ExpressionTree receiver) {
+            if (receiver instanceof MethodInvocationTree call) {
+                return name(call).equals("getRuntime");
+            }
+            if (receiver instanceof IdentifierTree identifier) {
+                String name = identifier.getName().toString();
+                String type = flow.declaredType(name);
+                return type != null ? type.equals("Runtime") : RUNTIME_NAME.matcher(name).matches();
+            }
+            return false;
+        }
+
+        /**
+         * The {@code new ProcessBuilder(...)} or variable at the root of a builder chain such as
+         * {@code pb.directory(dir).start()}, or {@code null} when {@code receiver} is no builder.
+         */
+        private ExpressionTree builder(ExpressionTree receiver) {
+            ExpressionTree root = receiver;
+            while (root instanceof MethodInvocationTree call && BUILDER_CHAIN.contains(name(call))) {
+                root = receiver(call);
+            }
+            if (root instanceof NewClassTree created) {
+                return StringFlow.simpleName(created.getIdentifier()).equals("ProcessBuilder") ? root : null;
+            }
+            if (root instanceof IdentifierTree identifier) {
+                String name = identifier.getName().toString();
+                String type = flow.declaredType(name);
+                boolean builder = type != null ? type.equals("ProcessBuilder") : BUILDER_NAME.matcher(name).matches();
+                return builder ? root : null;
+            }
+            return null;
+        }
+    }
+
+    private static String message(StringFlow.Part part, boolean built, String sink, boolean untrusted) {
+        String what = switch (part.origin()) {
+            case PARAMETER -> "Parameter '" + part.name() + "'";
+            case INPUT -> "Input from " + part.name();
+            case FIELD -> "Field '" + part.name() + "'";
+            case CALL -> "The result of " + part.name();
+            default -> "'" + part.name() + "'";
+        };
+        String how = built ? " is built into the command run by " : " is passed to the command run by ";
+        return what + how + sink + (untrusted
+                ? ". Check it against an allow-list, pass it as a separate argument and never through a shell (sh -c, cmd /c)."
+                : ". Make sure it cannot hold user input.");
+    }
+}
@@ -0,0 +1,275 @@
+package com.aireview.engine.check;
+
+import com.aireview.engine.report.Severity;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.NewClassTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.util.TreeScanner;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Local implementation of the security checklist's {@code unsafe-deserialization} rule.
+ *
+ * <p>Type names are resolved through the file's imports ({@link TypeScope}), so a project
+ * class that happens to be called {@code XStream} is not taken for the library. The cases:
+ *
+ * <ul>
+ *   <li>{@code ObjectInputStream.readObject}/{@code readUnshared} on a stream the method
+ *       creates without {@code setObjectInputFilter} or a {@code resolveClass} override, and
+ *       {@code SerializationUtils.deserialize} or {@code XMLDecoder.readObject}: BLOCK with
+ *       HIGH confidence.</li>
+ *   <li>Jackson default typing ({@code enableDefaultTyping}, or {@code activateDefaultTyping}
+ *       with the {@code LaissezFaireSubTypeValidator}) and XStream's
+ *       {@code AnyTypePermission.ANY}: BLOCK with HIGH confidence.</li>
+ *   <li>{@code readObject} on a stream passed in or kept in a field, and {@code fromXML} on an
+ *       XStream given no type permissions (safe from XStream 1.4.18 on): BLOCK with MEDIUM
+ *       confidence, and left to the model as well.</li>
+ * </ul>
+ *
+ * A process-wide {@code ObjectInputFilter.Config.setSerialFilter} in the file counts as a
+ * filter on every stream. Code with none of these calls is decided without the model.
+ */
+public final class DeserializationChecker extends FlowChecker {
+
+    static final String RULE_ID = "unsafe-deserialization";
+
+    private static final String OBJECT_INPUT_STREAM = "java.io.ObjectInputStream";
+    private static final String XSTREAM = "com.thoughtworks.xstream.XStream";
+    private static final List<String> SERIALIZATION_UTILS = List.of(
+            "org.apache.commons.lang3.SerializationUtils", "org.apache.commons.lang.SerializationUtils",
+            "org.springframework.util.SerializationUtils");
+    /** The serialization hooks of a class, which read from the stream already being filtered. */
+    private static final Set<String> HOOKS = Set.of("readObject", "readExternal", "readObjectNoData");
+    /** XStream calls limiting the types it creates. */
+    private static final Set<String> XSTREAM_PERMISSIONS = Set.of(
+            "allowTypes", "allowTypesByWildcard", "allowTypesByRegExp", "allowTypeHierarchy", "addPermission",
+            "setupDefaultSecurity");
+    private static final String FILTER_ADVICE = " Set an ObjectInputFilter allowing only the expected classes "
+            + "(stream.setObjectInputFilter(...)), or avoid Java serialization for data from outside.";
+
+    /** The file whose process-wide filter was looked for last, so each file is scanned once. */
+    private JavaFiles.Parsed filterFile;
+    private boolean serialFilter;
+
+    public DeserializationChecker() {
+        this(new JavaFiles());
+    }
+
+    /** A checker reading the syntax trees of {@code javaFiles}, shared with the other checks. */
+    public DeserializationChecker(JavaFiles javaFiles) {
+        super(javaFiles);
+    }
+
+    @Override
+    public String ruleId() {
+        return RULE_ID;
+    }
+
+    @Override
+    void analyse(JavaFiles.Parsed file, StringFlow flow, MethodTree method, Analysis analysis) {
+        if (HOOKS.contains(method.getName().toString()) && method.getParameters().size() == 1) {
+            // private void readObject(ObjectInputStream in): the caller's stream and filter
+            return;
+        }
+        Configured configured = new Configured(file);
+        configured.scan(method.getBody(), null);
+        new Method(file, flow, configured, serialFilter(file), analysis).scan(method.getBody(), null);
+    }
+
+    private boolean serialFilter(JavaFiles.Parsed file) {
+        if (file != filterFile) {
+            filterFile = file;
+            boolean[] found = {false};
+            new TreeScanner<Void, Void>() {
+                @Override
+                public Void visitMethodInvocation(MethodInvocationTree tree, Void unused) {
+                    found[0] |= name(tree).equals("setSerialFilter");
+                    return super.visitMethodInvocation(tree, unused);
+                }
+            }.scan(file.unit(), null);
+            serialFilter = found[0];
+        }
+        return serialFilter;
+    }
+
+    /** The variables a method gives an input filter or XStream type permissions. */
+    private static final class Configured extends TreeScanner<Void, Void> {
+
+        private final JavaFiles.Parsed file;
+        final Set<String> filtered = new HashSet<>();
+        final Set<String> permitted = new HashSet<>();
+
+        Configured(JavaFiles.Parsed file) {
+            this.file = file;
+        }
+
+        @Override
+        public Void visitClass(ClassTree tree, Void unused) {
+            return null;
+        }
+
+        @Override
+        public Void visitMethodInvocation(MethodInvocationTree tree, Void unused) {
+            String name = name(tree);
+            if (name.equals("setObjectInputFilter")) {
+                filtered.add(root(receiver(tree)));
+            } else if (XSTREAM_PERMISSIONS.contains(name)) {
+                ExpressionTree receiver = receiver(tree);
+                if (name.equals("setupDefaultSecurity") && !tree.getArguments().isEmpty()) {
+                    // XStream.setupDefaultSecurity(xstream)
+                    permitted.add(root(tree.getArguments().get(0)));
+                } else if (receiver != null && !file.types().refersTo(receiver.toString(), XSTREAM)) {
+                    permitted.add(root(receiver));
+                }
+            }
+            return super.visitMethodInvocation(tree, unused);
+        }
+    }
+
+    /** Finds the deserialization calls of one method body. */
+    private static final class Method extends TreeScanner<Void, Void> {
+
+        private final JavaFiles.Parsed file;
+        private final StringFlow flow;
+        private final Configured configured;
+        private final boolean serialFilter;
+        private final Analysis analysis;
+
+        Method(JavaFiles.Parsed file, StringFlow flow, Configured configured, boolean serialFilter,
+               Analysis analysis) {
+            this.file = file;
+            this.flow = flow;
+            this.configured = configured;
+            this.serialFilter = serialFilter;
+            this.analysis = analysis;
+        }
+
+        @Override
+        public Void visitClass(ClassTree tree, Void unused) {
+            return null;
+        }
+
+        @Override
+        public Void visitMethodInvocation(MethodInvocationTree tree, Void unused) {
+            String name = name(tree);
+            ExpressionTree receiver = receiver(tree);
+            TypeScope types = file.types();
+            int line = file.line(tree);
+            if ((name.equals("readObject") || name.equals("readUnshared")) && receiver != null) {
+                String type = writtenType(flow, receiver);
+                if (name.equals("readObject") && types.refersTo(type, "java.beans.XMLDecoder")) {
+                    high(line, "XMLDecoder.readObject() runs the constructors and setters its input names, so "
+                            + "decoding untrusted XML with it executes attacker-chosen code. Use a data format "
+                            + "parsed into known types instead.");
+                } else if (types.refersTo(type, OBJECT_INPUT_STREAM) || types.refersTo(type, "java.io.ObjectInput")) {
+                    stream(receiver, name, line);
+                }
+            } else if (name.equals("deserialize") && receiver != null
+                    && SERIALIZATION_UTILS.stream().anyMatch(utils -> types.refersTo(receiver.toString(), utils))) {
+                high(line, receiver + ".deserialize() reads with a plain ObjectInputStream and no filter, so any "
+                        + "class on the class path can be instantiated from the bytes." + FILTER_ADVICE);
+            } else if (name.equals("fromXML") && receiver != null && types.refersTo(writtenType(flow, receiver), XSTREAM)
+                    && !configured.permitted.contains(root(receiver))) {
+                analysis.findings.add(new Finding(line, -1, Severity.BLOCK, "MEDIUM", "XStream.fromXML() on an "
+                        + "XStream given no type permissions: before XStream 1.4.18 this instantiates any class the "
+                        + "XML names. Call allowTypes(...) or addPermission(...) with the expected types."));
+                analysis.undecided.add(line);
+            } else if (name.equals("addPermission") && tree.getArguments().size() == 1
+                    && anyType(tree.getArguments().get(0))) {
+                high(line, "addPermission(AnyTypePermission.ANY) lets XStream instantiate any class the XML names. "
+                        + "Allow only the expected types with allowTypes(...).");
+            } else if ((name.equals("enableDefaultTyping") || name.equals("enableDefaultTypingAsProperty"))
+                    && types.imports("com.fasterxml.jackson")) {
+                high(line, name + "() makes Jackson create whatever class the JSON names, the basis of the known "
+                        + "gadget-chain exploits. Use activateDefaultTyping() with a PolymorphicTypeValidator that "
+                        + "allows only your own types, or @JsonTypeInfo on the types that need it.");
+            } else if (name.startsWith("activateDefaultTyping") && !tree.getArguments().isEmpty()
+                    && laissezFaire(tree.getArguments().get(0))) {
+                high(line, name + "() with LaissezFaireSubTypeValidator validates nothing: Jackson creates whatever "
+                        + "class the JSON names. Build a BasicPolymorphicTypeValidator allowing only your own types.");
+            }
+            return super.visitMethodInvocation(tree, unused);
+        }
+
+        /** {@code readObject} on an {@code ObjectInputStream}. */
+        private void stream(ExpressionTree receiver, String call, int line) {
+            String holder = root(receiver);
+            if (serialFilter || configured.filtered.contains(holder)) {
+                return;
+            }
+            NewClassTree created = receiver instanceof NewClassTree inline ? inline : created(holder);
+            if (created != null && resolvesClasses(created)) {
+                // a look-ahead stream checking each class before it is loaded
+                return;
+            }
+            if (created != null && file.types().refersTo(created.getIdentifier(), OBJECT_INPUT_STREAM)) {
+                high(line, call + "() on an ObjectInputStream without an input filter instantiates any "
+                        + "serializable class on the class path the bytes name, the basis of gadget-chain exploits."
+                        + FILTER_ADVICE);
+            } else {
+                // passed in or kept in a field: the filter may be set where it was created
+                analysis.findings.add(new Finding(line, -1, Severity.BLOCK, "MEDIUM", call + "() on a stream "
+                        + "created elsewhere; unless it has an input filter, any serializable class can be "
+                        + "instantiated from the bytes." + FILTER_ADVICE));
+                analysis.undecided.add(line);
+            }
+        }
+
+        /** The {@code new} last assigned to the local {@code holder}, or {@code null}. */
+        private NewClassTree created(String holder) {
+            List<ExpressionTree> assigned = holder == null ? List.of() : flow.assigned(holder);
+            return !assigned.isEmpty() && assigned.get(assigned.size() - 1) instanceof NewClassTree created
+                    ? created : null;
+        }
+
+        private boolean anyType(ExpressionTree permission) {
+            return permission instanceof MemberSelectTree member && member.getIdentifier().contentEquals("ANY")
+                    && file.types().refersTo(member.getExpression().toString(),
+                    "com.thoughtworks.xstream.security.AnyTypePermission");
+        }
+
+        private boolean laissezFaire(ExpressionTree validator) {
+            String laissezFaire = "com.fasterxml.jackson.databind.jsontype.impl.LaissezFaireSubTypeValidator";
+            if (validator instanceof MemberSelectTree member) {
+                return file.types().refersTo(member.getExpression().toString(), laissezFaire);
+            }
+            return file.types().refersTo(writtenType(flow, validator), laissezFaire);
+        }
+
+        private void high(int line, String message) {
+            analysis.findings.add(new Finding(line, -1, Severity.BLOCK, "HIGH", message));
+        }
+    }
+
+    /** An anonymous subclass overriding {@code resolveClass}. */
+    private static boolean resolvesClasses(NewClassTree created) {
+        if (created.getClassBody() == null) {
+            return false;
+        }
+        for (Tree member : created.getClassBody().getMembers()) {
+            if (member instanceof MethodTree method && method.getName().contentEquals("resolveClass")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** The variable at the root of {@code expression}, {@code in} for {@code in} or {@code this.in}, or {@code null}. */
+    private static String root(ExpressionTree expression) {
+        if (expression instanceof IdentifierTree identifier) {
+            return identifier.getName().toString();
+        }
+        if (expression instanceof MemberSelectTree member && member.getExpression().toString().equals("this")) {
+            return member.getIdentifier().toString();
+        }
+        return null;
+    }
+}
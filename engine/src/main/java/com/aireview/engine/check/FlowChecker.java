@@ -0,0 +1,198 @@
+package com.aireview.engine.check;
+
+import com.aireview.engine.diff.AddedLine;
+import com.aireview.engine.diff.DiffHunk;
+import com.aireview.engine.report.Issue;
+import com.aireview.engine.report.Severity;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.NewClassTree;
+import com.sun.source.tree.ParenthesizedTree;
+import com.sun.source.tree.TypeCastTree;
+import com.sun.source.util.TreeScanner;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Base of the security checks that read each method of a staged Java file through a
+ * {@link StringFlow}. A file is analysed once per review, whichever chunk first holds it;
+ * each chunk then gets the findings on its added lines.
+ *
+ * <p>A chunk is decided when none of its added lines holds a case the analysis left to the
+ * model, so the rule stays in the checklist only where the model has something to judge.
+ */
+abstract class FlowChecker implements LocalCheck {
+
+    /**
+     * One reported value.
+     *
+     * @param line     line of the value
+     * @param sinkLine line of the call it reaches, or -1; the issue goes there when only the
+     *                 call is on an added line
+     */
+    record Finding(int line, int sinkLine, Severity severity, String confidence, String message) {
+    }
+
+    /** What the analysis of one file found. */
+    static final class Analysis {
+
+        final List<Finding> findings = new ArrayList<>();
+        /** Lines holding a case left to the model. */
+        final Set<Integer> undecided = new HashSet<>();
+    }
+
+    private final JavaFiles javaFiles;
+    private final Map<String, Analysis> byFile = new HashMap<>();
+
+    FlowChecker(JavaFiles javaFiles) {
+        this.javaFiles = javaFiles;
+    }
+
+    @Override
+    public String agent() {
+        return "security";
+    }
+
+    /** Adds what {@code method} holds to {@code analysis}. */
+    abstract void analyse(JavaFiles.Parsed file, StringFlow flow, MethodTree method, Analysis analysis);
+
+    /** Adds what the field initializers of {@code type} hold to {@code analysis}; most checks need only methods. */
+    void analyseFields(JavaFiles.Parsed file, ClassTree type, Analysis analysis) {
+    }
+
+    @Override
+    public List<Issue> check(List<DiffHunk> hunks, StagedSources sources) {
+        List<Issue> issues = new ArrayList<>();
+        analyse(hunks, sources).forEach((path, added) -> {
+            Analysis analysis = byFile.get(path);
+            if (analysis == null) {
+                return;
+            }
+            for (Finding finding : analysis.findings) {
+                int line = added.contains(finding.line()) ? finding.line()
+                        : added.contains(finding.sinkLine()) ? finding.sinkLine() : -1;
+                if (line > 0) {
+                    issues.add(new Issue(ruleId(), finding.severity(), agent(), path, Integer.toString(line),
+                            finding.message(), finding.confidence()));
+                }
+            }
+        });
+        return issues;
+    }
+
+    /** Decided unless an added line holds a case left to the model, or a file did not parse. */
+    @Override
+    public boolean decided(List<DiffHunk> hunks, List<Issue> found, StagedSources sources) {
+        for (Map.Entry<String, Set<Integer>> entry : analyse(hunks, sources).entrySet()) {
+            Analysis analysis = byFile.get(entry.getKey());
+            if (analysis == null || entry.getValue().stream().anyMatch(analysis.undecided::contains)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Analyses the Java files of {@code hunks} not seen before; returns their added lines. */
+    private Map<String, Set<Integer>> analyse(List<DiffHunk> hunks, StagedSources sources) {
+        Map<String, Set<Integer>> added = new LinkedHashMap<>();
+        for (DiffHunk hunk : hunks) {
+            if (!hunk.path().endsWith(".java")) {
+                continue;
+            }
+            for (AddedLine line : hunk.addedLines()) {
+                added.computeIfAbsent(line.path(), path -> new HashSet<>()).add(line.line());
+            }
+        }
+        List<String> unseen = added.keySet().stream().filter(path -> !byFile.containsKey(path)).toList();
+        if (!unseen.isEmpty()) {
+            Map<String, JavaFiles.Parsed> parsed = javaFiles.parse(unseen, sources);
+            for (String path : unseen) {
+                JavaFiles.Parsed file = parsed.get(path);
+                if (file != null) {
+                    Analysis analysis = new Analysis();
+                    new Methods(file, analysis).scan(file.unit(), null);
+                    byFile.put(path, analysis);
+                }
+            }
+        }
+        return added;
+    }
+
+    /** Name of the called method, e.g. {@code exec} for {@code runtime.exec(cmd)}. */
+    static String name(MethodInvocationTree call) {
+        ExpressionTree select = call.getMethodSelect();
+        return select instanceof MemberSelectTree member ? member.getIdentifier().toString() : select.toString();
+    }
+
+    /** The expression a method is called on, or {@code null} for an unqualified call. */
+    static ExpressionTree receiver(MethodInvocationTree call) {
+        return call.getMethodSelect() instanceof MemberSelectTree member ? member.getExpression() : null;
+    }
+
+    /**
+     * The type of {@code expression} as written in the file, such as {@code Random} or
+     * {@code java.util.Random}: the declared type of a variable, or the class a {@code new}
+     * creates. {@code null} for other expressions; {@link TypeScope} says what it names.
+     */
+    static String writtenType(StringFlow flow, ExpressionTree expression) {
+        if (expression instanceof ParenthesizedTree parenthesized) {
+            return writtenType(flow, parenthesized.getExpression());
+        }
+        if (expression instanceof TypeCastTree cast) {
+            return cast.getType().toString();
+        }
+        if (expression instanceof NewClassTree created) {
+            return created.getIdentifier().toString();
+        }
+        if (expression instanceof IdentifierTree identifier) {
+            return flow.writtenType(identifier.getName().toString());
+        }
+        if (expression instanceof MemberSelectTree member && member.getExpression().toString().equals("this")) {
+            return flow.writtenType(member.getIdentifier().toString());
+        }
+        return null;
+    }
+
+    /** Hands every class and method of a file to the subclass, with the fields of its enclosing classes in view. */
+    private final class Methods extends TreeScanner<Void, Void> {
+
+        private final JavaFiles.Parsed file;
+        private final Analysis analysis;
+        private final List<ClassTree> classes = new ArrayList<>();
+
+        Methods(JavaFiles.Parsed file, Analysis analysis) {
+            this.file = file;
+            this.analysis = analysis;
+        }
+
+        @Override
+        public Void visitClass(ClassTree tree, Void unused) {
+            analyseFields(file, tree, analysis);
+            classes.add(tree);
+            try {
+                return super.visitClass(tree, unused);
+            } finally {
+                classes.remove(classes.size() - 1);
+            }
+        }
+
+        @Override
+        public Void visitMethod(MethodTree tree, Void unused) {
+            if (tree.getBody() != null) {
+                analyse(file, new StringFlow(file, classes, tree), tree, analysis);
+            }
+            // local and anonymous classes in the body
+            return super.visitMethod(tree, unused);
+        }
+    }
+}
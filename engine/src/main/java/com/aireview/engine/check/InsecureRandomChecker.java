@@ -0,0 +1,191 @@
+package com.aireview.engine.check;
+
+import com.aireview.engine.report.Severity;
+import com.sun.source.tree.AssignmentTree;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.NewClassTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.TreePath;
+import com.sun.source.util.TreePathScanner;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Local implementation of the security checklist's {@code insecure-random} rule.
+ *
+ * <p>Finds the predictable random sources: {@code java.util.Random} and
+ * {@code SplittableRandom} (created, or called through a variable declared so),
+ * {@code ThreadLocalRandom.current()}, {@code Math.random()} and commons-lang's
+ * {@code RandomStringUtils.random*}. Type names are resolved through the file's imports
+ * ({@link TypeScope}), so {@code SecureRandom} or a project class called {@code Random} is
+ * never flagged.
+ *
+ * <p>A source is a BLOCK issue with HIGH confidence when the names around it say what it
+ * makes: the variable or field it is assigned to, the random variable itself, the calls it is
+ * passed to, and the enclosing method and class. A name such as {@code resetToken},
+ * {@code SESSION_RANDOM} or {@code PasswordGenerator} holds a security word; {@code jitter} or
+ * {@code shuffle} does not, and that use is clean. The rule is decided without the model
+ * either way.
+ */
+public final class InsecureRandomChecker extends FlowChecker {
+
+    static final String RULE_ID = "insecure-random";
+
+    private static final List<String> RANDOM_TYPES = List.of("java.util.Random", "java.util.SplittableRandom");
+    private static final List<String> STRING_UTILS = List.of(
+            "org.apache.commons.lang3.RandomStringUtils", "org.apache.commons.lang.RandomStringUtils");
+    /** Words of a name that put a random value in a security context. */
+    private static final Set<String> SECURITY_WORDS = Set.of(
+            "token", "tokens", "password", "passwords", "passwd", "pwd", "passphrase", "secret", "secrets", "session",
+            "sessions", "sid", "nonce", "salt", "otp", "totp", "csrf", "xsrf", "auth", "credential", "credentials",
+            "apikey", "key", "keys", "iv", "pin", "captcha", "verification", "reset", "activation", "jwt", "cookie",
+            "signature", "cipher", "crypto", "encrypt", "encryption");
+    /** Splits {@code resetToken}, {@code RESET_TOKEN} and {@code APIKey} into words. */
+    private static final Pattern WORD_BREAK = Pattern.compile(
+            "[_$.\\s]+|(?<=[a-z0-9])(?=[A-Z])|(?<=[A-Z])(?=[A-Z][a-z])");
+
+    public InsecureRandomChecker() {
+        this(new JavaFiles());
+    }
+
+    /** A checker reading the syntax trees of {@code javaFiles}, shared with the other checks. */
+    public InsecureRandomChecker(JavaFiles javaFiles) {
+        super(javaFiles);
+    }
+
+    @Override
+    public String ruleId() {
+        return RULE_ID;
+    }
+
+    @Override
+    void analyse(JavaFiles.Parsed file, StringFlow flow, MethodTree method, Analysis analysis) {
+        List<String> context = new ArrayList<>();
+        context.add(method.getName().toString());
+        if (flow.enclosingClass() != null) {
+            context.add(flow.enclosingClass().getSimpleName().toString());
+        }
+        new Method(file, flow, context, analysis).scan(new TreePath(new TreePath(file.unit()), method.getBody()), null);
+    }
+
+    @Override
+    void analyseFields(JavaFiles.Parsed file, ClassTree type, Analysis analysis) {
+        for (Tree member : type.getMembers()) {
+            if (member instanceof VariableTree field && field.getInitializer() instanceof NewClassTree created
+                    && RANDOM_TYPES.stream().anyMatch(random -> file.types().refersTo(created.getIdentifier(), random))) {
+                // private static final Random TOKEN_RANDOM = new Random();
+                if (sensitive(field.getName().toString()) || sensitive(type.getSimpleName().toString())) {
+                    analysis.findings.add(new Finding(file.line(created), -1, Severity.BLOCK, "HIGH",
+                            message("new " + created.getIdentifier() + "()", field.getName().toString())));
+                }
+            }
+        }
+    }
+
+    /** Finds the random sources of one method body. */
+    private static final class Method extends TreePathScanner<Void, Void> {
+
+        private final JavaFiles.Parsed file;
+        private final StringFlow flow;
+        /** Names of the enclosing method and class. */
+        private final List<String> context;
+        private final Analysis analysis;
+        private final Set<Integer> reported = new HashSet<>();
+
+        Method(JavaFiles.Parsed file, StringFlow flow, List<String> context, Analysis analysis) {
+            this.file = file;
+            this.flow = flow;
+            this.context = context;
+            this.analysis = analysis;
+        }
+
+        @Override
+        public Void visitClass(ClassTree tree, Void unused) {
+            return null;
+        }
+
+        @Override
+        public Void visitNewClass(NewClassTree tree, Void unused) {
+            if (tree.getClassBody() == null && random(tree.getIdentifier().toString())) {
+                source(tree, "new " + tree.getIdentifier() + "()", null);
+            }
+            return super.visitNewClass(tree, unused);
+        }
+
+        @Override
+        public Void visitMethodInvocation(MethodInvocationTree tree, Void unused) {
+            String name = name(tree);
+            ExpressionTree receiver = receiver(tree);
+            TypeScope types = file.types();
+            if (name.equals("random") && tree.getArguments().isEmpty() && (receiver == null
+                    ? types.staticImport("random", "java.lang.Math")
+                    : types.refersTo(receiver.toString(), "java.lang.Math")
+                    || types.refersTo(receiver.toString(), "java.lang.StrictMath"))) {
+                source(tree, "Math.random()", null);
+            } else if (name.equals("current") && receiver != null
+                    && types.refersTo(receiver.toString(), "java.util.concurrent.ThreadLocalRandom")) {
+                source(tree, "ThreadLocalRandom.current()", null);
+            } else if (name.startsWith("random") && receiver != null
+                    && STRING_UTILS.stream().anyMatch(utils -> types.refersTo(receiver.toString(), utils))) {
+                source(tree, "RandomStringUtils." + name + "()", null);
+            } else if (name.startsWith("next") || name.equals("ints") || name.equals("longs") || name.equals("doubles")) {
+                if (receiver != null && random(writtenType(flow, receiver))) {
+                    source(tree, "java.util.Random", receiver.toString());
+                }
+            }
+            return super.visitMethodInvocation(tree, unused);
+        }
+
+        private boolean random(String type) {
+            return RANDOM_TYPES.stream().anyMatch(random -> file.types().refersTo(type, random));
+        }
+
+        /** Reports {@code source} when a name around it holds a security word. */
+        private void source(Tree source, String what, String holder) {
+            List<String> names = new ArrayList<>();
+            if (holder != null) {
+                names.add(holder);
+            }
+            for (TreePath path = getCurrentPath(); path != null; path = path.getParentPath()) {
+                Tree tree = path.getLeaf();
+                if (tree instanceof VariableTree variable) {
+                    names.add(variable.getName().toString());
+                } else if (tree instanceof AssignmentTree assignment) {
+                    names.add(assignment.getVariable().toString());
+                } else if (tree instanceof MethodInvocationTree call && call != source) {
+                    names.add(name(call));
+                }
+            }
+            names.addAll(context);
+            String sensitive = names.stream().filter(InsecureRandomChecker::sensitive).findFirst().orElse(null);
+            int line = file.line(source);
+            if (sensitive != null && reported.add(line)) {
+                analysis.findings.add(new Finding(line, -1, Severity.BLOCK, "HIGH", message(what, sensitive)));
+            }
+        }
+    }
+
+    /** Whether {@code name} holds a security word. */
+    private static boolean sensitive(String name) {
+        for (String word : WORD_BREAK.split(name)) {
+            if (SECURITY_WORDS.contains(word.toLowerCase(Locale.ROOT))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String message(String what, String name) {
+        return what + " is predictable: a few observed outputs give away the ones that follow, so it must not be used "
+                + "for '" + name + "'. Use java.security.SecureRandom.";
+    }
+}
@@ -0,0 +1,125 @@
+package com.aireview.engine.check;
+
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.util.JavacTask;
+import com.sun.source.util.SourcePositions;
+import com.sun.source.util.Trees;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Staged {@code .java} files parsed with the JDK's own parser ({@code com.sun.source}, no
+ * attribution or class path needed), shared by the checks that read syntax trees. A review
+ * parses each file once, however many checks and chunks look at it.
+ */
+public final class JavaFiles {
+
+    /**
+     * One parsed file.
+     *
+     * @param path      file path as shown in the diff
+     * @param unit      the syntax tree; the parser recovers from syntax errors
+     * @param positions source positions of the tree's nodes
+     * @param source    the staged content
+     * @param types     what the type names of the file refer to
+     */
+    public record Parsed(String path, CompilationUnitTree unit, SourcePositions positions, String source,
+                         TypeScope types) {
+
+        /** 1-based line of a source position. */
+        public int line(long position) {
+            return (int) unit.getLineMap().getLineNumber(position);
+        }
+
+        /** Line on which {@code tree} starts, or -1 when the parser gave it no position. */
+        public int line(Tree tree) {
+            long position = positions.getStartPosition(unit, tree);
+            return position < 0 ? -1 : line(position);
+        }
+    }
+
+    /** {@code null} for files that could not be read or parsed. */
+    private final Map<String, Parsed> parsed = new HashMap<>();
+
+    /** {@code true} when the running JDK ships the compiler module the files are parsed with. */
+    public static boolean available() {
+        try {
+            return ToolProvider.getSystemJavaCompiler() != null;
+        } catch (RuntimeException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns the parsed {@code paths}, parsing those not seen before in one compiler task.
+     * Files that cannot be read or parsed are left out.
+     */
+    public synchronized Map<String, Parsed> parse(Collection<String> paths, StagedSources sources) {
+        List<JavaFileObject> files = new ArrayList<>();
+        Map<URI, String> pathByUri = new HashMap<>();
+        Map<String, String> contents = new HashMap<>();
+        for (String path : paths) {
+            if (parsed.containsKey(path) || contents.containsKey(path)) {
+                continue;
+            }
+            String source = sources.read(path);
+            parsed.put(path, null);
+            if (source != null) {
+                StagedFile file = new StagedFile(files.size(), source);
+                files.add(file);
+                pathByUri.put(file.toUri(), path);
+                contents.put(path, source);
+            }
+        }
+        if (!files.isEmpty()) {
+            JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+            // syntax errors are the compiler's business; the parser recovers and checks read what it found
+            JavacTask task = (JavacTask) compiler.getTask(null, null, diagnostic -> { },
+                    List.of("-proc:none"), null, files);
+            SourcePositions positions = Trees.instance(task).getSourcePositions();
+            try {
+                for (CompilationUnitTree unit : task.parse()) {
+                    // the compiler wraps our file objects, so match them back by URI
+                    String path = pathByUri.get(unit.getSourceFile().toUri());
+                    parsed.put(path, new Parsed(path, unit, positions, contents.get(path), new TypeScope(unit)));
+                }
+            } catch (IOException | RuntimeException e) {
+                // unparseable input: checks report nothing rather than guess
+            }
+        }
+        Map<String, Parsed> result = new HashMap<>();
+        for (String path : paths) {
+            Parsed file = parsed.get(path);
+            if (file != null) {
+                result.put(path, file);
+            }
+        }
+        return result;
+    }
+
+    private static final class StagedFile extends SimpleJavaFileObject {
+
+        private final String source;
+
+        StagedFile(int index, String source) {
+            super(URI.create("staged:///" + index + Kind.SOURCE.extension), Kind.SOURCE);
+            this.source = source;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return source;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.aireview.engine.check;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/** The naming styles of the {@code naming-conventions} rule, with conversions for suggestions. */
+final class JavaNames {
+
+    static final Pattern PASCAL_CASE = Pattern.compile("[A-Z][A-Za-z0-9]*");
+    static final Pattern CAMEL_CASE = Pattern.compile("[a-z][A-Za-z0-9]*");
+    static final Pattern UPPER_SNAKE_CASE = Pattern.compile("[A-Z][A-Z0-9]*(?:_[A-Z0-9]+)*");
+    static final Pattern PACKAGE = Pattern.compile("[a-z][a-z0-9_]*(?:\\.[a-z][a-z0-9_]*)*");
+
+    /** Type-encoding prefixes ({@code strName}, {@code objUser}) the checklist asks to avoid. */
+    private static final Pattern HUNGARIAN = Pattern.compile("(?:str|sz|bln|obj|arr|lst|dbl|flt|lng)[A-Z][A-Za-z0-9]*");
+
+    private JavaNames() {
+    }
+
+    static boolean isHungarian(String name) {
+        return HUNGARIAN.matcher(name).matches();
+    }
+
+    /** {@code strUserName} becomes {@code userName}. */
+    static String withoutTypePrefix(String name) {
+        List<String> words = words(name);
+        return camelCase(String.join("_", words.subList(1, words.size())));
+    }
+
+    static String pascalCase(String name) {
+        StringBuilder out = new StringBuilder(name.length());
+        for (String word : words(name)) {
+            out.append(capitalize(word));
+        }
+        return out.toString();
+    }
+
+    static String camelCase(String name) {
+        StringBuilder out = new StringBuilder(name.length());
+        for (String word : words(name)) {
+            out.append(out.length() == 0 ? word.toLowerCase(Locale.ROOT) : capitalize(word));
+        }
+        return out.toString();
+    }
+
+    static String upperSnakeCase(String name) {
+        return String.join("_", words(name)).toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Splits an identifier into words at underscores, lower-to-upper transitions and the end
+     * of an acronym: {@code save_user_data}, {@code saveUserData} and {@code SaveUSERData}
+     * all give {@code save, user, data} (modulo case).
+     */
+    static List<String> words(String name) {
+        List<String> words = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '_' || c == '$') {
+                flush(words, word);
+                continue;
+            }
+            if (word.length() > 0 && Character.isUpperCase(c)) {
+                char previous = word.charAt(word.length() - 1);
+                boolean nextIsLower = i + 1 < name.length() && Character.isLowerCase(name.charAt(i + 1));
+                if (!Character.isUpperCase(previous) || nextIsLower) {
+                    flush(words, word);
+                }
+            }
+            word.append(c);
+        }
+        flush(words, word);
+        return words;
+    }
+
+    private static void flush(List<String> words, StringBuilder word) {
+        if (word.length() > 0) {
+            words.add(word.toString());
+            word.setLength(0);
+        }
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1).toLowerCase(Locale.ROOT);
+    }
+}
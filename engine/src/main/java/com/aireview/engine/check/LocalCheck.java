@@ -0,0 +1,51 @@
+package com.aireview.engine.check;
+
+import com.aireview.engine.diff.DiffHunk;
+import com.aireview.engine.report.Issue;
+
+import java.util.List;
+
+/**
+ * A checklist rule evaluated in-process instead of by the model. Findings are added to the
+ * owning agent's report; when a chunk has none, the rule is removed from the checklist the
+ * agent receives for that chunk, so the model does not spend tokens re-checking it.
+ * {@linkplain #authoritative() Authoritative} checks remove their rule in every case, others
+ * may {@linkplain #decided decide} for themselves, and an agent whose rules are all handled
+ * locally is not called at all.
+ */
+public interface LocalCheck {
+
+    /** Agent whose checklist defines the rule, e.g. {@code security}. */
+    String agent();
+
+    /** Checklist rule id, e.g. {@code hardcoded-secret}. */
+    String ruleId();
+
+    /**
+     * {@code true} when the check fully replaces the model for its rule, so the rule is left
+     * out of the checklist even when the check found something.
+     */
+    default boolean authoritative() {
+        return false;
+    }
+
+    /**
+     * Returns the rule's findings in the given hunks, with new-file line numbers.
+     *
+     * @param sources staged file contents, for checks that need more than the changed lines
+     */
+    List<Issue> check(List<DiffHunk> hunks, StagedSources sources);
+
+    /**
+     * {@code true} when the rule can be left out of the checklist sent with {@code hunks}: by
+     * default when {@link #check} found nothing there, and always for an authoritative check.
+     * A check that tells clear cases from unclear ones may settle the rule despite findings,
+     * or keep it for the model while an unclear case is left. Called after {@code check}
+     * with the same hunks.
+     *
+     * @param found what {@code check} returned for {@code hunks}
+     */
+    default boolean decided(List<DiffHunk> hunks, List<Issue> found, StagedSources sources) {
+        return found.isEmpty() || authoritative();
+    }
+}
@@ -0,0 +1,81 @@
+package com.aireview.engine.check;
+
+import com.aireview.engine.diff.DiffHunk;
+import com.aireview.engine.report.Issue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/** The set of {@link LocalCheck}s the engine runs before calling the agents. */
+public final class LocalChecks {
+
+    private final List<LocalCheck> checks;
+    /** Parsed files shared by the checks that read syntax trees, or {@code null} when none do. */
+    private final JavaFiles javaFiles;
+
+    public LocalChecks(List<LocalCheck> checks) {
+        this(checks, null);
+    }
+
+    private LocalChecks(List<LocalCheck> checks, JavaFiles javaFiles) {
+        this.checks = List.copyOf(checks);
+        this.javaFiles = javaFiles;
+    }
+
+    /**
+     * The built-in checks. The checks reading syntax trees share one {@link JavaFiles}; they need
+     * the JDK's compiler module and are left out on a bare runtime, where their agents review
+     * through the model as before.
+     */
+    public static LocalChecks defaults() {
+        List<LocalCheck> checks = new ArrayList<>();
+        checks.add(new SecretScanner());
+        JavaFiles javaFiles = null;
+        if (JavaFiles.available()) {
+            javaFiles = new JavaFiles();
+            checks.add(new NamingChecker(javaFiles));
+            checks.add(new SqlInjectionChecker(javaFiles));
+            checks.add(new CommandInjectionChecker(javaFiles));
+            checks.add(new PathTraversalChecker(javaFiles));
+            checks.add(new XxeChecker(javaFiles));
+            checks.add(new DeserializationChecker(javaFiles));
+            checks.add(new InsecureRandomChecker(javaFiles));
+        }
+        return new LocalChecks(checks, javaFiles);
+    }
+
+    /**
+     * Starts parsing the staged {@code .java} files among {@code paths} on a background thread,
+     * so the parse overlaps the rest of the review's set-up. A check reaching a file before the
+     * parse is done waits for it.
+     */
+    public void prepare(List<String> paths, StagedSources sources) {
+        List<String> java = paths.stream().filter(path -> path.endsWith(".java")).toList();
+        if (javaFiles == null || java.isEmpty()) {
+            return;
+        }
+        Thread parser = new Thread(() -> javaFiles.parse(java, sources), "ai-review-parse");
+        parser.setDaemon(true);
+        parser.start();
+    }
+
+    /** Runs {@code agent}'s checks over one chunk's hunks. */
+    public LocalFindings run(String agent, List<DiffHunk> hunks, StagedSources sources) {
+        List<Issue> issues = new ArrayList<>();
+        Set<String> handled = new TreeSet<>();
+        for (LocalCheck check : checks) {
+            if (!check.agent().equals(agent)) {
+                continue;
+            }
+            List<Issue> found = check.check(hunks, sources);
+            if (check.decided(hunks, found, sources)) {
+                handled.add(check.ruleId());
+            }
+            issues.addAll(found);
+        }
+        return issues.isEmpty() && handled.isEmpty() ? LocalFindings.NONE
+                : new LocalFindings(List.copyOf(issues), Set.copyOf(handled));
+    }
+}
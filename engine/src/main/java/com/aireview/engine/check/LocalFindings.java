@@ -0,0 +1,17 @@
+package com.aireview.engine.check;
+
+import com.aireview.engine.report.Issue;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Outcome of an agent's local checks on one diff chunk.
+ *
+ * @param issues       findings to add to the agent's report
+ * @param handledRules rules left out of the agent's checklist: the ones its checks decided
+ */
+public record LocalFindings(List<Issue> issues, Set<String> handledRules) {
+
+    public static final LocalFindings NONE = new LocalFindings(List.of(), Set.of());
+}
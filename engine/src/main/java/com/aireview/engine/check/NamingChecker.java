@@ -0,0 +1,319 @@
+package com.aireview.engine.check;
+
+import com.aireview.engine.diff.AddedLine;
+import com.aireview.engine.diff.DiffHunk;
+import com.aireview.engine.report.Issue;
+import com.aireview.engine.report.Severity;
+import com.sun.source.tree.AnnotationTree;
+import com.sun.source.tree.BlockTree;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.LambdaExpressionTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.ModifiersTree;
+import com.sun.source.tree.PrimitiveTypeTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.SourcePositions;
+import com.sun.source.util.TreeScanner;
+
+import javax.lang.model.element.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local, model-free implementation of the naming agent's {@code naming-conventions} rule.
+ *
+ * <p>Each staged {@code .java} file touched by the diff is read from {@link JavaFiles}, parsed
+ * once with the JDK's own parser. Declarations whose name sits on an added line are checked:
+ *
+ * <ul>
+ *   <li>classes, interfaces, enums, records and annotations: PascalCase;</li>
+ *   <li>methods, fields, parameters and local variables: camelCase, without Hungarian
+ *       type prefixes;</li>
+ *   <li>{@code static final} fields of primitive or {@code String} type, interface
+ *       constants and enum constants: UPPER_SNAKE_CASE;</li>
+ *   <li>packages: lower case.</li>
+ * </ul>
+ *
+ * Overriding methods (named by their supertype), single-letter names and
+ * {@code serialVersionUID} are not reported. The check is authoritative: the naming agent
+ * is not called when the checker is available.
+ */
+public final class NamingChecker implements LocalCheck {
+
+    static final String RULE_ID = "naming-conventions";
+
+    private static final Set<String> CONSTANT_TYPES = Set.of("String", "java.lang.String");
+
+    private final JavaFiles javaFiles;
+    /** Violations per file; a file split across chunks is checked only once. */
+    private final Map<String, SortedMap<Integer, List<Issue>>> byFile = new HashMap<>();
+
+    public NamingChecker() {
+        this(new JavaFiles());
+    }
+
+    /** A checker reading the syntax trees of {@code javaFiles}, shared with the other checks. */
+    public NamingChecker(JavaFiles javaFiles) {
+        this.javaFiles = javaFiles;
+    }
+
+    /** {@code true} when the running JDK ships the compiler module this checker parses with. */
+    public static boolean available() {
+        return JavaFiles.available();
+    }
+
+    @Override
+    public String agent() {
+        return "naming";
+    }
+
+    @Override
+    public String ruleId() {
+        return RULE_ID;
+    }
+
+    @Override
+    public boolean authoritative() {
+        return true;
+    }
+
+    @Override
+    public List<Issue> check(List<DiffHunk> hunks, StagedSources sources) {
+        Map<String, Set<Integer>> added = new LinkedHashMap<>();
+        for (DiffHunk hunk : hunks) {
+            if (!hunk.path().endsWith(".java")) {
+                continue;
+            }
+            for (AddedLine line : hunk.addedLines()) {
+                added.computeIfAbsent(line.path(), path -> new HashSet<>()).add(line.line());
+            }
+        }
+        List<String> unchecked = added.keySet().stream().filter(path -> !byFile.containsKey(path)).toList();
+        if (!unchecked.isEmpty()) {
+            Map<String, JavaFiles.Parsed> parsed = javaFiles.parse(unchecked, sources);
+            for (String path : unchecked) {
+                SortedMap<Integer, List<Issue>> violations = new TreeMap<>();
+                byFile.put(path, violations);
+                JavaFiles.Parsed file = parsed.get(path);
+                if (file != null) {
+                    new Visitor(file, violations).scan(file.unit(), null);
+                }
+            }
+        }
+
+        List<Issue> issues = new ArrayList<>();
+        added.forEach((path, lines) -> byFile.get(path).forEach((line, found) -> {
+            if (lines.contains(line)) {
+                issues.addAll(found);
+            }
+        }));
+        return issues;
+    }
+
+    /** Walks one compilation unit and records a violation for every badly named declaration. */
+    private final class Visitor extends TreeScanner<Void, Void> {
+
+        private final String path;
+        private final CompilationUnitTree unit;
+        private final SourcePositions positions;
+        private final Map<Integer, List<Issue>> violations;
+        private final String source;
+        /** Enclosing declarations: a type kind, {@code METHOD} (parameters), {@code LAMBDA_EXPRESSION} or {@code BLOCK}. */
+        private final List<Tree.Kind> owners = new ArrayList<>();
+
+        Visitor(JavaFiles.Parsed file, Map<Integer, List<Issue>> violations) {
+            this.path = file.path();
+            this.unit = file.unit();
+            this.positions = file.positions();
+            this.violations = violations;
+            this.source = file.source();
+        }
+
+        @Override
+        public Void visitCompilationUnit(CompilationUnitTree tree, Void unused) {
+            if (tree.getPackage() != null) {
+                String name = tree.getPackageName().toString();
+                if (!JavaNames.PACKAGE.matcher(name).matches()) {
+                    report(positions.getStartPosition(unit, tree.getPackageName()),
+                            "Package name '" + name + "' should be lowercase with dots: '"
+                                    + name.toLowerCase(Locale.ROOT) + "'.");
+                }
+            }
+            return super.visitCompilationUnit(tree, unused);
+        }
+
+        @Override
+        public Void visitClass(ClassTree tree, Void unused) {
+            String name = tree.getSimpleName().toString();
+            if (!name.isEmpty() && !JavaNames.PASCAL_CASE.matcher(name).matches()) {
+                report(nameAfter(tree, tree.getModifiers(), name),
+                        kindName(tree.getKind()) + " name '" + name + "' should be PascalCase: '"
+                                + JavaNames.pascalCase(name) + "'.");
+            }
+            return within(tree.getKind(), () -> super.visitClass(tree, unused));
+        }
+
+        @Override
+        public Void visitMethod(MethodTree tree, Void unused) {
+            String name = tree.getName().toString();
+            boolean constructor = name.equals("<init>");
+            if (!constructor && !overrides(tree.getModifiers()) && !acceptable(name)
+                    && !JavaNames.CAMEL_CASE.matcher(name).matches()) {
+                Tree after = tree.getReturnType() != null ? tree.getReturnType() : tree.getModifiers();
+                report(nameAfter(tree, after, name), "Method name '" + name
+                        + "' should be camelCase: '" + JavaNames.camelCase(name) + "'.");
+            }
+            return within(Tree.Kind.METHOD, () -> super.visitMethod(tree, unused));
+        }
+
+        @Override
+        public Void visitLambdaExpression(LambdaExpressionTree tree, Void unused) {
+            return within(Tree.Kind.LAMBDA_EXPRESSION, () -> super.visitLambdaExpression(tree, unused));
+        }
+
+        @Override
+        public Void visitBlock(BlockTree tree, Void unused) {
+            // method bodies and initializer blocks declare locals, not fields
+            return within(Tree.Kind.BLOCK, () -> super.visitBlock(tree, unused));
+        }
+
+        private Void within(Tree.Kind owner, Supplier<Void> visit) {
+            owners.add(owner);
+            try {
+                return visit.get();
+            } finally {
+                owners.remove(owners.size() - 1);
+            }
+        }
+
+        @Override
+        public Void visitVariable(VariableTree tree, Void unused) {
+            checkVariable(tree);
+            return super.visitVariable(tree, unused);
+        }
+
+        private void checkVariable(VariableTree tree) {
+            String name = tree.getName().toString();
+            if (acceptable(name) || name.equals("serialVersionUID")) {
+                return;
+            }
+            Tree.Kind owner = owners.isEmpty() ? null : owners.get(owners.size() - 1);
+            long namePosition = nameAfter(tree, tree.getType() != null ? tree.getType() : tree.getModifiers(), name);
+            boolean parameter = owner == Tree.Kind.METHOD || owner == Tree.Kind.LAMBDA_EXPRESSION;
+            boolean member = owner != null && !parameter && owner != Tree.Kind.BLOCK;
+
+            if (member && owner == Tree.Kind.ENUM && isEnumConstant(tree)) {
+                if (!JavaNames.UPPER_SNAKE_CASE.matcher(name).matches()) {
+                    report(namePosition, "Enum constant '" + name
+                            + "' should be UPPER_SNAKE_CASE: '" + JavaNames.upperSnakeCase(name) + "'.");
+                }
+                return;
+            }
+            Set<Modifier> flags = tree.getModifiers().getFlags();
+            boolean staticFinal = member && (owner == Tree.Kind.INTERFACE
+                    || flags.contains(Modifier.STATIC) && flags.contains(Modifier.FINAL));
+            boolean upperSnake = JavaNames.UPPER_SNAKE_CASE.matcher(name).matches();
+            boolean camel = JavaNames.CAMEL_CASE.matcher(name).matches();
+            if (staticFinal && isConstantType(tree.getType())) {
+                if (!upperSnake) {
+                    report(namePosition, "Constant '" + name
+                            + "' should be UPPER_SNAKE_CASE: '" + JavaNames.upperSnakeCase(name) + "'.");
+                }
+                return;
+            }
+            if (staticFinal && upperSnake) {
+                // static final objects (loggers, registries) may be written either way
+                return;
+            }
+            String what = member ? "Field" : parameter ? "Parameter" : "Variable";
+            if (!camel) {
+                report(namePosition, what + " name '" + name
+                        + "' should be camelCase: '" + JavaNames.camelCase(name) + "'.");
+            } else if (JavaNames.isHungarian(name)) {
+                report(namePosition, what + " name '" + name
+                        + "' uses Hungarian notation; drop the type prefix: '" + JavaNames.withoutTypePrefix(name) + "'.");
+            }
+        }
+
+        /** Enum constants have no written type; the parser gives them a synthetic one without an end. */
+        private boolean isEnumConstant(VariableTree tree) {
+            return tree.getType() != null && positions.getEndPosition(unit, tree.getType()) < 0;
+        }
+
+        private boolean isConstantType(Tree type) {
+            if (type instanceof PrimitiveTypeTree) {
+                return true;
+            }
+            if (type instanceof IdentifierTree identifier) {
+                return CONSTANT_TYPES.contains(identifier.getName().toString());
+            }
+            if (type instanceof MemberSelectTree select) {
+                return CONSTANT_TYPES.contains(select.toString());
+            }
+            return false;
+        }
+
+        private boolean overrides(ModifiersTree modifiers) {
+            for (AnnotationTree annotation : modifiers.getAnnotations()) {
+                String type = annotation.getAnnotationType().toString();
+                if (type.equals("Override") || type.equals("java.lang.Override")) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /** Position of {@code name}'s first occurrence as a whole word after {@code after} ends. */
+        private long nameAfter(Tree tree, Tree after, String name) {
+            long from = after != null ? positions.getEndPosition(unit, after) : -1;
+            if (from < 0) {
+                from = positions.getStartPosition(unit, tree);
+            }
+            Pattern word = Pattern.compile("(?<![\\w$])" + Pattern.quote(name) + "(?![\\w$])");
+            Matcher matcher = word.matcher(source);
+            return from >= 0 && matcher.find((int) from) ? matcher.start() : positions.getStartPosition(unit, tree);
+        }
+
+        private void report(long position, String message) {
+            if (position < 0) {
+                return;
+            }
+            int line = (int) unit.getLineMap().getLineNumber(position);
+            List<Issue> atLine = violations.computeIfAbsent(line, key -> new ArrayList<>());
+            Issue issue = new Issue(RULE_ID, Severity.INFO, agent(), path, Integer.toString(line), message, "HIGH");
+            if (!atLine.contains(issue)) {
+                atLine.add(issue);
+            }
+        }
+    }
+
+    /** Single letters (loop counters, {@code e} in catch clauses) and compiler placeholders. */
+    private static boolean acceptable(String name) {
+        return name.length() <= 1 || name.contains("$") || name.equals("<error>");
+    }
+
+    private static String kindName(Tree.Kind kind) {
+        return switch (kind) {
+            case INTERFACE -> "Interface";
+            case ENUM -> "Enum";
+            case ANNOTATION_TYPE -> "Annotation";
+            case RECORD -> "Record";
+            default -> "Class";
+        };
+    }
+}
@@ -0,0 +1,250 @@
+package com.aireview.engine.check;
+
+import com.aireview.engine.report.Severity;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.LiteralTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.NewClassTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.util.TreeScanner;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Local implementation of the security checklist's {@code path-traversal} rule.
+ *
+ * <p>The sinks are the calls that turn text into a file path: {@code new File},
+ * {@code Paths.get}, {@code Path.of}, {@code Path.resolve}/{@code resolveSibling}, the
+ * {@code Files} methods and the file stream constructors ({@code FileInputStream},
+ * {@code FileReader}, ...). A method parameter or request input reaching one of them is a
+ * HIGH-confidence BLOCK issue unless the method canonicalises and guards the path: a
+ * {@code startsWith} check on a path that went through {@code normalize()},
+ * {@code toRealPath()} or {@code getCanonicalPath()}.
+ *
+ * <p>A value checked some other way ({@code matches}, {@code contains("..")}, a file-name
+ * helper), a call result or a name the method does not declare is left to the model. Fields
+ * are taken as configuration, such as a base directory.
+ */
+public final class PathTraversalChecker extends FlowChecker {
+
+    static final String RULE_ID = "path-traversal";
+
+    /** Constructors whose arguments are all path text. */
+    private static final Set<String> PATH_TYPES = Set.of("File");
+    /** Constructors whose first argument is a file name. */
+    private static final Set<String> STREAM_TYPES = Set.of(
+            "FileInputStream", "FileOutputStream", "FileReader", "FileWriter", "RandomAccessFile", "PrintStream",
+            "PrintWriter", "ZipFile", "JarFile");
+    /** Calls returning a {@code Path}, so that {@code resolve} on their result is a sink. */
+    private static final Set<String> PATH_CALLS = Set.of(
+            "get", "of", "toPath", "resolve", "resolveSibling", "getParent", "normalize", "toAbsolutePath",
+            "toRealPath", "getPath");
+    private static final Set<String> CANONICAL = Set.of(
+            "normalize", "toRealPath", "getCanonicalPath", "getCanonicalFile");
+    /** Helpers keeping only the last name of a path, or checking it. */
+    private static final Pattern SANITIZER = Pattern.compile(
+            "getName|getBaseName|getFileName|sanitize\\w*|validate\\w*|check\\w*|isValid\\w*|isSafe\\w*");
+    private static final String ADVICE = " Normalize the path (or use getCanonicalPath()) and check that it "
+            + "startsWith() the base directory before using it.";
+
+    public PathTraversalChecker() {
+        this(new JavaFiles());
+    }
+
+    /** A checker reading the syntax trees of {@code javaFiles}, shared with the other checks. */
+    public PathTraversalChecker(JavaFiles javaFiles) {
+        super(javaFiles);
+    }
+
+    @Override
+    public String ruleId() {
+        return RULE_ID;
+    }
+
+    @Override
+    void analyse(JavaFiles.Parsed file, StringFlow flow, MethodTree method, Analysis analysis) {
+        Guards guards = new Guards(flow);
+        guards.scan(method.getBody(), null);
+        new Method(file, flow, guards, analysis).scan(method.getBody(), null);
+    }
+
+    /** How the method checks its paths: canonicalisation, {@code startsWith} guards, other checks. */
+    private static final class Guards extends TreeScanner<Void, Void> {
+
+        private final StringFlow flow;
+        boolean canonical;
+        boolean guarded;
+        boolean unnormalizedGuard;
+        /** Names checked some other way, e.g. {@code name.matches("[\\w.-]+")}. */
+        final Set<String> checked = new HashSet<>();
+
+        Guards(StringFlow flow) {
+            this.flow = flow;
+        }
+
+        @Override
+        public Void visitClass(ClassTree tree, Void unused) {
+            return null;
+        }
+
+        @Override
+        public Void visitMethodInvocation(MethodInvocationTree tree, Void unused) {
+            String name = name(tree);
+            ExpressionTree receiver = receiver(tree);
+            if (CANONICAL.contains(name)) {
+                canonical = true;
+            } else if (name.equals("startsWith") && receiver != null) {
+                if (canonical(receiver, new HashSet<>())) {
+                    guarded = true;
+                } else if (flow.value(receiver).kind() != StringFlow.Kind.STRING) {
+                    // a Path or File, not a string prefix test
+                    unnormalizedGuard = true;
+                }
+            } else if (receiver instanceof IdentifierTree identifier && (name.equals("matches")
+                    || (name.equals("contains") || name.equals("indexOf")) && dots(tree.getArguments()))) {
+                checked(identifier);
+            } else if (SANITIZER.matcher(name).matches()) {
+                for (ExpressionTree arg : tree.getArguments()) {
+                    if (arg instanceof IdentifierTree identifier) {
+                        checked(identifier);
+                    }
+                }
+            }
+            return super.visitMethodInvocation(tree, unused);
+        }
+
+        /** Records {@code identifier} as checked, and the parts its value is made of. */
+        private void checked(IdentifierTree identifier) {
+            checked.add(identifier.getName().toString());
+            flow.value(identifier).parts().forEach(part -> checked.add(part.name()));
+        }
+
+        /** Whether {@code path} went through a canonicalising call, directly or through a local. */
+        private boolean canonical(ExpressionTree path, Set<String> seen) {
+            boolean[] found = {false};
+            new TreeScanner<Void, Void>() {
+                @Override
+                public Void visitMethodInvocation(MethodInvocationTree tree, Void unused) {
+                    found[0] |= CANONICAL.contains(name(tree));
+                    return super.visitMethodInvocation(tree, unused);
+                }
+
+                @Override
+                public Void visitIdentifier(IdentifierTree tree, Void unused) {
+                    String name = tree.getName().toString();
+                    if (!found[0] && seen.add(name)) {
+                        for (ExpressionTree assigned : flow.assigned(name)) {
+                            found[0] |= canonical(assigned, seen);
+                        }
+                    }
+                    return null;
+                }
+            }.scan(path, null);
+            return found[0];
+        }
+
+        private static boolean dots(List<? extends ExpressionTree> args) {
+            return !args.isEmpty() && args.get(0) instanceof LiteralTree literal
+                    && String.valueOf(literal.getValue()).contains("..");
+        }
+    }
+
+    /** Finds the path sinks of one method body. */
+    private static final class Method extends TreeScanner<Void, Void> {
+
+        private final JavaFiles.Parsed file;
+        private final StringFlow flow;
+        private final Guards guards;
+        private final Analysis analysis;
+        private final Set<Long> reported = new HashSet<>();
+
+        Method(JavaFiles.Parsed file, StringFlow flow, Guards guards, Analysis analysis) {
+            this.file = file;
+            this.flow = flow;
+            this.guards = guards;
+            this.analysis = analysis;
+        }
+
+        @Override
+        public Void visitClass(ClassTree tree, Void unused) {
+            return null;
+        }
+
+        @Override
+        public Void visitNewClass(NewClassTree tree, Void unused) {
+            String type = StringFlow.simpleName(tree.getIdentifier());
+            if (tree.getClassBody() == null && !tree.getArguments().isEmpty()) {
+                if (PATH_TYPES.contains(type)) {
+                    sink(tree.getArguments(), "new " + type + "()", tree);
+                } else if (STREAM_TYPES.contains(type)) {
+                    sink(tree.getArguments().subList(0, 1), "new " + type + "()", tree);
+                }
+            }
+            return super.visitNewClass(tree, unused);
+        }
+
+        @Override
+        public Void visitMethodInvocation(MethodInvocationTree tree, Void unused) {
+            String name = name(tree);
+            ExpressionTree receiver = receiver(tree);
+            String owner = receiver == null ? "" : receiver.toString();
+            if (owner.equals("Paths") && name.equals("get") || owner.equals("Path") && name.equals("of")
+                    || owner.equals("Files")) {
+                sink(tree.getArguments(), owner + "." + name + "()", tree);
+            } else if ((name.equals("resolve") || name.equals("resolveSibling")) && path(receiver)) {
+                sink(tree.getArguments(), "Path." + name + "()", tree);
+            }
+            return super.visitMethodInvocation(tree, unused);
+        }
+
+        private void sink(List<? extends ExpressionTree> args, String sink, Tree call) {
+            int sinkLine = file.line(call);
+            for (ExpressionTree arg : args) {
+                StringFlow.Value value = flow.value(arg);
+                if (!value.textual()) {
+                    continue;
+                }
+                for (StringFlow.Part part : value.parts()) {
+                    if (guards.guarded || part.origin() == StringFlow.Origin.FIELD
+                            || part.kind() == StringFlow.Kind.NUMBER || !reported.add(part.position())) {
+                        continue;
+                    }
+                    int line = file.line(part.position());
+                    if (part.untrusted() && !guards.checked.contains(part.name())) {
+                        analysis.findings.add(new Finding(line, sinkLine, Severity.BLOCK, "HIGH",
+                                message(part, sink)));
+                    } else {
+                        // a call result, an unknown name, or input checked in a way left to the model
+                        analysis.undecided.add(line);
+                    }
+                }
+            }
+        }
+
+        private String message(StringFlow.Part part, String sink) {
+            String what = part.origin() == StringFlow.Origin.INPUT ? "Input from " + part.name()
+                    : "Parameter '" + part.name() + "'";
+            String why = guards.unnormalizedGuard ? " The startsWith() check runs on a path that is not normalized, "
+                    + "so ../ segments pass it." : guards.canonical ? " The path is normalized but never checked"
+                    + " against a base directory." : "";
+            return what + " reaches " + sink + " without canonicalisation, allowing ../ traversal." + why + ADVICE;
+        }
+
+        /** A receiver holding a {@code Path}: declared so, or returned by a path call. */
+        private boolean path(ExpressionTree receiver) {
+            if (receiver instanceof MethodInvocationTree call) {
+                return PATH_CALLS.contains(name(call));
+            }
+            if (receiver instanceof IdentifierTree identifier) {
+                return "Path".equals(flow.declaredType(identifier.getName().toString()));
+            }
+            return false;
+        }
+    }
+}
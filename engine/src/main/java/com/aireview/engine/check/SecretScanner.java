@@ -0,0 +1,331 @@
+package com.aireview.engine.check;
+
+import com.aireview.engine.diff.AddedLine;
+import com.aireview.engine.diff.DiffHunk;
+import com.aireview.engine.report.Issue;
+import com.aireview.engine.report.Severity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Local implementation of the security checklist's {@code hardcoded-secret} rule, run over
+ * the added lines of the diff. It looks for two things:
+ *
+ * <ul>
+ *   <li>string literals starting with a known token prefix, such as {@code ghp_} (GitHub)
+ *       or {@code sk-} (API secret keys);</li>
+ *   <li>string literals assigned to identifiers or keys whose name mentions a credential,
+ *       such as {@code DB_PASSWORD = "..."} or {@code put("api_key", "...")}.</li>
+ * </ul>
+ *
+ * Both pattern sets are compiled into {@link AhoCorasick} automata, so each line is scanned
+ * once; names are matched case-insensitively. A known token prefix is a BLOCK with HIGH
+ * confidence. A credential name alone is weaker evidence: the value is skipped when it is
+ * prose, a placeholder, or shaped like something other than a secret (an environment
+ * variable or header name, a path, URL, regex or cipher transformation), and otherwise is a
+ * WARN with MEDIUM confidence. Only a value of at least {@value #MIN_HIGH_LENGTH} characters
+ * whose Shannon entropy reaches {@link #highEntropy(int)} is a BLOCK with HIGH confidence.
+ * Messages never contain the secret itself, as the security prompt requires of the agent.
+ */
+public final class SecretScanner implements LocalCheck {
+
+    static final String RULE_ID = "hardcoded-secret";
+
+    /** Known credential prefixes and what they identify. */
+    private record TokenPrefix(String prefix, String kind, int minBody) {
+    }
+
+    private static final List<TokenPrefix> PREFIXES = List.of(
+            new TokenPrefix("ghp_", "GitHub personal access token", 8),
+            new TokenPrefix("gho_", "GitHub OAuth token", 8),
+            new TokenPrefix("ghu_", "GitHub user-to-server token", 8),
+            new TokenPrefix("ghs_", "GitHub server-to-server token", 8),
+            new TokenPrefix("ghr_", "GitHub refresh token", 8),
+            new TokenPrefix("github_pat_", "GitHub fine-grained token", 8),
+            new TokenPrefix("glpat-", "GitLab access token", 8),
+            new TokenPrefix("sk-", "API secret key", 8),
+            new TokenPrefix("sk_live_", "Stripe secret key", 8),
+            new TokenPrefix("rk_live_", "Stripe restricted key", 8),
+            new TokenPrefix("AKIA", "AWS access key id", 12),
+            new TokenPrefix("AIza", "Google API key", 16),
+            new TokenPrefix("xoxb-", "Slack bot token", 8),
+            new TokenPrefix("xoxp-", "Slack user token", 8),
+            new TokenPrefix("-----BEGIN ", "private key", 0));
+
+    /** Name fragments that mark an identifier or key as holding a credential. */
+    private static final List<String> KEYWORDS = List.of(
+            "password", "passwd", "pwd", "secret", "token", "apikey", "api_key", "api-key",
+            "credential", "private_key", "privatekey", "access_key", "accesskey", "auth_key");
+
+    /** Values shorter than this are not taken for credentials. */
+    static final int MIN_VALUE_LENGTH = 4;
+    /** Assigned values shorter than this are never reported with HIGH confidence. */
+    static final int MIN_HIGH_LENGTH = 20;
+
+    private static final Pattern KEY_NAME = Pattern.compile(
+            "(?i)[a-z._-]*(?:" + String.join("|", KEYWORDS) + ")[a-z._-]*");
+
+    /** Value shapes that name or describe something rather than hold a secret. */
+    private static final List<Pattern> NOT_SECRETS = List.of(
+            // environment variable: OPENAI_API_KEY
+            Pattern.compile("[A-Z][A-Z0-9]*(?:_[A-Z0-9]+)+"),
+            // header name: X-Auth-Token, Proxy-Authorization
+            Pattern.compile("[A-Z][A-Za-z0-9]*(?:-[A-Z][A-Za-z0-9]*)+"),
+            // path: /etc/app/secret, ./token.txt, ~/.ssh/id_rsa, C:\keys, conf/db.properties
+            Pattern.compile("(?:/|\\.{1,2}/|~/|[A-Za-z]:\\\\|classpath:|file:).*"),
+            Pattern.compile("[\\w.-]+(?:/[\\w.-]+)*/[\\w-]+\\.[A-Za-z]{1,10}"),
+            // URL without credentials in it
+            Pattern.compile("[A-Za-z][A-Za-z0-9+.-]*://[^@]*"),
+            // regex
+            Pattern.compile("\\^.*|.*\\$|.*(?:\\\\[dwsSbDW.]|\\.[*+]|\\(\\?|\\[[^\\]]*-[^\\]]*\\]|\\{\\d+,?\\d*}).*"),
+            // cipher transformation or algorithm: AES/GCM/NoPadding, HmacSHA256, PBKDF2WithHmacSHA256
+            Pattern.compile("[A-Za-z][A-Za-z0-9-]*/[A-Za-z0-9]+/[A-Za-z0-9]*Padding"),
+            Pattern.compile("(?:AES|DESede|DES|RSA|EC|Hmac[A-Z0-9]+|SHA-?\\d+|SHA3-\\d+|MD5|PBKDF2With\\w+"
+                    + "|ChaCha20[\\w-]*|Blowfish|RC4)(?:/.*)?"));
+
+    private static final AhoCorasick PREFIX_MATCHER =
+            new AhoCorasick(PREFIXES.stream().map(TokenPrefix::prefix).toList(), false);
+    private static final AhoCorasick KEYWORD_MATCHER = new AhoCorasick(KEYWORDS, true);
+
+    @Override
+    public String agent() {
+        return "security";
+    }
+
+    @Override
+    public String ruleId() {
+        return RULE_ID;
+    }
+
+    @Override
+    public List<Issue> check(List<DiffHunk> hunks, StagedSources sources) {
+        List<Issue> issues = new ArrayList<>();
+        for (DiffHunk hunk : hunks) {
+            for (AddedLine line : hunk.addedLines()) {
+                Issue issue = scan(line);
+                if (issue != null) {
+                    issues.add(issue);
+                }
+            }
+        }
+        return issues;
+    }
+
+    /** Returns the finding for one line, or {@code null}; at most one finding per line. */
+    Issue scan(AddedLine line) {
+        String text = line.text();
+        String[] message = new String[1];
+        boolean[] high = new boolean[1];
+
+        PREFIX_MATCHER.search(text, (pattern, start) -> {
+            if (message[0] == null) {
+                TokenPrefix prefix = PREFIXES.get(pattern);
+                if (isToken(text, start, prefix)) {
+                    message[0] = "Hardcoded " + prefix.kind() + " in a string literal. "
+                            + "Revoke it and load it from the environment or a secret store.";
+                    high[0] = true;
+                }
+            }
+        });
+        if (message[0] == null) {
+            KEYWORD_MATCHER.search(text, (pattern, start) -> {
+                if (message[0] == null) {
+                    Assignment assignment = assignment(text, start);
+                    if (assignment != null && isCredentialValue(assignment.value())) {
+                        message[0] = "Hardcoded credential assigned to '" + assignment.name() + "'. "
+                                + "Load it from the environment or a secret store.";
+                        high[0] = isHighConfidence(assignment.value());
+                    }
+                }
+            });
+        }
+        if (message[0] == null) {
+            return null;
+        }
+        return new Issue(RULE_ID, high[0] ? Severity.BLOCK : Severity.WARN, agent(), line.path(),
+                Integer.toString(line.line()), message[0], high[0] ? "HIGH" : "MEDIUM");
+    }
+
+    /** A prefix match counts when it starts a token inside a string literal and is long enough. */
+    private static boolean isToken(String text, int start, TokenPrefix prefix) {
+        if (!insideString(text, start)) {
+            return false;
+        }
+        if (start > 0 && isTokenChar(text.charAt(start - 1))) {
+            return false;
+        }
+        if (prefix.minBody() == 0) {
+            return text.indexOf("PRIVATE KEY", start) > 0;
+        }
+        int end = start + prefix.prefix().length();
+        while (end < text.length() && isTokenChar(text.charAt(end))) {
+            end++;
+        }
+        return end - start - prefix.prefix().length() >= prefix.minBody();
+    }
+
+    private record Assignment(String name, String value) {
+    }
+
+    /**
+     * Reads {@code name = "value"}, {@code name: "value"} or {@code "name", "value"} around a
+     * keyword found at {@code at}; returns {@code null} when the keyword is not being assigned
+     * a string literal.
+     */
+    private static Assignment assignment(String text, int at) {
+        int nameStart;
+        int nameEnd;
+        boolean quotedKey = insideString(text, at);
+        if (quotedKey) {
+            nameStart = text.lastIndexOf('"', at) + 1;
+            nameEnd = closingQuote(text, at);
+            if (nameEnd < 0) {
+                return null;
+            }
+        } else {
+            nameStart = at;
+            while (nameStart > 0 && isNameChar(text.charAt(nameStart - 1))) {
+                nameStart--;
+            }
+            nameEnd = at;
+            while (nameEnd < text.length() && isNameChar(text.charAt(nameEnd))) {
+                nameEnd++;
+            }
+        }
+        int i = skipSpaces(text, quotedKey ? nameEnd + 1 : nameEnd);
+        if (i >= text.length()) {
+            return null;
+        }
+        char separator = text.charAt(i);
+        if (separator == '=') {
+            if (i + 1 < text.length() && text.charAt(i + 1) == '=') {
+                return null;
+            }
+        } else if (separator != ':' && !(quotedKey && separator == ',')) {
+            return null;
+        }
+        i = skipSpaces(text, i + 1);
+        if (i >= text.length() || text.charAt(i) != '"') {
+            return null;
+        }
+        int valueEnd = closingQuote(text, i + 1);
+        if (valueEnd < 0) {
+            return null;
+        }
+        return new Assignment(text.substring(nameStart, nameEnd), text.substring(i + 1, valueEnd));
+    }
+
+    /** Rejects prose, placeholders, trivially short values and values shaped like names. */
+    static boolean isCredentialValue(String value) {
+        if (value.length() < MIN_VALUE_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (Character.isWhitespace(value.charAt(i))) {
+                return false;
+            }
+        }
+        if (value.startsWith("${") || value.startsWith("{{") || value.startsWith("<") || value.startsWith("%")) {
+            return false;
+        }
+        if (KEY_NAME.matcher(value).matches()) {
+            // a property, field or header name such as "db.password" or "X-Api-Key", not a value
+            return false;
+        }
+        for (Pattern shape : NOT_SECRETS) {
+            if (shape.matcher(value).matches()) {
+                return false;
+            }
+        }
+        return value.chars().distinct().count() > 1;
+    }
+
+    /** A credential value long and random enough to be reported with HIGH confidence. */
+    static boolean isHighConfidence(String value) {
+        return value.length() >= MIN_HIGH_LENGTH && entropy(value) >= highEntropy(value.length());
+    }
+
+    /**
+     * Bits per character a value of {@code length} characters needs for HIGH confidence:
+     * 3.5 at {@value #MIN_HIGH_LENGTH} characters, rising to 4.0 at 40 and beyond, since a
+     * longer random string spreads over more distinct characters.
+     */
+    static double highEntropy(int length) {
+        return Math.min(4.0, 3.5 + 0.5 * (length - MIN_HIGH_LENGTH) / MIN_HIGH_LENGTH);
+    }
+
+    /** Shannon entropy of {@code value} in bits per character. */
+    static double entropy(String value) {
+        if (value.isEmpty()) {
+            return 0;
+        }
+        int[] counts = new int[128];
+        int other = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 128) {
+                counts[c]++;
+            } else {
+                other++;
+            }
+        }
+        double entropy = 0;
+        double length = value.length();
+        for (int count : counts) {
+            if (count > 0) {
+                double p = count / length;
+                entropy -= p * (Math.log(p) / Math.log(2));
+            }
+        }
+        if (other > 0) {
+            double p = other / length;
+            entropy -= p * (Math.log(p) / Math.log(2));
+        }
+        return entropy;
+    }
+
+    /** {@code true} when an odd number of unescaped double quotes precede {@code index}. */
+    private static boolean insideString(String text, int index) {
+        boolean inside = false;
+        for (int i = 0; i < index; i++) {
+            char c = text.charAt(i);
+            if (c == '\\' && inside) {
+                i++;
+            } else if (c == '"') {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+
+    private static int closingQuote(String text, int from) {
+        for (int i = from; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '"') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int skipSpaces(String text, int from) {
+        int i = from;
+        while (i < text.length() && (text.charAt(i) == ' ' || text.charAt(i) == '\t')) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isTokenChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '-';
+    }
+
+    /** Characters of an unquoted name: Java identifiers, and {@code db.password} or {@code api-key} in config. */
+    private static boolean isNameChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '.' || c == '-';
+    }
+}
@@ -0,0 +1,230 @@
+package com.aireview.engine.check;
+
+import com.aireview.engine.report.Severity;
+import com.sun.source.tree.BinaryTree;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.util.TreeScanner;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Local implementation of the security checklist's {@code sql-injection} rule.
+ *
+ * <p>Each method of a staged file is read through a {@link StringFlow}. A query is reported
+ * when a parameter of the method, or request input, is joined into SQL text by concatenation,
+ * {@code String.format}, {@code formatted}, {@code concat} or a {@code StringBuilder}:
+ *
+ * <ul>
+ *   <li>when it reaches a sink: JDBC {@code Statement.execute*}, {@code addBatch},
+ *       {@code Connection.prepareStatement}/{@code prepareCall}, JPA and Hibernate
+ *       {@code createQuery}/{@code createNativeQuery}, Spring {@code JdbcTemplate}
+ *       {@code query*}/{@code update}/{@code execute};</li>
+ *   <li>when its literal text is SQL ({@code SELECT ... FROM}, {@code INSERT INTO}, ...),
+ *       even before it is run.</li>
+ * </ul>
+ *
+ * Findings are HIGH-confidence BLOCK issues on the line where the value is joined in. Cases
+ * the method alone cannot settle are left to the security agent: a sink given a query built
+ * elsewhere, or SQL joined with a field or a call result. The rule stays in the agent's
+ * checklist only for chunks with such a case.
+ */
+public final class SqlInjectionChecker extends FlowChecker {
+
+    static final String RULE_ID = "sql-injection";
+
+    /** Methods whose first argument is always SQL (or JPQL/HQL). */
+    private static final Set<String> QUERY_SINKS = Set.of(
+            "executeQuery", "executeUpdate", "executeLargeUpdate", "prepareStatement", "prepareCall", "nativeSQL",
+            "createQuery", "createNativeQuery", "createSQLQuery", "queryForObject", "queryForList", "queryForMap",
+            "queryForRowSet", "queryForStream", "queryForLong", "queryForInt", "batchUpdate");
+    /** Methods whose first argument is SQL when called on a statement or a JDBC template. */
+    private static final Set<String> STATEMENT_SINKS = Set.of("execute", "addBatch", "query", "update");
+    private static final Set<String> JDBC_TYPES = Set.of(
+            "Statement", "PreparedStatement", "CallableStatement", "Connection", "JdbcTemplate",
+            "NamedParameterJdbcTemplate", "JdbcOperations", "NamedParameterJdbcOperations", "Session",
+            "StatelessSession", "EntityManager");
+    private static final Pattern JDBC_NAME = Pattern.compile(
+            "(?i)st|stmt|pstmt|ps|statement|conn|connection|jdbc|jdbcTemplate|template|session|em|entityManager|db");
+    /** Calls returning a statement or template, e.g. {@code conn.createStatement().executeQuery(sql)}. */
+    private static final Set<String> JDBC_FACTORIES = Set.of(
+            "createStatement", "prepareStatement", "prepareCall", "getJdbcTemplate", "getConnection",
+            "getCurrentSession", "openSession", "getEntityManager");
+    /** The start of an SQL, JPQL or HQL statement. */
+    private static final Pattern SQL = Pattern.compile(
+            "\\s*\\(?\\s*(?:select\\b.*\\bfrom\\b|insert\\s+into\\b|update\\b.*\\bset\\b|delete\\s+from\\b"
+                    + "|merge\\s+into\\b|replace\\s+into\\b|upsert\\b|from\\s+\\w+(?:\\s+\\w+)?\\s+where\\b"
+                    + "|(?:create|drop|alter|truncate)\\s+(?:table|index|view|database|schema|user)\\b"
+                    + "|with\\b.*\\bselect\\b|(?:exec|execute|call)\\s+\\w|\\{\\s*call\\b)",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    public SqlInjectionChecker() {
+        this(new JavaFiles());
+    }
+
+    /** A checker reading the syntax trees of {@code javaFiles}, shared with the other checks. */
+    public SqlInjectionChecker(JavaFiles javaFiles) {
+        super(javaFiles);
+    }
+
+    /** {@code true} when the running JDK ships the compiler module this checker parses with. */
+    public static boolean available() {
+        return JavaFiles.available();
+    }
+
+    @Override
+    public String ruleId() {
+        return RULE_ID;
+    }
+
+    @Override
+    void analyse(JavaFiles.Parsed file, StringFlow flow, MethodTree method, Analysis analysis) {
+        Method scanner = new Method(file, flow, analysis);
+        scanner.scan(method.getBody(), null);
+        scanner.locals();
+    }
+
+    /** Finds the sinks and SQL strings of one method body. */
+    private static final class Method extends TreeScanner<Void, Void> {
+
+        private final JavaFiles.Parsed file;
+        private final StringFlow flow;
+        private final Analysis analysis;
+        /** Reported values by source position, so a value reaching a sink is reported once. */
+        private final Map<Long, Finding> reported = new HashMap<>();
+        private boolean inConcatenation;
+
+        Method(JavaFiles.Parsed file, StringFlow flow, Analysis analysis) {
+            this.file = file;
+            this.flow = flow;
+            this.analysis = analysis;
+        }
+
+        @Override
+        public Void visitClass(ClassTree tree, Void unused) {
+            return null;
+        }
+
+        @Override
+        public Void visitMethodInvocation(MethodInvocationTree tree, Void unused) {
+            String name = name(tree);
+            ExpressionTree receiver = receiver(tree);
+            if (!tree.getArguments().isEmpty() && (QUERY_SINKS.contains(name) || STATEMENT_SINKS.contains(name))) {
+                StringFlow.Value query = flow.value(tree.getArguments().get(0));
+                if (query.textual() && (QUERY_SINKS.contains(name) || jdbc(receiver) || isSql(query))) {
+                    sink(name, file.line(tree), query);
+                }
+            } else if (!inConcatenation && (name.equals("format") || name.equals("formatted")
+                    || name.equals("concat") || name.equals("join"))) {
+                built(flow.value(tree));
+            }
+            return super.visitMethodInvocation(tree, unused);
+        }
+
+        @Override
+        public Void visitBinary(BinaryTree tree, Void unused) {
+            if (tree.getKind() != Tree.Kind.PLUS || inConcatenation) {
+                return super.visitBinary(tree, unused);
+            }
+            built(flow.value(tree));
+            inConcatenation = true;
+            try {
+                return super.visitBinary(tree, unused);
+            } finally {
+                inConcatenation = false;
+            }
+        }
+
+        /** Runs after the body is scanned: the merged values of string and builder locals. */
+        void locals() {
+            for (String local : flow.textLocals()) {
+                built(flow.local(local));
+            }
+        }
+
+        private void sink(String name, int line, StringFlow.Value query) {
+            List<StringFlow.Part> untrusted = query.literal() ? query.untrustedParts() : List.of();
+            for (StringFlow.Part part : untrusted) {
+                Finding finding = new Finding(file.line(part.position()), line, Severity.BLOCK, "HIGH",
+                        message(part, query.via(), name));
+                Finding previous = reported.put(part.position(), finding);
+                if (previous == null) {
+                    analysis.findings.add(finding);
+                } else {
+                    analysis.findings.set(analysis.findings.indexOf(previous), finding);
+                }
+            }
+            if (untrusted.isEmpty() && !query.constant()) {
+                analysis.undecided.add(line);
+                undecided(query);
+            }
+        }
+
+        /** A value built in the method: reported when its text is SQL. */
+        private void built(StringFlow.Value value) {
+            if (!value.literal() || value.constant() || !isSql(value)) {
+                return;
+            }
+            List<StringFlow.Part> untrusted = value.untrustedParts();
+            for (StringFlow.Part part : untrusted) {
+                if (!reported.containsKey(part.position())) {
+                    Finding finding = new Finding(file.line(part.position()), -1, Severity.BLOCK, "HIGH",
+                            message(part, value.via(), null));
+                    reported.put(part.position(), finding);
+                    analysis.findings.add(finding);
+                }
+            }
+            if (untrusted.isEmpty()) {
+                undecided(value);
+            }
+        }
+
+        private void undecided(StringFlow.Value value) {
+            for (StringFlow.Part part : value.parts()) {
+                if (part.position() >= 0) {
+                    analysis.undecided.add(file.line(part.position()));
+                }
+            }
+        }
+
+        /** A receiver that is a JDBC statement, connection or template, by declared type or name. */
+        private boolean jdbc(ExpressionTree receiver) {
+            if (receiver instanceof MethodInvocationTree call) {
+                return JDBC_FACTORIES.contains(name(call));
+            }
+            String name = receiver instanceof IdentifierTree identifier ? identifier.getName().toString()
+                    : receiver instanceof MemberSelectTree member ? member.getIdentifier().toString() : null;
+            if (name == null) {
+                return false;
+            }
+            String type = flow.declaredType(name);
+            return type != null ? JDBC_TYPES.contains(type) : JDBC_NAME.matcher(name).matches();
+        }
+    }
+
+    private static boolean isSql(StringFlow.Value value) {
+        return SQL.matcher(value.text()).lookingAt();
+    }
+
+    private static String message(StringFlow.Part part, String via, String sink) {
+        String what = part.origin() == StringFlow.Origin.INPUT ? "Input from " + part.name()
+                : "Parameter '" + part.name() + "'";
+        String how = via == null ? "is concatenated into" : switch (via) {
+            case "String.format", "MessageFormat.format", "String.formatted" -> "is formatted into";
+            case "StringBuilder.append" -> "is appended to";
+            case "String.join" -> "is joined into";
+            default -> "is concatenated into";
+        };
+        return what + " " + how + " an SQL query" + (sink == null ? "" : " run by " + sink + "()")
+                + ". Bind it as a parameter instead (PreparedStatement with ?, or setParameter).";
+    }
+}
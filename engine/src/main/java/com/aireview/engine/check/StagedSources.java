@@ -0,0 +1,9 @@
+package com.aireview.engine.check;
+
+/** Staged (index) content of the files under review, for checks that parse whole files. */
+@FunctionalInterface
+public interface StagedSources {
+
+    /** Returns the staged content of {@code path}, or {@code null} when it cannot be read. */
+    String read(String path);
+}
@@ -0,0 +1,642 @@
+package com.aireview.engine.check;
+
+import com.sun.source.tree.ArrayAccessTree;
+import com.sun.source.tree.AssignmentTree;
+import com.sun.source.tree.BinaryTree;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.CompoundAssignmentTree;
+import com.sun.source.tree.ConditionalExpressionTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.InstanceOfTree;
+import com.sun.source.tree.LiteralTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.NewClassTree;
+import com.sun.source.tree.ParenthesizedTree;
+import com.sun.source.tree.PrimitiveTypeTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.TypeCastTree;
+import com.sun.source.tree.UnaryTree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.TreeScanner;
+
+import javax.lang.model.element.Modifier;
+import javax.lang.model.type.TypeKind;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * What the strings of one method are built from, read from its syntax tree alone.
+ *
+ * <p>A {@link Value} is the literal text of an expression with a {@code ?} for each part
+ * that is not a constant, plus where those parts come from: the method's parameters, known
+ * request input, fields or other calls. Values are followed through concatenation,
+ * {@code +=}, {@code String.format}, {@code formatted}, {@code concat}, {@code String.join},
+ * {@code StringBuilder}/{@code StringBuffer} appends and local variables. The analysis does
+ * not follow control flow: a variable's value is every value assigned or appended to it, in
+ * source order, and the elements added to a local list are among its values. Numbers and
+ * booleans are never parts, since they cannot carry text.
+ */
+final class StringFlow {
+
+    /** What an expression evaluates to, as far as its declaration shows. */
+    enum Kind {
+        /** Text: {@code String}, {@code CharSequence}, builders, {@code char}. */
+        STRING,
+        /** Numbers and booleans. */
+        NUMBER,
+        /** Any other object. */
+        OTHER,
+        /** Not declared where the method can see it. */
+        UNKNOWN
+    }
+
+    /** Where a non-constant part of a string comes from. */
+    enum Origin {
+        /** A parameter of the method. */
+        PARAMETER,
+        /** A call known to return request or console input, such as {@code getParameter}. */
+        INPUT,
+        /** A field that is not a constant. */
+        FIELD,
+        /** The result of another call. */
+        CALL,
+        /** Anything else: an array element, a loop variable, a name the file does not declare. */
+        UNKNOWN
+    }
+
+    /**
+     * One non-constant part of a string.
+     *
+     * @param name     how the source names it, e.g. {@code username} or {@code getName()}
+     * @param position source position of the part
+     */
+    record Part(String name, Origin origin, Kind kind, long position) {
+
+        /** Text the caller controls: a text parameter or request input. */
+        boolean untrusted() {
+            return (origin == Origin.PARAMETER || origin == Origin.INPUT)
+                    && (kind == Kind.STRING || kind == Kind.UNKNOWN);
+        }
+    }
+
+    /**
+     * A string expression.
+     *
+     * @param text    its literal text, {@code ?} standing for each part
+     * @param literal {@code true} when some of the text is literal: the value was built
+     * @param via     how the parts were joined with the literal text, e.g. {@code concatenation};
+     *                {@code null} when nothing was joined
+     */
+    record Value(Kind kind, String text, boolean literal, List<Part> parts, String via) {
+
+        static final Value NONE = new Value(Kind.OTHER, "", false, List.of(), null);
+        static final Value NUMBER = new Value(Kind.NUMBER, "0", false, List.of(), null);
+        static final Value EMPTY = new Value(Kind.STRING, "", false, List.of(), null);
+
+        static Value literal(String text) {
+            return new Value(Kind.STRING, text, true, List.of(), null);
+        }
+
+        static Value part(Part part) {
+            return new Value(part.kind(), "?", false, List.of(part), null);
+        }
+
+        boolean constant() {
+            return parts.isEmpty();
+        }
+
+        /** Could hold text: a query, a command or a path. */
+        boolean textual() {
+            return kind == Kind.STRING || kind == Kind.UNKNOWN;
+        }
+
+        List<Part> untrustedParts() {
+            return parts.stream().filter(Part::untrusted).toList();
+        }
+
+        Value as(Kind newKind) {
+            return new Value(newKind, text, literal, parts, via);
+        }
+    }
+
+    private static final Set<String> TEXT_TYPES = Set.of(
+            "String", "CharSequence", "StringBuilder", "StringBuffer", "Character");
+    private static final Set<String> BUILDER_TYPES = Set.of("StringBuilder", "StringBuffer");
+    private static final Set<String> NUMBER_TYPES = Set.of(
+            "Integer", "Long", "Short", "Byte", "Double", "Float", "Boolean", "BigDecimal", "BigInteger",
+            "AtomicInteger", "AtomicLong", "UUID");
+    /** Classes whose static methods return numbers or booleans, e.g. {@code Integer.parseInt}. */
+    private static final Set<String> NUMBER_CLASSES = Set.of(
+            "Integer", "Long", "Short", "Byte", "Double", "Float", "Boolean", "Math", "BigDecimal",
+            "BigInteger", "UUID", "Objects");
+    /** Instance methods returning numbers or booleans. */
+    private static final Set<String> NUMBER_METHODS = Set.of(
+            "length", "size", "hashCode", "indexOf", "lastIndexOf", "compareTo", "equals", "equalsIgnoreCase",
+            "isEmpty", "isBlank", "contains", "startsWith", "endsWith", "matches", "ordinal", "count");
+    /** String methods whose result carries the receiver's text. */
+    private static final Set<String> TEXT_METHODS = Set.of(
+            "trim", "strip", "stripLeading", "stripTrailing", "toLowerCase", "toUpperCase", "intern",
+            "substring", "repeat", "toString", "subSequence", "indent", "stripIndent", "translateEscapes");
+    /** Calls that return what a user typed or sent. */
+    private static final Set<String> INPUT_METHODS = Set.of(
+            "getParameter", "getParameterValues", "getHeader", "getQueryString", "getPathInfo", "getRequestURI",
+            "getRequestURL", "getRemoteUser", "readLine", "nextLine", "getPathVariable", "getQueryParam");
+
+    private record Local(VariableTree declaration, Kind kind, boolean builder, List<ExpressionTree> contributions) {
+    }
+
+    private final Map<String, VariableTree> parameters = new HashMap<>();
+    private final Map<String, Local> locals = new HashMap<>();
+    private final Map<String, VariableTree> fields = new HashMap<>();
+    private final JavaFiles.Parsed file;
+    private final ClassTree enclosing;
+    private final Map<String, Value> localValues = new HashMap<>();
+    private final Set<String> evaluating = new HashSet<>();
+
+    /**
+     * @param classes the classes enclosing {@code method}, innermost last; their fields are
+     *                visible to it
+     */
+    StringFlow(JavaFiles.Parsed file, List<ClassTree> classes, MethodTree method) {
+        this.file = file;
+        this.enclosing = classes.isEmpty() ? null : classes.get(classes.size() - 1);
+        for (ClassTree type : classes) {
+            for (Tree member : type.getMembers()) {
+                if (member instanceof VariableTree field) {
+                    fields.put(field.getName().toString(), field);
+                }
+            }
+        }
+        for (VariableTree parameter : method.getParameters()) {
+            parameters.put(parameter.getName().toString(), parameter);
+        }
+        if (method.getBody() != null) {
+            new LocalCollector().scan(method.getBody(), null);
+        }
+        locals.values().forEach(local -> local.contributions()
+                .sort(Comparator.comparingLong(tree -> file.positions().getStartPosition(file.unit(), tree))));
+    }
+
+    /** The innermost class enclosing the method, or {@code null}. */
+    ClassTree enclosingClass() {
+        return enclosing;
+    }
+
+    /** Declared type of a parameter, local or field of the method, as written, or {@code null}. */
+    String declaredType(String name) {
+        VariableTree variable = variable(name);
+        return variable == null || variable.getType() == null ? null : simpleName(variable.getType());
+    }
+
+    /**
+     * Declared type of a parameter, local or field of the method, qualified as written but
+     * without type arguments; for {@code var}, the type its initializer creates. {@code null}
+     * when unknown.
+     */
+    String writtenType(String name) {
+        VariableTree variable = variable(name);
+        if (variable == null) {
+            return null;
+        }
+        Tree type = variable.getType() != null ? variable.getType()
+                : variable.getInitializer() instanceof NewClassTree created ? created.getIdentifier() : null;
+        if (type == null) {
+            return null;
+        }
+        String written = type.toString();
+        int generic = written.indexOf('<');
+        return generic >= 0 ? written.substring(0, generic) : written;
+    }
+
+    /** Local variables of text type: strings and builders. */
+    List<String> textLocals() {
+        return locals.entrySet().stream().filter(entry -> entry.getValue().kind() == Kind.STRING)
+                .map(Map.Entry::getKey).toList();
+    }
+
+    /** The merged value of a local variable of the method. */
+    Value local(String name) {
+        return locals.containsKey(name) ? localValue(name) : Value.NONE;
+    }
+
+    /** The expressions assigned or appended to a local variable, in source order; empty for other names. */
+    List<ExpressionTree> assigned(String name) {
+        Local local = locals.get(name);
+        return local == null ? List.of() : local.contributions();
+    }
+
+    Value value(ExpressionTree expression) {
+        if (expression instanceof LiteralTree literal) {
+            return literal(literal);
+        }
+        if (expression instanceof IdentifierTree identifier) {
+            return identifier(identifier.getName().toString(), position(identifier));
+        }
+        if (expression instanceof BinaryTree binary) {
+            return binary.getKind() == Tree.Kind.PLUS
+                    ? plus(value(binary.getLeftOperand()), value(binary.getRightOperand()), "concatenation")
+                    : Value.NUMBER;
+        }
+        if (expression instanceof MethodInvocationTree invocation) {
+            return invocation(invocation);
+        }
+        if (expression instanceof MemberSelectTree select) {
+            return select(select);
+        }
+        if (expression instanceof ParenthesizedTree parenthesized) {
+            return value(parenthesized.getExpression());
+        }
+        if (expression instanceof ConditionalExpressionTree conditional) {
+            return either(value(conditional.getTrueExpression()), value(conditional.getFalseExpression()));
+        }
+        if (expression instanceof TypeCastTree cast) {
+            return kindOf(cast.getType()) == Kind.NUMBER ? Value.NUMBER : value(cast.getExpression());
+        }
+        if (expression instanceof NewClassTree created) {
+            return created(created);
+        }
+        if (expression instanceof AssignmentTree assignment) {
+            return value(assignment.getExpression());
+        }
+        if (expression instanceof ArrayAccessTree access) {
+            String array = access.getExpression().toString();
+            Origin origin = parameters.containsKey(array) ? Origin.PARAMETER : Origin.UNKNOWN;
+            return Value.part(new Part(array + "[]", origin, Kind.UNKNOWN, position(access)));
+        }
+        if (expression instanceof UnaryTree || expression instanceof CompoundAssignmentTree
+                || expression instanceof InstanceOfTree) {
+            return Value.NUMBER;
+        }
+        return Value.NONE;
+    }
+
+    private static Value literal(LiteralTree literal) {
+        return switch (literal.getKind()) {
+            case STRING_LITERAL, CHAR_LITERAL -> Value.literal(String.valueOf(literal.getValue()));
+            case NULL_LITERAL -> Value.EMPTY;
+            default -> new Value(Kind.NUMBER, String.valueOf(literal.getValue()), true, List.of(), null);
+        };
+    }
+
+    private Value identifier(String name, long position) {
+        if (locals.containsKey(name)) {
+            return localValue(name);
+        }
+        VariableTree parameter = parameters.get(name);
+        if (parameter != null) {
+            Kind kind = kindOf(parameter.getType());
+            return kind == Kind.NUMBER ? Value.NUMBER : Value.part(new Part(name, Origin.PARAMETER, kind, position));
+        }
+        VariableTree field = fields.get(name);
+        if (field != null) {
+            return field(field, position);
+        }
+        if (JavaNames.UPPER_SNAKE_CASE.matcher(name).matches()) {
+            // a constant declared elsewhere, by convention
+            return Value.literal("");
+        }
+        return Value.part(new Part(name, Origin.UNKNOWN, Kind.UNKNOWN, position));
+    }
+
+    private Value localValue(String name) {
+        Value known = localValues.get(name);
+        if (known != null) {
+            return known;
+        }
+        if (!evaluating.add(name)) {
+            // "q = q + ..." refers to the value being computed; the other contributions hold it
+            return Value.EMPTY;
+        }
+        Local local = locals.get(name);
+        Value value;
+        if (local.kind() == Kind.NUMBER) {
+            value = Value.NUMBER;
+        } else {
+            value = null;
+            for (ExpressionTree contribution : local.contributions()) {
+                Value next = value(contribution);
+                value = value == null ? next : plus(value, next, local.builder() ? "StringBuilder.append" : "concatenation");
+            }
+            if (value == null) {
+                // never assigned: a loop variable, a lambda or catch parameter
+                value = Value.part(new Part(name, Origin.UNKNOWN, local.kind(), position(local.declaration())));
+            }
+            if (local.kind() == Kind.STRING || local.builder()) {
+                value = value.as(Kind.STRING);
+            } else if (local.kind() == Kind.OTHER) {
+                value = value.as(Kind.OTHER);
+            }
+        }
+        evaluating.remove(name);
+        if (evaluating.isEmpty()) {
+            localValues.put(name, value);
+        }
+        return value;
+    }
+
+    private Value field(VariableTree field, long position) {
+        Set<Modifier> flags = field.getModifiers().getFlags();
+        Kind kind = kindOf(field.getType());
+        if (kind == Kind.NUMBER) {
+            return Value.NUMBER;
+        }
+        String name = field.getName().toString();
+        if (flags.contains(Modifier.FINAL) && field.getInitializer() != null && evaluating.add("this." + name)) {
+            try {
+                Value initial = value(field.getInitializer());
+                if (initial.constant()) {
+                    return initial;
+                }
+            } finally {
+                evaluating.remove("this." + name);
+            }
+        }
+        return Value.part(new Part(name, Origin.FIELD, kind, position));
+    }
+
+    private Value select(MemberSelectTree select) {
+        String name = select.getIdentifier().toString();
+        ExpressionTree owner = select.getExpression();
+        if (owner instanceof IdentifierTree identifier && identifier.getName().contentEquals("this")
+                && fields.containsKey(name)) {
+            return field(fields.get(name), position(select));
+        }
+        if (name.equals("length") || name.equals("class")) {
+            return name.equals("length") ? Value.NUMBER : Value.NONE;
+        }
+        if (JavaNames.UPPER_SNAKE_CASE.matcher(name).matches()) {
+            return Value.literal("");
+        }
+        return Value.part(new Part(select.toString(), Origin.UNKNOWN, Kind.UNKNOWN, position(select)));
+    }
+
+    private Value invocation(MethodInvocationTree invocation) {
+        ExpressionTree method = invocation.getMethodSelect();
+        String name = method instanceof MemberSelectTree select ? select.getIdentifier().toString() : method.toString();
+        ExpressionTree receiver = method instanceof MemberSelectTree select ? select.getExpression() : null;
+        List<? extends ExpressionTree> args = invocation.getArguments();
+        String receiverName = receiver == null ? "" : receiver.toString();
+
+        if (receiverName.equals("String") || receiverName.equals("MessageFormat")) {
+            switch (name) {
+                case "format":
+                    if (args.size() > 1 && isLocale(args.get(0))) {
+                        args = args.subList(1, args.size());
+                    }
+                    return args.isEmpty() ? Value.EMPTY : format(args.get(0), args.subList(1, args.size()),
+                            receiverName + ".format");
+                case "valueOf", "copyValueOf":
+                    return args.isEmpty() ? Value.EMPTY : text(value(args.get(0)));
+                case "join":
+                    Value joined = Value.EMPTY;
+                    for (ExpressionTree arg : args) {
+                        joined = plus(joined, value(arg), "String.join");
+                    }
+                    return joined;
+                default:
+                    break;
+            }
+        }
+        if (receiver != null && NUMBER_CLASSES.contains(receiverName)) {
+            return name.equals("toString") && !args.isEmpty() ? Value.NUMBER
+                    : receiverName.equals("Objects") && name.equals("toString") ? text(value(args.get(0)))
+                    : Value.NUMBER;
+        }
+        if (NUMBER_METHODS.contains(name)) {
+            return Value.NUMBER;
+        }
+        if (INPUT_METHODS.contains(name)) {
+            return Value.part(new Part(name + "()", Origin.INPUT, Kind.STRING, position(invocation)));
+        }
+        if (receiver != null) {
+            switch (name) {
+                case "append":
+                    return args.isEmpty() ? value(receiver) : plus(value(receiver),
+                            value(args.get(0)), "StringBuilder.append");
+                case "insert":
+                    return args.size() < 2 ? value(receiver) : plus(value(receiver), value(args.get(1)),
+                            "StringBuilder.append");
+                case "concat":
+                    return args.isEmpty() ? value(receiver) : plus(value(receiver), value(args.get(0)), "String.concat");
+                case "formatted":
+                    return format(receiver, args, "String.formatted");
+                case "replace", "replaceAll", "replaceFirst":
+                    Value replaced = text(value(receiver));
+                    return args.size() < 2 ? replaced : new Value(Kind.STRING, replaced.text(), replaced.literal(),
+                            merge(replaced.parts(), value(args.get(1)).parts()), replaced.via());
+                default:
+                    if (TEXT_METHODS.contains(name)) {
+                        Value of = value(receiver);
+                        return of.kind() == Kind.NUMBER ? Value.NUMBER : text(of);
+                    }
+            }
+        }
+        return Value.part(new Part(name + "()", Origin.CALL, Kind.UNKNOWN, position(invocation)));
+    }
+
+    private Value created(NewClassTree created) {
+        String type = simpleName(created.getIdentifier());
+        if (TEXT_TYPES.contains(type)) {
+            if (created.getArguments().isEmpty()) {
+                return Value.EMPTY;
+            }
+            Value initial = value(created.getArguments().get(0));
+            // new StringBuilder(int) sets a capacity
+            return initial.kind() == Kind.NUMBER ? Value.EMPTY : text(initial);
+        }
+        if (NUMBER_TYPES.contains(type)) {
+            return Value.NUMBER;
+        }
+        return Value.NONE;
+    }
+
+    private Value format(ExpressionTree pattern, List<? extends ExpressionTree> args, String via) {
+        Value format = value(pattern);
+        List<Part> parts = new ArrayList<>(format.parts());
+        for (ExpressionTree arg : args) {
+            parts = merge(parts, value(arg).parts());
+        }
+        String text = format.text().replaceAll("%[-#+ 0,(]*\\d*(?:\\.\\d+)?[sSdfxXeEgGcbBhHoaA]", "?")
+                .replaceAll("\\{\\d+[^}]*}", "?");
+        return new Value(Kind.STRING, text, format.literal(), parts, parts.isEmpty() ? null : via);
+    }
+
+    private static Value plus(Value left, Value right, String via) {
+        if (left.kind() == Kind.NUMBER && right.kind() == Kind.NUMBER) {
+            return Value.NUMBER;
+        }
+        Kind kind = left.kind() == Kind.STRING || right.kind() == Kind.STRING ? Kind.STRING : Kind.UNKNOWN;
+        List<Part> parts = merge(left.parts(), right.parts());
+        boolean literal = left.literal() || right.literal();
+        String joinedVia = left.via() != null ? left.via() : right.via() != null ? right.via()
+                : literal && !parts.isEmpty() ? via : null;
+        return new Value(kind, left.text() + right.text(), literal, parts, joinedVia);
+    }
+
+    private static Value either(Value first, Value second) {
+        if (first.kind() == Kind.NUMBER && second.kind() == Kind.NUMBER) {
+            return Value.NUMBER;
+        }
+        Kind kind = first.kind() == Kind.STRING || second.kind() == Kind.STRING ? Kind.STRING : first.kind();
+        return new Value(kind, first.text().isEmpty() ? second.text() : first.text(),
+                first.literal() || second.literal(), merge(first.parts(), second.parts()),
+                first.via() != null ? first.via() : second.via());
+    }
+
+    /** {@code value} as text, e.g. after {@code String.valueOf}; numbers stay harmless. */
+    private static Value text(Value value) {
+        return value.kind() == Kind.NUMBER ? Value.literal(value.text()) : value.as(Kind.STRING);
+    }
+
+    private static List<Part> merge(List<Part> first, List<Part> second) {
+        if (second.isEmpty()) {
+            return first;
+        }
+        if (first.isEmpty()) {
+            return second;
+        }
+        Map<Long, Part> byPosition = new LinkedHashMap<>();
+        for (Part part : first) {
+            byPosition.putIfAbsent(part.position(), part);
+        }
+        for (Part part : second) {
+            byPosition.putIfAbsent(part.position(), part);
+        }
+        return List.copyOf(byPosition.values());
+    }
+
+    /** {@code Locale.ROOT}, {@code locale}: the optional first argument of {@code String.format}. */
+    private boolean isLocale(ExpressionTree arg) {
+        String text = arg.toString();
+        return text.startsWith("Locale.") || arg instanceof IdentifierTree identifier
+                && "Locale".equals(declaredType(identifier.getName().toString()));
+    }
+
+    private VariableTree variable(String name) {
+        Local local = locals.get(name);
+        if (local != null) {
+            return local.declaration();
+        }
+        VariableTree parameter = parameters.get(name);
+        return parameter != null ? parameter : fields.get(name);
+    }
+
+    private long position(Tree tree) {
+        return file.positions().getStartPosition(file.unit(), tree);
+    }
+
+    static Kind kindOf(Tree type) {
+        if (type == null) {
+            return Kind.UNKNOWN;
+        }
+        if (type instanceof PrimitiveTypeTree primitive) {
+            return primitive.getPrimitiveTypeKind() == TypeKind.CHAR ? Kind.STRING : Kind.NUMBER;
+        }
+        String name = simpleName(type);
+        if (TEXT_TYPES.contains(name)) {
+            return Kind.STRING;
+        }
+        return NUMBER_TYPES.contains(name) ? Kind.NUMBER : Kind.OTHER;
+    }
+
+    /** {@code String} for {@code java.lang.String}; {@code List} for {@code List<String>}. */
+    static String simpleName(Tree type) {
+        String name = type.toString();
+        int generic = name.indexOf('<');
+        if (generic >= 0) {
+            name = name.substring(0, generic);
+        }
+        return name.substring(name.lastIndexOf('.') + 1).trim();
+    }
+
+    /** Collects the method's locals and every value assigned or appended to them. */
+    private final class LocalCollector extends TreeScanner<Void, Void> {
+
+        @Override
+        public Void visitClass(ClassTree tree, Void unused) {
+            // local and anonymous classes are analysed as methods of their own
+            return null;
+        }
+
+        @Override
+        public Void visitVariable(VariableTree tree, Void unused) {
+            String name = tree.getName().toString();
+            Kind kind = kindOf(tree.getType());
+            boolean builder = tree.getType() != null && BUILDER_TYPES.contains(simpleName(tree.getType()));
+            if (tree.getType() == null && tree.getInitializer() instanceof NewClassTree created) {
+                String type = simpleName(created.getIdentifier());
+                builder = BUILDER_TYPES.contains(type);
+                kind = TEXT_TYPES.contains(type) ? Kind.STRING : NUMBER_TYPES.contains(type) ? Kind.NUMBER : Kind.OTHER;
+            }
+            List<ExpressionTree> contributions = new ArrayList<>();
+            if (tree.getInitializer() != null) {
+                contributions.add(tree.getInitializer());
+            }
+            Local previous = locals.putIfAbsent(name, new Local(tree, kind, builder, contributions));
+            if (previous != null && tree.getInitializer() != null) {
+                // the same name in another block: values merge
+                previous.contributions().add(tree.getInitializer());
+            }
+            return super.visitVariable(tree, unused);
+        }
+
+        @Override
+        public Void visitAssignment(AssignmentTree tree, Void unused) {
+            if (tree.getVariable() instanceof IdentifierTree target) {
+                Local local = locals.get(target.getName().toString());
+                if (local != null) {
+                    local.contributions().add(tree.getExpression());
+                }
+            }
+            return super.visitAssignment(tree, unused);
+        }
+
+        @Override
+        public Void visitCompoundAssignment(CompoundAssignmentTree tree, Void unused) {
+            if (tree.getKind() == Tree.Kind.PLUS_ASSIGNMENT && tree.getVariable() instanceof IdentifierTree target) {
+                Local local = locals.get(target.getName().toString());
+                if (local != null) {
+                    local.contributions().add(tree.getExpression());
+                }
+            }
+            return super.visitCompoundAssignment(tree, unused);
+        }
+
+        @Override
+        public Void visitMethodInvocation(MethodInvocationTree tree, Void unused) {
+            if (tree.getMethodSelect() instanceof MemberSelectTree select) {
+                String name = select.getIdentifier().toString();
+                List<? extends ExpressionTree> args = tree.getArguments();
+                ExpressionTree root = select.getExpression();
+                while (root instanceof MethodInvocationTree inner && inner.getMethodSelect() instanceof MemberSelectTree chained
+                        && (chained.getIdentifier().contentEquals("append") || chained.getIdentifier().contentEquals("insert"))) {
+                    root = chained.getExpression();
+                }
+                if (root instanceof IdentifierTree identifier) {
+                    Local local = locals.get(identifier.getName().toString());
+                    if (local != null && local.builder()) {
+                        if (name.equals("append") && !args.isEmpty()) {
+                            local.contributions().add(args.get(0));
+                        } else if (name.equals("insert") && args.size() >= 2) {
+                            local.contributions().add(args.get(1));
+                        }
+                    } else if (local != null && local.kind() == Kind.OTHER && root == select.getExpression()
+                            && (name.equals("add") || name.equals("addAll")) && !args.isEmpty()) {
+                        // elements of a list, e.g. the arguments of a command
+                        local.contributions().add(args.get(args.size() - 1));
+                    }
+                }
+            }
+            return super.visitMethodInvocation(tree, unused);
+        }
+    }
+}
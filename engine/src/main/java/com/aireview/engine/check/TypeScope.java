@@ -0,0 +1,119 @@
+package com.aireview.engine.check;
+
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.ImportTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.util.TreeScanner;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * What the type names written in one file refer to, resolved the way the compiler does from
+ * the file's package, its imports and the types it declares. This needs no class path: a name
+ * is matched against the one qualified type a check asks about.
+ *
+ * <p>{@code Random} is {@code java.util.Random} in a file importing {@code java.util.Random}
+ * or {@code java.util.*}, and some other class in a file that imports or declares another
+ * {@code Random}, or imports neither.
+ */
+public final class TypeScope {
+
+    private final String packageName;
+    /** Single-type imports by simple name. */
+    private final Map<String, String> imports = new HashMap<>();
+    /** Packages and types imported on demand, {@code java.util} for {@code import java.util.*}. */
+    private final Set<String> onDemand = new HashSet<>();
+    /** Owners of static imports by member name. */
+    private final Map<String, String> staticImports = new HashMap<>();
+    private final Set<String> staticOnDemand = new HashSet<>();
+    /** Simple names of the types declared in the file, nested ones included. */
+    private final Set<String> declared = new HashSet<>();
+
+    TypeScope(CompilationUnitTree unit) {
+        packageName = unit.getPackageName() == null ? "" : unit.getPackageName().toString();
+        for (ImportTree tree : unit.getImports()) {
+            if (!(tree.getQualifiedIdentifier() instanceof MemberSelectTree imported)) {
+                continue;
+            }
+            String owner = imported.getExpression().toString();
+            String member = imported.getIdentifier().toString();
+            boolean all = member.equals("*");
+            if (tree.isStatic()) {
+                if (all) {
+                    staticOnDemand.add(owner);
+                } else {
+                    staticImports.put(member, owner);
+                }
+            } else if (all) {
+                onDemand.add(owner);
+            } else {
+                imports.put(member, owner + "." + member);
+            }
+        }
+        new TreeScanner<Void, Void>() {
+            @Override
+            public Void visitClass(ClassTree tree, Void unused) {
+                declared.add(tree.getSimpleName().toString());
+                return super.visitClass(tree, unused);
+            }
+        }.scan(unit, null);
+    }
+
+    /** Whether {@code written}, a type name as it appears in the file, names the type {@code qualified}. */
+    boolean refersTo(String written, String qualified) {
+        if (written == null) {
+            return false;
+        }
+        String name = erase(written);
+        if (name.indexOf('.') >= 0) {
+            return name.equals(qualified) || refersTo(name.substring(0, name.indexOf('.')), outer(name, qualified));
+        }
+        int dot = qualified.lastIndexOf('.');
+        if (!name.equals(qualified.substring(dot + 1)) || declared.contains(name)) {
+            return false;
+        }
+        String imported = imports.get(name);
+        if (imported != null) {
+            return imported.equals(qualified);
+        }
+        String owner = qualified.substring(0, dot);
+        return owner.equals(packageName) || owner.equals("java.lang") || onDemand.contains(owner);
+    }
+
+    /** Whether the type name {@code written}, such as the identifier of a {@code new}, names {@code qualified}. */
+    boolean refersTo(Tree written, String qualified) {
+        return written != null && refersTo(written.toString(), qualified);
+    }
+
+    /** Whether an unqualified call of {@code member} is a static import of it from {@code owner}. */
+    boolean staticImport(String member, String owner) {
+        String imported = staticImports.get(member);
+        return imported != null ? imported.equals(owner) : staticOnDemand.contains(owner);
+    }
+
+    /** Whether the file imports anything from the package {@code prefix} or below it. */
+    boolean imports(String prefix) {
+        return imports.values().stream().anyMatch(name -> name.startsWith(prefix + "."))
+                || onDemand.stream().anyMatch(name -> name.equals(prefix) || name.startsWith(prefix + "."));
+    }
+
+    /**
+     * For a name qualified by an outer type, such as {@code JsonTypeInfo.Id}, the qualified name
+     * its first segment must then refer to, or a name nothing matches.
+     */
+    private static String outer(String name, String qualified) {
+        String nested = name.substring(name.indexOf('.'));
+        return qualified.endsWith(nested) ? qualified.substring(0, qualified.length() - nested.length()) : "";
+    }
+
+    /** {@code java.util.List} for {@code java.util.List<String>}. */
+    private static String erase(String name) {
+        int generic = name.indexOf('<');
+        return (generic >= 0 ? name.substring(0, generic) : name).trim();
+    }
+}
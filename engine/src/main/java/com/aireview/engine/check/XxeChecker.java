@@ -0,0 +1,384 @@
+package com.aireview.engine.check;
+
+import com.aireview.engine.report.Severity;
+import com.sun.source.tree.AssignmentTree;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.LiteralTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.ParenthesizedTree;
+import com.sun.source.tree.ReturnTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.TypeCastTree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.TreePath;
+import com.sun.source.util.TreePathScanner;
+import com.sun.source.util.TreeScanner;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Local implementation of the security checklist's {@code xxe-vulnerability} rule.
+ *
+ * <p>Finds where the JAXP factories are created ({@code DocumentBuilderFactory},
+ * {@code SAXParserFactory}, {@code XMLInputFactory}, {@code TransformerFactory},
+ * {@code SchemaFactory}) and looks for the {@code setFeature}, {@code setAttribute} or
+ * {@code setProperty} calls that harden each one in the same method. The calls count on the
+ * factory itself or on what it builds, such as the {@code SAXParser} or {@code XMLReader} of a
+ * {@code SAXParserFactory}. A factory the method leaves open is a BLOCK issue:
+ *
+ * <ul>
+ *   <li>with HIGH confidence when it stays in the method;</li>
+ *   <li>with MEDIUM confidence, and left to the model as well, when it is returned, passed on
+ *       or kept in a field, where it may be hardened elsewhere.</li>
+ * </ul>
+ *
+ * Code that creates no factory is decided without the model.
+ */
+public final class XxeChecker extends FlowChecker {
+
+    static final String RULE_ID = "xxe-vulnerability";
+
+    /** A hardening setting, with the value that makes it safe. */
+    private enum Setting {
+        DISALLOW_DOCTYPE, NO_GENERAL_ENTITIES, NO_PARAMETER_ENTITIES, NO_EXTERNAL_DTD, SECURE_PROCESSING,
+        NO_DTD_SUPPORT, NO_EXTERNAL_ENTITIES
+    }
+
+    private enum Factory {
+        DOCUMENT_BUILDER("DocumentBuilderFactory",
+                "setFeature(\"http://apache.org/xml/features/disallow-doctype-decl\", true)"),
+        SAX_PARSER("SAXParserFactory",
+                "setFeature(\"http://apache.org/xml/features/disallow-doctype-decl\", true)"),
+        XML_INPUT("XMLInputFactory",
+                "setProperty(XMLInputFactory.SUPPORT_DTD, false)"),
+        TRANSFORMER("TransformerFactory",
+                "setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, \"\") and ACCESS_EXTERNAL_STYLESHEET"),
+        SCHEMA("SchemaFactory",
+                "setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, \"\") and ACCESS_EXTERNAL_SCHEMA");
+
+        final String type;
+        final String fix;
+
+        Factory(String type, String fix) {
+            this.type = type;
+            this.fix = fix;
+        }
+
+        /** Whether {@code settings} close external entities for this factory. */
+        boolean safe(Set<Setting> settings) {
+            return switch (this) {
+                case DOCUMENT_BUILDER, SAX_PARSER -> settings.contains(Setting.DISALLOW_DOCTYPE)
+                        || settings.contains(Setting.NO_EXTERNAL_DTD)
+                        || settings.contains(Setting.NO_GENERAL_ENTITIES) && settings.contains(Setting.NO_PARAMETER_ENTITIES);
+                case XML_INPUT -> settings.contains(Setting.NO_DTD_SUPPORT)
+                        || settings.contains(Setting.NO_EXTERNAL_ENTITIES) || settings.contains(Setting.NO_EXTERNAL_DTD);
+                case TRANSFORMER, SCHEMA -> settings.contains(Setting.NO_EXTERNAL_DTD)
+                        || settings.contains(Setting.SECURE_PROCESSING);
+            };
+        }
+
+        /** The factory {@code call} creates, e.g. {@code DocumentBuilderFactory.newInstance()}, or {@code null}. */
+        static Factory created(MethodInvocationTree call) {
+            ExpressionTree receiver = receiver(call);
+            if (receiver == null || !FlowChecker.name(call).startsWith("new")) {
+                return null;
+            }
+            String owner = receiver.toString();
+            owner = owner.substring(owner.lastIndexOf('.') + 1);
+            for (Factory factory : values()) {
+                if (factory.type.equals(owner)) {
+                    return factory;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * One factory creation.
+     *
+     * @param holder  variable the factory is kept in, or {@code null} when it is used or
+     *                handed on directly
+     * @param escapes whether it leaves the scope it was created in
+     */
+    private record Created(Factory factory, int line, String holder, boolean escapes) {
+    }
+
+    public XxeChecker() {
+        this(new JavaFiles());
+    }
+
+    /** A checker reading the syntax trees of {@code javaFiles}, shared with the other checks. */
+    public XxeChecker(JavaFiles javaFiles) {
+        super(javaFiles);
+    }
+
+    @Override
+    public String ruleId() {
+        return RULE_ID;
+    }
+
+    @Override
+    void analyse(JavaFiles.Parsed file, StringFlow flow, MethodTree method, Analysis analysis) {
+        Method scanner = new Method(file, flow);
+        scanner.scan(new TreePath(new TreePath(file.unit()), method.getBody()), null);
+        for (Created created : scanner.created) {
+            Set<Setting> settings = EnumSet.noneOf(Setting.class);
+            for (Hardening hardening : scanner.hardenings) {
+                if (created.holder() != null && created.holder().equals(scanner.root(hardening.receiver(), new HashSet<>()))) {
+                    settings.add(hardening.setting());
+                }
+            }
+            boolean escapes = created.escapes() || created.holder() != null && scanner.escaped.contains(created.holder());
+            report(created, settings, escapes, analysis);
+        }
+    }
+
+    /** Factories kept in fields, hardened anywhere in the class. */
+    @Override
+    void analyseFields(JavaFiles.Parsed file, ClassTree type, Analysis analysis) {
+        List<Created> fields = new ArrayList<>();
+        for (Tree member : type.getMembers()) {
+            if (member instanceof VariableTree field && unwrap(field.getInitializer()) instanceof MethodInvocationTree call
+                    && Factory.created(call) != null) {
+                fields.add(new Created(Factory.created(call), file.line(field), field.getName().toString(), true));
+            }
+        }
+        if (fields.isEmpty()) {
+            return;
+        }
+        Map<String, String> constants = new HashMap<>();
+        for (Tree member : type.getMembers()) {
+            if (member instanceof VariableTree field && field.getInitializer() instanceof LiteralTree literal) {
+                constants.put(field.getName().toString(), String.valueOf(literal.getValue()));
+            }
+        }
+        List<Hardening> hardenings = new ArrayList<>();
+        new TreeScanner<Void, Void>() {
+            @Override
+            public Void visitClass(ClassTree tree, Void unused) {
+                // nested classes have their own fields
+                return tree == type ? super.visitClass(tree, unused) : null;
+            }
+
+            @Override
+            public Void visitMethodInvocation(MethodInvocationTree tree, Void unused) {
+                Setting setting = setting(tree, key -> constants.getOrDefault(key.toString(), ""));
+                if (setting != null) {
+                    hardenings.add(new Hardening(receiver(tree), setting));
+                }
+                return super.visitMethodInvocation(tree, unused);
+            }
+        }.scan(type, null);
+        for (Created created : fields) {
+            Set<Setting> settings = EnumSet.noneOf(Setting.class);
+            for (Hardening hardening : hardenings) {
+                if (created.holder().equals(syntacticRoot(hardening.receiver()))) {
+                    settings.add(hardening.setting());
+                }
+            }
+            report(created, settings, true, analysis);
+        }
+    }
+
+    private static void report(Created created, Set<Setting> settings, boolean escapes, Analysis analysis) {
+        if (created.factory().safe(settings)) {
+            return;
+        }
+        String type = created.factory().type;
+        String message = escapes
+                ? type + " is not hardened against XXE where it is created, and leaves that scope; unless every "
+                        + "user hardens it, external entities are resolved. Call " + created.factory().fix + " on it."
+                : type + " is used without disabling external entities, so parsed XML can read local files or "
+                        + "reach internal hosts (XXE). Call " + created.factory().fix + " before parsing.";
+        analysis.findings.add(new Finding(created.line(), -1, Severity.BLOCK, escapes ? "MEDIUM" : "HIGH", message));
+        if (escapes) {
+            analysis.undecided.add(created.line());
+        }
+    }
+
+    /**
+     * A hardening call.
+     *
+     * @param receiver what it is called on, or {@code null} for an unqualified call
+     */
+    private record Hardening(ExpressionTree receiver, Setting setting) {
+    }
+
+    /** Collects the factory creations and hardening calls of one method body. */
+    private static final class Method extends TreePathScanner<Void, Void> {
+
+        private final JavaFiles.Parsed file;
+        private final StringFlow flow;
+        final List<Created> created = new ArrayList<>();
+        final List<Hardening> hardenings = new ArrayList<>();
+        /** Variables returned or passed to another method. */
+        final Set<String> escaped = new HashSet<>();
+
+        Method(JavaFiles.Parsed file, StringFlow flow) {
+            this.file = file;
+            this.flow = flow;
+        }
+
+        @Override
+        public Void visitClass(ClassTree tree, Void unused) {
+            return null;
+        }
+
+        @Override
+        public Void visitMethodInvocation(MethodInvocationTree tree, Void unused) {
+            Factory factory = Factory.created(tree);
+            Setting setting = setting(tree, key -> flow.value(key).text());
+            if (factory != null) {
+                created.add(holder(factory, tree));
+            } else if (setting != null) {
+                hardenings.add(new Hardening(receiver(tree), setting));
+            } else {
+                for (ExpressionTree arg : tree.getArguments()) {
+                    if (unwrap(arg) instanceof IdentifierTree identifier) {
+                        escaped.add(identifier.getName().toString());
+                    }
+                }
+            }
+            return super.visitMethodInvocation(tree, unused);
+        }
+
+        @Override
+        public Void visitReturn(ReturnTree tree, Void unused) {
+            if (unwrap(tree.getExpression()) instanceof IdentifierTree identifier) {
+                escaped.add(identifier.getName().toString());
+            }
+            return super.visitReturn(tree, unused);
+        }
+
+        /** Where the factory created by {@code call} goes, read from the enclosing tree. */
+        private Created holder(Factory factory, MethodInvocationTree call) {
+            int line = file.line(call);
+            TreePath path = getCurrentPath().getParentPath();
+            while (path.getLeaf() instanceof ParenthesizedTree || path.getLeaf() instanceof TypeCastTree) {
+                path = path.getParentPath();
+            }
+            Tree parent = path.getLeaf();
+            if (parent instanceof VariableTree variable) {
+                return new Created(factory, line, variable.getName().toString(), false);
+            }
+            if (parent instanceof AssignmentTree assignment) {
+                ExpressionTree target = assignment.getVariable();
+                if (target instanceof IdentifierTree identifier && !flow.assigned(identifier.getName().toString()).isEmpty()) {
+                    return new Created(factory, line, identifier.getName().toString(), false);
+                }
+                // a field: other methods may harden it
+                return new Created(factory, line, syntacticRoot(target), true);
+            }
+            // a call on the new factory, e.g. newInstance().newDocumentBuilder(), uses it unhardened
+            boolean chained = parent instanceof MemberSelectTree;
+            return new Created(factory, line, null, !chained);
+        }
+
+        /**
+         * The variable a hardening call's receiver comes from: {@code spf} for
+         * {@code spf.newSAXParser().getXMLReader()}, or for a local assigned from it.
+         */
+        String root(ExpressionTree receiver, Set<String> seen) {
+            String name = syntacticRoot(receiver);
+            if (name == null || !seen.add(name)) {
+                return name;
+            }
+            for (Created factory : created) {
+                if (name.equals(factory.holder())) {
+                    return name;
+                }
+            }
+            for (ExpressionTree assigned : flow.assigned(name)) {
+                String root = root(assigned, seen);
+                if (root != null) {
+                    return root;
+                }
+            }
+            return name;
+        }
+    }
+
+    /** The variable at the bottom of a call chain: {@code f} for {@code f.newSAXParser().getXMLReader()}. */
+    private static String syntacticRoot(ExpressionTree expression) {
+        ExpressionTree current = unwrap(expression);
+        while (true) {
+            if (current instanceof MethodInvocationTree call) {
+                current = unwrap(receiver(call));
+            } else if (current instanceof MemberSelectTree select) {
+                if (select.getExpression() instanceof IdentifierTree owner && owner.getName().contentEquals("this")) {
+                    return select.getIdentifier().toString();
+                }
+                current = unwrap(select.getExpression());
+            } else {
+                return current instanceof IdentifierTree identifier ? identifier.getName().toString() : null;
+            }
+        }
+    }
+
+    private static ExpressionTree unwrap(ExpressionTree expression) {
+        ExpressionTree current = expression;
+        while (true) {
+            if (current instanceof ParenthesizedTree parenthesized) {
+                current = parenthesized.getExpression();
+            } else if (current instanceof TypeCastTree cast) {
+                current = cast.getExpression();
+            } else {
+                return current;
+            }
+        }
+    }
+
+    /**
+     * The hardening {@code call} applies, or {@code null}. Names are matched on the source text,
+     * such as {@code XMLConstants.ACCESS_EXTERNAL_DTD}, and on the value {@code constant} gives
+     * the name's expression, for names kept in constants of the class.
+     */
+    private static Setting setting(MethodInvocationTree call, Function<ExpressionTree, String> constant) {
+        String name = name(call);
+        if (call.getArguments().size() != 2
+                || !name.equals("setFeature") && !name.equals("setAttribute") && !name.equals("setProperty")) {
+            return null;
+        }
+        ExpressionTree keyTree = call.getArguments().get(0);
+        String key = keyTree + " " + constant.apply(keyTree);
+        ExpressionTree valueTree = unwrap(call.getArguments().get(1));
+        String value = valueTree instanceof LiteralTree literal ? String.valueOf(literal.getValue()) : valueTree.toString();
+        boolean on = value.equals("true") || value.endsWith("TRUE");
+        boolean off = value.equals("false") || value.endsWith("FALSE");
+        boolean empty = valueTree instanceof LiteralTree && value.isEmpty();
+        if (key.contains("disallow-doctype-decl")) {
+            return on ? Setting.DISALLOW_DOCTYPE : null;
+        }
+        if (key.contains("external-general-entities")) {
+            return off ? Setting.NO_GENERAL_ENTITIES : null;
+        }
+        if (key.contains("external-parameter-entities")) {
+            return off ? Setting.NO_PARAMETER_ENTITIES : null;
+        }
+        if (key.contains("ACCESS_EXTERNAL_DTD") || key.contains("accessExternalDTD")) {
+            return empty ? Setting.NO_EXTERNAL_DTD : null;
+        }
+        if (key.contains("FEATURE_SECURE_PROCESSING") || key.contains("secure-processing")) {
+            return on ? Setting.SECURE_PROCESSING : null;
+        }
+        if (key.contains("IS_SUPPORTING_EXTERNAL_ENTITIES") || key.contains("isSupportingExternalEntities")) {
+            return off ? Setting.NO_EXTERNAL_ENTITIES : null;
+        }
+        if (key.contains("SUPPORT_DTD") || key.contains("supportDTD")) {
+            return off ? Setting.NO_DTD_SUPPORT : null;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,107 @@
+package com.aireview.engine.checklist;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An agent's {@code checklist.yaml}, parsed and validated once into typed rules.
+ *
+ * <p>Each rule is rendered once into the fragment the model sees: YAML without the file's
+ * comments, banners and metadata. The prompt for a chunk is the concatenation of the
+ * fragments of the rules not decided locally, kept per set of locally decided rules.
+ */
+public final class Checklist {
+
+    private final Map<String, String> metadata;
+    private final List<ChecklistRule> rules;
+    private final List<String> ruleIds;
+    private final List<String> fragments;
+    private final String prompt;
+    private final ConcurrentMap<Set<String>, String> filtered = new ConcurrentHashMap<>();
+
+    Checklist(Map<String, String> metadata, List<ChecklistRule> rules) {
+        this.metadata = Map.copyOf(metadata);
+        this.rules = List.copyOf(rules);
+        this.ruleIds = rules.stream().map(ChecklistRule::id).toList();
+        this.fragments = rules.stream().map(ChecklistRule::render).toList();
+        this.prompt = String.join("", fragments);
+    }
+
+    /**
+     * Reads and validates {@code file}. A {@code metadata.agent} must name the directory the
+     * file is in.
+     *
+     * @throws ChecklistException when the file is not a valid checklist
+     */
+    public static Checklist load(Path file) throws IOException {
+        return parse(file, Files.readString(file, StandardCharsets.UTF_8));
+    }
+
+    /** Parses {@code text}, read from {@code file}; see {@link #load(Path)}. */
+    public static Checklist parse(Path file, String text) throws ChecklistException {
+        Checklist checklist = new ChecklistParser(file, text).parse();
+        String agent = checklist.metadata.get("agent");
+        Path dir = file.toAbsolutePath().getParent();
+        if (agent != null && dir != null && dir.getFileName() != null
+                && !agent.equals(dir.getFileName().toString())) {
+            throw new ChecklistException(file, 0, "metadata.agent is '" + agent
+                    + "' but the checklist is in the directory of agent '" + dir.getFileName() + "'");
+        }
+        return checklist;
+    }
+
+    /** {@code metadata.version}, or {@code "unversioned"}. */
+    public String version() {
+        return metadata.getOrDefault("version", "unversioned");
+    }
+
+    /** The scalar entries of the {@code metadata:} block. */
+    public Map<String, String> metadata() {
+        return metadata;
+    }
+
+    public List<ChecklistRule> rules() {
+        return rules;
+    }
+
+    /** The rule ids, in checklist order. */
+    public List<String> ruleIds() {
+        return ruleIds;
+    }
+
+    /** All rules, as they are sent to the model. */
+    public String prompt() {
+        return prompt;
+    }
+
+    /**
+     * The rules as they are sent to the model, without those in {@code handled}, followed by a
+     * comment naming them so the agent does not report them again.
+     */
+    public String prompt(Set<String> handled) {
+        if (handled.isEmpty()) {
+            return prompt;
+        }
+        return filtered.computeIfAbsent(Set.copyOf(handled), this::render);
+    }
+
+    private String render(Set<String> handled) {
+        StringBuilder out = new StringBuilder(prompt.length() + 64);
+        for (int i = 0; i < fragments.size(); i++) {
+            if (!handled.contains(ruleIds.get(i))) {
+                out.append(fragments.get(i));
+            }
+        }
+        out.append("\n# Checked locally by the review engine, do not report: ")
+                .append(String.join(", ", new TreeSet<>(handled))).append('\n');
+        return out.toString();
+    }
+}
@@ -0,0 +1,14 @@
+package com.aireview.engine.checklist;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/** A {@code checklist.yaml} that cannot be read as a checklist; the message names the file and line. */
+public final class ChecklistException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    ChecklistException(Path file, int line, String message) {
+        super(file + (line > 0 ? ":" + line : "") + ": " + message);
+    }
+}
@@ -0,0 +1,329 @@
+package com.aireview.engine.checklist;
+
+import com.aireview.engine.report.Severity;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads the YAML subset checklists are written in: a {@code metadata:} mapping of scalars and
+ * a {@code rules:} list of mappings. Scalars may be plain, quoted or {@code |}/{@code >}
+ * blocks. Anything else, and every rule that does not validate, is an error naming the line.
+ */
+final class ChecklistParser {
+
+    private static final Pattern KEY = Pattern.compile("([A-Za-z_][\\w-]*):(?:[ \\t]+(.*))?");
+    private static final Pattern BLOCK_HEADER = Pattern.compile("([|>])[-+]?[ \\t]*(?:#.*)?");
+    private static final Pattern RULE_ID = Pattern.compile("[A-Za-z0-9][\\w.-]*");
+    private static final Pattern OWASP = Pattern.compile("A\\d{2}:\\d{4}");
+    private static final List<String> RULE_KEYS = List.of("id", "category", "owasp", "description", "severity", "details");
+
+    private final Path file;
+    private final String[] lines;
+    private int next;
+
+    ChecklistParser(Path file, String text) {
+        this.file = file;
+        String content = text.startsWith("\uFEFF") ? text.substring(1) : text;
+        this.lines = content.replace("\r\n", "\n").split("\n", -1);
+    }
+
+    Checklist parse() throws ChecklistException {
+        Map<String, String> metadata = null;
+        List<ChecklistRule> rules = null;
+        while (skipBlank() < lines.length) {
+            int n = next;
+            if (indent(n) > 0) {
+                throw error(n, "unexpected indentation");
+            }
+            if (lines[n].startsWith("---")) {
+                next++;
+                continue;
+            }
+            Matcher key = KEY.matcher(lines[n]);
+            if (!key.matches()) {
+                throw error(n, "expected 'metadata:' or 'rules:'");
+            }
+            if (!value(key.group(2), n, 0).isEmpty()) {
+                throw error(n, "'" + key.group(1) + ":' must be followed by an indented block");
+            }
+            switch (key.group(1)) {
+                case "metadata" -> {
+                    if (metadata != null) {
+                        throw error(n, "duplicate 'metadata:' section");
+                    }
+                    metadata = metadata();
+                }
+                case "rules" -> {
+                    if (rules != null) {
+                        throw error(n, "duplicate 'rules:' section");
+                    }
+                    rules = rules(n);
+                }
+                default -> throw error(n, "unknown section '" + key.group(1) + "' (expected metadata or rules)");
+            }
+        }
+        if (rules == null || rules.isEmpty()) {
+            throw error(-1, "no rules: the checklist needs a 'rules:' list of '- id: ...' entries");
+        }
+        return new Checklist(metadata == null ? Map.of() : metadata, rules);
+    }
+
+    private Map<String, String> metadata() throws ChecklistException {
+        Map<String, String> metadata = new LinkedHashMap<>();
+        int fieldIndent = -1;
+        while (skipBlank() < lines.length && indent(next) > 0) {
+            int n = next;
+            if (fieldIndent < 0) {
+                fieldIndent = indent(n);
+            } else if (indent(n) != fieldIndent) {
+                throw error(n, "unexpected indentation (metadata holds only 'key: value' entries)");
+            }
+            Matcher key = KEY.matcher(lines[n].substring(fieldIndent));
+            if (!key.matches()) {
+                throw error(n, "expected 'key: value' in metadata");
+            }
+            if (metadata.put(key.group(1), value(key.group(2), n, fieldIndent)) != null) {
+                throw error(n, "duplicate metadata key '" + key.group(1) + "'");
+            }
+        }
+        return metadata;
+    }
+
+    private List<ChecklistRule> rules(int sectionLine) throws ChecklistException {
+        List<ChecklistRule> rules = new ArrayList<>();
+        Map<String, Integer> idLines = new HashMap<>();
+        int itemIndent = -1;
+        while (skipBlank() < lines.length) {
+            int n = next;
+            int indent = indent(n);
+            String line = lines[n];
+            boolean item = line.startsWith("-", indent) && (line.length() == indent + 1
+                    || line.charAt(indent + 1) == ' ' || line.charAt(indent + 1) == '\t');
+            if (itemIndent < 0) {
+                if (!item) {
+                    throw error(indent == 0 ? sectionLine : n, "'rules:' must be a list of '- id: ...' entries");
+                }
+                itemIndent = indent;
+            }
+            if (indent < itemIndent || indent == 0 && !item) {
+                break;
+            }
+            if (indent != itemIndent || !item) {
+                throw error(n, "unexpected indentation (expected '- id: ...' or a key of the rule above)");
+            }
+            rules.add(rule(n, idLines));
+        }
+        return rules;
+    }
+
+    /** Reads the list entry starting on line {@code start} and validates it. */
+    private ChecklistRule rule(int start, Map<String, Integer> idLines) throws ChecklistException {
+        Map<String, String> fields = new HashMap<>();
+        String line = lines[start];
+        int fieldIndent = indent(start) + 1;
+        while (fieldIndent < line.length() && (line.charAt(fieldIndent) == ' ' || line.charAt(fieldIndent) == '\t')) {
+            fieldIndent++;
+        }
+        int n = start;
+        if (fieldIndent >= line.length() || line.charAt(fieldIndent) == '#') {
+            // "-" alone: the keys start on the next line
+            next++;
+            if (skipBlank() >= lines.length || indent(next) <= indent(start)) {
+                throw error(start, "empty rule");
+            }
+            n = next;
+            fieldIndent = indent(n);
+        }
+        while (true) {
+            Matcher key = KEY.matcher(lines[n].substring(fieldIndent));
+            if (!key.matches()) {
+                throw error(n, "expected 'key: value' in the rule");
+            }
+            String name = key.group(1);
+            if (!RULE_KEYS.contains(name)) {
+                throw error(n, "unknown rule key '" + name + "' (expected " + String.join(", ", RULE_KEYS) + ")");
+            }
+            if (fields.put(name, value(key.group(2), n, fieldIndent)) != null) {
+                throw error(n, "duplicate key '" + name + "' in the rule");
+            }
+            if (skipBlank() >= lines.length || indent(next) < fieldIndent) {
+                break;
+            }
+            n = next;
+            if (indent(n) > fieldIndent) {
+                throw error(n, "unexpected indentation (nested values are not supported)");
+            }
+        }
+
+        String id = fields.get("id");
+        if (id == null || id.isBlank()) {
+            throw error(start, "rule without an id");
+        }
+        if (!RULE_ID.matcher(id).matches()) {
+            throw error(start, "rule id '" + id + "' may only contain letters, digits, '.', '_' and '-'");
+        }
+        Integer first = idLines.putIfAbsent(id, start);
+        if (first != null) {
+            throw error(start, "duplicate rule id '" + id + "' (first defined on line " + (first + 1) + ")");
+        }
+        String description = fields.get("description");
+        if (description == null || description.isBlank()) {
+            throw error(start, "rule '" + id + "' has no description");
+        }
+        String severityText = fields.get("severity");
+        Severity severity = Severity.parse(severityText);
+        if (severity == null) {
+            throw error(start, "rule '" + id + "' has " + (severityText == null || severityText.isBlank()
+                    ? "no severity" : "unknown severity '" + severityText + "'") + " (expected BLOCK, WARN or INFO)");
+        }
+        String owasp = optional(fields.get("owasp"));
+        if (owasp != null && !OWASP.matcher(owasp).matches()) {
+            throw error(start, "rule '" + id + "' has owasp '" + owasp + "', expected a category such as A03:2021");
+        }
+        return new ChecklistRule(id, optional(fields.get("category")), owasp, description.strip(), severity,
+                optional(fields.get("details")));
+    }
+
+    /**
+     * Reads the value after {@code key:} on line {@code n}; a block scalar also consumes the
+     * lines indented past {@code keyIndent}. Leaves {@link #next} on the following line.
+     */
+    private String value(String raw, int n, int keyIndent) throws ChecklistException {
+        next = n + 1;
+        String text = raw == null ? "" : raw.strip();
+        if (text.isEmpty() || text.startsWith("#")) {
+            return "";
+        }
+        char first = text.charAt(0);
+        if (first == '"' || first == '\'') {
+            return quoted(text, n);
+        }
+        Matcher block = BLOCK_HEADER.matcher(text);
+        if (block.matches()) {
+            return block(n, keyIndent, block.group(1).charAt(0) == '>');
+        }
+        int comment = text.indexOf(" #");
+        int tabComment = text.indexOf("\t#");
+        if (tabComment >= 0 && (comment < 0 || tabComment < comment)) {
+            comment = tabComment;
+        }
+        return (comment < 0 ? text : text.substring(0, comment)).strip();
+    }
+
+    private String quoted(String text, int n) throws ChecklistException {
+        char quote = text.charAt(0);
+        StringBuilder out = new StringBuilder(text.length());
+        int i = 1;
+        while (true) {
+            if (i >= text.length()) {
+                throw error(n, "unterminated " + (quote == '"' ? "double" : "single") + "-quoted string");
+            }
+            char c = text.charAt(i++);
+            if (c == quote) {
+                if (quote == '\'' && i < text.length() && text.charAt(i) == '\'') {
+                    out.append('\'');
+                    i++;
+                    continue;
+                }
+                break;
+            }
+            if (c == '\\' && quote == '"' && i < text.length()) {
+                char escaped = text.charAt(i++);
+                out.append(switch (escaped) {
+                    case 'n' -> '\n';
+                    case 't' -> '\t';
+                    default -> escaped;
+                });
+            } else {
+                out.append(c);
+            }
+        }
+        String rest = text.substring(i).strip();
+        if (!rest.isEmpty() && !rest.startsWith("#")) {
+            throw error(n, "unexpected text after the quoted string: " + rest);
+        }
+        return out.toString();
+    }
+
+    /** The lines of a {@code |} (literal) or {@code >} (folded) block, without trailing newlines. */
+    private String block(int n, int keyIndent, boolean folded) throws ChecklistException {
+        List<String> block = new ArrayList<>();
+        int blockIndent = -1;
+        int i = n + 1;
+        for (; i < lines.length; i++) {
+            String line = lines[i];
+            if (line.isBlank()) {
+                block.add("");
+                continue;
+            }
+            int indent = indent(i);
+            if (indent <= keyIndent) {
+                break;
+            }
+            if (blockIndent < 0) {
+                blockIndent = indent;
+            } else if (indent < blockIndent) {
+                throw error(i, "line is indented less than the first line of the block");
+            }
+            block.add(line.substring(blockIndent).stripTrailing());
+        }
+        next = i;
+        while (!block.isEmpty() && block.get(block.size() - 1).isEmpty()) {
+            block.remove(block.size() - 1);
+        }
+        if (!folded) {
+            return String.join("\n", block);
+        }
+        StringBuilder out = new StringBuilder();
+        for (String line : block) {
+            if (line.isEmpty()) {
+                out.append('\n');
+            } else {
+                if (out.length() > 0 && out.charAt(out.length() - 1) != '\n') {
+                    out.append(' ');
+                }
+                out.append(line);
+            }
+        }
+        return out.toString();
+    }
+
+    /** Moves {@link #next} past blank and comment lines and returns it. */
+    private int skipBlank() throws ChecklistException {
+        while (next < lines.length) {
+            String line = lines[next].strip();
+            if (!line.isEmpty() && line.charAt(0) != '#') {
+                break;
+            }
+            next++;
+        }
+        return next;
+    }
+
+    private int indent(int n) throws ChecklistException {
+        String line = lines[n];
+        int i = 0;
+        while (i < line.length() && line.charAt(i) == ' ') {
+            i++;
+        }
+        if (i < line.length() && line.charAt(i) == '\t' && !line.isBlank()) {
+            throw error(n, "tabs are not allowed in indentation");
+        }
+        return i;
+    }
+
+    private static String optional(String value) {
+        return value == null || value.isBlank() ? null : value.strip();
+    }
+
+    private ChecklistException error(int n, String message) {
+        return new ChecklistException(file, n + 1, message);
+    }
+}
@@ -0,0 +1,52 @@
+package com.aireview.engine.checklist;
+
+import com.aireview.engine.report.Severity;
+
+/**
+ * One entry of a checklist's {@code rules:} list.
+ *
+ * @param id          rule id agents report issues under, e.g. {@code sql-injection}
+ * @param category    grouping such as {@code injection}, or {@code null}
+ * @param owasp       OWASP Top 10 category such as {@code A03:2021}, or {@code null}
+ * @param description what the rule checks
+ * @param severity    severity of the rule's issues
+ * @param details     further guidance for the agent, or {@code null}
+ */
+public record ChecklistRule(String id, String category, String owasp, String description, Severity severity,
+                            String details) {
+
+    /** The rule as it is sent to the model: YAML without comments, quotes only where needed. */
+    String render() {
+        StringBuilder out = new StringBuilder(64 + description.length() + (details == null ? 0 : details.length()));
+        out.append("- id: ").append(id).append('\n');
+        out.append("  severity: ").append(severity.name()).append('\n');
+        if (category != null) {
+            out.append("  category: ").append(scalar(category)).append('\n');
+        }
+        if (owasp != null) {
+            out.append("  owasp: ").append(scalar(owasp)).append('\n');
+        }
+        out.append("  description: ").append(scalar(description)).append('\n');
+        if (details != null) {
+            out.append("  details: |\n");
+            for (String line : details.split("\n", -1)) {
+                out.append(line.isEmpty() ? "" : "    ").append(line).append('\n');
+            }
+        }
+        return out.toString();
+    }
+
+    /** A plain scalar, or a double-quoted one when plain YAML would read it differently. */
+    private static String scalar(String value) {
+        boolean plain = !value.isEmpty()
+                && "-?:,[]{}#&*!|>'\"%@`".indexOf(value.charAt(0)) < 0
+                && !Character.isWhitespace(value.charAt(0))
+                && !Character.isWhitespace(value.charAt(value.length() - 1))
+                && !value.contains(": ") && !value.contains(" #") && !value.endsWith(":") && value.indexOf('\n') < 0
+                && !value.matches("(?i)true|false|yes|no|on|off|null|~|[-+.\\d][\\d._eE+-]*");
+        if (plain) {
+            return value;
+        }
+        return '"' + value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n").replace("\t", "\\t") + '"';
+    }
+}
@@ -0,0 +1,134 @@
+package com.aireview.engine.daemon;
+
+import com.aireview.engine.StagedReview;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.OptionalInt;
+
+/**
+ * Hook-side client of {@link ReviewDaemon}. Every method reports "no daemon" instead of
+ * failing, so callers can fall back to running the review in-process.
+ */
+public final class DaemonClient {
+
+    private DaemonClient() {
+    }
+
+    /**
+     * Sends a review to the daemon and copies its output to {@code out} as it arrives.
+     *
+     * @return the review's exit status, or empty when no daemon answered on {@code socket}
+     */
+    public static OptionalInt review(Path socket, Path repoRoot, boolean terminal, Map<String, String> env,
+                                     StagedReview staged, OutputStream out) {
+        SocketChannel channel = connect(socket);
+        if (channel == null) {
+            return OptionalInt.empty();
+        }
+        try (channel) {
+            OutputStream request = new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024);
+            StringBuilder header = new StringBuilder(256);
+            header.append(DaemonProtocol.MAGIC).append(' ').append(DaemonProtocol.OP_REVIEW).append('\n');
+            header.append("repo ").append(repoRoot.toAbsolutePath()).append('\n');
+            header.append("terminal ").append(terminal).append('\n');
+            env.forEach((key, value) -> {
+                if (value.indexOf('\n') < 0) {
+                    header.append("env ").append(key).append('=').append(value).append('\n');
+                }
+            });
+            for (String file : staged.files()) {
+                header.append("file ").append(file).append('\n');
+            }
+            byte[] diff = staged.diff().getBytes(StandardCharsets.UTF_8);
+            header.append("diff ").append(diff.length).append('\n');
+            request.write(header.toString().getBytes(StandardCharsets.UTF_8));
+            request.write(diff);
+            request.flush();
+            return readResponse(Channels.newInputStream(channel), out);
+        } catch (IOException e) {
+            return OptionalInt.empty();
+        }
+    }
+
+    /** Returns {@code true} when a daemon answers on {@code socket}. */
+    public static boolean ping(Path socket) {
+        return simple(socket, DaemonProtocol.OP_PING);
+    }
+
+    /** Asks the daemon on {@code socket} to shut down; {@code false} if none was running. */
+    public static boolean stop(Path socket) {
+        return simple(socket, DaemonProtocol.OP_STOP);
+    }
+
+    private static boolean simple(Path socket, String op) {
+        SocketChannel channel = connect(socket);
+        if (channel == null) {
+            return false;
+        }
+        try (channel) {
+            OutputStream request = Channels.newOutputStream(channel);
+            request.write((DaemonProtocol.MAGIC + " " + op + "\n").getBytes(StandardCharsets.UTF_8));
+            request.flush();
+            return readResponse(Channels.newInputStream(channel), OutputStream.nullOutputStream()).isPresent();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static SocketChannel connect(Path socket) {
+        if (!Files.exists(socket)) {
+            return null;
+        }
+        SocketChannel channel = null;
+        try {
+            channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+            channel.connect(UnixDomainSocketAddress.of(socket));
+            return channel;
+        } catch (IOException | UnsupportedOperationException e) {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                    // already failed
+                }
+            }
+            return null;
+        }
+    }
+
+    private static OptionalInt readResponse(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                if (buffer[i] == DaemonProtocol.STATUS_MARKER) {
+                    out.write(buffer, 0, i);
+                    out.flush();
+                    StringBuilder status = new StringBuilder();
+                    for (int j = i + 1; j < read && buffer[j] != '\n'; j++) {
+                        status.append((char) buffer[j]);
+                    }
+                    if (i + 1 + status.length() >= read) {
+                        String rest = DaemonProtocol.readLine(in);
+                        status.append(rest == null ? "" : rest);
+                    }
+                    return OptionalInt.of(Integer.parseInt(status.toString().trim()));
+                }
+            }
+            out.write(buffer, 0, read);
+            out.flush();
+        }
+        return OptionalInt.empty();
+    }
+}
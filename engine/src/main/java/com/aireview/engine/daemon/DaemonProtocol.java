@@ -0,0 +1,50 @@
+package com.aireview.engine.daemon;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Wire format between the hook client and {@link ReviewDaemon}.
+ *
+ * <p>A request is a header line {@code AIREVIEW/1 <op>}, then {@code key value} lines
+ * ({@code repo}, {@code terminal}, repeated {@code env KEY=VALUE} and {@code file path}),
+ * and for reviews a final {@code diff <bytes>} line followed by exactly that many UTF-8 bytes.
+ *
+ * <p>The response is the console output of the review, streamed as it is produced,
+ * terminated by a NUL byte, the decimal exit status and a newline.
+ */
+final class DaemonProtocol {
+
+    static final String MAGIC = "AIREVIEW/1";
+    static final String OP_REVIEW = "review";
+    static final String OP_PING = "ping";
+    static final String OP_STOP = "stop";
+    static final int STATUS_MARKER = 0;
+
+    private DaemonProtocol() {
+    }
+
+    /** Reads one {@code \n}-terminated UTF-8 line, or {@code null} at end of stream. */
+    static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\n') {
+                return line.toString(StandardCharsets.UTF_8);
+            }
+            line.write(b);
+        }
+        return line.size() == 0 ? null : line.toString(StandardCharsets.UTF_8);
+    }
+
+    static byte[] readBytes(InputStream in, int length) throws IOException {
+        byte[] data = in.readNBytes(length);
+        if (data.length != length) {
+            throw new EOFException("Expected " + length + " bytes, got " + data.length);
+        }
+        return data;
+    }
+}
@@ -0,0 +1,225 @@
+package com.aireview.engine.daemon;
+
+import com.aireview.engine.Console;
+import com.aireview.engine.EngineConfig;
+import com.aireview.engine.ReviewEngine;
+import com.aireview.engine.StagedReview;
+import com.aireview.engine.agent.AgentConfigCache;
+import com.aireview.engine.model.ModelClients;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Long-running local review server. The hook client sends it the staged diff over a
+ * Unix domain socket and receives the review output and exit status back.
+ *
+ * <p>Agent prompt templates and checklists stay compiled in one {@link AgentConfigCache}
+ * for the life of the process, so a warm commit pays for neither JVM startup of the
+ * full engine nor configuration loading.
+ */
+public final class ReviewDaemon {
+
+    private final Path socket;
+    private final AgentConfigCache configCache = new AgentConfigCache();
+    private final ExecutorService workers = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "review-daemon-worker");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile boolean running = true;
+
+    public ReviewDaemon(Path socket) {
+        this.socket = socket;
+    }
+
+    /** Binds the socket and serves requests until a {@code stop} request arrives. */
+    public void serve(PrintStream log) throws IOException {
+        if (DaemonClient.ping(socket)) {
+            throw new IOException("A review daemon is already listening on " + socket);
+        }
+        Files.deleteIfExists(socket);
+        Files.createDirectories(socket.toAbsolutePath().getParent());
+        try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            server.bind(UnixDomainSocketAddress.of(socket));
+            Runtime.getRuntime().addShutdownHook(new Thread(this::deleteSocket));
+            log.println("[AI Review] Review daemon listening on " + socket);
+            while (running) {
+                SocketChannel channel = server.accept();
+                workers.execute(() -> handle(channel, server, log));
+            }
+        } catch (IOException e) {
+            if (running) {
+                throw e;
+            }
+        } finally {
+            workers.shutdownNow();
+            deleteSocket();
+        }
+        log.println("[AI Review] Review daemon stopped");
+    }
+
+    private void handle(SocketChannel channel, ServerSocketChannel server, PrintStream log) {
+        try (channel) {
+            InputStream in = Channels.newInputStream(channel);
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel));
+            String header = DaemonProtocol.readLine(in);
+            if (header == null || !header.startsWith(DaemonProtocol.MAGIC + " ")) {
+                return;
+            }
+            String op = header.substring(DaemonProtocol.MAGIC.length() + 1);
+            switch (op) {
+                case DaemonProtocol.OP_PING -> finish(out, ReviewEngine.ALLOW);
+                case DaemonProtocol.OP_STOP -> {
+                    running = false;
+                    finish(out, ReviewEngine.ALLOW);
+                    server.close();
+                }
+                case DaemonProtocol.OP_REVIEW -> review(channel, in, out, log);
+                default -> finish(out, ReviewEngine.REJECT);
+            }
+        } catch (IOException e) {
+            log.println("[AI Review] Daemon request failed: " + e.getMessage());
+        }
+    }
+
+    private void review(SocketChannel channel, InputStream in, OutputStream out, PrintStream log) throws IOException {
+        Path repo = null;
+        boolean terminal = false;
+        Map<String, String> env = new HashMap<>();
+        List<String> files = new ArrayList<>();
+        String diff = null;
+        String line;
+        while (diff == null && (line = DaemonProtocol.readLine(in)) != null) {
+            int space = line.indexOf(' ');
+            String key = space < 0 ? line : line.substring(0, space);
+            String value = space < 0 ? "" : line.substring(space + 1);
+            switch (key) {
+                case "repo" -> repo = Path.of(value);
+                case "terminal" -> terminal = Boolean.parseBoolean(value);
+                case "env" -> {
+                    int eq = value.indexOf('=');
+                    if (eq > 0) {
+                        env.put(value.substring(0, eq), value.substring(eq + 1));
+                    }
+                }
+                case "file" -> files.add(value);
+                case "diff" -> diff = new String(
+                        DaemonProtocol.readBytes(in, Integer.parseInt(value)), StandardCharsets.UTF_8);
+                default -> {
+                    // unknown keys are ignored so newer clients can talk to older daemons
+                }
+            }
+        }
+        if (repo == null || diff == null) {
+            finish(out, ReviewEngine.REJECT);
+            return;
+        }
+
+        EngineConfig config = EngineConfig.fromEnvironment(repo, env, terminal);
+        PrintStream printer = new PrintStream(out, true, StandardCharsets.UTF_8);
+        Console console = new Console(printer, config.color());
+        ReviewEngine engine = new ReviewEngine(config, ModelClients.create(config), configCache, console, null);
+        DisconnectWatch watch = DisconnectWatch.start(channel, Thread.currentThread());
+        int status;
+        try {
+            status = engine.review(new StagedReview(files, diff, ReviewEngine.ALLOW));
+        } catch (IOException e) {
+            console.error("Failed to run review: " + e.getMessage() + ". Aborting commit.");
+            status = ReviewEngine.REJECT;
+        } catch (InterruptedException e) {
+            status = ReviewEngine.REJECT;
+        } finally {
+            watch.stop();
+        }
+        if (watch.disconnected()) {
+            log.println("[AI Review] Client disconnected, review cancelled");
+            return;
+        }
+        printer.flush();
+        finish(out, status);
+    }
+
+    /**
+     * Interrupts the worker when the hook client goes away mid-review (Ctrl-C, a killed
+     * {@code git}), which cancels the agents and kills their {@code copilot} processes.
+     * The client sends nothing after the diff, so end-of-stream means it is gone.
+     */
+    private static final class DisconnectWatch {
+
+        private final Thread worker;
+        private boolean reviewing = true;
+        private boolean disconnected;
+
+        private DisconnectWatch(Thread worker) {
+            this.worker = worker;
+        }
+
+        static DisconnectWatch start(SocketChannel channel, Thread worker) {
+            DisconnectWatch watch = new DisconnectWatch(worker);
+            Thread thread = new Thread(() -> {
+                ByteBuffer buffer = ByteBuffer.allocate(64);
+                try {
+                    while (channel.read(buffer) >= 0) {
+                        buffer.clear();
+                    }
+                } catch (IOException e) {
+                    // closed by either side; treated like end-of-stream
+                }
+                watch.disconnect();
+            }, "review-daemon-watch");
+            thread.setDaemon(true);
+            thread.start();
+            return watch;
+        }
+
+        private synchronized void disconnect() {
+            if (reviewing) {
+                disconnected = true;
+                worker.interrupt();
+            }
+        }
+
+        /** Ends the watch; the worker's interrupt status is cleared, its thread is pooled. */
+        synchronized void stop() {
+            reviewing = false;
+            Thread.interrupted();
+        }
+
+        synchronized boolean disconnected() {
+            return disconnected;
+        }
+    }
+
+    private static void finish(OutputStream out, int status) throws IOException {
+        out.write(DaemonProtocol.STATUS_MARKER);
+        out.write((status + "\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    private void deleteSocket() {
+        try {
+            Files.deleteIfExists(socket);
+        } catch (IOException ignored) {
+            // nothing left to clean up
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.aireview.engine.diff;
+
+/**
+ * A line introduced by the diff, as local checks see it.
+ *
+ * @param path file path as shown in the diff
+ * @param line 1-based line number in the new file
+ * @param text line content without the leading {@code +}
+ */
+public record AddedLine(String path, int line, String text) {
+}
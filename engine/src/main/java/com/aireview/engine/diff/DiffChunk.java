@@ -0,0 +1,19 @@
+package com.aireview.engine.diff;
+
+import java.util.List;
+
+/**
+ * A size-bounded slice of the staged diff that is reviewed by one agent call.
+ * Every file in the chunk is introduced by its full file header.
+ *
+ * @param index zero-based position in the diff
+ * @param text  unified diff text
+ * @param files paths covered by the chunk
+ */
+public record DiffChunk(int index, String text, List<String> files) {
+
+    /** Parses the chunk back into hunks; chunks keep only their text to bound memory. */
+    public List<DiffHunk> hunks() {
+        return DiffParser.parse(text);
+    }
+}
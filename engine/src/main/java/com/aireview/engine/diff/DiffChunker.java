@@ -0,0 +1,168 @@
+package com.aireview.engine.diff;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a unified diff into chunks of at most {@code maxBytes} UTF-8 bytes, cutting only
+ * between hunks. Each chunk repeats the file header of every file it touches, so a chunk
+ * is a valid diff on its own. A single hunk larger than the budget is split at line
+ * boundaries into sub-hunks with recomputed {@code @@} headers.
+ *
+ * <p>Replaces the {@code head -c $MAX_DIFF_SIZE} truncation of the shell hook, which
+ * dropped everything past the limit and could cut a hunk in half.
+ *
+ * <p>{@link #perFile} cuts review units instead: one per file, and hunk-aligned pieces of
+ * any file over the budget, so one large file no longer holds up the small ones.
+ */
+public final class DiffChunker {
+
+    /** Room left in a sub-hunk's budget for its {@code @@} line. */
+    private static final int HUNK_HEADER_RESERVE = 64;
+
+    private final int maxBytes;
+    private final boolean perFile;
+    private final List<DiffChunk> chunks = new ArrayList<>();
+    private final StringBuilder text = new StringBuilder();
+    private final List<String> files = new ArrayList<>();
+    private String currentFileHeader;
+    private int size;
+
+    private DiffChunker(int maxBytes, boolean perFile) {
+        this.maxBytes = maxBytes;
+        this.perFile = perFile;
+    }
+
+    /** Reads {@code diff} once and returns its chunks in diff order. */
+    public static List<DiffChunk> chunk(Reader diff, int maxBytes) throws IOException {
+        DiffChunker chunker = new DiffChunker(maxBytes, false);
+        DiffParser.parse(diff, chunker::add);
+        chunker.flush();
+        return chunker.chunks;
+    }
+
+    /**
+     * Reads {@code diff} once and returns one unit per file, in diff order. A file over
+     * {@code maxBytes} is split into several units at hunk boundaries. When that makes more
+     * than {@code maxUnits} units, neighbouring small units are joined, smallest pair first,
+     * as long as the pair fits in {@code maxBytes}; the result may still exceed {@code maxUnits}.
+     */
+    public static List<DiffChunk> perFile(Reader diff, int maxBytes, int maxUnits) throws IOException {
+        DiffChunker chunker = new DiffChunker(maxBytes, true);
+        DiffParser.parse(diff, chunker::add);
+        chunker.flush();
+        return pack(chunker.chunks, maxBytes, maxUnits);
+    }
+
+    private void add(DiffHunk hunk) {
+        int headerSize = Utf8.length(hunk.fileHeader());
+        int hunkSize = hunk.byteSize();
+        if (headerSize + hunkSize > maxBytes) {
+            for (DiffHunk piece : split(hunk, Math.max(1, maxBytes - headerSize))) {
+                append(piece, headerSize, piece.byteSize());
+            }
+        } else {
+            append(hunk, headerSize, hunkSize);
+        }
+    }
+
+    private void append(DiffHunk hunk, int headerSize, int hunkSize) {
+        boolean sameFile = hunk.fileHeader().equals(currentFileHeader);
+        int needed = hunkSize + (sameFile ? 0 : headerSize);
+        if (size > 0 && (size + needed > maxBytes || perFile && !sameFile)) {
+            flush();
+            sameFile = false;
+            needed = hunkSize + headerSize;
+        }
+        if (!sameFile) {
+            text.append(hunk.fileHeader());
+            files.add(hunk.path());
+            currentFileHeader = hunk.fileHeader();
+        }
+        hunk.appendTo(text);
+        size += needed;
+    }
+
+    private void flush() {
+        if (size == 0) {
+            return;
+        }
+        chunks.add(new DiffChunk(chunks.size(), text.toString(), List.copyOf(files)));
+        text.setLength(0);
+        files.clear();
+        currentFileHeader = null;
+        size = 0;
+    }
+
+    /** Joins neighbouring units, see {@link #perFile}; renumbers the result. */
+    static List<DiffChunk> pack(List<DiffChunk> units, int maxBytes, int maxUnits) {
+        List<DiffChunk> packed = new ArrayList<>(units);
+        List<Integer> sizes = new ArrayList<>(units.size());
+        units.forEach(unit -> sizes.add(Utf8.length(unit.text())));
+        while (packed.size() > Math.max(1, maxUnits)) {
+            int best = -1;
+            for (int i = 0; i + 1 < packed.size(); i++) {
+                int joined = sizes.get(i) + sizes.get(i + 1);
+                if (joined <= maxBytes && (best < 0 || joined < sizes.get(best) + sizes.get(best + 1))) {
+                    best = i;
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+            DiffChunk first = packed.get(best);
+            DiffChunk second = packed.remove(best + 1);
+            List<String> files = new ArrayList<>(first.files());
+            second.files().stream().filter(file -> !files.contains(file)).forEach(files::add);
+            packed.set(best, new DiffChunk(0, first.text() + second.text(), List.copyOf(files)));
+            sizes.set(best, sizes.get(best) + sizes.remove(best + 1));
+        }
+        List<DiffChunk> numbered = new ArrayList<>(packed.size());
+        for (DiffChunk unit : packed) {
+            numbered.add(new DiffChunk(numbered.size(), unit.text(), unit.files()));
+        }
+        return numbered;
+    }
+
+    /** Cuts an oversized hunk into consecutive sub-hunks whose bodies fit in {@code budget} bytes. */
+    static List<DiffHunk> split(DiffHunk hunk, int budget) {
+        int limit = Math.max(1, budget - HUNK_HEADER_RESERVE);
+        List<DiffHunk> pieces = new ArrayList<>();
+        List<String> lines = new ArrayList<>();
+        int oldStart = hunk.oldStart();
+        int newStart = hunk.newStart();
+        int oldCount = 0;
+        int newCount = 0;
+        int bytes = 0;
+        for (String line : hunk.lines()) {
+            int lineBytes = Utf8.length(line) + 1;
+            // keep "\ No newline at end of file" with the line it annotates
+            if (!lines.isEmpty() && !line.startsWith("\\") && bytes + lineBytes > limit) {
+                pieces.add(new DiffHunk(hunk.path(), hunk.fileHeader(), oldStart, oldCount, newStart, newCount,
+                        hunk.section(), List.copyOf(lines)));
+                oldStart += oldCount;
+                newStart += newCount;
+                oldCount = 0;
+                newCount = 0;
+                bytes = 0;
+                lines.clear();
+            }
+            lines.add(line);
+            bytes += lineBytes;
+            char kind = line.charAt(0);
+            if (kind == ' ' || kind == '-') {
+                oldCount++;
+            }
+            if (kind == ' ' || kind == '+') {
+                newCount++;
+            }
+        }
+        if (!lines.isEmpty()) {
+            pieces.add(new DiffHunk(hunk.path(), hunk.fileHeader(), oldStart, oldCount, newStart, newCount,
+                    hunk.section(), List.copyOf(lines)));
+        }
+        return pieces;
+    }
+}
@@ -0,0 +1,65 @@
+package com.aireview.engine.diff;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One {@code @@} hunk of a unified diff, together with the header of the file it belongs to.
+ *
+ * @param path       new path of the file ({@code b/} prefix removed)
+ * @param fileHeader {@code diff --git}, {@code index}, {@code ---} and {@code +++} lines, newline-terminated
+ * @param oldStart   first line in the old file
+ * @param oldCount   number of old-file lines covered
+ * @param newStart   first line in the new file
+ * @param newCount   number of new-file lines covered
+ * @param section    text after the closing {@code @@} (usually the enclosing method), may be empty
+ * @param lines      body lines without trailing newlines, each starting with ' ', '+', '-' or '\'
+ */
+public record DiffHunk(
+        String path,
+        String fileHeader,
+        int oldStart,
+        int oldCount,
+        int newStart,
+        int newCount,
+        String section,
+        List<String> lines) {
+
+    /** The {@code @@ -a,b +c,d @@} line. */
+    public String header() {
+        return "@@ -" + oldStart + "," + oldCount + " +" + newStart + "," + newCount + " @@" + section;
+    }
+
+    /** Appends the header and body, newline-terminated. */
+    public void appendTo(StringBuilder out) {
+        out.append(header()).append('\n');
+        for (String line : lines) {
+            out.append(line).append('\n');
+        }
+    }
+
+    /** The {@code +} lines of the hunk with their new-file line numbers. */
+    public List<AddedLine> addedLines() {
+        List<AddedLine> added = new ArrayList<>();
+        int next = newStart;
+        for (String line : lines) {
+            char kind = line.charAt(0);
+            if (kind == '+') {
+                added.add(new AddedLine(path, next, line.substring(1)));
+            }
+            if (kind == ' ' || kind == '+') {
+                next++;
+            }
+        }
+        return added;
+    }
+
+    /** UTF-8 size of {@link #appendTo} output. */
+    public int byteSize() {
+        int size = Utf8.length(header()) + 1;
+        for (String line : lines) {
+            size += Utf8.length(line) + 1;
+        }
+        return size;
+    }
+}
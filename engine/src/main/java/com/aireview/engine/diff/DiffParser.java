@@ -0,0 +1,153 @@
+package com.aireview.engine.diff;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Streaming reader for {@code git diff} unified output. Hunks are handed to the consumer
+ * as soon as their last line has been read, so a large diff never has to be held as a
+ * single parsed structure.
+ *
+ * <p>Hunk extents come from the line counts in the {@code @@} header; a diff cut off in the
+ * middle of a hunk still yields that hunk, with counts recomputed from the lines present.
+ * Files without hunks (binary, mode-only, pure renames) produce nothing.
+ */
+public final class DiffParser {
+
+    private static final Pattern HUNK_HEADER = Pattern.compile("^@@ -(\\d+)(?:,(\\d+))? \\+(\\d+)(?:,(\\d+))? @@(.*)$");
+
+    private final Consumer<DiffHunk> consumer;
+    private final StringBuilder fileHeader = new StringBuilder();
+    private String path;
+    private boolean fileHasHunks;
+
+    private int oldStart;
+    private int newStart;
+    private String section;
+    private List<String> lines;
+    private int remainingOld;
+    private int remainingNew;
+
+    private DiffParser(Consumer<DiffHunk> consumer) {
+        this.consumer = consumer;
+    }
+
+    /** Parses {@code diff} and passes each hunk to {@code consumer} in diff order. */
+    public static void parse(Reader diff, Consumer<DiffHunk> consumer) throws IOException {
+        DiffParser parser = new DiffParser(consumer);
+        BufferedReader reader = diff instanceof BufferedReader buffered ? buffered : new BufferedReader(diff, 64 * 1024);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            parser.accept(line);
+        }
+        parser.flushHunk();
+    }
+
+    /** Convenience for diffs that are already in memory. */
+    public static List<DiffHunk> parse(String diff) {
+        List<DiffHunk> hunks = new ArrayList<>();
+        try {
+            parse(new StringReader(diff), hunks::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return hunks;
+    }
+
+    private void accept(String line) {
+        if (lines != null) {
+            if (remainingOld > 0 || remainingNew > 0) {
+                if (line.isEmpty()) {
+                    // some tools strip the leading space of empty context lines
+                    line = " ";
+                }
+                char kind = line.charAt(0);
+                if (kind == ' ' || kind == '-' || kind == '+' || kind == '\\') {
+                    lines.add(line);
+                    if (kind == ' ' || kind == '-') {
+                        remainingOld--;
+                    }
+                    if (kind == ' ' || kind == '+') {
+                        remainingNew--;
+                    }
+                    return;
+                }
+            } else if (line.startsWith("\\")) {
+                lines.add(line);
+                return;
+            }
+            flushHunk();
+        }
+
+        if (line.startsWith("diff --git ")) {
+            startFile(line);
+            int b = line.lastIndexOf(" b/");
+            path = b >= 0 ? line.substring(b + 3) : null;
+        } else if (line.startsWith("@@ ")) {
+            startHunk(line);
+        } else if (line.startsWith("--- ") && (fileHeader.length() == 0 || fileHasHunks)) {
+            // plain unified diff without a "diff --git" line
+            startFile(line);
+        } else {
+            if (line.startsWith("+++ ") && !line.equals("+++ /dev/null")) {
+                String target = line.substring(4);
+                int tab = target.indexOf('\t');
+                if (tab >= 0) {
+                    target = target.substring(0, tab);
+                }
+                path = target.startsWith("b/") ? target.substring(2) : target;
+            }
+            fileHeader.append(line).append('\n');
+        }
+    }
+
+    private void startFile(String line) {
+        fileHeader.setLength(0);
+        fileHeader.append(line).append('\n');
+        path = null;
+        fileHasHunks = false;
+    }
+
+    private void startHunk(String line) {
+        Matcher matcher = HUNK_HEADER.matcher(line);
+        if (!matcher.matches()) {
+            fileHeader.append(line).append('\n');
+            return;
+        }
+        oldStart = Integer.parseInt(matcher.group(1));
+        remainingOld = matcher.group(2) == null ? 1 : Integer.parseInt(matcher.group(2));
+        newStart = Integer.parseInt(matcher.group(3));
+        remainingNew = matcher.group(4) == null ? 1 : Integer.parseInt(matcher.group(4));
+        section = matcher.group(5);
+        lines = new ArrayList<>();
+        fileHasHunks = true;
+    }
+
+    private void flushHunk() {
+        if (lines == null) {
+            return;
+        }
+        int oldCount = 0;
+        int newCount = 0;
+        for (String body : lines) {
+            char kind = body.charAt(0);
+            if (kind == ' ' || kind == '-') {
+                oldCount++;
+            }
+            if (kind == ' ' || kind == '+') {
+                newCount++;
+            }
+        }
+        consumer.accept(new DiffHunk(path != null ? path : "", fileHeader.toString(),
+                oldStart, oldCount, newStart, newCount, section, List.copyOf(lines)));
+        lines = null;
+    }
+}
@@ -0,0 +1,185 @@
+package com.aireview.engine.git;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reader of {@code .git/index}, versions 2 to 4, for what {@code git diff --cached} needs:
+ * the path, mode and blob id of every entry, and the cache-tree extension ({@code TREE}),
+ * which names the tree of every directory whose entries are unchanged since it was computed.
+ *
+ * <p>A split index ({@code link}) or a sparse index ({@code sdir}) is not supported; reading
+ * one throws {@link UnsupportedRepositoryException}, and the caller falls back to {@code git}.
+ */
+final class IndexFile {
+
+    /** One stage-0 entry; conflict stages and intent-to-add entries are left out. */
+    record Entry(String path, int mode, ObjectId id) {
+    }
+
+    private static final int SIGNATURE = 0x44495243; // "DIRC"
+    private static final int EXTENDED = 0x4000;
+    private static final int INTENT_TO_ADD = 0x2000;
+    private static final int TREE = 0x54524545; // "TREE"
+    private static final int LINK = 0x6c696e6b; // "link"
+    private static final int SPARSE_DIRECTORIES = 0x73646972; // "sdir"
+
+    private final List<Entry> entries;
+    private final Map<String, ObjectId> cacheTree;
+
+    private IndexFile(List<Entry> entries, Map<String, ObjectId> cacheTree) {
+        this.entries = entries;
+        this.cacheTree = cacheTree;
+    }
+
+    /** Reads {@code file}; a missing index is an empty one, as in a fresh repository. */
+    static IndexFile read(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return new IndexFile(List.of(), Map.of());
+        }
+        byte[] data = Files.readAllBytes(file);
+        if (data.length < 12 + ObjectId.LENGTH || int32(data, 0) != SIGNATURE) {
+            throw new IOException("Not a git index: " + file);
+        }
+        int version = int32(data, 4);
+        if (version < 2 || version > 4) {
+            throw new UnsupportedRepositoryException("index version " + version);
+        }
+        int count = int32(data, 8);
+        List<Entry> entries = new ArrayList<>(count);
+        byte[] previous = new byte[0];
+        int p = 12;
+        for (int i = 0; i < count; i++) {
+            int start = p;
+            int mode = int32(data, start + 24);
+            ObjectId id = ObjectId.read(data, start + 40);
+            int flags = int16(data, start + 60);
+            int extended = 0;
+            p = start + 62;
+            if ((flags & EXTENDED) != 0) {
+                if (version < 3) {
+                    throw new IOException("Extended index entry in a version 2 index");
+                }
+                extended = int16(data, p);
+                p += 2;
+            }
+            byte[] path;
+            if (version == 4) {
+                int[] at = {p};
+                int keep = previous.length - (int) varint(data, at);
+                p = at[0];
+                int end = nul(data, p);
+                path = Arrays.copyOf(previous, keep + end - p);
+                System.arraycopy(data, p, path, keep, end - p);
+                p = end + 1;
+            } else {
+                int end = nul(data, p);
+                path = Arrays.copyOfRange(data, p, end);
+                // entries are padded with 1 to 8 NULs to a multiple of eight bytes
+                p = start + ((end - start + 8) & ~7);
+            }
+            previous = path;
+            int stage = (flags >> 12) & 3;
+            if (stage == 0 && (extended & INTENT_TO_ADD) == 0) {
+                entries.add(new Entry(new String(path, StandardCharsets.UTF_8), mode, id));
+            }
+        }
+
+        Map<String, ObjectId> cacheTree = Map.of();
+        int checksumStart = data.length - ObjectId.LENGTH;
+        while (p + 8 <= checksumStart) {
+            int signature = int32(data, p);
+            int next = p + 8 + int32(data, p + 4);
+            if (signature == LINK || signature == SPARSE_DIRECTORIES) {
+                throw new UnsupportedRepositoryException(signature == LINK ? "split index" : "sparse index");
+            }
+            if (signature == TREE) {
+                cacheTree = new HashMap<>();
+                readTree(data, new int[] {p + 8}, next, "", cacheTree);
+            }
+            p = next;
+        }
+        return new IndexFile(List.copyOf(entries), cacheTree);
+    }
+
+    /** Stage-0 entries in index order, which is path order. */
+    List<Entry> entries() {
+        return entries;
+    }
+
+    /**
+     * Tree id of directory {@code path} ({@code ""} for the root) if the cache-tree holds a
+     * valid one, else {@code null}.
+     */
+    ObjectId cachedTree(String path) {
+        return cacheTree.get(path);
+    }
+
+    /**
+     * One cache-tree node and, recursively, its subtrees: a NUL-terminated path component, the
+     * entry count ({@code -1} when invalidated) and subtree count as text, and the tree id.
+     */
+    private static void readTree(byte[] data, int[] at, int end, String parent, Map<String, ObjectId> trees) {
+        int nameEnd = nul(data, at[0]);
+        String name = new String(data, at[0], nameEnd - at[0], StandardCharsets.UTF_8);
+        String path = parent.isEmpty() ? name : parent + "/" + name;
+        at[0] = nameEnd + 1;
+        int entryCount = number(data, at, ' ');
+        int subtrees = number(data, at, '\n');
+        if (entryCount >= 0) {
+            trees.put(path, ObjectId.read(data, at[0]));
+            at[0] += ObjectId.LENGTH;
+        }
+        for (int i = 0; i < subtrees && at[0] < end; i++) {
+            readTree(data, at, end, path, trees);
+        }
+    }
+
+    private static int number(byte[] data, int[] at, char terminator) {
+        boolean negative = false;
+        int value = 0;
+        byte b;
+        while ((b = data[at[0]++]) != terminator) {
+            if (b == '-') {
+                negative = true;
+            } else {
+                value = value * 10 + (b - '0');
+            }
+        }
+        return negative ? -value : value;
+    }
+
+    private static int nul(byte[] data, int from) {
+        int i = from;
+        while (data[i] != 0) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int int32(byte[] data, int at) {
+        return (data[at] & 0xff) << 24 | (data[at + 1] & 0xff) << 16 | (data[at + 2] & 0xff) << 8 | (data[at + 3] & 0xff);
+    }
+
+    private static int int16(byte[] data, int at) {
+        return (data[at] & 0xff) << 8 | (data[at + 1] & 0xff);
+    }
+
+    /** The offset encoding of {@code OFS_DELTA}, which index version 4 uses for path prefixes. */
+    private static long varint(byte[] data, int[] at) {
+        int b = data[at[0]++] & 0xff;
+        long value = b & 0x7f;
+        while ((b & 0x80) != 0) {
+            b = data[at[0]++] & 0xff;
+            value = ((value + 1) << 7) | (b & 0x7f);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,134 @@
+package com.aireview.engine.git;
+
+import java.util.Arrays;
+
+/**
+ * Line diff with Myers' algorithm in linear space: the middle snake of the edit graph splits
+ * the problem in two, after the common prefix and suffix are trimmed.
+ *
+ * <p>A pathological pair of files, more than {@value #MAX_COST} edits apart in one region,
+ * gets that region marked as entirely changed rather than an exact answer in quadratic time.
+ */
+final class MyersDiff {
+
+    static final int MAX_COST = 4096;
+
+    private final int[] a;
+    private final int[] b;
+    private final boolean[] removed;
+    private final boolean[] added;
+
+    private MyersDiff(int[] a, int[] b, boolean[] removed, boolean[] added) {
+        this.a = a;
+        this.b = b;
+        this.removed = removed;
+        this.added = added;
+    }
+
+    /**
+     * Marks in {@code removed} the lines of {@code a} that are not in {@code b}, and in
+     * {@code added} those of {@code b} that are not in {@code a}; equal ints are equal lines.
+     */
+    static void diff(int[] a, int[] b, boolean[] removed, boolean[] added) {
+        new MyersDiff(a, b, removed, added).compare(0, a.length, 0, b.length);
+    }
+
+    private void compare(int aLow, int aHigh, int bLow, int bHigh) {
+        while (aLow < aHigh && bLow < bHigh && a[aLow] == b[bLow]) {
+            aLow++;
+            bLow++;
+        }
+        while (aLow < aHigh && bLow < bHigh && a[aHigh - 1] == b[bHigh - 1]) {
+            aHigh--;
+            bHigh--;
+        }
+        if (aLow == aHigh || bLow == bHigh) {
+            Arrays.fill(removed, aLow, aHigh, true);
+            Arrays.fill(added, bLow, bHigh, true);
+            return;
+        }
+        long split = bisect(aLow, aHigh, bLow, bHigh);
+        if (split < 0) {
+            Arrays.fill(removed, aLow, aHigh, true);
+            Arrays.fill(added, bLow, bHigh, true);
+            return;
+        }
+        int x = aLow + (int) (split >>> 32);
+        int y = bLow + (int) split;
+        compare(aLow, x, bLow, y);
+        compare(x, aHigh, y, bHigh);
+    }
+
+    /**
+     * Where the forward and reverse searches meet, as {@code x << 32 | y} relative to the
+     * range, or -1 past {@link #MAX_COST}.
+     */
+    private long bisect(int aLow, int aHigh, int bLow, int bHigh) {
+        int n = aHigh - aLow;
+        int m = bHigh - bLow;
+        int maxD = (n + m + 1) / 2;
+        int offset = maxD;
+        int length = 2 * maxD + 2;
+        int[] forward = new int[length];
+        int[] reverse = new int[length];
+        Arrays.fill(forward, -1);
+        Arrays.fill(reverse, -1);
+        forward[offset + 1] = 0;
+        reverse[offset + 1] = 0;
+        int delta = n - m;
+        boolean odd = (delta & 1) != 0;
+        int k1Start = 0;
+        int k1End = 0;
+        int k2Start = 0;
+        int k2End = 0;
+        for (int d = 0; d < Math.min(maxD, MAX_COST); d++) {
+            for (int k1 = -d + k1Start; k1 <= d - k1End; k1 += 2) {
+                int k1Offset = offset + k1;
+                int x1 = k1 == -d || (k1 != d && forward[k1Offset - 1] < forward[k1Offset + 1])
+                        ? forward[k1Offset + 1] : forward[k1Offset - 1] + 1;
+                int y1 = x1 - k1;
+                while (x1 < n && y1 < m && a[aLow + x1] == b[bLow + y1]) {
+                    x1++;
+                    y1++;
+                }
+                forward[k1Offset] = x1;
+                if (x1 > n) {
+                    k1End += 2;
+                } else if (y1 > m) {
+                    k1Start += 2;
+                } else if (odd) {
+                    int k2Offset = offset + delta - k1;
+                    if (k2Offset >= 0 && k2Offset < length && reverse[k2Offset] != -1 && x1 >= n - reverse[k2Offset]) {
+                        return (long) x1 << 32 | y1;
+                    }
+                }
+            }
+            for (int k2 = -d + k2Start; k2 <= d - k2End; k2 += 2) {
+                int k2Offset = offset + k2;
+                int x2 = k2 == -d || (k2 != d && reverse[k2Offset - 1] < reverse[k2Offset + 1])
+                        ? reverse[k2Offset + 1] : reverse[k2Offset - 1] + 1;
+                int y2 = x2 - k2;
+                while (x2 < n && y2 < m && a[aHigh - x2 - 1] == b[bHigh - y2 - 1]) {
+                    x2++;
+                    y2++;
+                }
+                reverse[k2Offset] = x2;
+                if (x2 > n) {
+                    k2End += 2;
+                } else if (y2 > m) {
+                    k2Start += 2;
+                } else if (!odd) {
+                    int k1Offset = offset + delta - k2;
+                    if (k1Offset >= 0 && k1Offset < length && forward[k1Offset] != -1) {
+                        int x1 = forward[k1Offset];
+                        int y1 = offset + x1 - k1Offset;
+                        if (x1 >= n - x2) {
+                            return (long) x1 << 32 | y1;
+                        }
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,145 @@
+package com.aireview.engine.git;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Reads objects from {@code .git/objects}: loose objects, and packs through their version 2
+ * {@code .idx} with the {@code .pack} memory-mapped ({@link PackFile}). Alternates
+ * ({@code objects/info/alternates}) are searched after the repository's own objects.
+ *
+ * <p>Reads are serialized; a review reads a few hundred objects, and the delta base cache
+ * of a pack is not thread-safe.
+ */
+final class ObjectDatabase {
+
+    /** The object types, numbered as in a pack. */
+    enum Type { COMMIT, TREE, BLOB, TAG }
+
+    /** An object's type and inflated content, without the loose-object header. */
+    record RawObject(Type type, byte[] data) {
+    }
+
+    private static final int MAX_ALTERNATE_DEPTH = 5;
+
+    private final List<Path> directories;
+    private final List<PackFile> packs;
+
+    private ObjectDatabase(List<Path> directories, List<PackFile> packs) {
+        this.directories = directories;
+        this.packs = packs;
+    }
+
+    /**
+     * Opens {@code objects} and its alternates, plus {@code extraAlternates}
+     * ({@code GIT_ALTERNATE_OBJECT_DIRECTORIES}).
+     */
+    static ObjectDatabase open(Path objects, List<Path> extraAlternates) throws IOException {
+        Set<Path> directories = new LinkedHashSet<>();
+        addWithAlternates(objects, directories, 0);
+        for (Path alternate : extraAlternates) {
+            addWithAlternates(alternate, directories, 0);
+        }
+        List<PackFile> packs = new ArrayList<>();
+        for (Path directory : directories) {
+            Path packDir = directory.resolve("pack");
+            if (!Files.isDirectory(packDir)) {
+                continue;
+            }
+            try (DirectoryStream<Path> indexes = Files.newDirectoryStream(packDir, "*.idx")) {
+                for (Path index : indexes) {
+                    String name = index.getFileName().toString();
+                    Path pack = packDir.resolve(name.substring(0, name.length() - 4) + ".pack");
+                    if (Files.exists(pack)) {
+                        packs.add(PackFile.open(index, pack));
+                    }
+                }
+            }
+        }
+        return new ObjectDatabase(List.copyOf(directories), List.copyOf(packs));
+    }
+
+    /** The object named {@code id}; a missing object is an {@link IOException}. */
+    synchronized RawObject read(ObjectId id) throws IOException {
+        for (PackFile pack : packs) {
+            long offset = pack.offset(id);
+            if (offset >= 0) {
+                return pack.read(offset, this);
+            }
+        }
+        String name = id.name();
+        for (Path directory : directories) {
+            Path loose = directory.resolve(name.substring(0, 2)).resolve(name.substring(2));
+            if (Files.exists(loose)) {
+                return loose(Files.readAllBytes(loose), id);
+            }
+        }
+        throw new IOException("Missing object " + name);
+    }
+
+    /** The object named {@code id}, which must be of type {@code expected}. */
+    RawObject read(ObjectId id, Type expected) throws IOException {
+        RawObject object = read(id);
+        if (object.type() != expected) {
+            throw new IOException("Object " + id + " is a " + object.type() + ", not a " + expected);
+        }
+        return object;
+    }
+
+    /** A loose object: zlib-deflated {@code "<type> <size>\0"} followed by the content. */
+    private static RawObject loose(byte[] deflated, ObjectId id) throws IOException {
+        try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(deflated))) {
+            StringBuilder header = new StringBuilder();
+            int b;
+            while ((b = in.read()) > 0) {
+                header.append((char) b);
+            }
+            int space = header.indexOf(" ");
+            if (b != 0 || space < 0) {
+                throw new IOException("Corrupt loose object " + id);
+            }
+            Type type;
+            try {
+                type = Type.valueOf(header.substring(0, space).toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Corrupt loose object " + id, e);
+            }
+            int size = Integer.parseInt(header.substring(space + 1));
+            byte[] data = in.readNBytes(size);
+            if (data.length != size) {
+                throw new IOException("Truncated loose object " + id);
+            }
+            return new RawObject(type, data);
+        } catch (NumberFormatException e) {
+            throw new IOException("Corrupt loose object " + id, e);
+        }
+    }
+
+    private static void addWithAlternates(Path directory, Set<Path> directories, int depth) throws IOException {
+        Path normalized = directory.toAbsolutePath().normalize();
+        if (!Files.isDirectory(normalized) || !directories.add(normalized) || depth >= MAX_ALTERNATE_DEPTH) {
+            return;
+        }
+        Path alternates = normalized.resolve("info").resolve("alternates");
+        if (!Files.exists(alternates)) {
+            return;
+        }
+        for (String line : Files.readAllLines(alternates, StandardCharsets.UTF_8)) {
+            line = line.strip();
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                addWithAlternates(normalized.resolve(line), directories, depth + 1);
+            }
+        }
+    }
+}
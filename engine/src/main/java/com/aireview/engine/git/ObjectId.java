@@ -0,0 +1,79 @@
+package com.aireview.engine.git;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/** A SHA-1 object name. */
+final class ObjectId implements Comparable<ObjectId> {
+
+    static final int LENGTH = 20;
+
+    /** The id git prints for a missing side of a diff. */
+    static final ObjectId ZERO = new ObjectId(new byte[LENGTH]);
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final byte[] bytes;
+
+    private ObjectId(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    static ObjectId read(byte[] in, int offset) {
+        return new ObjectId(Arrays.copyOfRange(in, offset, offset + LENGTH));
+    }
+
+    /** Parses 40 hex digits; throws {@link IllegalArgumentException} for anything else. */
+    static ObjectId parse(String hex) {
+        if (hex.length() != 2 * LENGTH) {
+            throw new IllegalArgumentException("Not an object id: " + hex);
+        }
+        return new ObjectId(HEX.parseHex(hex));
+    }
+
+    /** The first byte, which picks the fan-out bucket of a pack index and the loose object directory. */
+    int firstByte() {
+        return bytes[0] & 0xff;
+    }
+
+    /** Compares with the id stored at {@code offset} of a pack index. */
+    int compareTo(ByteBuffer index, int offset) {
+        for (int i = 0; i < LENGTH; i++) {
+            int diff = (bytes[i] & 0xff) - (index.get(offset + i) & 0xff);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return 0;
+    }
+
+    /** The first {@code length} hex digits, as in {@code index abc1234..def5678}. */
+    String abbreviate(int length) {
+        return name().substring(0, length);
+    }
+
+    String name() {
+        return HEX.formatHex(bytes);
+    }
+
+    @Override
+    public int compareTo(ObjectId other) {
+        return Arrays.compareUnsigned(bytes, other.bytes);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof ObjectId id && Arrays.equals(bytes, id.bytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bytes);
+    }
+
+    @Override
+    public String toString() {
+        return name();
+    }
+}
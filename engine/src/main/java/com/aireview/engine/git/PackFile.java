@@ -0,0 +1,282 @@
+package com.aireview.engine.git;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * One pack: its version 2 {@code .idx} and its {@code .pack}, both memory-mapped, the pack
+ * in windows of {@value #WINDOW} bytes so that packs over 2 GB map too. Mapping only
+ * reserves address space; the pages a review touches are the ones read from disk.
+ *
+ * <p>Deltas ({@code OFS_DELTA}, {@code REF_DELTA}) are resolved without recursion, and the
+ * objects on a delta chain are kept in a small LRU cache, since the files of one change
+ * often share their bases.
+ */
+final class PackFile {
+
+    private static final long WINDOW = 1L << 30;
+    private static final int INDEX_MAGIC = 0xff744f63; // "\377tOc"
+    private static final int FANOUT = 8;
+    private static final int NAMES = FANOUT + 256 * 4;
+    private static final int OFS_DELTA = 6;
+    private static final int REF_DELTA = 7;
+    private static final int INFLATE_CHUNK = 64 * 1024;
+    private static final long CACHE_BYTES = 16L << 20;
+
+    private final Path pack;
+    private final ByteBuffer index;
+    private final int count;
+    private final MappedByteBuffer[] windows;
+    private final LinkedHashMap<Long, ObjectDatabase.RawObject> cache = new LinkedHashMap<>(64, 0.75f, true);
+    private long cachedBytes;
+
+    private PackFile(Path pack, ByteBuffer index, MappedByteBuffer[] windows) {
+        this.pack = pack;
+        this.index = index;
+        this.count = index.getInt(NAMES - 4);
+        this.windows = windows;
+    }
+
+    static PackFile open(Path indexFile, Path packFile) throws IOException {
+        ByteBuffer index;
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            index = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (index.limit() < NAMES || index.getInt(0) != INDEX_MAGIC || index.getInt(4) != 2) {
+            throw new UnsupportedRepositoryException("pack index " + indexFile.getFileName() + " is not version 2");
+        }
+        MappedByteBuffer[] windows;
+        try (FileChannel channel = FileChannel.open(packFile, StandardOpenOption.READ)) {
+            long size = channel.size();
+            windows = new MappedByteBuffer[(int) ((size + WINDOW - 1) / WINDOW)];
+            for (int i = 0; i < windows.length; i++) {
+                long start = i * WINDOW;
+                windows[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW, size - start));
+            }
+        }
+        return new PackFile(packFile, index, windows);
+    }
+
+    /** Offset of {@code id} in the pack, or -1 if this pack does not hold it. */
+    long offset(ObjectId id) {
+        int bucket = id.firstByte();
+        int low = bucket == 0 ? 0 : index.getInt(FANOUT + (bucket - 1) * 4);
+        int high = index.getInt(FANOUT + bucket * 4);
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int order = id.compareTo(index, NAMES + middle * ObjectId.LENGTH);
+            if (order == 0) {
+                int offsets = NAMES + count * (ObjectId.LENGTH + 4);
+                int offset = index.getInt(offsets + middle * 4);
+                if (offset >= 0) {
+                    return offset;
+                }
+                return index.getLong(offsets + count * 4 + (offset & 0x7fffffff) * 8);
+            }
+            if (order < 0) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The object at {@code offset}. A {@code REF_DELTA} base missing from this pack is read
+     * through {@code objects}.
+     */
+    ObjectDatabase.RawObject read(long offset, ObjectDatabase objects) throws IOException {
+        Deque<Long> chain = new ArrayDeque<>();
+        Deque<byte[]> deltas = new ArrayDeque<>();
+        ObjectDatabase.RawObject base;
+        long position = offset;
+        while (true) {
+            base = cache.get(position);
+            if (base != null) {
+                break;
+            }
+            long at = position;
+            int c = byteAt(at++);
+            int type = (c >> 4) & 7;
+            long size = c & 0x0f;
+            for (int shift = 4; (c & 0x80) != 0; shift += 7) {
+                c = byteAt(at++);
+                size |= (long) (c & 0x7f) << shift;
+            }
+            if (size > Integer.MAX_VALUE - 8) {
+                throw new UnsupportedRepositoryException("object of " + size + " bytes in " + pack.getFileName());
+            }
+            if (type >= 1 && type <= 4) {
+                base = new ObjectDatabase.RawObject(ObjectDatabase.Type.values()[type - 1], inflate(at, (int) size));
+                remember(position, base);
+                break;
+            }
+            if (type == OFS_DELTA) {
+                c = byteAt(at++);
+                long distance = c & 0x7f;
+                while ((c & 0x80) != 0) {
+                    c = byteAt(at++);
+                    distance = ((distance + 1) << 7) | (c & 0x7f);
+                }
+                if (distance <= 0 || distance > position) {
+                    throw new IOException("Corrupt delta base at " + position + " in " + pack.getFileName());
+                }
+                chain.push(position);
+                deltas.push(inflate(at, (int) size));
+                position -= distance;
+            } else if (type == REF_DELTA) {
+                byte[] name = new byte[ObjectId.LENGTH];
+                for (int i = 0; i < name.length; i++) {
+                    name[i] = (byte) byteAt(at++);
+                }
+                ObjectId baseId = ObjectId.read(name, 0);
+                chain.push(position);
+                deltas.push(inflate(at, (int) size));
+                position = offset(baseId);
+                if (position < 0) {
+                    base = objects.read(baseId);
+                    break;
+                }
+            } else {
+                throw new IOException("Unknown object type " + type + " at " + position + " in " + pack.getFileName());
+            }
+        }
+        while (!deltas.isEmpty()) {
+            base = new ObjectDatabase.RawObject(base.type(), apply(base.data(), deltas.pop()));
+            remember(chain.pop(), base);
+        }
+        return base;
+    }
+
+    /** Applies a git delta: the two sizes, then copy-from-base and insert instructions. */
+    static byte[] apply(byte[] base, byte[] delta) throws IOException {
+        int[] at = {0};
+        long baseSize = size(delta, at);
+        long resultSize = size(delta, at);
+        if (baseSize != base.length || resultSize > Integer.MAX_VALUE - 8) {
+            throw new IOException("Delta does not fit its base");
+        }
+        byte[] result = new byte[(int) resultSize];
+        int p = at[0];
+        int out = 0;
+        try {
+            while (p < delta.length) {
+                int op = delta[p++] & 0xff;
+                if ((op & 0x80) != 0) {
+                    int offset = 0;
+                    int length = 0;
+                    for (int i = 0; i < 4; i++) {
+                        if ((op & (1 << i)) != 0) {
+                            offset |= (delta[p++] & 0xff) << (8 * i);
+                        }
+                    }
+                    for (int i = 0; i < 3; i++) {
+                        if ((op & (0x10 << i)) != 0) {
+                            length |= (delta[p++] & 0xff) << (8 * i);
+                        }
+                    }
+                    if (length == 0) {
+                        length = 0x10000;
+                    }
+                    System.arraycopy(base, offset, result, out, length);
+                    out += length;
+                } else if (op != 0) {
+                    System.arraycopy(delta, p, result, out, op);
+                    p += op;
+                    out += op;
+                } else {
+                    throw new IOException("Corrupt delta");
+                }
+            }
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("Corrupt delta", e);
+        }
+        if (out != result.length) {
+            throw new IOException("Corrupt delta");
+        }
+        return result;
+    }
+
+    private static long size(byte[] delta, int[] at) {
+        long size = 0;
+        int shift = 0;
+        int c;
+        do {
+            c = delta[at[0]++] & 0xff;
+            size |= (long) (c & 0x7f) << shift;
+            shift += 7;
+        } while ((c & 0x80) != 0);
+        return size;
+    }
+
+    /** Inflates the {@code size} bytes of zlib data starting at {@code position}, across windows. */
+    private byte[] inflate(long position, int size) throws IOException {
+        byte[] result = new byte[size];
+        Inflater inflater = new Inflater();
+        try {
+            int out = 0;
+            while (out < size) {
+                if (inflater.needsInput()) {
+                    ByteBuffer input = slice(position, INFLATE_CHUNK);
+                    position += input.remaining();
+                    inflater.setInput(input);
+                }
+                int n = inflater.inflate(result, out, size - out);
+                if (n == 0 && (inflater.finished() || inflater.needsDictionary())) {
+                    throw new IOException("Truncated object in " + pack.getFileName());
+                }
+                out += n;
+            }
+            return result;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt object in " + pack.getFileName(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private int byteAt(long position) throws IOException {
+        int window = (int) (position / WINDOW);
+        if (window >= windows.length) {
+            throw new IOException("Offset " + position + " is past the end of " + pack.getFileName());
+        }
+        return windows[window].get((int) (position % WINDOW)) & 0xff;
+    }
+
+    /** Up to {@code length} bytes from {@code position}, stopping at the end of its window. */
+    private ByteBuffer slice(long position, int length) throws IOException {
+        int window = (int) (position / WINDOW);
+        if (window >= windows.length) {
+            throw new IOException("Truncated object in " + pack.getFileName());
+        }
+        MappedByteBuffer mapped = windows[window];
+        int start = (int) (position % WINDOW);
+        return mapped.slice(start, Math.min(length, mapped.limit() - start));
+    }
+
+    private void remember(long position, ObjectDatabase.RawObject object) {
+        if (object.data().length > CACHE_BYTES / 8) {
+            return;
+        }
+        if (cache.put(position, object) == null) {
+            cachedBytes += object.data().length;
+        }
+        var eldest = cache.entrySet().iterator();
+        while (cachedBytes > CACHE_BYTES && eldest.hasNext()) {
+            Map.Entry<Long, ObjectDatabase.RawObject> entry = eldest.next();
+            cachedBytes -= entry.getValue().data().length;
+            eldest.remove();
+        }
+    }
+}
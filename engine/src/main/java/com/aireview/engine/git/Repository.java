@@ -0,0 +1,272 @@
+package com.aireview.engine.git;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A repository read in-process: where its git directory, objects and index are, and which
+ * index entries differ from {@code HEAD}. The environment a hook runs with is honoured
+ * ({@code GIT_DIR}, {@code GIT_COMMON_DIR}, {@code GIT_INDEX_FILE}, which
+ * {@code git commit <paths>} points at a temporary index, {@code GIT_OBJECT_DIRECTORY} and
+ * {@code GIT_ALTERNATE_OBJECT_DIRECTORIES}), and worktrees with a {@code .git} file work.
+ *
+ * <p>Only directories whose tree differs between {@code HEAD} and the index's cache-tree
+ * are read, so comparing costs about as much as the change, not the repository.
+ */
+final class Repository {
+
+    static final int TREE_MODE = 0040000;
+    private static final int TYPE_MASK = 0170000;
+    private static final int REGULAR_FILE = 0100000;
+    private static final int MAX_SYMREF_DEPTH = 5;
+
+    private final Path gitDir;
+    private final Path commonDir;
+    private final Path indexFile;
+    private final ObjectDatabase objects;
+
+    private Repository(Path gitDir, Path commonDir, Path indexFile, ObjectDatabase objects) {
+        this.gitDir = gitDir;
+        this.commonDir = commonDir;
+        this.indexFile = indexFile;
+        this.objects = objects;
+    }
+
+    static Repository open(Path repoRoot, Map<String, String> env) throws IOException {
+        Path gitDir = gitDir(repoRoot, env);
+        Path commonDir = env.containsKey("GIT_COMMON_DIR") ? repoRoot.resolve(env.get("GIT_COMMON_DIR"))
+                : Files.exists(gitDir.resolve("commondir"))
+                ? gitDir.resolve(Files.readString(gitDir.resolve("commondir"), StandardCharsets.UTF_8).strip())
+                : gitDir;
+        Path config = commonDir.resolve("config");
+        if (Files.exists(config)) {
+            String settings = Files.readString(config, StandardCharsets.UTF_8).replace(" ", "").replace("\t", "").toLowerCase(Locale.ROOT);
+            if (settings.contains("objectformat=sha256") || settings.contains("refstorage=reftable")) {
+                throw new UnsupportedRepositoryException("SHA-256 or reftable repository");
+            }
+        }
+        Path objectDir = env.containsKey("GIT_OBJECT_DIRECTORY")
+                ? repoRoot.resolve(env.get("GIT_OBJECT_DIRECTORY")) : commonDir.resolve("objects");
+        List<Path> alternates = new ArrayList<>();
+        String extra = env.get("GIT_ALTERNATE_OBJECT_DIRECTORIES");
+        if (extra != null) {
+            for (String path : extra.split(File.pathSeparator)) {
+                if (!path.isBlank()) {
+                    alternates.add(repoRoot.resolve(path));
+                }
+            }
+        }
+        Path indexFile = env.containsKey("GIT_INDEX_FILE")
+                ? repoRoot.resolve(env.get("GIT_INDEX_FILE")) : gitDir.resolve("index");
+        return new Repository(gitDir, commonDir, indexFile, ObjectDatabase.open(objectDir, alternates));
+    }
+
+    IndexFile index() throws IOException {
+        return IndexFile.read(indexFile);
+    }
+
+    ObjectDatabase objects() {
+        return objects;
+    }
+
+    /**
+     * Regular files added or modified in {@code index} relative to {@code HEAD}, in index
+     * order, like {@code git diff --cached --diff-filter=AM}. A file added with the blob of a
+     * deleted one is the exact rename git would report, and is left out as git's
+     * {@code --diff-filter=ACM} leaves it out; type changes (a file becoming a symlink) are
+     * left out too.
+     */
+    List<UnifiedDiff.Change> stagedChanges(IndexFile index) throws IOException {
+        Map<String, TreeEntry> head = new HashMap<>();
+        Set<String> unchangedDirs = new HashSet<>();
+        ObjectId headTree = headTree();
+        if (headTree != null) {
+            walk(headTree, "", index, head, unchangedDirs);
+        }
+
+        // what is left in head once the index has been matched against it was deleted
+        List<IndexFile.Entry> candidates = new ArrayList<>();
+        List<TreeEntry> before = new ArrayList<>();
+        String dir = null;
+        boolean dirUnchanged = false;
+        for (IndexFile.Entry entry : index.entries()) {
+            String path = entry.path();
+            int slash = Math.max(0, path.lastIndexOf('/'));
+            if (dir == null || slash != dir.length() || !path.startsWith(dir)) {
+                dir = path.substring(0, slash);
+                dirUnchanged = unchanged(dir, unchangedDirs);
+            }
+            if (dirUnchanged) {
+                continue;
+            }
+            TreeEntry headEntry = head.remove(path);
+            if ((entry.mode() & TYPE_MASK) == REGULAR_FILE) {
+                candidates.add(entry);
+                before.add(headEntry);
+            }
+        }
+        Set<ObjectId> deleted = new HashSet<>();
+        head.values().forEach(entry -> deleted.add(entry.id()));
+
+        List<UnifiedDiff.Change> changes = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            IndexFile.Entry entry = candidates.get(i);
+            TreeEntry headEntry = before.get(i);
+            if (headEntry == null) {
+                if (!deleted.contains(entry.id())) {
+                    changes.add(new UnifiedDiff.Change(entry.path(), 0, null, entry.mode(), entry.id()));
+                }
+            } else if ((headEntry.mode() & TYPE_MASK) == REGULAR_FILE
+                    && (!headEntry.id().equals(entry.id()) || headEntry.mode() != entry.mode())) {
+                changes.add(new UnifiedDiff.Change(
+                        entry.path(), headEntry.mode(), headEntry.id(), entry.mode(), entry.id()));
+            }
+        }
+        return changes;
+    }
+
+    /** One entry of a tree object. */
+    record TreeEntry(int mode, String name, ObjectId id) {
+    }
+
+    /** The entries of tree {@code id}: octal mode, space, NUL-terminated name, raw id. */
+    List<TreeEntry> tree(ObjectId id) throws IOException {
+        byte[] data = objects.read(id, ObjectDatabase.Type.TREE).data();
+        List<TreeEntry> entries = new ArrayList<>();
+        int p = 0;
+        while (p < data.length) {
+            int mode = 0;
+            while (data[p] != ' ') {
+                mode = mode * 8 + (data[p++] - '0');
+            }
+            int nameStart = ++p;
+            while (data[p] != 0) {
+                p++;
+            }
+            String name = new String(data, nameStart, p - nameStart, StandardCharsets.UTF_8);
+            entries.add(new TreeEntry(mode, name, ObjectId.read(data, ++p)));
+            p += ObjectId.LENGTH;
+        }
+        return entries;
+    }
+
+    /**
+     * Collects the files of {@code tree} into {@code files}, skipping the directories whose
+     * tree the index's cache-tree already names, which are recorded in {@code unchangedDirs}.
+     */
+    private void walk(ObjectId tree, String dir, IndexFile index, Map<String, TreeEntry> files,
+                      Set<String> unchangedDirs) throws IOException {
+        if (tree.equals(index.cachedTree(dir))) {
+            unchangedDirs.add(dir);
+            return;
+        }
+        for (TreeEntry entry : tree(tree)) {
+            String path = dir.isEmpty() ? entry.name() : dir + "/" + entry.name();
+            if (entry.mode() == TREE_MODE) {
+                walk(entry.id(), path, index, files, unchangedDirs);
+            } else {
+                files.put(path, entry);
+            }
+        }
+    }
+
+    /** Whether {@code dir} or one of its parents is a directory the index has not changed. */
+    private static boolean unchanged(String dir, Set<String> unchangedDirs) {
+        if (unchangedDirs.isEmpty()) {
+            return false;
+        }
+        for (String d = dir; ; d = d.substring(0, Math.max(0, d.lastIndexOf('/')))) {
+            if (unchangedDirs.contains(d)) {
+                return true;
+            }
+            if (d.isEmpty()) {
+                return false;
+            }
+        }
+    }
+
+    /** The {@code HEAD} commit, or {@code null} on an unborn branch. */
+    ObjectId head() throws IOException {
+        return resolve("HEAD");
+    }
+
+    /** The tree of the {@code HEAD} commit, or {@code null} on an unborn branch. */
+    ObjectId headTree() throws IOException {
+        ObjectId commit = head();
+        if (commit == null) {
+            return null;
+        }
+        String text = new String(objects.read(commit, ObjectDatabase.Type.COMMIT).data(), StandardCharsets.UTF_8);
+        if (!text.startsWith("tree ")) {
+            throw new IOException("Commit " + commit + " has no tree");
+        }
+        return ObjectId.parse(text.substring(5, 5 + 2 * ObjectId.LENGTH));
+    }
+
+    /** Follows symbolic refs from {@code name} to an object id; {@code null} if the ref does not exist. */
+    private ObjectId resolve(String name) throws IOException {
+        for (int depth = 0; depth < MAX_SYMREF_DEPTH; depth++) {
+            String value = ref(name);
+            if (value == null) {
+                return null;
+            }
+            if (!value.startsWith("ref: ")) {
+                try {
+                    return ObjectId.parse(value);
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Bad ref " + name + ": " + value, e);
+                }
+            }
+            name = value.substring(5).strip();
+        }
+        throw new IOException("Symbolic ref loop at " + name);
+    }
+
+    /** The content of ref {@code name}, loose or packed. */
+    private String ref(String name) throws IOException {
+        boolean perWorktree = name.equals("HEAD") || name.startsWith("refs/worktree/")
+                || name.startsWith("refs/bisect/") || name.startsWith("refs/rewritten/");
+        Path loose = (perWorktree ? gitDir : commonDir).resolve(name);
+        if (Files.isRegularFile(loose)) {
+            return Files.readString(loose, StandardCharsets.UTF_8).strip();
+        }
+        Path packed = commonDir.resolve("packed-refs");
+        if (!perWorktree && Files.exists(packed)) {
+            for (String line : Files.readAllLines(packed, StandardCharsets.UTF_8)) {
+                if (line.length() > 2 * ObjectId.LENGTH + 1 && line.endsWith(name)
+                        && line.charAt(2 * ObjectId.LENGTH) == ' '
+                        && line.length() == 2 * ObjectId.LENGTH + 1 + name.length()) {
+                    return line.substring(0, 2 * ObjectId.LENGTH);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Path gitDir(Path repoRoot, Map<String, String> env) throws IOException {
+        if (env.containsKey("GIT_DIR")) {
+            return repoRoot.resolve(env.get("GIT_DIR"));
+        }
+        Path dotGit = repoRoot.resolve(".git");
+        if (Files.isDirectory(dotGit)) {
+            return dotGit;
+        }
+        if (Files.isRegularFile(dotGit)) {
+            String text = Files.readString(dotGit, StandardCharsets.UTF_8).strip();
+            if (text.startsWith("gitdir:")) {
+                return repoRoot.resolve(text.substring(7).strip());
+            }
+        }
+        throw new UnsupportedRepositoryException("no .git directory in " + repoRoot);
+    }
+}
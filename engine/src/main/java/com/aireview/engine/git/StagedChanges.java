@@ -0,0 +1,184 @@
+package com.aireview.engine.git;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads the staged Java changes. The index and object database are read in-process
+ * ({@link Repository}): no process is started, and the cost follows the size of the change
+ * rather than the number of files, where the shell hook forked {@code git} once per file
+ * for the diff and once more per file for its content.
+ *
+ * <p>A repository the reader does not handle ({@link UnsupportedRepositoryException}), or
+ * any failure to read it, such as an object missing from a partial clone, falls back to the
+ * {@code git} command line: one {@code git diff --cached} for all files, and
+ * {@code git show :path} per file.
+ */
+public final class StagedChanges {
+
+    private final Path repoRoot;
+
+    private Repository repository;
+    private IndexFile index;
+    private Map<String, IndexFile.Entry> entries;
+    private List<UnifiedDiff.Change> changes;
+    private boolean useGit;
+
+    public StagedChanges(Path repoRoot) {
+        this.repoRoot = repoRoot;
+    }
+
+    /** Added, copied or modified {@code .java} paths in the index, relative to the repository root. */
+    public List<String> javaFiles() throws IOException {
+        List<UnifiedDiff.Change> staged = changes();
+        if (staged != null) {
+            List<String> files = new ArrayList<>();
+            for (UnifiedDiff.Change change : staged) {
+                if (change.path().endsWith(".java")) {
+                    files.add(change.path());
+                }
+            }
+            return files;
+        }
+        String output = git(List.of("diff", "--cached", "--name-only", "--diff-filter=ACM"));
+        List<String> files = new ArrayList<>();
+        for (String line : output.split("\n")) {
+            if (line.endsWith(".java")) {
+                files.add(line);
+            }
+        }
+        return files;
+    }
+
+    /** Unified diff of the given staged files, in path order, as {@code git diff --cached} prints it. */
+    public String diff(List<String> files) throws IOException {
+        if (files.isEmpty()) {
+            return "";
+        }
+        List<UnifiedDiff.Change> staged = changes();
+        if (staged != null) {
+            try {
+                Set<String> wanted = new HashSet<>(files);
+                StringBuilder out = new StringBuilder();
+                for (UnifiedDiff.Change change : staged) {
+                    if (wanted.contains(change.path())) {
+                        byte[] before = change.added() ? new byte[0] : blob(change.oldId());
+                        UnifiedDiff.write(out, change, before, blob(change.newId()));
+                    }
+                }
+                return out.toString();
+            } catch (IOException e) {
+                useGit = true;
+            }
+        }
+        List<String> args = new ArrayList<>(files.size() + 3);
+        args.add("diff");
+        args.add("--cached");
+        args.add("--");
+        args.addAll(files);
+        return git(args);
+    }
+
+    /** Content of {@code path} as staged in the index ({@code git show :path}). */
+    public String content(String path) throws IOException {
+        if (index() != null) {
+            IndexFile.Entry entry = entries.get(path);
+            if (entry == null) {
+                throw new IOException("Not staged: " + path);
+            }
+            try {
+                return new String(blob(entry.id()), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                useGit = true;
+            }
+        }
+        return git(List.of("show", ":" + path));
+    }
+
+    /**
+     * Id of the commit {@code HEAD} names, the one the staged changes will be committed on
+     * ({@code git rev-parse HEAD}), or {@code null} on an unborn branch.
+     */
+    public String head() throws IOException {
+        if (index() != null) {
+            try {
+                ObjectId head = repository.head();
+                return head == null ? null : head.name();
+            } catch (IOException e) {
+                useGit = true;
+            }
+        }
+        try {
+            return git(List.of("rev-parse", "--verify", "-q", "HEAD")).strip();
+        } catch (IOException e) {
+            // no commit yet
+            return null;
+        }
+    }
+
+    private byte[] blob(ObjectId id) throws IOException {
+        return repository.objects().read(id, ObjectDatabase.Type.BLOB).data();
+    }
+
+    /** The index, or {@code null} once the in-process reader has given up for this repository. */
+    private IndexFile index() {
+        if (index == null && !useGit) {
+            try {
+                repository = Repository.open(repoRoot, System.getenv());
+                index = repository.index();
+                entries = new HashMap<>();
+                for (IndexFile.Entry entry : index.entries()) {
+                    entries.put(entry.path(), entry);
+                }
+            } catch (IOException | RuntimeException e) {
+                useGit = true;
+            }
+        }
+        return useGit ? null : index;
+    }
+
+    /** Staged changes of regular files, or {@code null} when {@code git} has to be asked. */
+    private List<UnifiedDiff.Change> changes() {
+        if (changes == null && index() != null) {
+            try {
+                changes = repository.stagedChanges(index);
+            } catch (IOException | RuntimeException e) {
+                useGit = true;
+            }
+        }
+        return useGit ? null : changes;
+    }
+
+    private String git(List<String> args) throws IOException {
+        List<String> command = new ArrayList<>(args.size() + 1);
+        command.add("git");
+        command.addAll(args);
+        Process process = new ProcessBuilder(command)
+                .directory(repoRoot.toFile())
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        process.getOutputStream().close();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+        process.getInputStream().transferTo(out);
+        try {
+            int exit = process.waitFor();
+            if (exit != 0) {
+                throw new IOException("git " + String.join(" ", args.subList(0, Math.min(2, args.size())))
+                        + " exited with status " + exit);
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while running git", e);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
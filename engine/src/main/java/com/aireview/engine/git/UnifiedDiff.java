@@ -0,0 +1,311 @@
+package com.aireview.engine.git;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes one file of a staged diff the way {@code git diff --cached} does: the
+ * {@code diff --git} header with modes and abbreviated blob ids, then hunks with three lines
+ * of context, changes at most six lines apart sharing a hunk. The hunk header carries git's
+ * default function context, the nearest earlier line of the old file that starts with a
+ * letter, {@code _} or {@code $}.
+ *
+ * <p>Lines stay byte ranges of the blobs. As in git, the common head and tail of the two
+ * files are matched before anything is hashed, so the cost follows the change rather than
+ * the file, and each group of changed lines is then slid down as far as equal lines allow.
+ */
+final class UnifiedDiff {
+
+    static final int CONTEXT = 3;
+
+    private static final int ABBREV = 7;
+    private static final int FUNCTION_LENGTH = 80;
+    private static final int BINARY_PROBE = 8000;
+    private static final String NO_NEWLINE = "\\ No newline at end of file\n";
+
+    private UnifiedDiff() {
+    }
+
+    /** A changed file; {@code oldId} is {@code null} for an added one. */
+    record Change(String path, int oldMode, ObjectId oldId, int newMode, ObjectId newId) {
+
+        boolean added() {
+            return oldId == null;
+        }
+    }
+
+    static void write(StringBuilder out, Change change, byte[] oldData, byte[] newData) {
+        String path = change.path();
+        out.append("diff --git a/").append(path).append(" b/").append(path).append('\n');
+        ObjectId oldId = change.added() ? ObjectId.ZERO : change.oldId();
+        if (change.added()) {
+            out.append("new file mode ").append(Integer.toOctalString(change.newMode())).append('\n');
+        } else if (change.oldMode() != change.newMode()) {
+            out.append("old mode ").append(Integer.toOctalString(change.oldMode())).append('\n');
+            out.append("new mode ").append(Integer.toOctalString(change.newMode())).append('\n');
+        }
+        if (oldId.equals(change.newId())) {
+            return;
+        }
+        out.append("index ").append(oldId.abbreviate(ABBREV)).append("..").append(change.newId().abbreviate(ABBREV));
+        if (!change.added() && change.oldMode() == change.newMode()) {
+            out.append(' ').append(Integer.toOctalString(change.newMode()));
+        }
+        out.append('\n');
+        String oldName = change.added() ? "/dev/null" : "a/" + path;
+        if (binary(oldData) || binary(newData)) {
+            out.append("Binary files ").append(oldName).append(" and b/").append(path).append(" differ\n");
+            return;
+        }
+        if (newData.length == 0 && change.added()) {
+            return;
+        }
+        out.append("--- ").append(oldName).append('\n');
+        out.append("+++ b/").append(path).append('\n');
+
+        Text before = new Text(oldData);
+        Text after = new Text(newData);
+        boolean[] removed = new boolean[before.lines()];
+        boolean[] added = new boolean[after.lines()];
+        diff(before, after, removed, added);
+        slide(before, removed);
+        slide(after, added);
+        hunks(out, before, after, removed, added);
+    }
+
+    /** The lines of a blob, each with its {@code \n}; the last one may have none. */
+    private static final class Text {
+
+        final byte[] data;
+        /** Start of every line, then the end of the data. */
+        final int[] starts;
+
+        Text(byte[] data) {
+            this.data = data;
+            int count = 0;
+            for (byte b : data) {
+                if (b == '\n') {
+                    count++;
+                }
+            }
+            boolean unterminated = data.length > 0 && data[data.length - 1] != '\n';
+            starts = new int[count + (unterminated ? 1 : 0) + 1];
+            int line = 1;
+            for (int i = 0; i < data.length; i++) {
+                if (data[i] == '\n' && line < starts.length) {
+                    starts[line++] = i + 1;
+                }
+            }
+            starts[starts.length - 1] = data.length;
+        }
+
+        int lines() {
+            return starts.length - 1;
+        }
+
+        boolean same(int line, Text other, int otherLine) {
+            return Arrays.equals(data, starts[line], starts[line + 1],
+                    other.data, other.starts[otherLine], other.starts[otherLine + 1]);
+        }
+
+        boolean terminated(int line) {
+            return data[starts[line + 1] - 1] == '\n';
+        }
+
+        String text(int line, int maxBytes) {
+            int length = Math.min(starts[line + 1] - starts[line], maxBytes);
+            return new String(data, starts[line], length, StandardCharsets.UTF_8);
+        }
+
+        Line key(int line) {
+            return new Line(this, line);
+        }
+    }
+
+    /** A line as a hash key, equal to any line with the same bytes. */
+    private static final class Line {
+
+        private final Text text;
+        private final int line;
+        private final int hash;
+
+        Line(Text text, int line) {
+            this.text = text;
+            this.line = line;
+            int h = 1;
+            for (int i = text.starts[line]; i < text.starts[line + 1]; i++) {
+                h = 31 * h + text.data[i];
+            }
+            this.hash = h;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Line that && hash == that.hash && text.same(line, that.text, that.line);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Numbers the lines so that equal lines get equal numbers, and diffs the numbers. Lines of
+     * the common head and tail get numbers of their own without being hashed.
+     */
+    private static void diff(Text before, Text after, boolean[] removed, boolean[] added) {
+        int limit = Math.min(before.lines(), after.lines());
+        int head = 0;
+        while (head < limit && before.same(head, after, head)) {
+            head++;
+        }
+        int tail = 0;
+        while (tail < limit - head && before.same(before.lines() - 1 - tail, after, after.lines() - 1 - tail)) {
+            tail++;
+        }
+        Map<Line, Integer> numbers = new HashMap<>();
+        MyersDiff.diff(number(before, head, tail, numbers), number(after, head, tail, numbers), removed, added);
+    }
+
+    private static int[] number(Text text, int head, int tail, Map<Line, Integer> numbers) {
+        int[] result = new int[text.lines()];
+        for (int i = 0; i < head; i++) {
+            result[i] = -1 - i;
+        }
+        for (int i = head; i < result.length - tail; i++) {
+            result[i] = numbers.computeIfAbsent(text.key(i), line -> numbers.size());
+        }
+        for (int i = 0; i < tail; i++) {
+            result[result.length - 1 - i] = Integer.MIN_VALUE + i;
+        }
+        return result;
+    }
+
+    /** Slides every group of changed lines down while the line after it equals its first line. */
+    private static void slide(Text text, boolean[] changed) {
+        int start = 0;
+        while (start < changed.length) {
+            if (!changed[start]) {
+                start++;
+                continue;
+            }
+            int end = start;
+            while (end < changed.length && changed[end]) {
+                end++;
+            }
+            while (end < changed.length && text.same(start, text, end)) {
+                changed[start++] = false;
+                changed[end++] = true;
+                while (end < changed.length && changed[end]) {
+                    end++;
+                }
+            }
+            start = end;
+        }
+    }
+
+    /** Emits the changes grouped into hunks; a change is a run of removed and then added lines. */
+    private static void hunks(StringBuilder out, Text before, Text after, boolean[] removed, boolean[] added) {
+        List<int[]> changes = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        while (i < removed.length || j < added.length) {
+            if ((i < removed.length && removed[i]) || (j < added.length && added[j])) {
+                int i0 = i;
+                int j0 = j;
+                while (i < removed.length && removed[i]) {
+                    i++;
+                }
+                while (j < added.length && added[j]) {
+                    j++;
+                }
+                changes.add(new int[] {i0, i, j0, j});
+            } else {
+                i++;
+                j++;
+            }
+        }
+        for (int first = 0; first < changes.size(); ) {
+            int last = first;
+            while (last + 1 < changes.size() && changes.get(last + 1)[0] - changes.get(last)[1] <= 2 * CONTEXT) {
+                last++;
+            }
+            int[] start = changes.get(first);
+            int[] end = changes.get(last);
+            int leading = Math.min(CONTEXT, start[0]);
+            int trailing = Math.min(CONTEXT, removed.length - end[1]);
+            int oldStart = start[0] - leading;
+            int newStart = start[2] - leading;
+            out.append("@@ -");
+            range(out, oldStart, end[1] + trailing - oldStart);
+            out.append(" +");
+            range(out, newStart, end[3] + trailing - newStart);
+            out.append(" @@");
+            String function = function(before, oldStart);
+            if (!function.isEmpty()) {
+                out.append(' ').append(function);
+            }
+            out.append('\n');
+
+            int o = oldStart;
+            int n = newStart;
+            for (int c = first; c <= last; c++) {
+                int[] change = changes.get(c);
+                while (o < change[0]) {
+                    line(out, ' ', before, o++);
+                    n++;
+                }
+                while (o < change[1]) {
+                    line(out, '-', before, o++);
+                }
+                while (n < change[3]) {
+                    line(out, '+', after, n++);
+                }
+            }
+            while (o < end[1] + trailing) {
+                line(out, ' ', before, o++);
+            }
+            first = last + 1;
+        }
+    }
+
+    /** {@code start,count} with git's conventions: 1-based, no count of 1, the line before when empty. */
+    private static void range(StringBuilder out, int start, int count) {
+        out.append(count == 0 ? start : start + 1);
+        if (count != 1) {
+            out.append(',').append(count);
+        }
+    }
+
+    private static String function(Text text, int hunkStart) {
+        for (int l = hunkStart - 1; l >= 0; l--) {
+            int first = text.starts[l] < text.starts[l + 1] ? text.data[text.starts[l]] : 0;
+            if ((first >= 'a' && first <= 'z') || (first >= 'A' && first <= 'Z') || first == '_' || first == '$') {
+                return text.text(l, FUNCTION_LENGTH).stripTrailing();
+            }
+        }
+        return "";
+    }
+
+    private static void line(StringBuilder out, char prefix, Text text, int line) {
+        out.append(prefix).append(text.text(line, Integer.MAX_VALUE));
+        if (!text.terminated(line)) {
+            out.append('\n').append(NO_NEWLINE);
+        }
+    }
+
+    /** Git's test: a NUL byte in the first 8000 bytes. */
+    private static boolean binary(byte[] data) {
+        for (int i = 0, end = Math.min(data.length, BINARY_PROBE); i < end; i++) {
+            if (data[i] == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
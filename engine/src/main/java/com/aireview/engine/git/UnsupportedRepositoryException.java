@@ -0,0 +1,16 @@
+package com.aireview.engine.git;
+
+import java.io.IOException;
+
+/**
+ * A repository layout the in-process reader does not handle (a SHA-256 or reftable
+ * repository, a split or sparse index); {@link StagedChanges} then asks {@code git} instead.
+ */
+final class UnsupportedRepositoryException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    UnsupportedRepositoryException(String feature) {
+        super("Not read in-process: " + feature);
+    }
+}
@@ -0,0 +1,179 @@
+package com.aireview.engine.history;
+
+import com.aireview.engine.json.Json;
+import com.aireview.engine.report.Severity;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * {@code java -jar ai-review-engine.jar history}: queries the {@link ReviewHistory}.
+ *
+ * <pre>
+ * history --rule sql-injection --severity BLOCK --since 30d --path src/main/   matching issues, newest first
+ * history --count-by rule --since 2026-09-01                                   issues per rule, file, severity, commit or day
+ * history --reviews --since 7d                                                 one line per review, with or without issues
+ * </pre>
+ *
+ * Times are UTC; {@code --since} and {@code --until} take a date, an ISO instant or an age
+ * such as {@code 30d}, {@code 12h} or {@code 90m}. {@code --json} prints the result as JSON
+ * for dashboards and scripts.
+ */
+public final class HistoryCommand {
+
+    static final int DEFAULT_LIMIT = 50;
+
+    private HistoryCommand() {
+    }
+
+    /** Runs the command; returns 0, 1 when the history cannot be read, or 2 for a usage error. */
+    public static int run(Path historyDir, List<String> args, PrintStream out, PrintStream err) {
+        Instant since = null;
+        Instant until = null;
+        String commit = null;
+        String path = null;
+        String rule = null;
+        Severity severity = null;
+        int limit = DEFAULT_LIMIT;
+        ReviewHistory.Group countBy = null;
+        boolean reviews = false;
+        boolean json = false;
+        try {
+            for (int i = 0; i < args.size(); i++) {
+                String option = args.get(i);
+                switch (option) {
+                    case "--since" -> since = time(value(args, ++i, option));
+                    case "--until" -> until = time(value(args, ++i, option));
+                    case "--commit" -> commit = value(args, ++i, option);
+                    case "--path" -> path = value(args, ++i, option);
+                    case "--rule" -> rule = value(args, ++i, option);
+                    case "--severity" -> {
+                        String value = value(args, ++i, option);
+                        severity = Severity.parse(value);
+                        if (severity == null) {
+                            throw new IllegalArgumentException("Unknown severity '" + value + "' (expected BLOCK, WARN or INFO)");
+                        }
+                    }
+                    case "--limit" -> limit = Integer.parseInt(value(args, ++i, option));
+                    case "--count-by" -> countBy = ReviewHistory.Group.valueOf(value(args, ++i, option).toUpperCase(Locale.ROOT));
+                    case "--reviews" -> reviews = true;
+                    case "--json" -> json = true;
+                    default -> throw new IllegalArgumentException("Unknown option '" + option + "'");
+                }
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            err.println("history: " + e.getMessage());
+            err.println("Usage: history [--rule ID] [--severity BLOCK|WARN|INFO] [--path PREFIX] [--commit ID]");
+            err.println("               [--since 30d|DATE] [--until 30d|DATE] [--limit N] [--json]");
+            err.println("               [--count-by rule|file|severity|commit|day] [--reviews]");
+            return 2;
+        }
+
+        ReviewHistory history = ReviewHistory.shared(historyDir);
+        HistoryQuery query = new HistoryQuery(since, until, commit, path, rule, severity);
+        try {
+            if (reviews) {
+                printReviews(history.reviews(since, until), json, out);
+            } else if (countBy != null) {
+                Map<String, Long> counts = history.countBy(query, countBy);
+                if (json) {
+                    out.println(Json.write(counts));
+                } else {
+                    counts.forEach((key, count) -> out.printf("%8d  %s%n", count, key.isEmpty() ? "-" : key));
+                }
+            } else {
+                printIssues(history.find(query, limit), json, out);
+            }
+            return 0;
+        } catch (IOException e) {
+            err.println("history: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    private static void printIssues(List<HistoryEntry> entries, boolean json, PrintStream out) {
+        if (json) {
+            List<Object> list = new ArrayList<>();
+            for (HistoryEntry entry : entries) {
+                Map<String, Object> item = new LinkedHashMap<>();
+                item.put("time", entry.time().toString());
+                item.put("review", entry.review());
+                item.put("commit", entry.commit());
+                item.putAll(entry.issue().toJson());
+                list.add(item);
+            }
+            out.println(Json.write(list));
+            return;
+        }
+        for (HistoryEntry entry : entries) {
+            out.println(entry.time().truncatedTo(ChronoUnit.SECONDS) + "  " + abbreviate(entry.commit()) + "  "
+                    + entry.issue().severity() + "  " + entry.issue().ruleId() + "  " + entry.issue().location());
+            out.println("    " + entry.issue().message());
+        }
+    }
+
+    private static void printReviews(List<ReviewSummary> reviews, boolean json, PrintStream out) {
+        if (json) {
+            List<Object> list = new ArrayList<>();
+            for (ReviewSummary review : reviews) {
+                Map<String, Object> item = new LinkedHashMap<>();
+                item.put("review", review.review());
+                item.put("time", review.time().toString());
+                item.put("commit", review.commit());
+                item.put("files", review.files());
+                item.put("block", review.block());
+                item.put("warn", review.warn());
+                item.put("info", review.info());
+                list.add(item);
+            }
+            out.println(Json.write(list));
+            return;
+        }
+        for (ReviewSummary review : reviews) {
+            out.println(review.time().truncatedTo(ChronoUnit.SECONDS) + "  " + abbreviate(review.commit())
+                    + "  " + (review.blocked() ? "BLOCKED" : "allowed") + "  files=" + review.files()
+                    + " BLOCK=" + review.block() + " WARN=" + review.warn() + " INFO=" + review.info());
+        }
+    }
+
+    private static String abbreviate(String commit) {
+        return commit.isEmpty() ? "-------" : commit.substring(0, Math.min(7, commit.length()));
+    }
+
+    private static String value(List<String> args, int i, String option) {
+        if (i >= args.size()) {
+            throw new IllegalArgumentException(option + " needs a value");
+        }
+        return args.get(i);
+    }
+
+    /** {@code 30d}, {@code 12h} and {@code 90m} count back from now; otherwise a date or an instant. */
+    static Instant time(String value) {
+        String text = value.trim();
+        if (text.matches("\\d+[dhm]")) {
+            long amount = Long.parseLong(text.substring(0, text.length() - 1));
+            Duration age = switch (text.charAt(text.length() - 1)) {
+                case 'd' -> Duration.ofDays(amount);
+                case 'h' -> Duration.ofHours(amount);
+                default -> Duration.ofMinutes(amount);
+            };
+            return Instant.now().minus(age);
+        }
+        if (text.length() == 10) {
+            return LocalDate.parse(text).atStartOfDay(ZoneOffset.UTC).toInstant();
+        }
+        return Instant.parse(text);
+    }
+}
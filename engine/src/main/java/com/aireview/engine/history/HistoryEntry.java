@@ -0,0 +1,16 @@
+package com.aireview.engine.history;
+
+import com.aireview.engine.report.Issue;
+
+import java.time.Instant;
+
+/**
+ * One stored issue.
+ *
+ * @param time   when the review ran
+ * @param review number of the review, counting from 0 in the order they were stored
+ * @param commit commit the change was staged on, empty on an unborn branch
+ * @param issue  the issue as it was decided on
+ */
+public record HistoryEntry(Instant time, int review, String commit, Issue issue) {
+}
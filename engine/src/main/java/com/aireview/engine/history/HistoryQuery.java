@@ -0,0 +1,30 @@
+package com.aireview.engine.history;
+
+import com.aireview.engine.report.Severity;
+
+import java.time.Instant;
+
+/**
+ * The issues a {@link ReviewHistory} query selects. A {@code null} component selects any
+ * value, so "all {@code sql-injection} BLOCKs of the last 30 days under {@code src/main/}" is
+ * {@code new HistoryQuery(Instant.now().minus(Duration.ofDays(30)), null, null, "src/main/",
+ * "sql-injection", Severity.BLOCK)}.
+ *
+ * @param since      earliest review time, inclusive
+ * @param until      latest review time, exclusive
+ * @param commit     commit the change was staged on ({@code HEAD} at review time), or a prefix of its id
+ * @param pathPrefix start of the file path as reported, e.g. {@code src/main/java/com/acme/}
+ * @param ruleId     checklist rule, e.g. {@code sql-injection}
+ * @param severity   BLOCK, WARN or INFO
+ */
+public record HistoryQuery(
+        Instant since,
+        Instant until,
+        String commit,
+        String pathPrefix,
+        String ruleId,
+        Severity severity) {
+
+    /** Every issue ever stored. */
+    public static final HistoryQuery ALL = new HistoryQuery(null, null, null, null, null, null);
+}
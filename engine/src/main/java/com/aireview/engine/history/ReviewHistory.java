@@ -0,0 +1,605 @@
+package com.aireview.engine.history;
+
+import com.aireview.engine.report.Issue;
+import com.aireview.engine.report.Severity;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Every review and its issues, kept under {@code .ai/history/} where
+ * {@code last_review.json} only holds the last one. All files are only ever appended to:
+ *
+ * <ul>
+ *   <li>{@code issues.idx}: a {@value #ROW}-byte row per issue, in the order they were
+ *       stored: time, review number, the ids of its commit, file and rule, its severity,
+ *       and where its text is;</li>
+ *   <li>{@code reviews.idx}: a {@value #ROW}-byte row per review, with or without issues:
+ *       time, commit, files reviewed and issues per severity;</li>
+ *   <li>{@code terms.dat}: the commits, files and rules, numbered by first appearance;</li>
+ *   <li>{@code 000000.seg}, ...: the rest of each issue (agent, line, message, confidence),
+ *       a new segment every 64 MB.</li>
+ * </ul>
+ *
+ * Review times never go backwards, so the rows of a time range are found by binary search.
+ * A query turns its commit, path prefix and rule into sets of ids, then reads the rows of
+ * its time range a megabyte at a time and compares integers; only the text of the issues
+ * it returns is read from the segments. A million issues are 32 MB of rows.
+ *
+ * <p>Appends hold a lock on {@code .ai/history/lock}, so hooks of several worktrees and the
+ * daemon can store reviews at once. Queries take no lock: rows are written after the text
+ * and terms they refer to, so any complete row can be read, and a review's row is written
+ * after its issue rows. A crash can leave a partial row or term, or the issue rows of a
+ * review whose own row was never written. Queries ignore issue rows whose review is not in
+ * {@code reviews.idx}, and the next append cuts off both before it numbers its review, so
+ * a review number is never given to two reviews.
+ */
+public final class ReviewHistory {
+
+    /** What {@link #countBy} groups issues by. */
+    public enum Group {
+        RULE, FILE, SEVERITY, COMMIT, DAY
+    }
+
+    static final int ROW = 32;
+    static final long SEGMENT_BYTES = 64L * 1024 * 1024;
+
+    private static final int HEADER = 8;
+    private static final int VERSION = 1;
+    private static final int ISSUES_MAGIC = 0x41495249; // "AIRI"
+    private static final int REVIEWS_MAGIC = 0x41495252; // "AIRR"
+    private static final int TERMS_MAGIC = 0x41495254; // "AIRT"
+    private static final int SEGMENT_MAGIC = 0x41495253; // "AIRS"
+    private static final int CHUNK_ROWS = 32 * 1024;
+    /** Rows mapped at once by a scan: 32 MB. */
+    private static final int WINDOW_ROWS = 1024 * 1024;
+    /** Characters of a message that are kept; {@code writeUTF} takes at most 64 KB. */
+    private static final int MAX_TEXT = 16 * 1024;
+
+    private static final int COMMIT = 0;
+    private static final int FILE = 1;
+    private static final int RULE = 2;
+
+    private static final Map<Path, ReviewHistory> SHARED = new ConcurrentHashMap<>();
+
+    private final Path dir;
+    private final List<List<String>> names = List.of(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+    private final List<Map<String, Integer>> ids = List.of(new HashMap<>(), new HashMap<>(), new HashMap<>());
+    private long termsRead = HEADER;
+
+    /** The history in {@code dir}, shared within the process so its terms are read once. */
+    public static ReviewHistory shared(Path dir) {
+        return SHARED.computeIfAbsent(dir.toAbsolutePath(), ReviewHistory::new);
+    }
+
+    private ReviewHistory(Path dir) {
+        this.dir = dir;
+    }
+
+    /**
+     * Stores one review and the issues it decided on.
+     *
+     * @param commit commit the change was staged on, {@code null} on an unborn branch
+     * @param files  staged Java files reviewed
+     */
+    @SuppressWarnings("try") // the lock is held for the block, never used in it
+    public synchronized void append(String commit, int files, List<Issue> issues) throws IOException {
+        Files.createDirectories(dir);
+        try (FileChannel lockFile = FileChannel.open(dir.resolve("lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock lock = lockFile.lock();
+             FileChannel issueRows = table(dir.resolve("issues.idx"), ISSUES_MAGIC);
+             FileChannel reviewRows = table(dir.resolve("reviews.idx"), REVIEWS_MAGIC);
+             FileChannel terms = table(dir.resolve("terms.dat"), TERMS_MAGIC)) {
+            readTerms(terms, true);
+            long reviewCount = rows(reviewRows, true);
+            long issueCount = committedRows(issueRows, rows(issueRows, true), reviewCount);
+            if (issueRows.size() > HEADER + issueCount * ROW) {
+                issueRows.truncate(HEADER + issueCount * ROW);
+            }
+            long time = System.currentTimeMillis();
+            if (reviewCount > 0) {
+                time = Math.max(time, readRow(reviewRows, reviewCount - 1).getLong(0));
+            }
+            int segment = issueCount > 0 ? Short.toUnsignedInt(readRow(issueRows, issueCount - 1).getShort(26)) : 0;
+            try (FileChannel text = segment(segment)) {
+                FileChannel out = text;
+                if (text.size() >= SEGMENT_BYTES) {
+                    segment++;
+                    out = segment(segment);
+                }
+                try {
+                    write(out, issueRows, reviewRows, terms, segment, time, (int) reviewCount, commit, files, issues);
+                } finally {
+                    if (out != text) {
+                        out.close();
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // terms numbered in memory may not have reached the file; read them again next time
+            names.forEach(List::clear);
+            ids.forEach(Map::clear);
+            termsRead = HEADER;
+            throw e;
+        }
+    }
+
+    private void write(FileChannel text, FileChannel issueRows, FileChannel reviewRows, FileChannel terms,
+                       int segment, long time, int review, String commit, int files, List<Issue> issues)
+            throws IOException {
+        ByteArrayOutputStream newTerms = new ByteArrayOutputStream();
+        int commitId = id(COMMIT, commit == null ? "" : commit, newTerms);
+        ByteArrayOutputStream texts = new ByteArrayOutputStream();
+        ByteBuffer rows = ByteBuffer.allocate(issues.size() * ROW);
+        int[] counts = new int[Severity.values().length];
+        long textStart = text.size();
+        for (Issue issue : issues) {
+            counts[issue.severity().ordinal()]++;
+            long offset = textStart + texts.size();
+            if (offset > Integer.MAX_VALUE) {
+                throw new IOException("Review too large for one history segment");
+            }
+            byte[] record = text(issue);
+            new DataOutputStream(texts).writeInt(record.length);
+            texts.write(record);
+            rows.putLong(time)
+                    .putInt(review)
+                    .putInt(commitId)
+                    .putInt(id(FILE, issue.file() == null ? "" : issue.file().trim(), newTerms))
+                    .putInt(id(RULE, issue.ruleId() == null ? "" : issue.ruleId().trim(), newTerms))
+                    .put((byte) issue.severity().ordinal())
+                    .put((byte) 0)
+                    .putShort((short) segment)
+                    .putInt((int) offset);
+        }
+        ByteBuffer summary = ByteBuffer.allocate(ROW)
+                .putLong(time)
+                .putInt(commitId)
+                .putInt(files)
+                .putInt(counts[Severity.BLOCK.ordinal()])
+                .putInt(counts[Severity.WARN.ordinal()])
+                .putInt(counts[Severity.INFO.ordinal()]);
+        // the rows last: a complete row only ever refers to text and terms already written
+        append(text, ByteBuffer.wrap(texts.toByteArray()));
+        append(terms, ByteBuffer.wrap(newTerms.toByteArray()));
+        termsRead = terms.size();
+        append(issueRows, rows.flip());
+        append(reviewRows, summary.position(ROW).flip());
+    }
+
+    private static byte[] text(Issue issue) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeUTF(clip(issue.agent()));
+        out.writeUTF(clip(issue.line()));
+        out.writeUTF(clip(issue.message()));
+        out.writeUTF(clip(issue.confidence()));
+        return bytes.toByteArray();
+    }
+
+    private static String clip(String value) {
+        return value == null ? "" : value.length() > MAX_TEXT ? value.substring(0, MAX_TEXT) : value;
+    }
+
+    /** Id of a term, numbered and added to {@code newTerms} on first sight. */
+    private int id(int kind, String name, ByteArrayOutputStream newTerms) throws IOException {
+        Integer known = ids.get(kind).get(name);
+        if (known != null) {
+            return known;
+        }
+        int id = names.get(kind).size();
+        names.get(kind).add(name);
+        ids.get(kind).put(name, id);
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        DataOutputStream out = new DataOutputStream(newTerms);
+        out.writeByte(kind);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+        return id;
+    }
+
+    /** The issues of {@code query}, newest first, at most {@code limit} of them. */
+    public synchronized List<HistoryEntry> find(HistoryQuery query, int limit) throws IOException {
+        List<long[]> found = new ArrayList<>();
+        List<HistoryEntry> entries = new ArrayList<>();
+        try (FileChannel issueRows = open(dir.resolve("issues.idx"))) {
+            Filter filter = filter(query, issueRows);
+            if (filter == null || limit <= 0) {
+                return entries;
+            }
+            scan(issueRows, filter, true, (rows, at) -> {
+                found.add(new long[] {
+                        rows.getLong(at), rows.getInt(at + 8), rows.getInt(at + 12), rows.getInt(at + 16),
+                        rows.getInt(at + 20), rows.get(at + 24), Short.toUnsignedInt(rows.getShort(at + 26)),
+                        Integer.toUnsignedLong(rows.getInt(at + 28))});
+                return found.size() < limit;
+            });
+        }
+        Map<Integer, FileChannel> segments = new HashMap<>();
+        try {
+            for (long[] row : found) {
+                FileChannel text = segments.get((int) row[6]);
+                if (text == null) {
+                    text = open(segmentFile((int) row[6]));
+                    segments.put((int) row[6], text);
+                }
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(record(text, row[7])));
+                String agent = in.readUTF();
+                String line = in.readUTF();
+                String message = in.readUTF();
+                String confidence = in.readUTF();
+                Issue issue = new Issue(name(RULE, (int) row[4]), Severity.values()[(int) row[5]],
+                        agent.isEmpty() ? null : agent, name(FILE, (int) row[3]), line, message,
+                        confidence.isEmpty() ? null : confidence);
+                entries.add(new HistoryEntry(Instant.ofEpochMilli(row[0]), (int) row[1], name(COMMIT, (int) row[2]), issue));
+            }
+        } finally {
+            for (FileChannel text : segments.values()) {
+                text.close();
+            }
+        }
+        return entries;
+    }
+
+    /** Number of issues {@code query} selects. */
+    public synchronized long count(HistoryQuery query) throws IOException {
+        long[] count = {0};
+        try (FileChannel issueRows = open(dir.resolve("issues.idx"))) {
+            Filter filter = filter(query, issueRows);
+            if (filter != null) {
+                scan(issueRows, filter, false, (rows, at) -> {
+                    count[0]++;
+                    return true;
+                });
+            }
+        }
+        return count[0];
+    }
+
+    /**
+     * Number of issues {@code query} selects per rule, file, severity, commit or UTC day. Days
+     * come in date order, the others most frequent first.
+     */
+    public synchronized Map<String, Long> countBy(HistoryQuery query, Group group) throws IOException {
+        Map<String, Long> result = new LinkedHashMap<>();
+        try (FileChannel issueRows = open(dir.resolve("issues.idx"))) {
+            Filter filter = filter(query, issueRows);
+            if (filter == null) {
+                return result;
+            }
+            if (group == Group.DAY) {
+                // rows are in time order, so each day is one run of rows
+                long[] day = {Long.MIN_VALUE, 0};
+                scan(issueRows, filter, false, (rows, at) -> {
+                    long current = Math.floorDiv(rows.getLong(at), 86_400_000L);
+                    if (current != day[0]) {
+                        if (day[1] > 0) {
+                            result.put(LocalDate.ofEpochDay(day[0]).toString(), day[1]);
+                        }
+                        day[0] = current;
+                        day[1] = 0;
+                    }
+                    day[1]++;
+                    return true;
+                });
+                if (day[1] > 0) {
+                    result.put(LocalDate.ofEpochDay(day[0]).toString(), day[1]);
+                }
+                return result;
+            }
+            int kind = switch (group) {
+                case COMMIT -> COMMIT;
+                case FILE -> FILE;
+                default -> RULE;
+            };
+            int field = group == Group.SEVERITY ? 24 : 12 + 4 * kind;
+            long[] counts = new long[group == Group.SEVERITY ? Severity.values().length : names.get(kind).size()];
+            scan(issueRows, filter, false, (rows, at) -> {
+                int key = group == Group.SEVERITY ? rows.get(at + field) : rows.getInt(at + field);
+                if (key >= 0 && key < counts.length) {
+                    counts[key]++;
+                }
+                return true;
+            });
+            List<Integer> keys = new ArrayList<>();
+            for (int key = 0; key < counts.length; key++) {
+                if (counts[key] > 0) {
+                    keys.add(key);
+                }
+            }
+            keys.sort((a, b) -> Long.compare(counts[b], counts[a]));
+            for (int key : keys) {
+                result.put(group == Group.SEVERITY ? Severity.values()[key].name() : name(kind, key), counts[key]);
+            }
+        }
+        return result;
+    }
+
+    /** The reviews run in {@code [since, until)}, oldest first; {@code null} bounds are open. */
+    public synchronized List<ReviewSummary> reviews(Instant since, Instant until) throws IOException {
+        List<ReviewSummary> reviews = new ArrayList<>();
+        try (FileChannel reviewRows = open(dir.resolve("reviews.idx")); FileChannel terms = open(dir.resolve("terms.dat"))) {
+            if (reviewRows == null) {
+                return reviews;
+            }
+            readTerms(terms, false);
+            long count = rows(reviewRows, false);
+            long from = since == null ? 0 : lowerBound(reviewRows, count, since.toEpochMilli());
+            long to = until == null ? count : lowerBound(reviewRows, count, until.toEpochMilli());
+            ByteBuffer chunk = ByteBuffer.allocate(CHUNK_ROWS * ROW);
+            for (long start = from; start < to; start += CHUNK_ROWS) {
+                int n = (int) Math.min(CHUNK_ROWS, to - start);
+                read(reviewRows, chunk, start, n);
+                for (int i = 0; i < n; i++) {
+                    int at = i * ROW;
+                    reviews.add(new ReviewSummary((int) (start + i), Instant.ofEpochMilli(chunk.getLong(at)),
+                            name(COMMIT, chunk.getInt(at + 8)), chunk.getInt(at + 12),
+                            chunk.getInt(at + 16), chunk.getInt(at + 20), chunk.getInt(at + 24)));
+                }
+            }
+        }
+        return reviews;
+    }
+
+    /** The rows a query looks at and the ids it accepts; {@code null} sets accept any id. */
+    private record Filter(long from, long to, BitSet commits, BitSet files, int rule, int severity) {
+
+        boolean accepts(ByteBuffer rows, int at) {
+            return (rule < 0 || rows.getInt(at + 20) == rule)
+                    && (severity < 0 || rows.get(at + 24) == severity)
+                    && (files == null || files.get(rows.getInt(at + 16)))
+                    && (commits == null || commits.get(rows.getInt(at + 12)));
+        }
+    }
+
+    /** Resolves the query's terms; {@code null} when it cannot select anything. */
+    private Filter filter(HistoryQuery query, FileChannel issueRows) throws IOException {
+        if (issueRows == null) {
+            return null;
+        }
+        long reviewCount;
+        try (FileChannel terms = open(dir.resolve("terms.dat")); FileChannel reviewRows = open(dir.resolve("reviews.idx"))) {
+            readTerms(terms, false);
+            reviewCount = reviewRows == null ? 0 : rows(reviewRows, false);
+        }
+        int rule = -1;
+        if (query.ruleId() != null) {
+            Integer id = ids.get(RULE).get(query.ruleId());
+            if (id == null) {
+                return null;
+            }
+            rule = id;
+        }
+        BitSet commits = query.commit() == null ? null : prefixed(COMMIT, query.commit().trim().toLowerCase());
+        BitSet files = query.pathPrefix() == null ? null : prefixed(FILE, query.pathPrefix());
+        if ((commits != null && commits.isEmpty()) || (files != null && files.isEmpty())) {
+            return null;
+        }
+        long count = committedRows(issueRows, rows(issueRows, false), reviewCount);
+        long from = query.since() == null ? 0 : lowerBound(issueRows, count, query.since().toEpochMilli());
+        long to = query.until() == null ? count : lowerBound(issueRows, count, query.until().toEpochMilli());
+        return new Filter(from, to, commits, files, rule,
+                query.severity() == null ? -1 : query.severity().ordinal());
+    }
+
+    private BitSet prefixed(int kind, String prefix) {
+        BitSet matching = new BitSet();
+        List<String> all = names.get(kind);
+        for (int id = 0; id < all.size(); id++) {
+            if (all.get(id).startsWith(prefix)) {
+                matching.set(id);
+            }
+        }
+        return matching;
+    }
+
+    /** Receives each selected row; returns {@code false} to stop. */
+    private interface RowVisitor {
+        boolean visit(ByteBuffer rows, int at);
+    }
+
+    private static void scan(FileChannel issueRows, Filter filter, boolean newestFirst, RowVisitor visitor)
+            throws IOException {
+        long windows = (filter.to() - filter.from() + WINDOW_ROWS - 1) / WINDOW_ROWS;
+        for (long w = 0; w < windows; w++) {
+            long start = newestFirst ? Math.max(filter.from(), filter.to() - (w + 1) * WINDOW_ROWS)
+                    : filter.from() + w * WINDOW_ROWS;
+            int n = (int) Math.min(WINDOW_ROWS, newestFirst ? filter.to() - w * WINDOW_ROWS - start : filter.to() - start);
+            ByteBuffer chunk = issueRows.map(FileChannel.MapMode.READ_ONLY, HEADER + start * ROW, (long) n * ROW);
+            for (int i = 0; i < n; i++) {
+                int at = (newestFirst ? n - 1 - i : i) * ROW;
+                if (filter.accepts(chunk, at) && !visitor.visit(chunk, at)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /** First row whose time is at least {@code millis}. */
+    private static long lowerBound(FileChannel table, long count, long millis) throws IOException {
+        long low = 0;
+        long high = count;
+        ByteBuffer time = ByteBuffer.allocate(Long.BYTES);
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            time.clear();
+            readFully(table, time, HEADER + mid * ROW);
+            if (time.getLong(0) < millis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /** Reads the terms added since the last call; {@code repair} cuts off a partial last one. */
+    private void readTerms(FileChannel terms, boolean repair) throws IOException {
+        long size = terms == null ? HEADER : terms.size();
+        if (size < termsRead) {
+            // replaced underneath us: start over
+            names.forEach(List::clear);
+            ids.forEach(Map::clear);
+            termsRead = HEADER;
+        }
+        if (terms != null && size > termsRead) {
+            ByteBuffer data = ByteBuffer.allocate((int) (size - termsRead));
+            readFully(terms, data, termsRead);
+            data.flip();
+            while (data.remaining() >= 5) {
+                int start = data.position();
+                int kind = data.get();
+                int length = data.getInt();
+                if (kind < COMMIT || kind > RULE || length < 0) {
+                    throw new IOException("Corrupt review history terms at " + (termsRead + start));
+                }
+                if (data.remaining() < length) {
+                    data.position(start);
+                    break;
+                }
+                byte[] bytes = new byte[length];
+                data.get(bytes);
+                String name = new String(bytes, StandardCharsets.UTF_8);
+                ids.get(kind).put(name, names.get(kind).size());
+                names.get(kind).add(name);
+            }
+            termsRead += data.position();
+        }
+        if (repair && terms != null && termsRead < size) {
+            terms.truncate(termsRead);
+        }
+    }
+
+    private String name(int kind, int id) {
+        List<String> all = names.get(kind);
+        return id >= 0 && id < all.size() ? all.get(id) : "?";
+    }
+
+    /** Complete rows of a table; {@code repair} cuts off a partial last one. */
+    private static long rows(FileChannel table, boolean repair) throws IOException {
+        long size = table.size();
+        long rows = Math.max(0, (size - HEADER) / ROW);
+        if (repair && size > HEADER + rows * ROW) {
+            table.truncate(HEADER + rows * ROW);
+        }
+        return rows;
+    }
+
+    /**
+     * The first {@code issueCount} issue rows without those at the end whose review is not
+     * among the first {@code reviewCount}: left by an append that did not get to write its
+     * review row, or still being written by one.
+     */
+    private static long committedRows(FileChannel issueRows, long issueCount, long reviewCount) throws IOException {
+        long count = issueCount;
+        while (count > 0 && Integer.toUnsignedLong(readRow(issueRows, count - 1).getInt(8)) >= reviewCount) {
+            count--;
+        }
+        return count;
+    }
+
+    private static ByteBuffer readRow(FileChannel table, long row) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(ROW);
+        readFully(table, buffer, HEADER + row * ROW);
+        return buffer;
+    }
+
+    private static void read(FileChannel table, ByteBuffer chunk, long firstRow, int rows) throws IOException {
+        chunk.clear().limit(rows * ROW);
+        readFully(table, chunk, HEADER + firstRow * ROW);
+    }
+
+    private static byte[] record(FileChannel text, long offset) throws IOException {
+        if (text == null) {
+            throw new IOException("Review history segment missing");
+        }
+        ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+        readFully(text, length, offset);
+        ByteBuffer record = ByteBuffer.allocate(length.getInt(0));
+        readFully(text, record, offset + Integer.BYTES);
+        return record.array();
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long at = position;
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, at);
+            if (n < 0) {
+                throw new IOException("Review history file ends early");
+            }
+            at += n;
+        }
+    }
+
+    private static void append(FileChannel channel, ByteBuffer data) throws IOException {
+        long at = channel.size();
+        while (data.hasRemaining()) {
+            at += channel.write(data, at);
+        }
+    }
+
+    /** Opens a file for appending, writing its header if it is new. */
+    private static FileChannel table(Path file, int magic) throws IOException {
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() < HEADER) {
+                channel.truncate(0);
+                channel.write(ByteBuffer.allocate(HEADER).putInt(magic).putInt(VERSION).flip(), 0);
+            } else {
+                checkHeader(channel, file, magic);
+            }
+            return channel;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private FileChannel segment(int number) throws IOException {
+        return table(segmentFile(number), SEGMENT_MAGIC);
+    }
+
+    private Path segmentFile(int number) {
+        return dir.resolve(String.format("%06d.seg", number));
+    }
+
+    /** Opens a file for reading; {@code null} when it does not exist yet. */
+    private static FileChannel open(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        return FileChannel.open(file, StandardOpenOption.READ);
+    }
+
+    private static void checkHeader(FileChannel channel, Path file, int magic) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER);
+        readFully(channel, header, 0);
+        if (header.getInt(0) != magic) {
+            throw new IOException("Not a review history file: " + file);
+        }
+        if (header.getInt(4) != VERSION) {
+            throw new IOException("Unsupported review history version " + header.getInt(4) + ": " + file);
+        }
+    }
+}
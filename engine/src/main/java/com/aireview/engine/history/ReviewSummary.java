@@ -0,0 +1,21 @@
+package com.aireview.engine.history;
+
+import java.time.Instant;
+
+/**
+ * One stored review, with or without issues; the series trend dashboards are drawn from.
+ *
+ * @param review number of the review, counting from 0 in the order they were stored
+ * @param time   when the review ran
+ * @param commit commit the change was staged on, empty on an unborn branch
+ * @param files  staged Java files reviewed
+ * @param block  BLOCK issues; the commit was rejected when there were any
+ * @param warn   WARN issues
+ * @param info   INFO issues
+ */
+public record ReviewSummary(int review, Instant time, String commit, int files, int block, int warn, int info) {
+
+    public boolean blocked() {
+        return block > 0;
+    }
+}
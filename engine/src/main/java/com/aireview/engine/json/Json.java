@@ -0,0 +1,319 @@
+package com.aireview.engine.json;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JSON reader/writer for agent reports and {@code last_review.json}.
+ *
+ * <p>Objects are read as insertion-ordered {@link Map}s, arrays as {@link List}s,
+ * numbers as {@link Long} or {@link Double}. The engine has no third-party JSON
+ * dependency so the hook jar stays small and starts fast.
+ */
+public final class Json {
+
+    private Json() {
+    }
+
+    /**
+     * Parses a complete JSON document.
+     *
+     * @throws JsonException if the text is not valid JSON
+     */
+    public static Object parse(CharSequence text) {
+        Reader reader = new Reader(text);
+        reader.skipWhitespace();
+        Object value = reader.readValue();
+        reader.skipWhitespace();
+        if (!reader.atEnd()) {
+            throw reader.error("Trailing characters after JSON value");
+        }
+        return value;
+    }
+
+    /** Serializes a value produced by {@link #parse} (or built from the same types) with two-space indentation. */
+    public static String write(Object value) {
+        StringBuilder out = new StringBuilder(256);
+        writeValue(out, value, 0);
+        return out.toString();
+    }
+
+    /** Serializes a value on a single line. */
+    public static String writeCompact(Object value) {
+        StringBuilder out = new StringBuilder(256);
+        writeValue(out, value, -1);
+        return out.toString();
+    }
+
+    /** Appends {@code value} as a quoted, escaped JSON string. */
+    public static void quote(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                case '\b' -> out.append("\\b");
+                case '\f' -> out.append("\\f");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    private static void writeValue(StringBuilder out, Object value, int indent) {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof String s) {
+            quote(out, s);
+        } else if (value instanceof Number || value instanceof Boolean) {
+            out.append(value);
+        } else if (value instanceof Map<?, ?> map) {
+            writeObject(out, map, indent);
+        } else if (value instanceof Iterable<?> list) {
+            writeArray(out, list, indent);
+        } else {
+            quote(out, value.toString());
+        }
+    }
+
+    private static void writeObject(StringBuilder out, Map<?, ?> map, int indent) {
+        if (map.isEmpty()) {
+            out.append("{}");
+            return;
+        }
+        out.append('{');
+        boolean first = true;
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (!first) {
+                out.append(',');
+            }
+            first = false;
+            newline(out, indent < 0 ? -1 : indent + 1);
+            quote(out, String.valueOf(entry.getKey()));
+            out.append(indent < 0 ? ":" : ": ");
+            writeValue(out, entry.getValue(), indent < 0 ? -1 : indent + 1);
+        }
+        newline(out, indent);
+        out.append('}');
+    }
+
+    private static void writeArray(StringBuilder out, Iterable<?> list, int indent) {
+        if (!list.iterator().hasNext()) {
+            out.append("[]");
+            return;
+        }
+        out.append('[');
+        boolean first = true;
+        for (Object element : list) {
+            if (!first) {
+                out.append(',');
+            }
+            first = false;
+            newline(out, indent < 0 ? -1 : indent + 1);
+            writeValue(out, element, indent < 0 ? -1 : indent + 1);
+        }
+        newline(out, indent);
+        out.append(']');
+    }
+
+    private static void newline(StringBuilder out, int indent) {
+        if (indent < 0) {
+            return;
+        }
+        out.append('\n');
+        for (int i = 0; i < indent; i++) {
+            out.append("  ");
+        }
+    }
+
+    private static final class Reader {
+        private final CharSequence text;
+        private int pos;
+
+        Reader(CharSequence text) {
+            this.text = text;
+        }
+
+        boolean atEnd() {
+            return pos >= text.length();
+        }
+
+        void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        Object readValue() {
+            if (atEnd()) {
+                throw error("Unexpected end of input");
+            }
+            char c = text.charAt(pos);
+            return switch (c) {
+                case '{' -> readObject();
+                case '[' -> readArray();
+                case '"' -> readString();
+                case 't' -> readLiteral("true", Boolean.TRUE);
+                case 'f' -> readLiteral("false", Boolean.FALSE);
+                case 'n' -> readLiteral("null", null);
+                default -> {
+                    if (c == '-' || (c >= '0' && c <= '9')) {
+                        yield readNumber();
+                    }
+                    throw error("Unexpected character '" + c + "'");
+                }
+            };
+        }
+
+        private Map<String, Object> readObject() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            pos++;
+            skipWhitespace();
+            if (peek() == '}') {
+                pos++;
+                return map;
+            }
+            while (true) {
+                skipWhitespace();
+                if (peek() != '"') {
+                    throw error("Expected object key");
+                }
+                String key = readString();
+                skipWhitespace();
+                expect(':');
+                skipWhitespace();
+                map.put(key, readValue());
+                skipWhitespace();
+                char c = next();
+                if (c == '}') {
+                    return map;
+                }
+                if (c != ',') {
+                    throw error("Expected ',' or '}' in object");
+                }
+            }
+        }
+
+        private List<Object> readArray() {
+            List<Object> list = new ArrayList<>();
+            pos++;
+            skipWhitespace();
+            if (peek() == ']') {
+                pos++;
+                return list;
+            }
+            while (true) {
+                skipWhitespace();
+                list.add(readValue());
+                skipWhitespace();
+                char c = next();
+                if (c == ']') {
+                    return list;
+                }
+                if (c != ',') {
+                    throw error("Expected ',' or ']' in array");
+                }
+            }
+        }
+
+        private String readString() {
+            pos++;
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                char c = next();
+                if (c == '"') {
+                    return sb.toString();
+                }
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                char esc = next();
+                switch (esc) {
+                    case '"', '\\', '/' -> sb.append(esc);
+                    case 'n' -> sb.append('\n');
+                    case 'r' -> sb.append('\r');
+                    case 't' -> sb.append('\t');
+                    case 'b' -> sb.append('\b');
+                    case 'f' -> sb.append('\f');
+                    case 'u' -> {
+                        if (pos + 4 > text.length()) {
+                            throw error("Truncated unicode escape");
+                        }
+                        try {
+                            sb.append((char) Integer.parseInt(text.subSequence(pos, pos + 4).toString(), 16));
+                        } catch (NumberFormatException e) {
+                            throw error("Invalid unicode escape");
+                        }
+                        pos += 4;
+                    }
+                    default -> throw error("Invalid escape '\\" + esc + "'");
+                }
+            }
+        }
+
+        private Number readNumber() {
+            int start = pos;
+            boolean decimal = false;
+            while (pos < text.length()) {
+                char c = text.charAt(pos);
+                if (c == '.' || c == 'e' || c == 'E') {
+                    decimal = true;
+                } else if (!(c == '-' || c == '+' || (c >= '0' && c <= '9'))) {
+                    break;
+                }
+                pos++;
+            }
+            String literal = text.subSequence(start, pos).toString();
+            try {
+                return decimal ? (Number) Double.parseDouble(literal) : (Number) Long.parseLong(literal);
+            } catch (NumberFormatException e) {
+                throw error("Invalid number '" + literal + "'");
+            }
+        }
+
+        private Object readLiteral(String literal, Object value) {
+            if (pos + literal.length() > text.length()
+                    || !literal.contentEquals(text.subSequence(pos, pos + literal.length()))) {
+                throw error("Invalid literal");
+            }
+            pos += literal.length();
+            return value;
+        }
+
+        private char peek() {
+            if (atEnd()) {
+                throw error("Unexpected end of input");
+            }
+            return text.charAt(pos);
+        }
+
+        private char next() {
+            char c = peek();
+            pos++;
+            return c;
+        }
+
+        private void expect(char expected) {
+            if (next() != expected) {
+                throw error("Expected '" + expected + "'");
+            }
+        }
+
+        JsonException error(String message) {
+            return new JsonException(message + " at offset " + pos);
+        }
+    }
+}
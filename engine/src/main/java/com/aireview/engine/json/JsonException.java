@@ -0,0 +1,11 @@
+package com.aireview.engine.json;
+
+/** Thrown when agent or summarizer output cannot be read as JSON. */
+public class JsonException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public JsonException(String message) {
+        super(message);
+    }
+}
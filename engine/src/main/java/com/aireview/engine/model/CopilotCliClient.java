@@ -0,0 +1,256 @@
+package com.aireview.engine.model;
+
+import com.aireview.engine.EngineConfig;
+
+import java.io.IOException;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Calls the GitHub Copilot CLI once per completion, the same way {@code run_agent} did:
+ * {@code copilot -p <prompt> --model <model> --silent --allow-all-tools --no-color},
+ * with stderr merged into stdout.
+ *
+ * <p>On Windows, prompts longer than {@value #MAX_ARG_LENGTH} characters would exceed the
+ * command-line limit, so they are written to a file that Copilot is asked to read, as
+ * {@code Invoke-CopilotWithPrompt} in {@code pre-commit.ps1} did. The file gets a fresh
+ * directory of its own, the only one Copilot is given access to.
+ *
+ * <p>A streamed completion reads the output file every {@value #POLL_MILLIS} ms while
+ * {@code copilot} runs and hands on what has been written since.
+ *
+ * <p>This is the default client ({@code AI_REVIEW_MODEL_CLIENT=copilot}), kept for
+ * compatibility; {@link HttpModelClient} avoids the process start of every call.
+ */
+public final class CopilotCliClient implements ModelClient {
+
+    static final int MAX_ARG_LENGTH = 7000;
+
+    static final long POLL_MILLIS = 100;
+
+    private static final boolean WINDOWS =
+            System.getProperty("os.name", "").toLowerCase(Locale.ROOT).startsWith("windows");
+
+    /** {@code AI_REVIEW_MODEL_CLIENT=copilot} */
+    public static final class Provider implements ModelClientProvider {
+
+        @Override
+        public String name() {
+            return "copilot";
+        }
+
+        @Override
+        public ModelClient create(EngineConfig config) {
+            return new CopilotCliClient(config.copilotExecutable(), config.model());
+        }
+    }
+
+    private final String executable;
+    private final String model;
+
+    public CopilotCliClient(String executable, String model) {
+        this.executable = executable;
+        this.model = model;
+    }
+
+    @Override
+    public String displayName() {
+        return "GitHub Copilot CLI";
+    }
+
+    @Override
+    public List<String> setupHints() {
+        return List.of(
+                "GitHub Copilot CLI is required. Install it:",
+                "  npm install -g @githubnext/github-copilot-cli",
+                "",
+                "After installation, authenticate with: copilot auth");
+    }
+
+    @Override
+    public void checkAvailable() throws ModelException {
+        if (executable.contains(File.separator)) {
+            if (Files.isExecutable(Path.of(executable))) {
+                return;
+            }
+        } else {
+            String path = System.getenv("PATH");
+            for (String dir : path == null ? new String[0] : path.split(File.pathSeparator)) {
+                if (Files.isExecutable(Path.of(dir, executable))) {
+                    return;
+                }
+            }
+        }
+        throw new ModelException("Required command '" + executable + "' not found.", "");
+    }
+
+    @Override
+    public String complete(String agent, String prompt) throws ModelException {
+        return complete(agent, prompt, null);
+    }
+
+    /** @param tokens receives the output as {@code copilot} writes it, or {@code null} */
+    @Override
+    public String complete(String agent, String prompt, Consumer<CharSequence> tokens) throws ModelException {
+        if (WINDOWS && prompt.length() > MAX_ARG_LENGTH) {
+            return completeViaFile(agent, prompt, tokens);
+        }
+        return run(List.of(executable, "-p", prompt, "--model", model, "--silent", "--allow-all-tools", "--no-color"),
+                tokens);
+    }
+
+    /**
+     * Writes the prompt into a directory of its own, so the {@code --add-dir} that lets Copilot
+     * read it exposes nothing else to a model allowed all tools.
+     */
+    private String completeViaFile(String agent, String prompt, Consumer<CharSequence> tokens) throws ModelException {
+        Path promptDir;
+        Path promptFile;
+        try {
+            promptDir = Files.createTempDirectory("ai-review-prompt-");
+            promptFile = promptDir.resolve(agent + "_prompt.txt");
+            Files.writeString(promptFile, prompt, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new ModelException("Failed to write prompt file", e);
+        }
+        try {
+            return run(List.of(executable, "-p", "Read and execute the instructions in the file: " + promptFile,
+                    "--model", model, "--silent", "--allow-all-tools", "--no-color",
+                    "--add-dir", promptDir.toString()), tokens);
+        } finally {
+            try {
+                Files.deleteIfExists(promptFile);
+                Files.deleteIfExists(promptDir);
+            } catch (IOException ignored) {
+                // best effort; the directory lives in the system temp directory
+            }
+        }
+    }
+
+    /**
+     * Runs {@code copilot} with its output redirected to a temporary file, so the wait is
+     * interruptible: an agent that times out or is cancelled is interrupted, and then kills
+     * the process together with anything it started.
+     */
+    private String run(List<String> command, Consumer<CharSequence> tokens) throws ModelException {
+        Path outputFile;
+        try {
+            outputFile = Files.createTempFile("ai-review-", ".out");
+        } catch (IOException e) {
+            throw new ModelException("Failed to create output file for " + executable, e);
+        }
+        ProcessBuilder builder = new ProcessBuilder(command);
+        builder.redirectErrorStream(true);
+        builder.redirectOutput(outputFile.toFile());
+        builder.redirectInput(ProcessBuilder.Redirect.PIPE);
+        Process process = null;
+        try {
+            process = builder.start();
+            process.getOutputStream().close();
+            if (tokens != null) {
+                try (OutputTail tail = new OutputTail(outputFile, tokens)) {
+                    while (!process.waitFor(POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                        tail.read(false);
+                    }
+                    tail.read(true);
+                }
+            }
+            int exit = process.waitFor();
+            String output = Files.readString(outputFile, StandardCharsets.UTF_8).stripTrailing();
+            if (exit != 0) {
+                throw new ModelException(executable + " exited with status " + exit, output);
+            }
+            return output;
+        } catch (IOException e) {
+            if (process == null) {
+                throw new ModelException("Failed to start " + executable, e);
+            }
+            destroy(process);
+            throw new ModelException("Failed to read " + executable + " output", e);
+        } catch (InterruptedException e) {
+            destroy(process);
+            Thread.currentThread().interrupt();
+            throw new ModelException("Interrupted while waiting for " + executable, e);
+        } catch (RuntimeException e) {
+            // thrown by the token consumer
+            destroy(process);
+            throw e;
+        } finally {
+            try {
+                Files.deleteIfExists(outputFile);
+            } catch (IOException ignored) {
+                // best effort; the file lives in the system temp directory
+            }
+        }
+    }
+
+    /** Reads what {@code copilot} appended to its output file since the last read. */
+    private static final class OutputTail implements AutoCloseable {
+
+        private final SeekableByteChannel channel;
+        private final Consumer<CharSequence> tokens;
+        private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private final ByteBuffer bytes = ByteBuffer.allocate(8192);
+        private final CharBuffer chars = CharBuffer.allocate(8192);
+
+        OutputTail(Path file, Consumer<CharSequence> tokens) throws IOException {
+            this.channel = Files.newByteChannel(file);
+            this.tokens = tokens;
+        }
+
+        /**
+         * Hands on the new output; a character split across reads waits for its other bytes.
+         *
+         * @param last {@code true} once the process has exited and the file is complete
+         */
+        void read(boolean last) throws IOException {
+            while (channel.read(bytes) > 0 || bytes.position() > 0) {
+                bytes.flip();
+                decoder.decode(bytes, chars, false);
+                bytes.compact();
+                if (chars.position() == 0) {
+                    break;
+                }
+                drain();
+            }
+            if (last) {
+                bytes.flip();
+                decoder.decode(bytes, chars, true);
+                decoder.flush(chars);
+                drain();
+            }
+        }
+
+        private void drain() {
+            chars.flip();
+            if (chars.hasRemaining()) {
+                tokens.accept(chars.toString());
+            }
+            chars.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /** Kills {@code process} and its descendants ({@code copilot} is a Node.js launcher). */
+    private static void destroy(Process process) {
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+    }
+}
@@ -0,0 +1,361 @@
+package com.aireview.engine.model;
+
+import com.aireview.engine.diff.AddedLine;
+import com.aireview.engine.diff.DiffHunk;
+import com.aireview.engine.diff.DiffParser;
+import com.aireview.engine.json.Json;
+import com.aireview.engine.report.Issue;
+import com.aireview.engine.report.IssueSchema;
+import com.aireview.engine.report.ReportParser.ParsedReport;
+import com.aireview.engine.report.ReportReader;
+import com.aireview.engine.report.Verdict;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * A stand-in for the model behind {@code copilot}, for load and soak tests of the engine
+ * without quota or network. It answers like the real agents on the {@code examples/*.java}
+ * files and can be made slow or unreliable on purpose.
+ *
+ * <p>Answers come from {@code fake-model/responses.json}: canned issues per example file
+ * and agent. The fake parses the diff in the prompt and reports the canned issues that fall
+ * on added lines. Copies of an example with a number appended to the class name, as in the
+ * benchmark diffs, count as the example. Other files get a report without issues. The
+ * summarizer merges the issues of the agent reports in its prompt.
+ *
+ * <p>Each call draws a delay from the {@link LatencyDistribution} and may draw a
+ * {@link Fault} instead of an answer, at the rates given in {@code AI_REVIEW_FAKE_ERRORS}.
+ * With {@code AI_REVIEW_FAKE_SEED} the sequence of delays and faults is repeatable. A
+ * streamed answer is spread evenly over the delay, in pieces of about
+ * {@value #PIECE_LENGTH} characters (a few tokens); the last piece arrives at the delay.
+ */
+public final class FakeModel {
+
+    /** A failure the fake can inject, with the text {@code copilot} prints for it. */
+    public enum Fault {
+        QUOTA("quota", 402, "Error: Request failed with status 402: quota exceeded. "
+                + "You have no quota remaining for this billing period."),
+        RATE_LIMIT("rate_limit", 429, "Error: Request failed with status 429: rate limit exceeded. "
+                + "Please retry after 2 seconds."),
+        CAPI_ERROR("capi", 503, "CAPIError: 503 Service Unavailable"),
+        /** The answer stops halfway, inside the JSON report. */
+        TRUNCATED("truncated", 200, "");
+
+        private final String key;
+        private final int httpStatus;
+        private final String message;
+
+        Fault(String key, int httpStatus, String message) {
+            this.key = key;
+            this.httpStatus = httpStatus;
+            this.message = message;
+        }
+
+        /** Name used in {@code AI_REVIEW_FAKE_ERRORS}. */
+        public String key() {
+            return key;
+        }
+
+        /** Status the {@link FakeModelServer} answers with. */
+        public int httpStatus() {
+            return httpStatus;
+        }
+
+        public String message() {
+            return message;
+        }
+    }
+
+    /**
+     * How the fake behaves.
+     *
+     * @param latency delay of every answer ({@code AI_REVIEW_FAKE_LATENCY})
+     * @param faults  probability of each fault per call ({@code AI_REVIEW_FAKE_ERRORS},
+     *                e.g. {@code quota=0.01,rate_limit=0.05,capi=0.01,truncated=0.02})
+     * @param seed    random seed ({@code AI_REVIEW_FAKE_SEED}), or {@code null} for a random one
+     */
+    public record Settings(LatencyDistribution latency, Map<Fault, Double> faults, Long seed) {
+
+        public static final LatencyDistribution DEFAULT_LATENCY = LatencyDistribution.parse("lognormal:800,6000");
+
+        public static final Settings DEFAULT = new Settings(DEFAULT_LATENCY, Map.of(), null);
+
+        public Settings {
+            faults = Map.copyOf(faults);
+        }
+
+        /** Reads the settings; a malformed value falls back to its default, like the other variables. */
+        public static Settings fromEnvironment(Map<String, String> env) {
+            LatencyDistribution latency = DEFAULT_LATENCY;
+            String spec = env.get("AI_REVIEW_FAKE_LATENCY");
+            if (spec != null && !spec.isBlank()) {
+                try {
+                    latency = LatencyDistribution.parse(spec);
+                } catch (IllegalArgumentException e) {
+                    latency = DEFAULT_LATENCY;
+                }
+            }
+            Long seed = null;
+            String seedText = env.get("AI_REVIEW_FAKE_SEED");
+            if (seedText != null && !seedText.isBlank()) {
+                try {
+                    seed = Long.parseLong(seedText.trim());
+                } catch (NumberFormatException e) {
+                    seed = null;
+                }
+            }
+            return new Settings(latency, faults(env.get("AI_REVIEW_FAKE_ERRORS")), seed);
+        }
+
+        private static Map<Fault, Double> faults(String spec) {
+            Map<Fault, Double> faults = new EnumMap<>(Fault.class);
+            if (spec == null) {
+                return faults;
+            }
+            for (String entry : spec.split(",")) {
+                int equals = entry.indexOf('=');
+                if (equals < 0) {
+                    continue;
+                }
+                String key = entry.substring(0, equals).trim().toLowerCase(Locale.ROOT);
+                for (Fault fault : Fault.values()) {
+                    if (fault.key.equals(key)) {
+                        try {
+                            double rate = Double.parseDouble(entry.substring(equals + 1).trim());
+                            faults.put(fault, Math.min(1, Math.max(0, rate)));
+                        } catch (NumberFormatException e) {
+                            // ignored, like a malformed number in the other variables
+                        }
+                    }
+                }
+            }
+            return faults;
+        }
+    }
+
+    /**
+     * What the fake does with one call.
+     *
+     * @param delayMillis how long to wait before answering
+     * @param fault       injected failure, or {@code null}
+     * @param output      the answer, cut short for {@link Fault#TRUNCATED}, or the error text
+     */
+    public record Reply(long delayMillis, Fault fault, String output) {
+
+        /** {@code true} when the call fails; a truncated answer still arrives. */
+        public boolean failed() {
+            return fault != null && fault != Fault.TRUNCATED;
+        }
+
+        /**
+         * Waits for the delay while handing {@code output} to {@code pieces}, spread evenly
+         * over it; a failed reply only waits.
+         */
+        public void stream(Consumer<String> pieces) throws InterruptedException {
+            long start = System.nanoTime();
+            int count = failed() ? 0 : (output.length() + PIECE_LENGTH - 1) / PIECE_LENGTH;
+            for (int piece = 0; piece < count; piece++) {
+                sleepUntil(start + TimeUnit.MILLISECONDS.toNanos(delayMillis * (piece + 1) / count));
+                int from = piece * PIECE_LENGTH;
+                pieces.accept(output.substring(from, Math.min(output.length(), from + PIECE_LENGTH)));
+            }
+            sleepUntil(start + TimeUnit.MILLISECONDS.toNanos(delayMillis));
+        }
+
+        private static void sleepUntil(long deadline) throws InterruptedException {
+            long wait = deadline - System.nanoTime();
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+        }
+    }
+
+    /** Characters per streamed piece, about four tokens. */
+    static final int PIECE_LENGTH = 16;
+
+    private static final String RESPONSES = "/fake-model/responses.json";
+
+    /** Agents whose issue wins a duplicate in the summarizer's answer, as in the local summarizer. */
+    private static final List<String> AGENT_PREFERENCE = List.of("security", "quality", "naming");
+
+    private final Settings settings;
+    private final Random random;
+    private final Map<String, Map<String, List<Map<String, Object>>>> responses;
+
+    public FakeModel(Settings settings) {
+        this.settings = settings;
+        this.random = settings.seed() != null ? new Random(settings.seed()) : new Random();
+        this.responses = loadResponses();
+    }
+
+    public Settings settings() {
+        return settings;
+    }
+
+    /** Decides the delay and outcome of one call; safe to call from several threads. */
+    public Reply reply(String agent, String prompt) {
+        long delay = settings.latency().sample(random);
+        Fault fault = drawFault();
+        if (fault == null) {
+            return new Reply(delay, null, answer(agent, prompt));
+        }
+        if (fault == Fault.TRUNCATED) {
+            String answer = answer(agent, prompt);
+            return new Reply(delay, fault, answer.substring(0, answer.length() / 2));
+        }
+        return new Reply(delay, fault, fault.message);
+    }
+
+    /** The canned answer of {@code agent}, without delay or faults. */
+    public String answer(String agent, String prompt) {
+        List<Map<String, Object>> issues = "summarizer".equals(agent) ? summarize(prompt) : review(agent, prompt);
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("agent", agent);
+        report.put("review_version", "1.0");
+        report.put("summary", issues.isEmpty() ? "No issues found." : "Found " + issues.size() + " issue(s).");
+        if ("summarizer".equals(agent)) {
+            List<Issue> parsed = new ArrayList<>();
+            for (Map<String, Object> issue : issues) {
+                Issue read = IssueSchema.DEFAULT.read(issue, agent, new ArrayList<>());
+                if (read != null) {
+                    parsed.add(read);
+                }
+            }
+            report.put("recommendation", Verdict.of(parsed).recommendation());
+        }
+        report.put("issues", issues);
+        report.put("metadata", Map.of("agent", agent, "model", "fake"));
+        return "Here is my review of the staged changes.\n\n```json\n" + Json.write(report) + "\n```\n";
+    }
+
+    /**
+     * The agent named by the first line of a prompt ("a security-focused code review"),
+     * for callers that do not say which agent is asking.
+     */
+    public static String agentOf(String prompt) {
+        int newline = prompt.indexOf('\n');
+        String first = (newline < 0 ? prompt : prompt.substring(0, newline)).toLowerCase(Locale.ROOT);
+        if (first.contains("aggregating")) {
+            return "summarizer";
+        }
+        for (String agent : AGENT_PREFERENCE) {
+            if (first.contains(agent)) {
+                return agent;
+            }
+        }
+        return "quality";
+    }
+
+    private Fault drawFault() {
+        if (settings.faults().isEmpty()) {
+            return null;
+        }
+        double draw = random.nextDouble();
+        for (Fault fault : Fault.values()) {
+            draw -= settings.faults().getOrDefault(fault, 0.0);
+            if (draw < 0) {
+                return fault;
+            }
+        }
+        return null;
+    }
+
+    private List<Map<String, Object>> review(String agent, String prompt) {
+        List<Map<String, Object>> issues = new ArrayList<>();
+        Map<String, Set<Integer>> added = new LinkedHashMap<>();
+        for (DiffHunk hunk : DiffParser.parse(prompt)) {
+            for (AddedLine line : hunk.addedLines()) {
+                added.computeIfAbsent(line.path(), path -> new HashSet<>()).add(line.line());
+            }
+        }
+        added.forEach((path, lines) -> {
+            Map<String, List<Map<String, Object>>> byAgent = responses.get(example(path));
+            if (byAgent == null) {
+                return;
+            }
+            for (Map<String, Object> canned : byAgent.getOrDefault(agent, List.of())) {
+                if (lines.contains(Integer.parseInt(canned.get("line").toString()))) {
+                    Map<String, Object> issue = new LinkedHashMap<>(canned);
+                    issue.put("file", path);
+                    issues.add(issue);
+                }
+            }
+        });
+        return issues;
+    }
+
+    /** Merges the issues of every report in the prompt; one issue per file, line and rule. */
+    private static List<Map<String, Object>> summarize(String prompt) {
+        List<Issue> issues = new ArrayList<>();
+        String rest = prompt;
+        while (true) {
+            ReportReader reader = new ReportReader("unknown", IssueSchema.DEFAULT, issue -> { });
+            reader.feed(rest);
+            ParsedReport report = reader.finish();
+            String text = reader.reportText();
+            if (text == null) {
+                break;
+            }
+            Object agent = report.json().get("agent");
+            for (Issue issue : report.issues()) {
+                issues.add(agent == null || "summarizer".equals(agent) ? issue : new Issue(issue.ruleId(),
+                        issue.severity(), agent.toString(), issue.file(), issue.line(), issue.message(),
+                        issue.confidence()));
+            }
+            rest = rest.substring(rest.indexOf(text) + text.length());
+        }
+        issues.sort(Comparator.comparingInt((Issue issue) -> issue.severity().ordinal())
+                .thenComparingInt(issue -> preference(issue.agent())));
+        Set<String> seen = new HashSet<>();
+        List<Map<String, Object>> merged = new ArrayList<>();
+        for (Issue issue : issues) {
+            if (seen.add(issue.location() + " " + issue.ruleId())) {
+                merged.add(issue.toJson());
+            }
+        }
+        return merged;
+    }
+
+    private static int preference(String agent) {
+        int index = AGENT_PREFERENCE.indexOf(agent);
+        return index < 0 ? AGENT_PREFERENCE.size() : index;
+    }
+
+    /** {@code src/gen0/FlawedExample7.java} is a copy of {@code FlawedExample.java}. */
+    private static String example(String path) {
+        String name = path.substring(path.lastIndexOf('/') + 1);
+        return name.replaceFirst("\\d+(\\.java)$", "$1");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Map<String, List<Map<String, Object>>>> loadResponses() {
+        try (InputStream in = FakeModel.class.getResourceAsStream(RESPONSES)) {
+            if (in == null) {
+                return Map.of();
+            }
+            Map<String, Map<String, List<Map<String, Object>>>> responses = new HashMap<>();
+            Map<String, Object> json = (Map<String, Object>) Json.parse(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            json.forEach((file, agents) -> responses.put(file, (Map<String, List<Map<String, Object>>>) agents));
+            return Collections.unmodifiableMap(responses);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + RESPONSES, e);
+        }
+    }
+}
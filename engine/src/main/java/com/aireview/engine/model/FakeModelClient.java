@@ -0,0 +1,59 @@
+package com.aireview.engine.model;
+
+import com.aireview.engine.EngineConfig;
+
+import java.util.function.Consumer;
+
+/**
+ * Answers in-process from a {@link FakeModel} ({@code AI_REVIEW_MODEL_CLIENT=fake}). The
+ * delay is a plain sleep, during which a streamed answer arrives piece by piece, so agent timeouts and cancellation interrupt it as they would a
+ * {@code copilot} process; injected faults fail the call with the text {@code copilot}
+ * prints, so the quota and error handling of the engine sees what it would in production.
+ */
+public final class FakeModelClient implements ModelClient {
+
+    /** {@code AI_REVIEW_MODEL_CLIENT=fake} */
+    public static final class Provider implements ModelClientProvider {
+
+        @Override
+        public String name() {
+            return "fake";
+        }
+
+        @Override
+        public ModelClient create(EngineConfig config) {
+            return new FakeModelClient(new FakeModel(config.fakeModel()));
+        }
+    }
+
+    private final FakeModel model;
+
+    public FakeModelClient(FakeModel model) {
+        this.model = model;
+    }
+
+    @Override
+    public String displayName() {
+        return "Fake model";
+    }
+
+    @Override
+    public String complete(String agent, String prompt) throws ModelException {
+        return complete(agent, prompt, tokens -> { });
+    }
+
+    @Override
+    public String complete(String agent, String prompt, Consumer<CharSequence> tokens) throws ModelException {
+        FakeModel.Reply reply = model.reply(agent, prompt);
+        try {
+            reply.stream(tokens::accept);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ModelException("Interrupted while waiting for the fake model", e);
+        }
+        if (reply.failed()) {
+            throw new ModelException("fake model exited with status 1", reply.output());
+        }
+        return reply.output();
+    }
+}
@@ -0,0 +1,221 @@
+package com.aireview.engine.model;
+
+import com.aireview.engine.json.Json;
+import com.aireview.engine.json.JsonException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves a {@link FakeModel} over HTTP on the loopback interface
+ * ({@code java -jar ai-review-engine.jar fake-model [port]}), so that an HTTP model client,
+ * or several hooks and daemons at once, can be load-tested against it.
+ *
+ * <p>The endpoint is the OpenAI-style {@code POST /v1/chat/completions}; the prompt is the
+ * concatenated {@code content} of the request's {@code messages}. The agent is taken from
+ * the {@code X-AI-Review-Agent} header, or guessed from the prompt. Injected faults answer
+ * with their HTTP status (402, 429 with {@code Retry-After}, 503) and an OpenAI-style error
+ * body; a truncated answer is a 200 with {@code finish_reason} {@code length}. A request
+ * with {@code "stream": true} is answered with server-sent events, one
+ * {@code chat.completion.chunk} per piece of the answer, spread over the delay and ended by
+ * {@code data: [DONE]}. {@code GET /health} answers 200 when the server is up.
+ */
+public final class FakeModelServer implements AutoCloseable {
+
+    public static final int DEFAULT_PORT = 8765;
+
+    private final FakeModel model;
+    private final HttpServer server;
+    private final ExecutorService threads;
+    private final AtomicLong requests = new AtomicLong();
+
+    /**
+     * Binds to {@code port} on the loopback interface; 0 picks a free port. Requests are
+     * answered from a pool of daemon threads, one per request in flight, so slow answers do
+     * not queue behind each other.
+     */
+    public FakeModelServer(FakeModel model, int port) throws IOException {
+        this.model = model;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        this.threads = Executors.newCachedThreadPool(daemonThreads());
+        server.setExecutor(threads);
+        server.createContext("/v1/chat/completions", this::complete);
+        server.createContext("/health", exchange -> send(exchange, 200, Map.of("status", "ok")));
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /** The bound port, useful after binding to port 0. */
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /** Completion requests received so far. */
+    public long requests() {
+        return requests.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        threads.shutdownNow();
+    }
+
+    private void complete(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            send(exchange, 405, error("Use POST", "invalid_request_error"));
+            return;
+        }
+        requests.incrementAndGet();
+        Object request;
+        try (InputStream in = exchange.getRequestBody()) {
+            request = Json.parse(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (JsonException e) {
+            send(exchange, 400, error("Malformed request: " + e.getMessage(), "invalid_request_error"));
+            return;
+        }
+        String prompt = prompt(request);
+        if (prompt == null) {
+            send(exchange, 400, error("Request has no messages", "invalid_request_error"));
+            return;
+        }
+        String agent = exchange.getRequestHeaders().getFirst(HttpModelClient.AGENT_HEADER);
+        FakeModel.Reply reply = model.reply(agent != null ? agent : FakeModel.agentOf(prompt), prompt);
+        if (request instanceof Map<?, ?> map && Boolean.TRUE.equals(map.get("stream")) && !reply.failed()) {
+            stream(exchange, reply);
+            return;
+        }
+        try {
+            Thread.sleep(reply.delayMillis());
+        } catch (InterruptedException e) {
+            exchange.close();
+            return;
+        }
+        if (reply.failed()) {
+            if (reply.fault() == FakeModel.Fault.RATE_LIMIT) {
+                exchange.getResponseHeaders().set("Retry-After", "2");
+            }
+            String type = switch (reply.fault()) {
+                case QUOTA -> "insufficient_quota";
+                case RATE_LIMIT -> "rate_limit_exceeded";
+                default -> "server_error";
+            };
+            send(exchange, reply.fault().httpStatus(), error(reply.output(), type));
+            return;
+        }
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("role", "assistant");
+        message.put("content", reply.output());
+        Map<String, Object> choice = new LinkedHashMap<>();
+        choice.put("index", 0);
+        choice.put("message", message);
+        choice.put("finish_reason", reply.fault() == FakeModel.Fault.TRUNCATED ? "length" : "stop");
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("id", "fake-" + requests.get());
+        body.put("object", "chat.completion");
+        body.put("model", "fake");
+        body.put("choices", List.of(choice));
+        send(exchange, 200, body);
+    }
+
+    /** Answers with server-sent events as the pieces of the reply come due. */
+    private void stream(HttpExchange exchange, FakeModel.Reply reply) throws IOException {
+        String id = "fake-" + requests.get();
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            reply.stream(piece -> {
+                try {
+                    event(out, chunk(id, Map.of("content", piece), null));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            event(out, chunk(id, Map.of(), reply.fault() == FakeModel.Fault.TRUNCATED ? "length" : "stop"));
+            out.write("data: [DONE]\n\n".getBytes(StandardCharsets.UTF_8));
+        } catch (UncheckedIOException e) {
+            // the client hung up, e.g. a cancelled agent
+            exchange.close();
+        } catch (InterruptedException e) {
+            exchange.close();
+        }
+    }
+
+    private static Map<String, Object> chunk(String id, Map<String, Object> delta, String finishReason) {
+        Map<String, Object> choice = new LinkedHashMap<>();
+        choice.put("index", 0);
+        choice.put("delta", delta);
+        choice.put("finish_reason", finishReason);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("id", id);
+        body.put("object", "chat.completion.chunk");
+        body.put("model", "fake");
+        body.put("choices", List.of(choice));
+        return body;
+    }
+
+    private static void event(OutputStream out, Map<String, Object> body) throws IOException {
+        out.write(("data: " + Json.writeCompact(body) + "\n\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    /** The concatenated message contents, or {@code null} if the request has none. */
+    private static String prompt(Object request) {
+        if (!(request instanceof Map<?, ?> map) || !(map.get("messages") instanceof List<?> messages)) {
+            return null;
+        }
+        StringBuilder prompt = new StringBuilder();
+        for (Object message : messages) {
+            if (message instanceof Map<?, ?> entry && entry.get("content") != null) {
+                if (prompt.length() > 0) {
+                    prompt.append("\n\n");
+                }
+                prompt.append(entry.get("content"));
+            }
+        }
+        return prompt.length() > 0 ? prompt.toString() : null;
+    }
+
+    private static Map<String, Object> error(String message, String type) {
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("message", message);
+        error.put("type", type);
+        return Map.of("error", error);
+    }
+
+    private static void send(HttpExchange exchange, int status, Map<String, ?> body) throws IOException {
+        byte[] bytes = Json.writeCompact(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static ThreadFactory daemonThreads() {
+        ThreadFactory defaults = Executors.defaultThreadFactory();
+        return runnable -> {
+            Thread thread = defaults.newThread(runnable);
+            thread.setName("ai-review-fake-model-" + thread.getId());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,163 @@
+package com.aireview.engine.model;
+
+import com.aireview.engine.report.ReportParser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Hedges slow model calls ({@code AI_REVIEW_HEDGE=true}). A call still running at the p95
+ * latency of its agent and model gets a duplicate; the first answer holding a complete JSON
+ * report wins and the other call is cancelled, which kills its {@code copilot} process or
+ * aborts its HTTP exchange. Without hedging, the whole hook waits for the slowest agent.
+ *
+ * <p>Duplicates are paid from a credit kept with the latencies by the {@link LatencyTracker},
+ * so it carries over from one hook to the next: it starts at zero, grows by
+ * {@code AI_REVIEW_HEDGE_BUDGET} per call, up to {@value #MAX_CREDIT} calls, and each
+ * duplicate takes one call from it. Across commits at most that share of extra calls is made,
+ * whatever the latencies do; two hooks running at once may each spend the same saved call.
+ * Until an agent has enough latency samples, its calls are not hedged.
+ *
+ * <p>Only the first call of a streamed completion streams; the duplicate's answer is only
+ * returned, so the caller never sees two answers interleaved. When the duplicate wins, what
+ * was streamed is the start of the other answer.
+ */
+public final class HedgedModelClient implements ModelClient {
+
+    /** Most duplicate calls saved up while nothing was slow. */
+    static final int MAX_CREDIT = 3;
+
+    private static final double PERCENTILE = 0.95;
+
+    private static final ExecutorService CALLS = Executors.newCachedThreadPool(daemonThreads());
+
+    private final ModelClient delegate;
+    private final LatencyTracker tracker;
+    private final String model;
+    private final double budget;
+
+    /**
+     * @param model  model name, part of the latency key
+     * @param budget duplicate calls earned per call
+     */
+    public HedgedModelClient(ModelClient delegate, LatencyTracker tracker, String model, double budget) {
+        this.delegate = delegate;
+        this.tracker = tracker;
+        this.model = model;
+        this.budget = budget;
+    }
+
+    @Override
+    public String complete(String agent, String prompt) throws ModelException {
+        return complete(agent, prompt, null);
+    }
+
+    @Override
+    public String complete(String agent, String prompt, Consumer<CharSequence> tokens) throws ModelException {
+        String key = LatencyTracker.key(agent, model);
+        OptionalLong threshold = tracker.percentile(key, PERCENTILE);
+        tracker.earn(budget, MAX_CREDIT);
+        if (threshold.isEmpty()) {
+            Attempt attempt = attempt(agent, prompt, tokens);
+            if (attempt.valid()) {
+                tracker.record(key, attempt.millis());
+            }
+            return attempt.result();
+        }
+
+        ExecutorCompletionService<Attempt> race = new ExecutorCompletionService<>(CALLS);
+        List<Future<Attempt>> calls = new ArrayList<>();
+        try {
+            calls.add(race.submit(() -> attempt(agent, prompt, tokens)));
+            Future<Attempt> done = race.poll(threshold.getAsLong(), TimeUnit.MILLISECONDS);
+            if (done == null && tracker.spend()) {
+                calls.add(race.submit(() -> attempt(agent, prompt, null)));
+            }
+            Attempt first = null;
+            for (int pending = calls.size(); pending > 0; pending--) {
+                Attempt attempt = outcome(done != null ? done : race.take());
+                done = null;
+                if (attempt.valid()) {
+                    tracker.record(key, attempt.millis());
+                    return attempt.output();
+                }
+                if (first == null) {
+                    first = attempt;
+                }
+            }
+            return first.result();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ModelException("Interrupted while waiting for the model", e);
+        } finally {
+            calls.forEach(call -> call.cancel(true));
+        }
+    }
+
+    @Override
+    public void checkAvailable() throws ModelException {
+        delegate.checkAvailable();
+    }
+
+    @Override
+    public String displayName() {
+        return delegate.displayName();
+    }
+
+    @Override
+    public List<String> setupHints() {
+        return delegate.setupHints();
+    }
+
+    /** One call: its answer or failure, and how long it took. */
+    private record Attempt(String output, ModelException failure, long millis, boolean valid) {
+
+        String result() throws ModelException {
+            if (failure != null) {
+                throw failure;
+            }
+            return output;
+        }
+    }
+
+    /** @param tokens receives the answer as it arrives, or {@code null} */
+    private Attempt attempt(String agent, String prompt, Consumer<CharSequence> tokens) {
+        long start = System.nanoTime();
+        try {
+            String output = tokens != null
+                    ? delegate.complete(agent, prompt, tokens) : delegate.complete(agent, prompt);
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            return new Attempt(output, null, millis, ReportParser.parse(output, agent).parsed());
+        } catch (ModelException e) {
+            return new Attempt(null, e, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), false);
+        }
+    }
+
+    private static Attempt outcome(Future<Attempt> call) throws InterruptedException {
+        try {
+            return call.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            return new Attempt(null, new ModelException("Model call failed: " + cause, cause), 0, false);
+        }
+    }
+
+    private static ThreadFactory daemonThreads() {
+        ThreadFactory defaults = Executors.defaultThreadFactory();
+        return runnable -> {
+            Thread thread = defaults.newThread(runnable);
+            thread.setName("ai-review-hedge-" + thread.getId());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,15 @@
+package com.aireview.engine.model;
+
+/**
+ * When a slow model call gets a duplicate, enforced by the {@link HedgedModelClient}.
+ *
+ * @param enabled whether calls are hedged at all ({@code AI_REVIEW_HEDGE}, default off)
+ * @param budget  duplicate calls allowed per call made ({@code AI_REVIEW_HEDGE_BUDGET}),
+ *                e.g. 0.1 for at most one extra call in ten over time
+ */
+public record Hedging(boolean enabled, double budget) {
+
+    public static final double DEFAULT_BUDGET = 0.1;
+
+    public static final Hedging OFF = new Hedging(false, 0);
+}
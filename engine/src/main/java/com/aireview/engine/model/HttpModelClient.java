@@ -0,0 +1,330 @@
+package com.aireview.engine.model;
+
+import com.aireview.engine.EngineConfig;
+import com.aireview.engine.json.Json;
+import com.aireview.engine.json.JsonException;
+
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+
+/**
+ * Calls an OpenAI-style chat completions endpoint directly ({@code AI_REVIEW_MODEL_CLIENT=http}),
+ * instead of starting a {@code copilot} process per call.
+ *
+ * <p>All agents, and all reviews of a daemon, share one {@link HttpClient}. It negotiates
+ * HTTP/2, so the four calls of a review are multiplexed over one kept-alive TLS connection
+ * per endpoint: after the first review there is no process start and no handshake left
+ * per call. The prompt is the request body, built in memory; no temporary file or
+ * command-line argument is involved.
+ *
+ * <p>An error status fails the call with {@code "Error: HTTP <status>: <message>"} as
+ * output, which the engine's quota detection matches for 402 and 429, and with the
+ * {@code Retry-After} hint for the {@link ScheduledModelClient}.
+ *
+ * <p>A streamed completion asks for {@code "stream": true} and reads the server-sent events
+ * as they arrive, handing each {@code delta.content} on before the answer is complete.
+ */
+public final class HttpModelClient implements ModelClient {
+
+    /** {@code AI_REVIEW_MODEL_CLIENT=http} */
+    public static final class Provider implements ModelClientProvider {
+
+        @Override
+        public String name() {
+            return "http";
+        }
+
+        @Override
+        public ModelClient create(EngineConfig config) {
+            return new HttpModelClient(config.modelUrl(), config.modelToken(), config.model(), config.agentTimeout());
+        }
+    }
+
+    /** Header naming the calling agent; the fake model server uses it to pick its answer. */
+    static final String AGENT_HEADER = "X-AI-Review-Agent";
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+
+    /** Connection pool shared by every client; its worker threads are daemon threads. */
+    private static final HttpClient SHARED = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(CONNECT_TIMEOUT)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+
+    private final String url;
+    private final String token;
+    private final String model;
+    private final Duration timeout;
+
+    /**
+     * @param url     chat completions endpoint
+     * @param token   bearer token, or {@code null} for endpoints that need none
+     * @param model   model id as the endpoint names it
+     * @param timeout deadline of one request
+     */
+    public HttpModelClient(String url, String token, String model, Duration timeout) {
+        this.url = url;
+        this.token = token == null || token.isBlank() ? null : token.trim();
+        this.model = model;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public String displayName() {
+        return "Model endpoint " + url;
+    }
+
+    @Override
+    public List<String> setupHints() {
+        return List.of(
+                "The http model client needs a chat completions endpoint and a token:",
+                "  AI_REVIEW_MODEL_URL   (default " + EngineConfig.DEFAULT_MODEL_URL + ")",
+                "  AI_REVIEW_MODEL_TOKEN (for GitHub Models: gh auth token)");
+    }
+
+    /** Checks the URL and, for endpoints off this machine, that a token is set; no request is sent. */
+    @Override
+    public void checkAvailable() throws ModelException {
+        URI uri = uri();
+        if (token == null && !loopback(uri)) {
+            throw new ModelException("AI_REVIEW_MODEL_TOKEN is not set for " + uri.getHost(), "");
+        }
+    }
+
+    @Override
+    public String complete(String agent, String prompt) throws ModelException {
+        URI uri = uri();
+        HttpResponse<String> response = send(uri, request(uri, agent, prompt, false),
+                HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        checkStatus(uri, response);
+        String content = content(response.body());
+        if (content == null) {
+            throw new ModelException(uri.getHost() + " answered without a completion", response.body());
+        }
+        return content.stripTrailing();
+    }
+
+    @Override
+    public String complete(String agent, String prompt, Consumer<CharSequence> tokens) throws ModelException {
+        URI uri = uri();
+        EventStream events = new EventStream(tokens);
+        // an error status has a plain JSON body; only a success is read as events
+        HttpResponse.BodyHandler<String> handler = info -> info.statusCode() / 100 == 2
+                ? HttpResponse.BodySubscribers.fromLineSubscriber(events, EventStream::raw, StandardCharsets.UTF_8, null)
+                : HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8);
+        HttpResponse<String> response = send(uri, request(uri, agent, prompt, true), handler);
+        checkStatus(uri, response);
+        if (events.count() > 0) {
+            return events.content().stripTrailing();
+        }
+        // an endpoint that ignores "stream" answers with one completion
+        String content = content(response.body());
+        if (content == null) {
+            throw new ModelException(uri.getHost() + " answered without a completion", response.body());
+        }
+        tokens.accept(content);
+        return content.stripTrailing();
+    }
+
+    private HttpRequest request(URI uri, String agent, String prompt, boolean stream) {
+        Map<String, Object> message = new LinkedHashMap<>();
+        message.put("role", "user");
+        message.put("content", prompt);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("model", model);
+        body.put("messages", List.of(message));
+        if (stream) {
+            body.put("stream", true);
+        }
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .header("Accept", stream ? "text/event-stream" : "application/json")
+                .header(AGENT_HEADER, agent)
+                .POST(HttpRequest.BodyPublishers.ofString(Json.writeCompact(body), StandardCharsets.UTF_8));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return request.build();
+    }
+
+    /** Sends {@code request} and waits, interruptibly, until its body has been read. */
+    private <T> HttpResponse<T> send(URI uri, HttpRequest request, HttpResponse.BodyHandler<T> handler)
+            throws ModelException {
+        CompletableFuture<HttpResponse<T>> pending = SHARED.sendAsync(request, handler);
+        try {
+            return pending.get();
+        } catch (InterruptedException e) {
+            // a timed-out or cancelled agent: abort the exchange, the connection stays pooled
+            pending.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ModelException("Interrupted while waiting for " + uri.getHost(), e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof HttpTimeoutException) {
+                throw new ModelException(uri.getHost() + " did not answer within " + timeout.toSeconds() + "s", cause);
+            }
+            throw new ModelException("Failed to reach " + uri.getHost() + ": " + cause.getMessage(), cause);
+        }
+    }
+
+    private static void checkStatus(URI uri, HttpResponse<String> response) throws ModelException {
+        if (response.statusCode() / 100 != 2) {
+            throw new ModelException(uri.getHost() + " answered HTTP " + response.statusCode(),
+                    "Error: HTTP " + response.statusCode() + ": " + errorMessage(response.body()),
+                    retryAfter(response.headers().firstValue("Retry-After").orElse(null)));
+        }
+    }
+
+    /**
+     * Reads a server-sent event stream line by line, on the client's threads. Each
+     * {@code data:} event's {@code choices[0].delta.content} is appended to the answer and
+     * handed on; other lines are only kept, for an endpoint that did not stream.
+     */
+    private static final class EventStream implements Flow.Subscriber<String> {
+
+        private final Consumer<CharSequence> tokens;
+        private final StringBuilder content = new StringBuilder();
+        private final StringBuilder raw = new StringBuilder();
+        private int count;
+
+        EventStream(Consumer<CharSequence> tokens) {
+            this.tokens = tokens;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (!line.startsWith("data:")) {
+                raw.append(line).append('\n');
+                return;
+            }
+            String data = line.substring("data:".length()).trim();
+            if (data.equals("[DONE]")) {
+                return;
+            }
+            try {
+                if (Json.parse(data) instanceof Map<?, ?> json
+                        && json.get("choices") instanceof List<?> choices && !choices.isEmpty()
+                        && choices.get(0) instanceof Map<?, ?> choice) {
+                    count++;
+                    if (choice.get("delta") instanceof Map<?, ?> delta && delta.get("content") != null) {
+                        String piece = delta.get("content").toString();
+                        content.append(piece);
+                        tokens.accept(piece);
+                    }
+                }
+            } catch (JsonException e) {
+                // a malformed event is skipped, like a comment line
+            }
+        }
+
+        @Override
+        public void onError(Throwable failure) {
+            // reported by the response future
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        /** Events read; the body is complete once the response future has completed. */
+        int count() {
+            return count;
+        }
+
+        String content() {
+            return content.toString();
+        }
+
+        String raw() {
+            return raw.toString();
+        }
+    }
+
+    private URI uri() throws ModelException {
+        try {
+            URI uri = new URI(url);
+            if (uri.getHost() == null || !("https".equals(uri.getScheme()) || "http".equals(uri.getScheme()))) {
+                throw new ModelException("AI_REVIEW_MODEL_URL is not an http(s) URL: " + url, "");
+            }
+            return uri;
+        } catch (URISyntaxException e) {
+            throw new ModelException("AI_REVIEW_MODEL_URL is not a valid URL: " + url, e);
+        }
+    }
+
+    /** {@code Retry-After} in seconds; the HTTP-date form is rare for model APIs and ignored. */
+    private static Duration retryAfter(String header) {
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(header.trim())));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean loopback(URI uri) {
+        try {
+            return InetAddress.getByName(uri.getHost()).isLoopbackAddress();
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+
+    /** {@code choices[0].message.content}, or {@code null}. */
+    private static String content(String body) {
+        try {
+            if (Json.parse(body) instanceof Map<?, ?> json
+                    && json.get("choices") instanceof List<?> choices && !choices.isEmpty()
+                    && choices.get(0) instanceof Map<?, ?> choice
+                    && choice.get("message") instanceof Map<?, ?> message
+                    && message.get("content") != null) {
+                return message.get("content").toString();
+            }
+        } catch (JsonException e) {
+            // not JSON: treated like a response without a completion
+        }
+        return null;
+    }
+
+    /** {@code error.message} of an OpenAI-style error body, or the body itself. */
+    private static String errorMessage(String body) {
+        try {
+            if (Json.parse(body) instanceof Map<?, ?> json) {
+                Object error = json.get("error");
+                if (error instanceof Map<?, ?> details && details.get("message") != null) {
+                    return details.get("message").toString();
+                }
+                if (error != null) {
+                    return error.toString();
+                }
+            }
+        } catch (JsonException e) {
+            // plain-text error page
+        }
+        return body.strip();
+    }
+}
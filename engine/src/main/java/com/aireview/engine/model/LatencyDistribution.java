@@ -0,0 +1,104 @@
+package com.aireview.engine.model;
+
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * How long the {@link FakeModel} takes to answer, read from {@code AI_REVIEW_FAKE_LATENCY}:
+ *
+ * <pre>
+ * 800                 always 800 ms
+ * uniform:200-1500    evenly spread between 200 and 1500 ms
+ * normal:800,200      mean 800 ms, standard deviation 200 ms (negative samples are 0)
+ * lognormal:800,6000  median 800 ms, 99th percentile 6000 ms
+ * </pre>
+ *
+ * The log-normal form has the long tail of real model calls, where most answers are quick
+ * and a few take many times longer; it is the one to use for timeout and hedging tests.
+ *
+ * @param kind   shape of the distribution
+ * @param first  fixed value, lower bound, mean or median, in milliseconds
+ * @param second upper bound, standard deviation or 99th percentile; unused for {@link Kind#FIXED}
+ */
+public record LatencyDistribution(Kind kind, double first, double second) {
+
+    public enum Kind { FIXED, UNIFORM, NORMAL, LOGNORMAL }
+
+    /** No delay at all, for throughput runs. */
+    public static final LatencyDistribution NONE = new LatencyDistribution(Kind.FIXED, 0, 0);
+
+    /** z-score of the 99th percentile of the standard normal distribution. */
+    private static final double Z_99 = 2.3263;
+
+    /**
+     * Parses a specification as shown above.
+     *
+     * @throws IllegalArgumentException if {@code spec} is not one of the forms
+     */
+    public static LatencyDistribution parse(String spec) {
+        String value = spec.trim().toLowerCase(Locale.ROOT);
+        int colon = value.indexOf(':');
+        try {
+            if (colon < 0) {
+                return new LatencyDistribution(Kind.FIXED, millis(value), 0);
+            }
+            String[] bounds = value.substring(colon + 1).split("[-,]", 2);
+            if (bounds.length != 2) {
+                throw new IllegalArgumentException("expected two values in '" + spec + "'");
+            }
+            Kind kind = switch (value.substring(0, colon)) {
+                case "uniform" -> Kind.UNIFORM;
+                case "normal" -> Kind.NORMAL;
+                case "lognormal" -> Kind.LOGNORMAL;
+                default -> throw new IllegalArgumentException("unknown latency distribution in '" + spec + "'");
+            };
+            LatencyDistribution parsed = new LatencyDistribution(kind, millis(bounds[0]), millis(bounds[1]));
+            if ((kind == Kind.UNIFORM || kind == Kind.LOGNORMAL) && parsed.second < parsed.first) {
+                throw new IllegalArgumentException("second value must not be below the first in '" + spec + "'");
+            }
+            if (kind == Kind.LOGNORMAL && parsed.first <= 0) {
+                throw new IllegalArgumentException("log-normal median must be positive in '" + spec + "'");
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("not a latency: '" + spec + "'", e);
+        }
+    }
+
+    /** Draws one delay in milliseconds. */
+    public long sample(Random random) {
+        double millis = switch (kind) {
+            case FIXED -> first;
+            case UNIFORM -> first + random.nextDouble() * (second - first);
+            case NORMAL -> first + random.nextGaussian() * second;
+            case LOGNORMAL -> {
+                double mu = Math.log(first);
+                double sigma = (Math.log(second) - mu) / Z_99;
+                yield Math.exp(mu + random.nextGaussian() * sigma);
+            }
+        };
+        return Math.max(0, Math.round(millis));
+    }
+
+    @Override
+    public String toString() {
+        return switch (kind) {
+            case FIXED -> format(first) + "ms";
+            case UNIFORM -> "uniform:" + format(first) + "-" + format(second);
+            case NORMAL -> "normal:" + format(first) + "," + format(second);
+            case LOGNORMAL -> "lognormal:" + format(first) + "," + format(second);
+        };
+    }
+
+    private static double millis(String text) {
+        double value = Double.parseDouble(text.trim());
+        if (value < 0 || Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new NumberFormatException(text);
+        }
+        return value;
+    }
+
+    private static String format(double value) {
+        return value == Math.rint(value) ? Long.toString((long) value) : Double.toString(value);
+    }
+}
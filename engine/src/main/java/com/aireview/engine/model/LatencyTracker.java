@@ -0,0 +1,164 @@
+package com.aireview.engine.model;
+
+import com.aireview.engine.json.Json;
+import com.aireview.engine.json.JsonException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Recent latencies of successful model calls per agent and model, kept in
+ * {@code .ai/engine/latency.json} so that a hook, which lives for one commit, knows the
+ * percentiles measured by the commits before it.
+ *
+ * <p>Each key keeps its last {@value #WINDOW} samples. Percentiles are only given once
+ * there are {@value #MIN_SAMPLES}, so a few early calls cannot set the threshold. Writes are
+ * atomic replacements; of two hooks saving at once, the last one wins, which loses at most
+ * a few samples.
+ *
+ * <p>The file also keeps the hedging credit of {@link HedgedModelClient}, so its budget holds
+ * across hooks rather than starting afresh in every one.
+ */
+public final class LatencyTracker {
+
+    static final int WINDOW = 100;
+    static final int MIN_SAMPLES = 20;
+
+    /** Key of the hedging credit; latency keys always hold an {@code @}. */
+    private static final String CREDIT = "hedge_credit";
+
+    private static final Map<Path, LatencyTracker> SHARED = new ConcurrentHashMap<>();
+
+    private final Path file;
+    private final Map<String, Deque<Long>> samples = new LinkedHashMap<>();
+    private double credit;
+
+    /** The tracker of {@code file}, loaded on first use and shared within the process. */
+    public static LatencyTracker shared(Path file) {
+        return SHARED.computeIfAbsent(file.toAbsolutePath(), LatencyTracker::new);
+    }
+
+    private LatencyTracker(Path file) {
+        this.file = file;
+        load();
+    }
+
+    /** {@code agent@model}, the key latencies are tracked under. */
+    public static String key(String agent, String model) {
+        return agent + "@" + model;
+    }
+
+    /** The {@code fraction} percentile (0.95 for p95) in milliseconds, if there are enough samples. */
+    public synchronized OptionalLong percentile(String key, double fraction) {
+        Deque<Long> recent = samples.get(key);
+        if (recent == null || recent.size() < MIN_SAMPLES) {
+            return OptionalLong.empty();
+        }
+        long[] sorted = recent.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return OptionalLong.of(sorted[Math.max(0, Math.min(sorted.length - 1, index))]);
+    }
+
+    /** Adds a sample and saves the file. */
+    public void record(String key, long millis) {
+        String text;
+        synchronized (this) {
+            Deque<Long> recent = samples.computeIfAbsent(key, k -> new ArrayDeque<>());
+            recent.addLast(millis);
+            while (recent.size() > WINDOW) {
+                recent.removeFirst();
+            }
+            text = json();
+        }
+        save(text);
+    }
+
+    /** Adds {@code amount} to the hedging credit, up to {@code max} calls, and saves the file. */
+    public void earn(double amount, double max) {
+        String text;
+        synchronized (this) {
+            credit = Math.min(max, credit + amount);
+            text = json();
+        }
+        save(text);
+    }
+
+    /** Takes one call from the hedging credit, if it holds one, and saves the file. */
+    public boolean spend() {
+        String text;
+        synchronized (this) {
+            if (credit < 1) {
+                return false;
+            }
+            credit -= 1;
+            text = json();
+        }
+        save(text);
+        return true;
+    }
+
+    private String json() {
+        Map<String, Object> json = new LinkedHashMap<>();
+        samples.forEach((name, values) -> json.put(name, List.copyOf(values)));
+        json.put(CREDIT, credit);
+        return Json.writeCompact(json);
+    }
+
+    private void load() {
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        try {
+            if (Json.parse(Files.readString(file, StandardCharsets.UTF_8)) instanceof Map<?, ?> json) {
+                json.forEach((key, values) -> {
+                    if (CREDIT.equals(key) && values instanceof Number number) {
+                        credit = Math.max(0, number.doubleValue());
+                    } else if (values instanceof List<?> list) {
+                        Deque<Long> recent = new ArrayDeque<>();
+                        for (Object value : list) {
+                            if (value instanceof Number number) {
+                                recent.addLast(number.longValue());
+                            }
+                        }
+                        samples.put(key.toString(), recent);
+                    }
+                });
+            }
+        } catch (IOException | JsonException e) {
+            // unreadable statistics are rebuilt from the next calls
+        }
+    }
+
+    private synchronized void save(String text) {
+        Path temp = null;
+        try {
+            Files.createDirectories(file.getParent());
+            temp = Files.createTempFile(file.getParent(), "latency", ".tmp");
+            Files.writeString(temp, text + "\n", StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            temp = null;
+        } catch (IOException e) {
+            // statistics are an optimisation; a read-only checkout just never hedges
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException ignored) {
+                    // best effort
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.aireview.engine.model;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Sends a fully rendered prompt to a model and returns its raw text answer.
+ *
+ * <p>Implementations must be safe to call from several agent threads at once. They are
+ * created through a {@link ModelClientProvider}.
+ */
+public interface ModelClient {
+
+    /**
+     * Runs one completion.
+     *
+     * @param agent  agent issuing the call, for logging and routing
+     * @param prompt complete prompt text
+     * @return raw model output, possibly wrapped in prose or markdown
+     * @throws ModelException if the model could not be reached or returned an error
+     */
+    String complete(String agent, String prompt) throws ModelException;
+
+    /**
+     * Runs one completion and hands the answer to {@code tokens} piece by piece as it
+     * arrives, so the caller can read issues before the model has finished. Clients that
+     * cannot stream hand over the whole answer once it is complete.
+     *
+     * @param tokens receives consecutive pieces of the answer, possibly from another thread;
+     *               an answer that fails, or loses to a {@link HedgedModelClient hedged}
+     *               duplicate, may have been handed over in part
+     * @return the whole answer, as {@link #complete(String, String)} returns it
+     * @throws ModelException if the model could not be reached or returned an error
+     */
+    default String complete(String agent, String prompt, Consumer<CharSequence> tokens) throws ModelException {
+        String output = complete(agent, prompt);
+        tokens.accept(output);
+        return output;
+    }
+
+    /**
+     * Verifies the client can be used before any diff is sent, so the hook can print
+     * installation hints instead of failing per agent.
+     *
+     * @throws ModelException describing what is missing
+     */
+    default void checkAvailable() throws ModelException {
+    }
+
+    /** What the client talks to, as shown while checking dependencies. */
+    default String displayName() {
+        return "AI model";
+    }
+
+    /** Lines printed after {@link #checkAvailable()} failed, telling the user how to fix it. */
+    default List<String> setupHints() {
+        return List.of();
+    }
+}
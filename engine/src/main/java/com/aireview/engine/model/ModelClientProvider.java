@@ -0,0 +1,18 @@
+package com.aireview.engine.model;
+
+import com.aireview.engine.EngineConfig;
+
+/**
+ * Service-provider interface for model clients, looked up with {@link java.util.ServiceLoader}
+ * by the name in {@code AI_REVIEW_MODEL_CLIENT}. The engine registers {@code copilot},
+ * {@code http} and {@code fake} in {@code META-INF/services}; a jar on the class path can
+ * register more.
+ */
+public interface ModelClientProvider {
+
+    /** Value of {@code AI_REVIEW_MODEL_CLIENT} that selects this provider. */
+    String name();
+
+    /** Creates a client; called once per review. */
+    ModelClient create(EngineConfig config);
+}
@@ -0,0 +1,53 @@
+package com.aireview.engine.model;
+
+import com.aireview.engine.EngineConfig;
+
+import java.util.List;
+import java.util.ServiceLoader;
+
+/** Creates the model client for a configuration, from the provider named by {@code AI_REVIEW_MODEL_CLIENT}. */
+public final class ModelClients {
+
+    private static final List<ModelClientProvider> PROVIDERS = ServiceLoader
+            .load(ModelClientProvider.class, ModelClients.class.getClassLoader())
+            .stream()
+            .map(ServiceLoader.Provider::get)
+            .toList();
+
+    private ModelClients() {
+    }
+
+    /**
+     * Creates the configured client, behind the shared {@link ModelScheduler} of its model
+     * and, when enabled, the {@link HedgedModelClient}.
+     * An unknown name yields a client whose
+     * {@link ModelClient#checkAvailable()} fails, so the hook reports it like a missing
+     * {@code copilot}.
+     */
+    public static ModelClient create(EngineConfig config) {
+        for (ModelClientProvider provider : PROVIDERS) {
+            if (provider.name().equals(config.modelClient())) {
+                ModelClient client = new ScheduledModelClient(provider.create(config),
+                        ModelScheduler.shared(config.model(), config.rateLimits()), config.rateLimits().retries());
+                if (config.hedging().enabled()) {
+                    client = new HedgedModelClient(client, LatencyTracker.shared(config.latencyFile()),
+                            config.model(), config.hedging().budget());
+                }
+                return client;
+            }
+        }
+        String message = "Unknown model client '" + config.modelClient() + "' (AI_REVIEW_MODEL_CLIENT); available: "
+                + String.join(", ", PROVIDERS.stream().map(ModelClientProvider::name).toList());
+        return new ModelClient() {
+            @Override
+            public String complete(String agent, String prompt) throws ModelException {
+                throw new ModelException(message, "");
+            }
+
+            @Override
+            public void checkAvailable() throws ModelException {
+                throw new ModelException(message, "");
+            }
+        };
+    }
+}
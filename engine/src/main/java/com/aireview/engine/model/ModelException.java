@@ -0,0 +1,38 @@
+package com.aireview.engine.model;
+
+import java.time.Duration;
+
+/** Raised when a model call fails. {@link #output()} holds whatever the model printed before failing. */
+public class ModelException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String output;
+    private final Duration retryAfter;
+
+    public ModelException(String message, String output) {
+        this(message, output, null);
+    }
+
+    /** @param retryAfter how long the server asked callers to wait, or {@code null} */
+    public ModelException(String message, String output, Duration retryAfter) {
+        super(message);
+        this.output = output == null ? "" : output;
+        this.retryAfter = retryAfter;
+    }
+
+    public ModelException(String message, Throwable cause) {
+        super(message, cause);
+        this.output = "";
+        this.retryAfter = null;
+    }
+
+    public String output() {
+        return output;
+    }
+
+    /** The server's retry hint ({@code Retry-After}), or {@code null} if it gave none. */
+    public Duration retryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,273 @@
+package com.aireview.engine.model;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admits model calls within the budget of one model. It replaces the after-the-fact
+ * {@code grep 'quota exceeded|402|rate limit|CAPIError'} of the hooks, which could only
+ * abort the commit once the limit had been hit.
+ *
+ * <ul>
+ *   <li><b>Token buckets</b>: one for requests and one for prompt tokens per minute
+ *       ({@link RateLimits}). Each holds ten seconds of budget, so a burst of agents starts
+ *       at once but a steady stream is spread out.</li>
+ *   <li><b>Priority</b>: waiting calls are admitted security first, then the summarizer
+ *       (the last call of a review), then quality, then naming; in arrival order within an
+ *       agent.</li>
+ *   <li><b>Adaptive rate</b>: a rate-limit answer pauses every caller until the server's
+ *       retry hint (or the backoff) has passed, and halves the refill rate. Each successful
+ *       call wins back a little of it.</li>
+ *   <li><b>Concurrency window</b>: at most {@link #window()} calls are in flight. The window
+ *       starts at {@link RateLimits#concurrency()} and is measured by probing, as TCP does:
+ *       a rate-limit or overload answer (429, 5xx) halves it, and every successful call
+ *       widens it by {@code 1/window}, so it regains one call per window of successes. The
+ *       engine sizes its agent pool to it.</li>
+ * </ul>
+ *
+ * Schedulers are shared per model across the process, so a review daemon serving many
+ * hooks keeps them all within one budget.
+ */
+public final class ModelScheduler {
+
+    /** Agents in admission order; others come last. */
+    private static final List<String> PRIORITY = List.of("security", "summarizer", "quality", "naming");
+
+    /** Seconds of budget a bucket holds. */
+    private static final int BURST_SECONDS = 10;
+
+    /** Lowest share of the configured rate after repeated rate-limit answers. */
+    private static final double MIN_SCALE = 0.1;
+
+    /** Share of the configured rate won back by each successful call. */
+    private static final double RECOVERY = 0.05;
+
+    private static final Map<String, ModelScheduler> SHARED = new ConcurrentHashMap<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final PriorityQueue<Waiter> waiting = new PriorityQueue<>();
+    private long arrivals;
+    private RateLimits limits = RateLimits.NONE;
+    private Bucket requests;
+    private Bucket tokens;
+    private double scale = 1;
+    private long pausedUntil = System.nanoTime();
+    private double window;
+    private int inFlight;
+
+    /** The scheduler of {@code model}, created on first use; {@code limits} replace the previous ones. */
+    public static ModelScheduler shared(String model, RateLimits limits) {
+        ModelScheduler scheduler = SHARED.computeIfAbsent(model, name -> new ModelScheduler());
+        scheduler.configure(limits);
+        return scheduler;
+    }
+
+    ModelScheduler() {
+    }
+
+    void configure(RateLimits update) {
+        lock.lock();
+        try {
+            if (update.requestsPerMinute() != limits.requestsPerMinute()) {
+                requests = Bucket.perMinute(update.requestsPerMinute());
+            }
+            if (update.tokensPerMinute() != limits.tokensPerMinute()) {
+                tokens = Bucket.perMinute(update.tokensPerMinute());
+            }
+            if (update.concurrency() != limits.concurrency()) {
+                window = update.concurrency();
+            }
+            limits = update;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until a call of {@code agent} with a prompt of {@code promptTokens} may be sent,
+     * and takes its share of the budget and a place in the window. The place must be given
+     * back with {@link #release()} once the call has ended.
+     */
+    public void acquire(String agent, int promptTokens) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            Waiter waiter = new Waiter(priority(agent), arrivals++);
+            waiting.add(waiter);
+            try {
+                while (true) {
+                    if (waiting.peek() != waiter || inFlight >= window()) {
+                        changed.await();
+                        continue;
+                    }
+                    long now = System.nanoTime();
+                    long wait = Math.max(pausedUntil - now, 0);
+                    if (wait == 0) {
+                        wait = Math.max(nanosUntil(requests, 1, now), nanosUntil(tokens, promptTokens, now));
+                    }
+                    if (wait <= 0) {
+                        take(requests, 1);
+                        take(tokens, promptTokens);
+                        inFlight++;
+                        waiting.poll();
+                        changed.signalAll();
+                        return;
+                    }
+                    changed.awaitNanos(wait);
+                }
+            } catch (InterruptedException e) {
+                waiting.remove(waiter);
+                changed.signalAll();
+                throw e;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** A call admitted by {@link #acquire} has ended, however it went. */
+    public void release() {
+        lock.lock();
+        try {
+            inFlight = Math.max(0, inFlight - 1);
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A call went through: recover part of the rate lost to earlier rate-limit answers, and
+     * widen the window.
+     */
+    public void succeeded() {
+        lock.lock();
+        try {
+            scale = Math.min(1, scale + RECOVERY);
+            if (limits.concurrency() > 0) {
+                window = Math.min(limits.concurrency(), window + 1 / window);
+            }
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The model answered with a rate limit: nobody is admitted for {@code pause}, and the
+     * rate and the window halve.
+     */
+    public void throttle(Duration pause) {
+        lock.lock();
+        try {
+            long until = System.nanoTime() + pause.toNanos();
+            if (until - pausedUntil > 0) {
+                pausedUntil = until;
+            }
+            scale = Math.max(MIN_SCALE, scale / 2);
+            window = Math.max(1, window / 2);
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** The model answered with a transient server error: the window halves. */
+    public void overloaded() {
+        lock.lock();
+        try {
+            window = Math.max(1, window / 2);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Calls currently allowed in flight; {@link Integer#MAX_VALUE} without a concurrency limit. */
+    public int window() {
+        lock.lock();
+        try {
+            return limits.concurrency() > 0 ? Math.max(1, (int) window) : Integer.MAX_VALUE;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Share of the configured rate currently allowed, between 0.1 and 1. */
+    public double scale() {
+        lock.lock();
+        try {
+            return scale;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    static int priority(String agent) {
+        int index = PRIORITY.indexOf(agent);
+        return index < 0 ? PRIORITY.size() : index;
+    }
+
+    private long nanosUntil(Bucket bucket, double amount, long now) {
+        if (bucket == null) {
+            return 0;
+        }
+        bucket.refill(now, scale);
+        return bucket.nanosUntil(amount, scale);
+    }
+
+    private static void take(Bucket bucket, double amount) {
+        if (bucket != null) {
+            bucket.level -= amount;
+        }
+    }
+
+    private record Waiter(int priority, long arrival) implements Comparable<Waiter> {
+        @Override
+        public int compareTo(Waiter other) {
+            return priority != other.priority
+                    ? Integer.compare(priority, other.priority) : Long.compare(arrival, other.arrival);
+        }
+    }
+
+    /** Budget refilled continuously; a call larger than the whole bucket waits for a full one. */
+    private static final class Bucket {
+
+        private final double capacity;
+        private final double perNano;
+        private double level;
+        private long updated;
+
+        private Bucket(double capacity, double perNano) {
+            this.capacity = capacity;
+            this.perNano = perNano;
+            this.level = capacity;
+            this.updated = System.nanoTime();
+        }
+
+        /** A bucket for {@code perMinute} units a minute, or {@code null} for no limit. */
+        static Bucket perMinute(int perMinute) {
+            if (perMinute <= 0) {
+                return null;
+            }
+            double capacity = Math.max(1, Math.ceil(perMinute * BURST_SECONDS / 60.0));
+            return new Bucket(capacity, perMinute / (double) TimeUnit.MINUTES.toNanos(1));
+        }
+
+        void refill(long now, double scale) {
+            level = Math.min(capacity, level + (now - updated) * perNano * scale);
+            updated = now;
+        }
+
+        long nanosUntil(double amount, double scale) {
+            double missing = Math.min(amount, capacity) - level;
+            return missing <= 0 ? 0 : (long) Math.ceil(missing / (perNano * scale));
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.aireview.engine.model;
+
+/**
+ * Request budget of one model, enforced by the {@link ModelScheduler}.
+ *
+ * @param requestsPerMinute calls per minute ({@code AI_REVIEW_RPM}); 0 for no limit
+ * @param tokensPerMinute   prompt tokens per minute, estimated at four characters a token
+ *                          ({@code AI_REVIEW_TPM}); 0 for no limit
+ * @param concurrency       most calls in flight at once ({@code AI_REVIEW_MAX_PARALLEL}); the
+ *                          scheduler narrows this window while the model is overloaded; 0 for no limit
+ * @param retries           retries of a rate-limited or transiently failed call ({@code AI_REVIEW_RETRIES})
+ */
+public record RateLimits(int requestsPerMinute, int tokensPerMinute, int concurrency, int retries) {
+
+    public static final int DEFAULT_RETRIES = 3;
+
+    /** No budget and no retries: every call goes straight to the client. */
+    public static final RateLimits NONE = new RateLimits(0, 0, 0, 0);
+}
@@ -0,0 +1,149 @@
+package com.aireview.engine.model;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Sends every call of a client through its model's {@link ModelScheduler}, and retries the
+ * failures that waiting can fix:
+ *
+ * <ul>
+ *   <li>a rate limit (HTTP 429, {@code "rate limit"}) pauses all callers of the model for
+ *       the server's hint ({@code Retry-After}, {@code "retry after N seconds"}), or for the
+ *       backoff when there is no hint;</li>
+ *   <li>a transient server error ({@code CAPIError}, HTTP 5xx) is retried after the backoff.</li>
+ * </ul>
+ *
+ * The backoff doubles with every attempt and is half random, so hooks that failed together
+ * do not retry together. Quota exhaustion (402) and other failures are not retried. An
+ * interrupt (agent timeout or cancellation) ends the call at once, waiting or not.
+ *
+ * <p>A streamed call is retried as a whole; the pieces of a failed attempt have already
+ * been handed over, but a failure usually arrives before any answer does.
+ */
+public final class ScheduledModelClient implements ModelClient {
+
+    private static final Duration BASE_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+
+    private static final Pattern RATE_LIMITED = Pattern.compile(
+            "\\b429\\b|rate limit|too many requests", Pattern.CASE_INSENSITIVE);
+    private static final Pattern TRANSIENT = Pattern.compile(
+            "CAPIError|HTTP 5\\d\\d|\\b50[234]\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern RETRY_AFTER = Pattern.compile(
+            "retry after (\\d+) ?s", Pattern.CASE_INSENSITIVE);
+
+    private final ModelClient delegate;
+    private final ModelScheduler scheduler;
+    private final int retries;
+
+    public ScheduledModelClient(ModelClient delegate, ModelScheduler scheduler, int retries) {
+        this.delegate = delegate;
+        this.scheduler = scheduler;
+        this.retries = retries;
+    }
+
+    @Override
+    public String complete(String agent, String prompt) throws ModelException {
+        return schedule(agent, prompt, () -> delegate.complete(agent, prompt));
+    }
+
+    @Override
+    public String complete(String agent, String prompt, Consumer<CharSequence> tokens) throws ModelException {
+        return schedule(agent, prompt, () -> delegate.complete(agent, prompt, tokens));
+    }
+
+    /** One call to the delegate. */
+    private interface Call {
+        String run() throws ModelException;
+    }
+
+    private String schedule(String agent, String prompt, Call call) throws ModelException {
+        int promptTokens = prompt.length() / 4;
+        for (int attempt = 0; ; attempt++) {
+            try {
+                scheduler.acquire(agent, promptTokens);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ModelException("Interrupted while waiting for the model's rate limit", e);
+            }
+            Duration wait;
+            ModelException failure;
+            try {
+                String output = call.run();
+                scheduler.succeeded();
+                return output;
+            } catch (ModelException e) {
+                String text = e.getMessage() + "\n" + e.output();
+                Duration backoff = backoff(attempt);
+                boolean rateLimited = RATE_LIMITED.matcher(text).find();
+                boolean overloaded = !rateLimited && TRANSIENT.matcher(text).find();
+                // the last attempt still tells the other callers that the model is struggling
+                if (rateLimited) {
+                    Duration hint = hint(e, text);
+                    scheduler.throttle(hint != null ? hint : backoff);
+                } else if (overloaded) {
+                    scheduler.overloaded();
+                }
+                if (!(rateLimited || overloaded) || attempt >= retries || Thread.currentThread().isInterrupted()) {
+                    throw e;
+                }
+                if (rateLimited) {
+                    continue;
+                }
+                wait = e.retryAfter() != null ? e.retryAfter() : backoff;
+                failure = e;
+            } finally {
+                scheduler.release();
+            }
+            // the backoff is slept outside the window, so other calls can use the place
+            sleep(wait, failure);
+        }
+    }
+
+    @Override
+    public void checkAvailable() throws ModelException {
+        delegate.checkAvailable();
+    }
+
+    @Override
+    public String displayName() {
+        return delegate.displayName();
+    }
+
+    @Override
+    public List<String> setupHints() {
+        return delegate.setupHints();
+    }
+
+    /** Between half and all of {@code 1s * 2^attempt}, capped at 30s. */
+    static Duration backoff(int attempt) {
+        long ceiling = Math.min(MAX_BACKOFF.toMillis(), BASE_BACKOFF.toMillis() << Math.min(attempt, 20));
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1));
+    }
+
+    private static Duration hint(ModelException e, String text) {
+        if (e.retryAfter() != null) {
+            return min(e.retryAfter(), MAX_BACKOFF);
+        }
+        Matcher matcher = RETRY_AFTER.matcher(text);
+        return matcher.find() ? min(Duration.ofSeconds(Long.parseLong(matcher.group(1))), MAX_BACKOFF) : null;
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    private static void sleep(Duration delay, ModelException failure) throws ModelException {
+        try {
+            Thread.sleep(delay.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw failure;
+        }
+    }
+}
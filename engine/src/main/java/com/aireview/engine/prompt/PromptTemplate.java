@@ -0,0 +1,96 @@
+package com.aireview.engine.prompt;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * An agent {@code prompt.txt} split once into literal text and placeholders.
+ *
+ * <p>Substitution follows the {@code awk} script the hook used: a line containing
+ * {@code {name}} is replaced as a whole by the value of {@code name}. Rendering is a
+ * single pass that appends each part into one pre-sized buffer.
+ */
+public final class PromptTemplate {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{([a-z_]+)\\}");
+
+    private final List<String> literals;
+    private final List<String> placeholders;
+    private final int literalLength;
+
+    private PromptTemplate(List<String> literals, List<String> placeholders) {
+        this.literals = literals;
+        this.placeholders = placeholders;
+        this.literalLength = literals.stream().mapToInt(String::length).sum();
+    }
+
+    public static PromptTemplate load(Path file) throws IOException {
+        return compile(Files.readString(file, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Compiles template text. Only the placeholder names the hooks substituted are recognised;
+     * other braces (the JSON examples in every prompt) stay literal.
+     */
+    public static PromptTemplate compile(String text) {
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        String[] lines = text.split("\n", -1);
+        int count = text.endsWith("\n") ? lines.length - 1 : lines.length;
+        for (int i = 0; i < count; i++) {
+            String line = lines[i];
+            Matcher matcher = PLACEHOLDER.matcher(line);
+            if (matcher.find() && isPlaceholderName(matcher.group(1))) {
+                literals.add(literal.toString());
+                placeholders.add(matcher.group(1));
+                literal.setLength(0);
+                literal.append('\n');
+            } else {
+                literal.append(line).append('\n');
+            }
+        }
+        literals.add(literal.toString());
+        return new PromptTemplate(List.copyOf(literals), List.copyOf(placeholders));
+    }
+
+    private static boolean isPlaceholderName(String name) {
+        return switch (name) {
+            case "checklist", "diff", "security_report", "naming_report", "quality_report" -> true;
+            default -> false;
+        };
+    }
+
+    /** Placeholder names in template order. */
+    public List<String> placeholders() {
+        return placeholders;
+    }
+
+    /**
+     * Renders the prompt. Missing values render as empty text.
+     */
+    public String render(Map<String, String> values) {
+        int capacity = literalLength;
+        for (String name : placeholders) {
+            String value = values.get(name);
+            capacity += value == null ? 0 : value.length();
+        }
+        StringBuilder out = new StringBuilder(capacity);
+        for (int i = 0; i < placeholders.size(); i++) {
+            out.append(literals.get(i));
+            String value = values.get(placeholders.get(i));
+            if (value != null) {
+                out.append(value);
+            }
+        }
+        out.append(literals.get(literals.size() - 1));
+        return out.toString();
+    }
+}
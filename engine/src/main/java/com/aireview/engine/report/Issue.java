@@ -0,0 +1,47 @@
+package com.aireview.engine.report;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One finding in the issue schema shared by every agent prompt.
+ *
+ * @param ruleId     checklist rule id, e.g. {@code hardcoded-secret}
+ * @param severity   BLOCK, WARN or INFO
+ * @param agent      agent that reported the issue ({@code security}, {@code naming}, {@code quality})
+ * @param file       path as shown in the diff
+ * @param line       line number as reported; kept as text because models sometimes answer ranges
+ * @param message    actionable explanation
+ * @param confidence HIGH, MEDIUM or LOW
+ */
+public record Issue(
+        String ruleId,
+        Severity severity,
+        String agent,
+        String file,
+        String line,
+        String message,
+        String confidence) {
+
+    /** {@code file:line} as printed by the hooks. */
+    public String location() {
+        return file + ":" + line;
+    }
+
+    /** Builds the JSON object written to {@code last_review.json}. */
+    public Map<String, Object> toJson() {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("rule_id", ruleId);
+        json.put("severity", severity.name());
+        if (agent != null) {
+            json.put("agent", agent);
+        }
+        json.put("file", file);
+        json.put("line", line);
+        json.put("message", message);
+        if (confidence != null) {
+            json.put("confidence", confidence);
+        }
+        return json;
+    }
+}
@@ -0,0 +1,120 @@
+package com.aireview.engine.report;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The issue object an agent is asked to produce, as given under {@code OUTPUT FORMAT} in its
+ * {@code prompt.txt}: the field names of the example issue and the values it allows for
+ * {@code severity} ({@code "BLOCK|WARN"}) and {@code confidence}.
+ *
+ * <p>Validation is lenient where the commit decision allows it. An issue without a known
+ * severity cannot be decided on and is dropped; a missing field or a value outside the
+ * prompt's list keeps the issue and is recorded as a violation.
+ *
+ * @param fields      field names every issue should have
+ * @param severities  severities the prompt allows
+ * @param confidences confidence values the prompt allows
+ */
+public record IssueSchema(List<String> fields, Set<Severity> severities, Set<String> confidences) {
+
+    /** The issue format shared by all agent prompts. */
+    public static final IssueSchema DEFAULT = new IssueSchema(
+            List.of("rule_id", "severity", "file", "line", "message", "confidence"),
+            EnumSet.allOf(Severity.class),
+            Set.of("HIGH", "MEDIUM", "LOW"));
+
+    private static final String OUTPUT_FORMAT = "OUTPUT FORMAT";
+
+    /**
+     * Reads the schema from the example report following {@code OUTPUT FORMAT} in a prompt;
+     * falls back to {@link #DEFAULT} when the prompt has no example with an issue.
+     */
+    public static IssueSchema fromPrompt(String prompt) {
+        int format = prompt.indexOf(OUTPUT_FORMAT);
+        ReportReader reader = new ReportReader("", DEFAULT, issue -> { });
+        reader.feed(format >= 0 ? prompt.substring(format) : prompt);
+        Map<String, Object> example = reader.finish().json();
+        if (example == null || !(example.get("issues") instanceof List<?> issues)
+                || issues.isEmpty() || !(issues.get(0) instanceof Map<?, ?> issue)) {
+            return DEFAULT;
+        }
+        List<String> fields = new ArrayList<>();
+        issue.keySet().forEach(key -> fields.add(key.toString()));
+        Set<Severity> severities = EnumSet.noneOf(Severity.class);
+        for (String value : alternatives(issue.get("severity"))) {
+            Severity severity = Severity.parse(value);
+            if (severity != null) {
+                severities.add(severity);
+            }
+        }
+        Set<String> confidences = new LinkedHashSet<>(alternatives(issue.get("confidence")));
+        return new IssueSchema(List.copyOf(fields),
+                severities.isEmpty() ? DEFAULT.severities() : severities,
+                confidences.isEmpty() ? DEFAULT.confidences() : Set.copyOf(confidences));
+    }
+
+    /**
+     * Converts one element of an {@code issues} array.
+     *
+     * @param agentName  agent used when the issue does not name one
+     * @param violations receives a description of every deviation from the schema
+     * @return the issue, or {@code null} when it has no known severity
+     */
+    public Issue read(Object element, String agentName, List<String> violations) {
+        if (!(element instanceof Map<?, ?> map)) {
+            violations.add("dropped an issue that is not a JSON object");
+            return null;
+        }
+        String rawSeverity = text(map.get("severity"));
+        Severity severity = Severity.parse(rawSeverity);
+        if (severity == null) {
+            violations.add(rawSeverity == null ? "dropped an issue without a severity"
+                    : "dropped an issue with unknown severity '" + rawSeverity + "'");
+            return null;
+        }
+        String agent = text(map.get("agent"));
+        Issue issue = new Issue(
+                text(map.get("rule_id")),
+                severity,
+                agent != null ? agent : agentName,
+                text(map.get("file")),
+                text(map.get("line")),
+                text(map.get("message")),
+                text(map.get("confidence")));
+        for (String field : fields) {
+            if (map.get(field) == null) {
+                violations.add("issue at " + issue.location() + " has no '" + field + "'");
+            }
+        }
+        if (!severities.contains(severity)) {
+            violations.add("issue at " + issue.location() + " has severity " + severity
+                    + ", the prompt allows " + severities);
+        }
+        if (issue.confidence() != null && !confidences.contains(issue.confidence().trim().toUpperCase(Locale.ROOT))) {
+            violations.add("issue at " + issue.location() + " has unknown confidence '" + issue.confidence() + "'");
+        }
+        return issue;
+    }
+
+    private static List<String> alternatives(Object value) {
+        List<String> values = new ArrayList<>();
+        if (value != null) {
+            for (String part : value.toString().split("\\|")) {
+                if (!part.isBlank()) {
+                    values.add(part.trim().toUpperCase(Locale.ROOT));
+                }
+            }
+        }
+        return values;
+    }
+
+    private static String text(Object value) {
+        return value == null ? null : value.toString();
+    }
+}
@@ -0,0 +1,64 @@
+package com.aireview.engine.report;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Extracts the JSON report from raw model output.
+ *
+ * <p>Models are told to answer with a bare JSON object but regularly wrap it in a
+ * {@code ```json} fence or add prose around it. {@link ReportReader} finds the first
+ * complete report object in the text, whatever surrounds it.
+ */
+public final class ReportParser {
+
+    private ReportParser() {
+    }
+
+    /**
+     * Result of reading one report; {@code json} is {@code null} when no complete report was
+     * found. {@code issues} may still hold issues recovered from a report that was cut off.
+     *
+     * @param violations deviations from the agent's issue schema, for diagnostics
+     */
+    public record ParsedReport(Map<String, Object> json, String summary, List<Issue> issues, List<String> violations) {
+
+        public ParsedReport(Map<String, Object> json, String summary, List<Issue> issues) {
+            this(json, summary, issues, List.of());
+        }
+
+        public boolean parsed() {
+            return json != null;
+        }
+    }
+
+    /**
+     * Parses an agent or summarizer response against the default issue schema. Issues
+     * without a recognised severity are dropped.
+     *
+     * @param agentName agent used for issues that do not name one
+     */
+    public static ParsedReport parse(String output, String agentName) {
+        return parse(output, agentName, IssueSchema.DEFAULT);
+    }
+
+    /** Parses a response against the issue schema of the agent's prompt. */
+    public static ParsedReport parse(String output, String agentName, IssueSchema schema) {
+        ReportReader reader = new ReportReader(agentName, schema, issue -> { });
+        if (output != null) {
+            reader.feed(output);
+        }
+        return reader.finish();
+    }
+
+    /** Returns the JSON report object embedded in {@code output}, or {@code null}. */
+    public static String extractJson(String output) {
+        if (output == null || output.isEmpty()) {
+            return null;
+        }
+        ReportReader reader = new ReportReader("", IssueSchema.DEFAULT, issue -> { });
+        reader.feed(output);
+        reader.finish();
+        return reader.reportText();
+    }
+}
@@ -0,0 +1,253 @@
+package com.aireview.engine.report;
+
+import com.aireview.engine.json.Json;
+import com.aireview.engine.json.JsonException;
+import com.aireview.engine.report.ReportParser.ParsedReport;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Incremental reader for the JSON report in model output. It replaces the regex extraction
+ * of the hooks: {@code sed -n '/```json/,/```/p'}, the greedy {@code grep -o '{.*}'}, and
+ * {@code Get-AgentIssuesFromReport}.
+ *
+ * <p>Text can be fed in pieces as it arrives. The reader reads the text once, keeping a stack
+ * of the objects and arrays open since the first {@code {} it sees, and ignoring brackets
+ * inside strings. Each element of an {@code issues} array is handed to the listener as soon as
+ * it is complete. The first object that closes, parses and looks like a report
+ * ({@code issues} or {@code summary}) is the report, however deep in prose braces it sits.
+ * Prose before it, fences and any text after it are ignored.
+ *
+ * <p>The reader is tolerant of what models write around the report:
+ *
+ * <ul>
+ *   <li>A stray {@code {} in prose that never closes, or an object that is not valid JSON,
+ *       does not hide a report written inside or after it. JSON strings hold no raw line
+ *       breaks, so a quote in prose ends at its line.</li>
+ *   <li>A report that is cut off still yields the issues completed before the cut, but
+ *       {@link ParsedReport#parsed()} is {@code false}.</li>
+ * </ul>
+ *
+ * <p>Reading stays linear in the length of the output, whatever the prose holds. When the
+ * input ends without a report, the text after the first unclosed brace is read once more,
+ * and the listener may then see an issue twice. The {@link #finish() final report} never
+ * contains duplicates.
+ */
+public final class ReportReader {
+
+    /** An object or array still open. */
+    private static final class Frame {
+
+        /** Index of the opening bracket in the candidate text. */
+        final int start;
+        final boolean object;
+        /** An array that is the value of an {@code issues} key. */
+        final boolean issues;
+        boolean expectKey;
+        String lastKey;
+        /** An object with an {@code issues} or {@code summary} key, which may be the report. */
+        boolean reportKey;
+
+        Frame(int start, boolean object, boolean issues) {
+            this.start = start;
+            this.object = object;
+            this.issues = issues;
+            this.expectKey = object;
+        }
+    }
+
+    private final String agentName;
+    private final IssueSchema schema;
+    private final Consumer<Issue> listener;
+
+    /** Text from the outermost open brace. */
+    private final StringBuilder candidate = new StringBuilder();
+    private final Deque<Frame> open = new ArrayDeque<>();
+    /** Open objects that may be the report; one nested in another is part of it. */
+    private int openReports;
+    private boolean inString;
+    private boolean escaped;
+    private int keyStart = -1;
+    private final List<Issue> recovered = new ArrayList<>();
+    private boolean retried;
+
+    private Map<String, Object> report;
+    private String reportText;
+    /** Issues streamed from a complete but invalid object, kept in case nothing better follows. */
+    private List<Issue> fallback = List.of();
+
+    /**
+     * @param agentName agent used for issues that do not name one
+     * @param schema    issue schema to validate against
+     * @param listener  receives each valid issue as soon as it has been read
+     */
+    public ReportReader(String agentName, IssueSchema schema, Consumer<Issue> listener) {
+        this.agentName = agentName;
+        this.schema = schema;
+        this.listener = listener;
+    }
+
+    /** Feeds the next piece of output; ignored once the report has been found. */
+    public void feed(CharSequence text) {
+        for (int i = 0; i < text.length() && report == null; i++) {
+            accept(text.charAt(i));
+        }
+    }
+
+    /** {@code true} once a complete report has been read. */
+    public boolean complete() {
+        return report != null;
+    }
+
+    /** Ends the input and returns the report, or the issues recovered from a partial one. */
+    public ParsedReport finish() {
+        if (report == null && candidate.length() > 0 && recovered.isEmpty() && !retried) {
+            // a quote in prose may have hidden the report's brackets: read once more after the brace
+            retried = true;
+            String rest = candidate.substring(1);
+            clear();
+            feed(rest);
+        }
+        if (report != null) {
+            return build();
+        }
+        List<Issue> issues = !recovered.isEmpty() ? List.copyOf(recovered) : fallback;
+        return new ParsedReport(null, null, issues);
+    }
+
+    /** The text of the report object, or {@code null} when none was found. */
+    public String reportText() {
+        return reportText;
+    }
+
+    private void accept(char c) {
+        if (open.isEmpty() && c != '{') {
+            return;
+        }
+        int index = candidate.length();
+        candidate.append(c);
+        Frame top = open.peek();
+        if (inString) {
+            if (escaped) {
+                escaped = false;
+            } else if (c == '\\') {
+                escaped = true;
+            } else if (c == '"') {
+                inString = false;
+                if (keyStart >= 0) {
+                    key(top, candidate.substring(keyStart + 1, index));
+                }
+            } else if (c == '\n') {
+                // not JSON: a quote in prose
+                inString = false;
+                keyStart = -1;
+            }
+            return;
+        }
+        switch (c) {
+            case '"' -> {
+                inString = true;
+                if (top.object && top.expectKey) {
+                    keyStart = index;
+                    top.expectKey = false;
+                }
+            }
+            case '{' -> open.push(new Frame(index, true, false));
+            case '[' -> open.push(new Frame(index, false, top != null && top.object && "issues".equals(top.lastKey)));
+            case ',' -> top.expectKey = top.object;
+            case '}', ']' -> close(open.pop(), index);
+            default -> {
+                // other characters do not change the structure
+            }
+        }
+    }
+
+    private void key(Frame frame, String key) {
+        keyStart = -1;
+        frame.lastKey = key;
+        if (!frame.reportKey && (key.equals("issues") || key.equals("summary"))) {
+            frame.reportKey = true;
+            openReports++;
+        }
+    }
+
+    private void close(Frame frame, int index) {
+        Frame parent = open.peek();
+        if (frame.reportKey) {
+            openReports--;
+        }
+        if (frame.object && parent != null && parent.issues) {
+            element(candidate.subSequence(frame.start, index + 1));
+        }
+        if (frame.object && (frame.reportKey && openReports == 0 || parent == null)) {
+            candidateClosed(candidate.subSequence(frame.start, index + 1), parent == null);
+        }
+        if (open.isEmpty() && report == null) {
+            clear();
+        }
+    }
+
+    private void element(CharSequence text) {
+        try {
+            Issue issue = schema.read(Json.parse(text), agentName, new ArrayList<>());
+            if (issue != null) {
+                recovered.add(issue);
+                listener.accept(issue);
+            }
+        } catch (JsonException e) {
+            // a malformed element; the whole report will fail to parse as well
+        }
+    }
+
+    /** An object closed that may be the report: keep it if it is one. */
+    private void candidateClosed(CharSequence text, boolean outermost) {
+        Object value;
+        try {
+            value = Json.parse(text);
+        } catch (JsonException e) {
+            if (outermost && !recovered.isEmpty()) {
+                fallback = List.copyOf(recovered);
+            }
+            return;
+        }
+        if (value instanceof Map<?, ?> map && (map.containsKey("issues") || map.containsKey("summary"))) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> json = (Map<String, Object>) map;
+            report = json;
+            reportText = text.toString();
+        }
+        // valid JSON but not a report, such as "{}" in prose: continue after it
+    }
+
+    private void clear() {
+        candidate.setLength(0);
+        open.clear();
+        openReports = 0;
+        inString = false;
+        escaped = false;
+        keyStart = -1;
+        recovered.clear();
+    }
+
+    private ParsedReport build() {
+        List<Issue> issues = new ArrayList<>();
+        List<String> violations = new ArrayList<>();
+        if (report.get("issues") instanceof List<?> list) {
+            for (Object element : list) {
+                Issue issue = schema.read(element, agentName, violations);
+                if (issue != null) {
+                    issues.add(issue);
+                }
+            }
+        } else {
+            violations.add("report has no 'issues' array");
+        }
+        Object summary = report.get("summary");
+        return new ParsedReport(report, summary == null ? null : summary.toString(), issues, violations);
+    }
+}
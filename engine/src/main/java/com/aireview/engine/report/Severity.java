@@ -0,0 +1,29 @@
+package com.aireview.engine.report;
+
+import java.util.Locale;
+
+/** Issue severities used by the checklists and the commit decision. */
+public enum Severity {
+    /** Commit rejected. Agents sometimes answer {@code CRITICAL}; it is read as BLOCK. */
+    BLOCK,
+    /** Commit allowed with warnings. Agents sometimes answer {@code WARNING}. */
+    WARN,
+    /** Commit allowed with suggestions. */
+    INFO;
+
+    /**
+     * Parses a severity as written by an agent, accepting the aliases the hook scripts
+     * already tolerated. Returns {@code null} for unknown values.
+     */
+    public static Severity parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        return switch (value.trim().toUpperCase(Locale.ROOT)) {
+            case "BLOCK", "CRITICAL" -> BLOCK;
+            case "WARN", "WARNING" -> WARN;
+            case "INFO" -> INFO;
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,30 @@
+package com.aireview.engine.report;
+
+import java.util.List;
+
+/**
+ * Commit decision over a set of issues: any BLOCK rejects the commit, WARN and INFO
+ * are shown but allow it.
+ */
+public record Verdict(List<Issue> block, List<Issue> warn, List<Issue> info) {
+
+    public static Verdict of(List<Issue> issues) {
+        return new Verdict(
+                issues.stream().filter(i -> i.severity() == Severity.BLOCK).toList(),
+                issues.stream().filter(i -> i.severity() == Severity.WARN).toList(),
+                issues.stream().filter(i -> i.severity() == Severity.INFO).toList());
+    }
+
+    public boolean blocked() {
+        return !block.isEmpty();
+    }
+
+    public int total() {
+        return block.size() + warn.size() + info.size();
+    }
+
+    /** {@code BLOCK_COMMIT} or {@code ALLOW_COMMIT}, as used in {@code last_review.json}. */
+    public String recommendation() {
+        return blocked() ? "BLOCK_COMMIT" : "ALLOW_COMMIT";
+    }
+}
@@ -0,0 +1,52 @@
+package com.aireview.engine.check;
+
+import com.aireview.engine.diff.DiffHunk;
+import com.aireview.engine.report.Issue;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class NamingCheckerTest {
+
+    private static final String FIXTURE = "examples/TestFlawedCode.java";
+
+    /** The golden fixture's annotated naming issues, as (line, declaration kind). */
+    private static final List<String> EXPECTED = List.of(
+            "6 Class", "13 Field", "19 Method", "40 Method", "42 Variable", "56 Class", "58 Field", "61 Method");
+
+    @Test
+    void findsExactlyTheAnnotatedIssuesOfTheGoldenFixture() throws IOException {
+        assumeTrue(NamingChecker.available(), "needs the JDK compiler module");
+        String source = Files.readString(Path.of("..").resolve(FIXTURE), StandardCharsets.UTF_8);
+        List<Issue> issues = new NamingChecker().check(List.of(addedFile(FIXTURE, source)),
+                path -> path.equals(FIXTURE) ? source : null);
+
+        List<String> found = new ArrayList<>();
+        for (Issue issue : issues) {
+            assertEquals("naming-conventions", issue.ruleId());
+            found.add(issue.line() + " " + issue.message().substring(0, issue.message().indexOf(" name ")));
+        }
+        found.sort((a, b) -> Integer.compare(Integer.parseInt(a.split(" ")[0]), Integer.parseInt(b.split(" ")[0])));
+        assertEquals(EXPECTED, found);
+    }
+
+    private static DiffHunk addedFile(String path, String source) {
+        List<String> lines = new ArrayList<>();
+        for (String line : source.split("\n", -1)) {
+            lines.add("+" + line);
+        }
+        if (source.endsWith("\n")) {
+            lines.remove(lines.size() - 1);
+        }
+        return new DiffHunk(path, "diff --git a/" + path + " b/" + path + "\nnew file mode 100644\n",
+                0, 0, 1, lines.size(), "", lines);
+    }
+}
@@ -0,0 +1,49 @@
+package com.aireview.engine.history;
+
+import com.aireview.engine.report.Issue;
+import com.aireview.engine.report.Severity;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReviewHistoryTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void issueRowsOfAReviewWithoutItsRowAreIgnoredAndNotReused() throws IOException {
+        ReviewHistory history = ReviewHistory.shared(dir);
+        history.append("aaaa", 1, List.of(issue("A.java", "1"), issue("A.java", "2")));
+        history.append("bbbb", 1, List.of(issue("B.java", "1")));
+        // a crash between the issue rows and the review row of "bbbb"
+        try (FileChannel reviews = FileChannel.open(dir.resolve("reviews.idx"), StandardOpenOption.WRITE)) {
+            reviews.truncate(reviews.size() - ReviewHistory.ROW);
+        }
+
+        assertEquals(2, history.count(HistoryQuery.ALL));
+        assertEquals(0, history.count(new HistoryQuery(null, null, "bbbb", null, null, null)));
+
+        history.append("cccc", 1, List.of(issue("C.java", "1")));
+        List<ReviewSummary> reviews = history.reviews(null, null);
+        assertEquals(2, reviews.size());
+        assertEquals("cccc", reviews.get(1).commit());
+        List<HistoryEntry> second = history.find(HistoryQuery.ALL, 10).stream()
+                .filter(entry -> entry.review() == 1)
+                .toList();
+        assertEquals(1, second.size());
+        assertEquals("C.java", second.get(0).issue().file());
+        assertEquals(3, history.count(HistoryQuery.ALL));
+    }
+
+    private static Issue issue(String file, String line) {
+        return new Issue("sql-injection", Severity.BLOCK, "security", file, line, "Query built from input.", "HIGH");
+    }
+}
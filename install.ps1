@@ -61,7 +61,7 @@ if (-not (Test-Path "pre-commit.ps1")) {
     exit 1
 }
 
-Write-Step "1/5" "Checking dependencies..."
+Write-Step "1/6" "Checking dependencies..."
 Write-Host ""
 
 # Check for copilot CLI (standalone)
@@ -82,8 +82,20 @@ if (-not $copilotPath) {
 $copilotVersion = & copilot --version 2>&1 | Select-Object -First 1
 Write-Success "GitHub Copilot CLI found ($copilotVersion)"
 
+# Check for Java (runs the review engine)
+$javaPath = Get-Command java -ErrorAction SilentlyContinue
+if (-not $javaPath) {
+    Write-Fail "Java not found"
+    Write-Host ""
+    Write-Host "The review engine requires Java 17 or newer." -ForegroundColor Yellow
+    Write-Host ""
+    exit 1
+}
+$javaVersion = & java -version 2>&1 | Select-Object -First 1
+Write-Success "Java found ($javaVersion)"
+
 Write-Host ""
-Write-Step "2/5" "Checking required files..."
+Write-Step "2/6" "Checking required files..."
 Write-Host ""
 
 # Check for .ai directory
@@ -113,7 +125,34 @@ foreach ($agent in $agents) {
 }
 
 Write-Host ""
-Write-Step "3/5" "Installing pre-commit hook..."
+Write-Step "3/6" "Building review engine..."
+Write-Host ""
+
+$engineJar = ".ai/engine/ai-review-engine.jar"
+$mvnPath = Get-Command mvn -ErrorAction SilentlyContinue
+if ((Test-Path "engine/pom.xml") -and $mvnPath) {
+    & mvn -B -q -f engine/pom.xml package -Dmaven.test.skip=true
+    if ($LASTEXITCODE -ne 0) {
+        Write-Fail "Failed to build the review engine (engine/pom.xml)"
+        exit 1
+    }
+    New-Item -ItemType Directory -Path ".ai/engine" -Force | Out-Null
+    Copy-Item "engine/target/ai-review-engine.jar" -Destination $engineJar -Force
+    Write-Success "Review engine built and installed to $engineJar"
+}
+elseif (Test-Path $engineJar) {
+    Write-Success "Using prebuilt review engine at $engineJar"
+}
+else {
+    Write-Fail "Review engine not found"
+    Write-Host ""
+    Write-Host "Install Maven and re-run this script, or copy a prebuilt ai-review-engine.jar to $engineJar."
+    Write-Host ""
+    exit 1
+}
+
+Write-Host ""
+Write-Step "4/6" "Installing pre-commit hook..."
 Write-Host ""
 
 # Create hooks directory if it doesn't exist
@@ -151,7 +190,7 @@ catch {
 }
 
 Write-Host ""
-Write-Step "4/5" "Verifying hook configuration..."
+Write-Step "5/6" "Verifying hook configuration..."
 Write-Host ""
 
 # Check if PowerShell script exists
@@ -173,7 +212,7 @@ else {
 }
 
 Write-Host ""
-Write-Step "5/5" "Testing installation..."
+Write-Step "6/6" "Testing installation..."
 Write-Host ""
 
 # Test if PowerShell can find copilot
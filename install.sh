@@ -31,7 +31,7 @@ if [ ! -f "pre-commit.sh" ]; then
   exit 1
 fi
 
-echo "${BLUE}[1/5]${NC} Checking dependencies..."
+echo "${BLUE}[1/6]${NC} Checking dependencies..."
 echo ""
 
 # Check for copilot CLI (standalone)
@@ -50,8 +50,20 @@ else
   echo "${GREEN}✓ GitHub Copilot CLI found ($COPILOT_VERSION)${NC}"
 fi
 
+# Check for Java (runs the review engine)
+if ! command -v java >/dev/null 2>&1; then
+  echo "${RED}✗ Java not found${NC}"
+  echo ""
+  echo "The review engine requires Java 17 or newer."
+  echo ""
+  exit 1
+else
+  JAVA_VERSION=$(java -version 2>&1 | head -1)
+  echo "${GREEN}✓ Java found ($JAVA_VERSION)${NC}"
+fi
+
 echo ""
-echo "${BLUE}[2/5]${NC} Checking required files..."
+echo "${BLUE}[2/6]${NC} Checking required files..."
 echo ""
 
 # Check for .ai directory
@@ -69,7 +81,31 @@ if [ ! -d ".ai/agents" ]; then
 fi
 
 echo ""
-echo "${BLUE}[3/5]${NC} Installing pre-commit hook..."
+echo "${BLUE}[3/6]${NC} Building review engine..."
+echo ""
+
+ENGINE_JAR=".ai/engine/ai-review-engine.jar"
+if [ -f "engine/pom.xml" ] && command -v mvn >/dev/null 2>&1; then
+  if mvn -B -q -f engine/pom.xml package -Dmaven.test.skip=true; then
+    mkdir -p .ai/engine
+    cp engine/target/ai-review-engine.jar "$ENGINE_JAR"
+    echo "${GREEN}✓ Review engine built and installed to $ENGINE_JAR${NC}"
+  else
+    echo "${RED}✗ Failed to build the review engine (engine/pom.xml)${NC}"
+    exit 1
+  fi
+elif [ -f "$ENGINE_JAR" ]; then
+  echo "${GREEN}✓ Using prebuilt review engine at $ENGINE_JAR${NC}"
+else
+  echo "${RED}✗ Review engine not found${NC}"
+  echo ""
+  echo "Install Maven and re-run this script, or copy a prebuilt ai-review-engine.jar to $ENGINE_JAR."
+  echo ""
+  exit 1
+fi
+
+echo ""
+echo "${BLUE}[4/6]${NC} Installing pre-commit hook..."
 echo ""
 
 # Create hooks directory if it doesn't exist
@@ -84,7 +120,7 @@ else
 fi
 
 echo ""
-echo "${BLUE}[4/5]${NC} Making hook executable..."
+echo "${BLUE}[5/6]${NC} Making hook executable..."
 echo ""
 
 # Make the hook executable
@@ -96,7 +132,7 @@ else
 fi
 
 echo ""
-echo "${BLUE}[5/5]${NC} Verifying installation..."
+echo "${BLUE}[6/6]${NC} Verifying installation..."
 echo ""
 
 # Test if the hook can be executed
@@ -1,480 +1,60 @@
 #!/bin/bash
 # Bash pre-commit hook for Java AI code review (macOS/Linux)
-# Requires: GitHub CLI with Copilot extension installed and authenticated
+# Requires: Java 17+ and GitHub CLI with Copilot extension installed and authenticated
 # Usage: Run install.sh to set up, or manually copy to .git/hooks/pre-commit and make executable
 #
 # NOTE: Windows users should use the PowerShell version (pre-commit.ps1) instead.
 #       The install.ps1 script will set this up automatically.
+#
+# This hook is a thin launcher. Diff extraction, the parallel agents, the summarizer
+# and the BLOCK/WARN/INFO decision run inside the review engine (engine/), which
+# writes .ai/agents/*/review.md and .ai/last_review.json.
 
 set -e
 
 # Configuration
 AI_DIR=".ai"
-LAST_REVIEW_FILE="$AI_DIR/last_review.json"
-MAX_DIFF_SIZE=20000 # bytes
-
-# AI Model configuration (can be overridden via environment variable)
-# Available: gpt-4.1, gpt-5, gpt-5-mini, claude-sonnet-4, claude-sonnet-4.5, etc.
-AI_MODEL="${AI_REVIEW_MODEL:-gpt-4.1}"
-
-# Use temporary directory
-if [ -n "$TMPDIR" ]; then
-  TEMP_DIR="$TMPDIR"
-elif [ -d "/tmp" ]; then
-  TEMP_DIR="/tmp"
-else
-  TEMP_DIR="$AI_DIR/temp"
-  mkdir -p "$TEMP_DIR"
-fi
-
-DIFF_FILE="$TEMP_DIR/java_review_diff_$$.patch"
+ENGINE_JAR="${AI_REVIEW_ENGINE_JAR:-$AI_DIR/engine/ai-review-engine.jar}"
+# Short-lived JVM: C1 only and the serial collector keep startup low when a review daemon
+# is running (java -jar "$ENGINE_JAR" daemon) and the hook is only its client
+JAVA_OPTS="${AI_REVIEW_JAVA_OPTS:--XX:TieredStopAtLevel=1 -XX:+UseSerialGC -Xshare:auto}"
 
 # Color codes for output
-if [ -t 1 ]; then
+if [ -t 1 ] || [ "$FORCE_COLOR" = "true" ]; then
   RED='\033[0;31m'
-  YELLOW='\033[1;33m'
-  GREEN='\033[0;32m'
   BLUE='\033[0;34m'
-  CYAN='\033[0;36m'
   NC='\033[0m' # No Color
 else
   RED=''
-  YELLOW=''
-  GREEN=''
   BLUE=''
-  CYAN=''
   NC=''
 fi
 
-# Cleanup function
-cleanup() {
-  rm -f "$DIFF_FILE"
-}
-trap cleanup EXIT
-
-# =============================================================================
-# MULTI-AGENT HELPER FUNCTIONS
-# =============================================================================
-
-# Run a specialized agent (security, naming, quality)
-# Args: $1 = agent_name, $2 = diff_content
-run_agent() {
-  local AGENT_NAME="$1"
-  local DIFF_CONTENT="$2"
-  local AGENT_DIR="$AI_DIR/agents/$AGENT_NAME"
-  local AGENT_CHECKLIST="$AGENT_DIR/checklist.yaml"
-  local AGENT_PROMPT="$AGENT_DIR/prompt.txt"
-  local AGENT_OUTPUT="$AGENT_DIR/review.md"
-  
-  # Check if agent files exist
-  if [ ! -f "$AGENT_CHECKLIST" ] || [ ! -f "$AGENT_PROMPT" ]; then
-    echo "${RED}[AI Review] Error: Agent '$AGENT_NAME' configuration not found${NC}" >&2
-    echo '{"agent":"'$AGENT_NAME'","issues":[],"summary":"Configuration error"}' > "$AGENT_OUTPUT"
-    return 1
-  fi
-  
-  # Load checklist and compose prompt
-  local CHECKLIST_CONTENT=$(cat "$AGENT_CHECKLIST")
-  local AGENT_FULL_PROMPT=$(awk -v checklist="$CHECKLIST_CONTENT" -v diff="$DIFF_CONTENT" '
-    /\{checklist\}/ {
-      print checklist;
-      next;
-    }
-    /\{diff\}/ {
-      print diff;
-      next;
-    }
-    { print }
-  ' "$AGENT_PROMPT")
-  
-  # Call Copilot CLI directly
-  REVIEW_OUTPUT=$(copilot -p "$AGENT_FULL_PROMPT" --model "$AI_MODEL" --silent --allow-all-tools --no-color 2>&1 || echo "# Error
-
-Agent failed to execute")
-  
-  # Save agent output as markdown (no JSON extraction needed)
-  mkdir -p "$AGENT_DIR"
-  echo "$REVIEW_OUTPUT" > "$AGENT_OUTPUT"
-}
-
-# Run summarizer agent to aggregate all results
-# Args: $1 = security_json, $2 = naming_json, $3 = quality_json
-run_summarizer_agent() {
-  local SECURITY_JSON="$1"
-  local NAMING_JSON="$2"
-  local QUALITY_JSON="$3"
-  local SUMMARIZER_PROMPT="$AI_DIR/agents/summarizer/prompt.txt"
-  
-  if [ ! -f "$SUMMARIZER_PROMPT" ]; then
-    echo "${RED}[AI Review] Error: Summarizer prompt not found${NC}" >&2
-    return 1
-  fi
-  
-  # Compose summarizer prompt
-  local SUMMARIZER_FULL_PROMPT=$(awk -v sec="$SECURITY_JSON" -v nam="$NAMING_JSON" -v qual="$QUALITY_JSON" '
-    /\{security_report\}/ {
-      print sec;
-      next;
-    }
-    /\{naming_report\}/ {
-      print nam;
-      next;
-    }
-    /\{quality_report\}/ {
-      print qual;
-      next;
-    }
-    { print }
-  ' "$SUMMARIZER_PROMPT")
-  
-  # Call Copilot CLI
-  local FULL_PROMPT="$SUMMARIZER_FULL_PROMPT
-
-CRITICAL: Output ONLY valid JSON."
-  SUMMARIZER_OUTPUT=$(copilot -p "$FULL_PROMPT" --model "$AI_MODEL" --silent --allow-all-tools --no-color 2>&1 || echo '{"agent":"summarizer","issues":[],"summary":"API error","recommendation":"ALLOW_COMMIT"}')
-  
-  # Extract JSON
-  local SUMMARIZER_JSON=$(echo "$SUMMARIZER_OUTPUT" | sed -n '/```json/,/```/p' | sed '1d;$d' | tr -d '\n' || echo "")
-  if [ -z "$SUMMARIZER_JSON" ]; then
-    SUMMARIZER_JSON=$(echo "$SUMMARIZER_OUTPUT" | grep -o '{.*}' | head -1 || echo '{"agent":"summarizer","issues":[],"summary":"Parse error","recommendation":"ALLOW_COMMIT"}')
-  fi
-  
-  # Save final review
-  echo "$SUMMARIZER_JSON" > "$LAST_REVIEW_FILE"
-  echo "$SUMMARIZER_JSON"
-}
-
-# Display agent results summary
-# Args: $1 = agent_report (markdown), $2 = agent_name, $3 = agent_display_name
-display_agent_results() {
-  local AGENT_REPORT="$1"
-  local AGENT_NAME="$2"
-  local AGENT_DISPLAY="$3"
-  
-  # Count issues from markdown format (### [SEVERITY])
-  local ISSUE_COUNT=$(echo "$AGENT_REPORT" | grep -c '^\### \[' 2>/dev/null || echo "0")
-  
-  # Extract summary from markdown (first paragraph after ## Summary)
-  local SUMMARY=$(echo "$AGENT_REPORT" | sed -n '/^## Summary/,/^##/p' | sed '1d;$d' | head -1 || echo "No summary available")
-  if [ -z "$SUMMARY" ] || [ "$SUMMARY" = "No summary available" ]; then
-    SUMMARY=$(echo "$AGENT_REPORT" | sed -n '/^## Overall Summary/,/^##/p' | sed '1d;$d' | head -1 || echo "No summary available")
-  fi
-  
-  echo ""
-  echo "${BLUE}============================================${NC}"
-  echo "${BLUE}$AGENT_DISPLAY Agent Results${NC}"
-  echo "${BLUE}============================================${NC}"
-  echo "  Summary: $SUMMARY"
-  echo "  Issues found: $ISSUE_COUNT"
-  
-  if [ "$ISSUE_COUNT" -gt 0 ]; then
-    echo ""
-    # Display issues from markdown (simplified - shows first few lines of each issue)
-    echo "$AGENT_REPORT" | grep -A 2 '^\### \[' | head -20
-  fi
-}
-
 # Check if AI review is enabled (can be disabled with environment variable)
 if [ "$AI_REVIEW_ENABLED" = "false" ]; then
   echo "${BLUE}[AI Review]${NC} Skipped (AI_REVIEW_ENABLED=false)"
   exit 0
 fi
 
-# Get list of staged Java files FIRST (before expensive dependency checks)
-STAGED_JAVA_FILES=$(git diff --cached --name-only --diff-filter=ACM | grep '\.java$' || true)
-
-if [ -z "$STAGED_JAVA_FILES" ]; then
+# Skip JVM startup entirely when no Java files are staged
+if ! git diff --cached --name-only --diff-filter=ACM | grep -q '\.java$'; then
   echo "${BLUE}[AI Review]${NC} No Java files staged, skipping review."
   exit 0
 fi
 
-echo "${BLUE}[AI Review] ℹ${NC} Found Java files to review:"
-echo "$STAGED_JAVA_FILES" | sed 's/^/  - /'
-
-# Dependency checks (only if we have Java files to review)
-check_dependency() {
-  if ! command -v "$1" >/dev/null 2>&1; then
-    echo "${RED}[AI Review] ✗ Error: Required command '$1' not found.${NC}"
-    echo ""
-    case "$1" in
-      copilot)
-        echo "GitHub Copilot CLI is required. Install it:"
-        echo "  npm install -g @githubnext/github-copilot-cli"
-        echo ""
-        echo "After installation, authenticate with: copilot auth"
-        ;;
-    esac
-    echo ""
-    echo "To bypass this check temporarily, use: git commit --no-verify"
-    return 1
-  fi
-  return 0
-}
-
-echo "${BLUE}[AI Review] ⏳${NC} Checking dependencies (GitHub Copilot CLI required for AI analysis)..."
-
-# Check for copilot
-if ! check_dependency "copilot"; then
-  exit 1
-fi
-echo "${GREEN}[AI Review] ✓${NC} GitHub Copilot CLI detected and ready"
-
-# Note: jq is no longer required since we switched to markdown output parsing
-
-# Extract staged diff for Java files only
-# Use printf to properly handle filenames with spaces
-if [ -n "$STAGED_JAVA_FILES" ]; then
-  # Convert newline-separated list to null-separated for proper handling
-  printf "%s\n" "$STAGED_JAVA_FILES" | while IFS= read -r file; do
-    git diff --cached -- "$file"
-  done > "$DIFF_FILE"
-else
-  touch "$DIFF_FILE"
-fi
-
-if [ ! -f "$DIFF_FILE" ]; then
-  echo "${RED}[AI Review] Failed to extract staged diff. Aborting commit.${NC}"
-  exit 1
-fi
-
-# Check if diff is empty
-if [ ! -s "$DIFF_FILE" ]; then
-  echo "${BLUE}[AI Review]${NC} No changes to review."
-  exit 0
-fi
-
-# Truncate diff if too large
-DIFF_SIZE=$(wc -c < "$DIFF_FILE" | tr -d ' ')
-if [ "$DIFF_SIZE" -gt "$MAX_DIFF_SIZE" ]; then
-  head -c "$MAX_DIFF_SIZE" "$DIFF_FILE" > "$DIFF_FILE.trunc"
-  mv "$DIFF_FILE.trunc" "$DIFF_FILE"
-  echo "${YELLOW}[AI Review] Warning: Diff truncated to $MAX_DIFF_SIZE bytes for review.${NC}"
-fi
-
-# Security check: Warn if diff may contain sensitive data
-# Skip this check if SKIP_SENSITIVE_CHECK=true
-if [ "$SKIP_SENSITIVE_CHECK" != "true" ]; then
-  if grep -qiE "(password\s*=|secret\s*=|api[_-]?key\s*=|token\s*=|credential|private[_-]?key)" "$DIFF_FILE"; then
-    echo ""
-    echo "${YELLOW}???????????????????????????????????????????????????????????????????????????????????????????????????????????????????????????????????????????????????????????????????????????????????????${NC}"
-    echo "${YELLOW}???  SECURITY WARNING: Potential sensitive data detected      ???${NC}"
-    echo "${YELLOW}??????????????????????????????????????????????????????????????????????????????????????????????????????????????????????????????????????????????????????????????????????????????????????${NC}"
-    echo ""
-    echo "Your staged code may contain sensitive keywords (password, secret, api_key, etc.)."
-    echo "This code will be sent to an external AI service for review."
-    echo ""
-    echo "Options:"
-    echo "  1. Review your staged changes: git diff --cached"
-    echo "  2. Use environment variables instead of hardcoded values"
-    echo "  3. Skip this check: SKIP_SENSITIVE_CHECK=true git commit ..."
-    echo "  4. Skip AI review entirely: git commit --no-verify"
-    echo ""
-    printf "Continue with AI review? (y/n): "
-    read -r response
-    if [ "$response" != "y" ] && [ "$response" != "Y" ]; then
-      echo "${BLUE}[AI Review]${NC} Commit aborted by user. Review your code for sensitive data."
-      exit 1
-    fi
-  fi
-fi
-
-DIFF_CONTENT=$(cat "$DIFF_FILE")
-
-# =============================================================================
-# MULTI-AGENT CODE REVIEW
-# =============================================================================
-
-echo ""
-echo "${BLUE}[AI Review] ⏳${NC} Running analysis with 3 specialized agents in parallel (model: $AI_MODEL)..."
-echo "${BLUE}  ⏳ Security Agent - Checking OWASP vulnerabilities, secrets, injection attacks${NC}"
-echo "${BLUE}  ⏳ Naming Agent - Validating Java naming conventions${NC}"
-echo "${BLUE}  ⏳ Quality Agent - Analyzing code correctness, performance, best practices${NC}"
-
-# Run agents in parallel
-run_agent "security" "$DIFF_CONTENT" &
-SECURITY_PID=$!
-
-run_agent "naming" "$DIFF_CONTENT" &
-NAMING_PID=$!
-
-run_agent "quality" "$DIFF_CONTENT" &
-QUALITY_PID=$!
-
-# Wait for all agents to complete
-wait $SECURITY_PID
-SECURITY_EXIT=$?
-wait $NAMING_PID
-NAMING_EXIT=$?
-wait $QUALITY_PID
-QUALITY_EXIT=$?
-
-# Check if agents completed successfully
-if [ $SECURITY_EXIT -ne 0 ] && [ $NAMING_EXIT -ne 0 ] && [ $QUALITY_EXIT -ne 0 ]; then
-  echo ""
-  printf "${RED}========================================================${NC}\n"
-  printf "${RED}  AI REVIEW: SERVICE UNAVAILABLE                        ${NC}\n"
-  printf "${YELLOW}========================================================${NC}\n"
-  echo ""
-  echo "All AI agents failed to complete. The review could not be performed."
-  echo ""
-  printf "${YELLOW}To commit without AI review, run:${NC}\n"
-  echo ""
-  printf "${CYAN}  git commit --no-verify -m \"your message\"${NC}\n"
+if ! command -v java >/dev/null 2>&1; then
+  echo "${RED}[AI Review] ✗ Error: Required command 'java' not found (Java 17+ is required).${NC}"
   echo ""
+  echo "To bypass this check temporarily, use: git commit --no-verify"
   exit 1
 fi
 
-# Read first agent result to check for quota errors
-SECURITY_REPORT=""
-if [ -f "$AI_DIR/agents/security/review.md" ]; then
-  SECURITY_REPORT=$(cat "$AI_DIR/agents/security/review.md")
-fi
-
-# Check for quota/API errors
-if echo "$SECURITY_REPORT" | grep -qiE "quota exceeded|402|no quota|rate limit|CAPIError"; then
-  echo ""
-  printf "${RED}========================================================${NC}\n"
-  printf "${RED}  AI REVIEW: COPILOT QUOTA EXCEEDED                     ${NC}\n"
-  printf "${YELLOW}========================================================${NC}\n"
-  echo ""
-  echo "Your GitHub Copilot usage quota has been exceeded."
-  echo "Check your plan: https://github.com/features/copilot/plans"
-  echo ""
-  printf "${YELLOW}To commit without AI review, run:${NC}\n"
-  echo ""
-  printf "${CYAN}  git commit --no-verify -m \"your message\"${NC}\n"
+if [ ! -f "$ENGINE_JAR" ]; then
+  echo "${RED}[AI Review] ✗ Error: Review engine not found at $ENGINE_JAR${NC}"
   echo ""
+  echo "Re-run ./install.sh to build it, or set AI_REVIEW_ENGINE_JAR."
+  echo "To bypass this check temporarily, use: git commit --no-verify"
   exit 1
 fi
 
-# Read agent results
-SECURITY_REPORT=$(cat "$AI_DIR/agents/security/review.md" 2>/dev/null || echo "Error reading security report")
-NAMING_REPORT=$(cat "$AI_DIR/agents/naming/review.md" 2>/dev/null || echo "Error reading naming report")
-QUALITY_REPORT=$(cat "$AI_DIR/agents/quality/review.md" 2>/dev/null || echo "Error reading quality report")
-
-# Count issues per agent - try markdown format first, then JSON
-SECURITY_COUNT=$(echo "$SECURITY_REPORT" | grep -c '^\### \[' 2>/dev/null)
-if [ "$SECURITY_COUNT" = "0" ]; then
-  SECURITY_COUNT=$(echo "$SECURITY_REPORT" | grep -c '"severity"' 2>/dev/null || echo "0")
-fi
-
-NAMING_COUNT=$(echo "$NAMING_REPORT" | grep -c '^\### \[' 2>/dev/null)
-if [ "$NAMING_COUNT" = "0" ]; then
-  NAMING_COUNT=$(echo "$NAMING_REPORT" | grep -c '"severity"' 2>/dev/null || echo "0")
-fi
-
-QUALITY_COUNT=$(echo "$QUALITY_REPORT" | grep -c '^\### \[' 2>/dev/null)
-if [ "$QUALITY_COUNT" = "0" ]; then
-  QUALITY_COUNT=$(echo "$QUALITY_REPORT" | grep -c '"severity"' 2>/dev/null || echo "0")
-fi
-
-echo "${GREEN}[AI Review] ✓${NC} Security: $SECURITY_COUNT issues | Naming: $NAMING_COUNT issues | Quality: $QUALITY_COUNT issues"
-
-# Run summarizer to aggregate results
-echo "${BLUE}[AI Review] ⏳${NC} Aggregating results from all agents (deduplicating and prioritizing)..."
-FINAL_REPORT=$(run_summarizer_agent "$SECURITY_REPORT" "$NAMING_REPORT" "$QUALITY_REPORT")
-
-# Display per-agent results
-echo ""
-echo "${BLUE}============================================${NC}"
-echo "${BLUE}Review Results by Agent${NC}"
-echo "${BLUE}============================================${NC}"
-
-display_agent_results "$SECURITY_REPORT" "security" "Security"
-display_agent_results "$NAMING_REPORT" "naming" "Naming"
-display_agent_results "$QUALITY_REPORT" "quality" "Code Quality"
-
-# Display final summary
-echo ""
-echo "${BLUE}============================================${NC}"
-echo "${BLUE}Final Summary${NC}"
-echo "${BLUE}============================================${NC}"
-echo ""
-# Extract summary from markdown (look for "## Overall Summary" or "## Summary" section)
-FINAL_SUMMARY=$(echo "$FINAL_REPORT" | sed -n '/^## Overall Summary/,/^##/p' | sed '1d;$d' | head -1 || echo "Review complete")
-if [ -z "$FINAL_SUMMARY" ]; then
-  FINAL_SUMMARY=$(echo "$FINAL_REPORT" | sed -n '/^## Summary/,/^##/p' | sed '1d;$d' | head -1 || echo "Review complete")
-fi
-echo "${BLUE}[AI Review]${NC} $FINAL_SUMMARY"
-
-# Count BLOCK/CRITICAL issues - try markdown first, then JSON
-BLOCK_COUNT=$(echo "$FINAL_REPORT" | grep -c '^\### \[BLOCK\]\|^\### \[CRITICAL\]' 2>/dev/null)
-if [ "$BLOCK_COUNT" = "0" ]; then
-  BLOCK_COUNT=$(echo "$FINAL_REPORT" | grep -ci '"severity".*"critical"\|"severity".*"block"' 2>/dev/null || echo "0")
-fi
-
-echo ""
-
-# Make commit decision based on BLOCK issues
-if [ "$BLOCK_COUNT" -gt 0 ]; then
-  echo ""
-  echo "${RED}========================================================${NC}"
-  echo "${RED}  COMMIT BLOCKED - $BLOCK_COUNT Critical Issue(s) Found${NC}"
-  echo "${RED}========================================================${NC}"
-  echo ""
-  echo "${RED}❌ BLOCKING ISSUES ($BLOCK_COUNT):${NC}"
-  # Display BLOCK issues from all agent reports
-  echo "$SECURITY_REPORT" | grep -B 1 -A 5 '^\### \[BLOCK\]\|^\### \[CRITICAL\]' 2>/dev/null
-  echo "$NAMING_REPORT" | grep -B 1 -A 5 '^\### \[BLOCK\]\|^\### \[CRITICAL\]' 2>/dev/null
-  echo "$QUALITY_REPORT" | grep -B 1 -A 5 '^\### \[BLOCK\]\|^\### \[CRITICAL\]' 2>/dev/null
-  echo ""
-  
-  # Count and display warnings
-  WARN_COUNT=$(echo "$SECURITY_REPORT$NAMING_REPORT$QUALITY_REPORT" | grep -c '^\### \[WARN\]\|^\### \[WARNING\]' 2>/dev/null || echo "0")
-  if [ "$WARN_COUNT" -gt 0 ]; then
-    echo "${YELLOW}⚠ WARNINGS ($WARN_COUNT):${NC}"
-    echo "$SECURITY_REPORT" | grep -B 1 -A 5 '^\### \[WARN\]\|^\### \[WARNING\]' 2>/dev/null
-    echo "$NAMING_REPORT" | grep -B 1 -A 5 '^\### \[WARN\]\|^\### \[WARNING\]' 2>/dev/null
-    echo "$QUALITY_REPORT" | grep -B 1 -A 5 '^\### \[WARN\]\|^\### \[WARNING\]' 2>/dev/null
-    echo ""
-  fi
-  
-  # Count and display info
-  INFO_COUNT=$(echo "$SECURITY_REPORT$NAMING_REPORT$QUALITY_REPORT" | grep -c '^\### \[INFO\]' 2>/dev/null || echo "0")
-  if [ "$INFO_COUNT" -gt 0 ]; then
-    echo "${CYAN}ℹ INFO SUGGESTIONS ($INFO_COUNT):${NC}"
-    echo "$SECURITY_REPORT" | grep -B 1 -A 5 '^\### \[INFO\]' 2>/dev/null
-    echo "$NAMING_REPORT" | grep -B 1 -A 5 '^\### \[INFO\]' 2>/dev/null
-    echo "$QUALITY_REPORT" | grep -B 1 -A 5 '^\### \[INFO\]' 2>/dev/null
-    echo ""
-  fi
-  
-  echo "${YELLOW}Fix these issues or use 'git commit --no-verify' to bypass.${NC}"
-  echo "Review details saved to: $LAST_REVIEW_FILE"
-  echo ""
-  exit 1
-fi
-
-# Count warnings and info from all agent reports
-WARN_COUNT=$(echo "$SECURITY_REPORT$NAMING_REPORT$QUALITY_REPORT" | grep -c '^\### \[WARN\]\|^\### \[WARNING\]' 2>/dev/null || echo "0")
-INFO_COUNT=$(echo "$SECURITY_REPORT$NAMING_REPORT$QUALITY_REPORT" | grep -c '^\### \[INFO\]' 2>/dev/null || echo "0")
-TOTAL_COUNT=$((WARN_COUNT + INFO_COUNT))
-
-# No blocking issues - show summary
-echo ""
-if [ "$TOTAL_COUNT" -eq 0 ]; then
-  echo "${GREEN}[AI Review] ✓ No issues found. Commit allowed.${NC}"
-else
-  echo "${GREEN}[AI Review] ✓ Analysis complete. Commit allowed with $WARN_COUNT warning(s) and $INFO_COUNT suggestion(s).${NC}"
-  
-  if [ "$WARN_COUNT" -gt 0 ]; then
-    echo ""
-    echo "${YELLOW}⚠ WARNINGS ($WARN_COUNT):${NC}"
-    echo "$SECURITY_REPORT" | grep -B 1 -A 5 '^\### \[WARN\]\|^\### \[WARNING\]' 2>/dev/null
-    echo "$NAMING_REPORT" | grep -B 1 -A 5 '^\### \[WARN\]\|^\### \[WARNING\]' 2>/dev/null
-    echo "$QUALITY_REPORT" | grep -B 1 -A 5 '^\### \[WARN\]\|^\### \[WARNING\]' 2>/dev/null
-  fi
-  
-  if [ "$INFO_COUNT" -gt 0 ]; then
-    echo ""
-    echo "${CYAN}ℹ INFO SUGGESTIONS ($INFO_COUNT):${NC}"
-    echo "$SECURITY_REPORT" | grep -B 1 -A 5 '^\### \[INFO\]' 2>/dev/null
-    echo "$NAMING_REPORT" | grep -B 1 -A 5 '^\### \[INFO\]' 2>/dev/null
-    echo "$QUALITY_REPORT" | grep -B 1 -A 5 '^\### \[INFO\]' 2>/dev/null
-  fi
-fi
-
-echo ""
-echo "Review details saved to: $LAST_REVIEW_FILE"
-echo ""
-exit 0
+exec java $JAVA_OPTS -jar "$ENGINE_JAR" "$@"